@@ -7,9 +7,15 @@ package Vista;
 
 import analisis.Alfabeto;
 import analisis.AnalizadorSintactico;
+import analisis.AnalizadorSintacticoIterativo;
 import estructuras.AFD;
 import estructuras.AFDMin;
 import estructuras.AFN;
+import algoritmos.ConstruccionDirecta;
+import algoritmos.ExcepcionLimite;
+import algoritmos.Limites;
+import algoritmos.ReduccionAFN;
+import algoritmos.Refinamiento;
 import algoritmos.Minimizacion;
 import algoritmos.Subconjuntos;
 import estructuras.Configuracion;
@@ -17,6 +23,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JOptionPane;
 import org.jdesktop.application.Action;
+import org.jdesktop.application.Application;
+import org.jdesktop.application.Task;
 
 /**
  * Clase que representa la Ventana donde se cargar los datos del Analizador
@@ -33,6 +41,15 @@ public class VPrincipal extends javax.swing.JInternalFrame {
     public VPrincipal(Configuracion config) {
         this.config = config;
         initComponents();
+        
+        // Al cerrar la ventana se cancela el proceso en curso, si lo hay.
+        addInternalFrameListener(new javax.swing.event.InternalFrameAdapter() {
+            public void internalFrameClosed(javax.swing.event.InternalFrameEvent evt) {
+                if (proceso != null) {
+                    proceso.cancel(true);
+                }
+            }
+        });
     }
 
     /** 
@@ -275,10 +292,27 @@ private void ClasesActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:
     /**
       * Función para realizar el control de la Entrada y ejecutar los algoritmos
       * del Analizador Léxico.
-      * También deberá habilitar los Botones para mostrar los procesos.
+      * Los algoritmos se ejecutan en una tarea aparte del hilo de eventos de
+      * Swing, de manera que la ventana siga respondiendo y el proceso pueda
+      * cancelarse, volviendo a procesar la entrada o cerrando la ventana.
+      * Al terminar exitosamente, la tarea habilita los Botones para mostrar
+      * los procesos.
+      * @return La tarea que procesa la entrada, o <code>null</code> si
+      * los datos no son válidos o ya hay un proceso en curso.
       */
     @Action
-    public void procesarEntrada() {
+    public Task procesarEntrada() {
+
+        // Si hay un proceso en curso, se ofrece cancelarlo.
+        if (proceso != null && !proceso.isDone()) {
+            int opcion = JOptionPane.showConfirmDialog(this.getDesktopPane(),
+                "Se está procesando una entrada.\n¿Desea cancelar el proceso en curso?",
+                "Proceso en curso", JOptionPane.YES_NO_OPTION);
+            if (opcion == JOptionPane.YES_OPTION) {
+                proceso.cancel(true);
+            }
+            return null;
+        }
 
         // Controlar que se tenga completo los datos.
         boolean error = false;
@@ -302,45 +336,214 @@ private void ClasesActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:
             }
         }
 
-        if (!error) {
-            // Se Inicializa el Analizador Sintactico.
-            String Abc = this.FPersonalizado.getText();
-            String ERegular = this.FERegular.getText();
-            
-            Alfabeto abecedario = new Alfabeto(Abc);
-            AnalizadorSintactico ASintactico = new AnalizadorSintactico(abecedario, ERegular);
-            try {
-                // Se procesa el AFN.
-                miAFN = ASintactico.analizar();
-                miAFN.setLogProceso(ASintactico.getLog().toString());
+        if (error) {
+            return null;
+        }
+        
+        // Se descartan los autómatas anteriores mientras se procesa la entrada.
+        miAFN = null;
+        miAFD = null;
+        miAFDmin = null;
+        habilitarProcesos(false);
+        
+        // Se Inicializa la tarea con los límites de la configuración.
+        String Abc = this.FPersonalizado.getText();
+        String ERegular = this.FERegular.getText();
+        
+        Alfabeto abecedario = new Alfabeto(Abc);
+        Limites limites = new Limites(config.getMaxEstadosAFD(),
+                                      config.getMaxMemoriaMB() * 1024L * 1024L,
+                                      config.getMaxSegundos() * 1000L);
+        
+        proceso = new ProcesoEntrada(Application.getInstance(Vista.AplicacionAnalizadorLexico.class),
+                                     abecedario, ERegular, limites);
+        return proceso;
+    }
+    
+    /**
+     * Habilita o deshabilita los Botones para mostrar los Procesos. El
+     * Botón del AFN se habilita solamente si se construyó el AFN.
+     * @param habilitar <code>true</code> para habilitar los Botones.
+     */
+    private void habilitarProcesos(boolean habilitar) {
+        this.BAFN.setEnabled(habilitar && miAFN != null);
+        this.BAFD.setEnabled(habilitar);
+        this.BAFDmin.setEnabled(habilitar);
+        this.BSimulacionAFD.setEnabled(habilitar);
+        this.BSimulacionAFDMin.setEnabled(habilitar);
+    }
+    
+    /**
+     * Tarea que ejecuta los algoritmos sobre una entrada fuera del hilo
+     * de eventos de Swing. Los autómatas obtenidos se asignan a la
+     * ventana y los Botones se habilitan solamente si el proceso termina
+     * exitosamente; si se excede un límite, falla o se cancela, los
+     * autómatas quedan descartados y los Botones deshabilitados.
+     */
+    private class ProcesoEntrada extends Task<AFDMin, Void> {
+        
+        /**
+         * Alfabeto de la expresión regular.
+         */
+        private Alfabeto alfabeto;
+        
+        /**
+         * Expresión regular a procesar.
+         */
+        private String expresion;
+        
+        /**
+         * Límites del proceso, que también permiten cancelarlo.
+         */
+        private Limites limites;
+        
+        /**
+         * AFN construido, o <code>null</code> si el AFD se construye directamente.
+         */
+        private AFN afn;
+        
+        /**
+         * AFD construido.
+         */
+        private AFD afd;
+        
+        /**
+         * Constructor Principal
+         * @param aplicacion La aplicación que ejecuta la tarea.
+         * @param alfabeto El alfabeto de la expresión regular.
+         * @param expresion La expresión regular a procesar.
+         * @param limites Los límites del proceso.
+         */
+        ProcesoEntrada(Application aplicacion, Alfabeto alfabeto, String expresion, Limites limites) {
+            super(aplicacion);
+            this.alfabeto = alfabeto;
+            this.expresion = expresion;
+            this.limites = limites;
+        }
+        
+        /**
+         * Construye el AFN, el AFD y el AFD mínimo, verificando los límites.
+         * @return Las etapas de la minimización.
+         * @throws Exception En caso de error en el análisis o si se
+         * excede algún límite.
+         */
+        protected AFDMin doInBackground() throws Exception {
+            // Los logs de los algoritmos son estáticos, por lo que se procesa una entrada a la vez.
+            synchronized (VPrincipal.class) {
+                if (config.getAfdDirecto()) {
+                    // Se procesa el AFD directamente, sin el AFN.
+                    setMessage("Construyendo el AFD...");
+                    AnalizadorSintacticoIterativo ASintactico = new AnalizadorSintacticoIterativo(alfabeto, expresion);
+                    ASintactico.setLimites(limites);
+                    afd = ASintactico.analizarAFD();
+                    afd.setLogProceso(ASintactico.getLog().toString() + "\n" + ConstruccionDirecta.getLog().toString());
+                } else {
+                    // Se procesa el AFN.
+                    setMessage("Construyendo el AFN...");
+                    AnalizadorSintactico ASintactico = new AnalizadorSintactico(alfabeto, expresion);
+                    ASintactico.setLimites(limites);
+                    afn = ASintactico.analizar();
+                    afn.setLogProceso(ASintactico.getLog().toString());
+                    
+                    setMessage("Convirtiendo el AFN a AFD...");
+                    if (config.getReducirAFN()) {
+                        // Se reduce el AFN antes de convertirlo a AFD.
+                        afd = convertirAFD(ReduccionAFN.getAFN(afn), limites);
+                        afd.setLogProceso(ReduccionAFN.getLog().toString() + "\n" + Subconjuntos.getLog().toString());
+                    } else {
+                        afd = convertirAFD(afn, limites);
+                        afd.setLogProceso(Subconjuntos.getLog().toString());
+                    }
+                }
                 
-            } catch (Exception ex) {
-                Logger.getLogger(VPrincipal.class.getName()).log(Level.SEVERE, null, ex);
-                String mensajeError = ex.getMessage();                
-                JOptionPane.showMessageDialog(this.getDesktopPane(), "Ocurrio el siguiente error:\n"+mensajeError);
-                error = true;
+                setMessage("Minimizando el AFD...");
+                AFDMin afdMin = minimizarAFD(afd, limites);
+                afdMin.getAfdPostIdentidades().setLogProceso(Minimizacion.getLog().toString());
+                return afdMin;
             }
-            // Si hay error terminar
-            if (error){
-                return;
+        }
+        
+        /**
+         * Asigna los autómatas obtenidos y habilita los Botones para
+         * mostrar los Procesos.
+         * @param afdMin Las etapas de la minimización.
+         */
+        protected void succeeded(AFDMin afdMin) {
+            miAFN = afn;
+            miAFD = afd;
+            miAFDmin = afdMin;
+            setMessage("Entrada procesada exitosamente.");
+            
+            if (miAFDmin.getEsMinimo()) {
+                JOptionPane.showMessageDialog(getDesktopPane(), "Entrada procesada exitosamente.");
             } else {
-                miAFD = Subconjuntos.getAFD(miAFN);
-                miAFD.setLogProceso(Subconjuntos.getLog().toString());
-                
-                miAFDmin = Minimizacion.getAFDminimo(miAFD);
-                miAFDmin.getAfdPostIdentidades().setLogProceso(Minimizacion.getLog().toString());
+                // Se excedió un límite durante la minimización incremental.
+                JOptionPane.showMessageDialog(getDesktopPane(), "Entrada procesada exitosamente.\n" +
+                    "Se excedió un límite durante la minimización: el AFD\n" +
+                    "obtenido es equivalente, pero puede no ser mínimo.");
             }
             
-            JOptionPane.showMessageDialog(this.getDesktopPane(), "Entrada procesada exitosamente.");
-            
             // Habilitamos los Botones para mostrar los Procesos.
-            this.BAFN.setEnabled(true);
-            this.BAFD.setEnabled(true);
-            this.BAFDmin.setEnabled(true);
-            this.BSimulacionAFD.setEnabled(true);
-            this.BSimulacionAFDMin.setEnabled(true);
+            habilitarProcesos(true);
+        }
+        
+        /**
+         * Muestra el error del proceso. Si se excedió un límite, el
+         * mensaje contiene las estadísticas de la etapa interrumpida.
+         * @param causa El error del proceso.
+         */
+        protected void failed(Throwable causa) {
+            if (!(causa instanceof ExcepcionLimite)) {
+                Logger.getLogger(VPrincipal.class.getName()).log(Level.SEVERE, null, causa);
+            }
+            setMessage("Error al procesar la entrada.");
+            JOptionPane.showMessageDialog(getDesktopPane(), "Ocurrio el siguiente error:\n" + causa.getMessage());
+        }
+        
+        /**
+         * Cancela la construcción en curso, que se interrumpe
+         * en la siguiente verificación de los límites.
+         */
+        protected void cancelled() {
+            limites.cancelar();
+            setMessage("Proceso cancelado.");
         }
     }
+    
+    /**
+     * Convierte un AFN a AFD con el algoritmo de subconjuntos,
+     * en paralelo si la configuración indica más de un hilo. Se
+     * registran en el log del proceso los primeros pasos de la conversión.
+     * @param afn El AFN a convertir.
+     * @param limites Los límites de la conversión.
+     * @return El AFD equivalente.
+     */
+    private AFD convertirAFD(AFN afn, Limites limites) {
+        if (config.getHilosSubconjuntos() > 1)
+            return Subconjuntos.getAFDParalelo(afn, config.getHilosSubconjuntos(), limites, true);
+        
+        return Subconjuntos.getAFDBits(afn, limites, true);
+    }
+    
+    /**
+     * Minimiza un AFD, en paralelo si la configuración
+     * indica más de un hilo. Si la configuración indica una
+     * minimización incremental, al excederse un límite se
+     * obtiene el AFD reducido hasta ese momento, en lugar
+     * de interrumpir el proceso.
+     * @param afd El AFD a minimizar.
+     * @param limites Los límites de la minimización.
+     * @return Las etapas de la minimización.
+     */
+    private AFDMin minimizarAFD(AFD afd, Limites limites) {
+        if (config.getMinimizacionIncremental())
+            return Minimizacion.getAFDminimo(afd, limites, Refinamiento.INCREMENTAL, 1);
+        
+        if (config.getHilosMinimizacion() > 1)
+            return Minimizacion.getAFDminimo(afd, limites, Refinamiento.PARALELO, config.getHilosMinimizacion());
+        
+        return Minimizacion.getAFDminimo(afd, limites);
+    }
 
     /**
      * Función para procesar el AFN y mostrar la Ventana con sus Datos
@@ -431,6 +634,7 @@ private void ClasesActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:
     private AFN miAFN;
     private AFD miAFD;
     private AFDMin miAFDmin;
+    private ProcesoEntrada proceso;
     private Configuracion config;
 
     
@@ -0,0 +1,405 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import estructuras.AFN;
+import estructuras.TablaCerraduras;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Esta clase implementa la validación de cadenas de entrada contra
+ * un AFN mediante un AFD que se construye a medida que se necesita,
+ * sin construir el AFD completo con el algoritmo de subconjuntos.
+ * <br><br>
+ * Cada estado del AFD es un conjunto de estados del AFN, representado
+ * como arreglo de bits, y se crea solamente cuando algún símbolo de
+ * la entrada lleva a él. Las transiciones ya calculadas se guardan en
+ * el estado origen, por lo que validar una entrada cuyos estados ya
+ * fueron creados cuesta lo mismo que con un AFD.<br><br>
+ * Los estados creados se guardan en una memoria de capacidad fija.
+ * Cuando la memoria se llena, se vacía completamente y se vuelve a
+ * empezar desde el estado actual. Si se vacía de nuevo antes de
+ * procesar una cantidad de símbolos proporcional a la capacidad, los
+ * estados creados casi no se reutilizan, y el resto de la entrada se
+ * valida simulando directamente el AFN, sin crear más estados. De
+ * esta forma, la memoria utilizada no depende de la cantidad de
+ * estados del AFD completo, que puede ser exponencial.<br><br>
+ * Un mismo objeto puede ser utilizado por varios hilos a la vez, que
+ * comparten los estados creados, sin bloquearse entre sí. Los estados
+ * se agregan a la memoria con <code>putIfAbsent</code> y las transiciones
+ * se publican con <code>compareAndSet</code>: si dos hilos calculan la
+ * misma transición, ambos utilizan la del primero en publicarla. Los
+ * campos de cada estado son finales y se asignan antes de publicarlo,
+ * por lo que ningún hilo ve un estado a medio construir. Vaciar la
+ * memoria consiste en reemplazarla por otra nueva, también con
+ * <code>compareAndSet</code>; los hilos que estaban recorriendo la
+ * anterior continúan en ella hasta calcular una transición nueva,
+ * cuyo destino se agrega a la memoria actual. Con varios hilos, la
+ * capacidad puede superarse en a lo sumo un estado por hilo.
+ * @see Subconjuntos
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AFDPerezoso {
+    
+    /**
+     * Cantidad mínima de símbolos a procesar por cada estado creado
+     * entre dos vaciados de la memoria, para no simular el AFN.
+     */
+    private static final int SIMBOLOS_POR_ESTADO = 10;
+    
+    /**
+     * Tabla de cerraduras vacías del AFN.
+     */
+    private final TablaCerraduras cerraduras;
+    
+    /**
+     * Índices de los destinos de cada estado del AFN,
+     * según la posición de cada símbolo del alfabeto.
+     */
+    private final int[][][] destinos;
+    
+    /**
+     * Estados finales del AFN, como arreglo de bits.
+     */
+    private final long[] finales;
+    
+    /**
+     * Símbolos del alfabeto, según su posición.
+     */
+    private final char[] simbolos;
+    
+    /**
+     * Cantidad máxima de estados en la memoria.
+     */
+    private final int capacidad;
+    
+    /**
+     * Cerradura vacía del estado inicial del AFN.
+     */
+    private final long[] conjuntoInicial;
+    
+    /**
+     * Memoria actual de estados del AFD.
+     */
+    private final AtomicReference<Memoria> memoria;
+    
+    /**
+     * Estado correspondiente al conjunto vacío, que nunca se elimina.
+     */
+    private final EstadoPerezoso muerto;
+    
+    /**
+     * Cantidad de veces que se vació la memoria.
+     */
+    private final AtomicInteger vaciados;
+    
+    /**
+     * Cantidad de validaciones que terminaron simulando el AFN.
+     */
+    private final AtomicInteger simulaciones;
+    
+    /**
+     * Prepara la validación de cadenas contra un AFN. El AFN no
+     * debe modificarse mientras se utilice este objeto.
+     * @param afn El AFN, con su alfabeto.
+     * @param capacidad Cantidad máxima de estados del AFD en memoria.
+     */
+    public AFDPerezoso(AFN afn, int capacidad) {
+        this.capacidad = Math.max(capacidad, 2);
+        
+        cerraduras = afn.getTablaCerraduras();
+        destinos = Subconjuntos.destinos(afn, cerraduras);
+        
+        int n = cerraduras.cantidadEstados();
+        finales = new long[(n + 63) >>> 6];
+        for (int i=0; i < n; i++)
+            if (cerraduras.getEstado(i).getEsFinal())
+                finales[i >>> 6] |= 1L << i;
+        
+        /* Los símbolos del alfabeto están ordenados */
+        Alfabeto alfabeto = afn.getAlfabeto();
+        simbolos = new char[alfabeto.getCantidad()];
+        for (int i=0; i < simbolos.length; i++)
+            simbolos[i] = alfabeto.getSimbolo(i).charAt(0);
+        
+        muerto = new EstadoPerezoso(new long[finales.length]);
+        vaciados = new AtomicInteger();
+        simulaciones = new AtomicInteger();
+        
+        conjuntoInicial = cerraduras.cerradura(cerraduras.getIndice(afn.getEstadoInicial()));
+        memoria = new AtomicReference<Memoria>(new Memoria());
+    }
+    
+    /**
+     * Determina si una cadena de entrada pertenece al lenguaje del AFN,
+     * recorriendo el AFD y creando los estados que todavía no están
+     * en la memoria.
+     * @param entrada La cadena de entrada.
+     * @return <code>true</code> si la entrada es aceptada,
+     * <code>false</code> en caso contrario.
+     */
+    public boolean acepta(CharSequence entrada) {
+        EstadoPerezoso actual = memoria.get().inicial;
+        
+        /* Posición de la entrada en la que se vació la memoria, o -1 */
+        int ultimoVaciado = -1;
+        
+        for (int i=0; i < entrada.length(); i++) {
+            int s = Arrays.binarySearch(simbolos, entrada.charAt(i));
+            if (s < 0)
+                return false;
+            
+            EstadoPerezoso siguiente = actual.siguientes.get(s);
+            
+            if (siguiente == null) {
+                Memoria m = memoria.get();
+                
+                if (m.cantidad.get() >= capacidad) {
+                    /*
+                     * Si los estados creados desde el último vaciado se
+                     * usaron para pocos símbolos, vaciar la memoria de
+                     * nuevo no ayuda: se simula el AFN con el resto.
+                     */
+                    if (ultimoVaciado >= 0 && i - ultimoVaciado < SIMBOLOS_POR_ESTADO * capacidad) {
+                        simulaciones.incrementAndGet();
+                        return simular(actual.conjunto, entrada, i);
+                    }
+                    
+                    /* Si otro hilo la vació antes, se utiliza la suya */
+                    if (memoria.compareAndSet(m, new Memoria()))
+                        vaciados.incrementAndGet();
+                    
+                    ultimoVaciado = i;
+                    m = memoria.get();
+                }
+                
+                siguiente = calcularSiguiente(m, actual, s);
+            }
+            
+            if (siguiente == muerto)
+                return false;
+            
+            actual = siguiente;
+        }
+        
+        return actual.esFinal;
+    }
+    
+    /**
+     * Obtiene la cantidad de estados del AFD en la memoria.
+     * @return La cantidad de estados en la memoria.
+     */
+    public int cantidadEstados() {
+        return memoria.get().cantidad.get();
+    }
+    
+    /**
+     * Obtiene la cantidad de veces que se vació la memoria.
+     * @return La cantidad de vaciados.
+     */
+    public int cantidadVaciados() {
+        return vaciados.get();
+    }
+    
+    /**
+     * Obtiene la cantidad de validaciones que terminaron
+     * simulando directamente el AFN.
+     * @return La cantidad de simulaciones.
+     */
+    public int cantidadSimulaciones() {
+        return simulaciones.get();
+    }
+    
+    /**
+     * Calcula la transición de un estado del AFD con un símbolo,
+     * creando el estado destino si no está en la memoria, y la
+     * publica en el estado origen si ningún otro hilo lo hizo antes.
+     * @param m La memoria actual.
+     * @param origen El estado origen.
+     * @param s La posición del símbolo.
+     * @return El estado destino publicado.
+     */
+    private EstadoPerezoso calcularSiguiente(Memoria m, EstadoPerezoso origen, int s) {
+        long[] U = cerraduras.cerradura(Subconjuntos.mover(origen.conjunto, destinos[s]));
+        
+        EstadoPerezoso destino;
+        if (Subconjuntos.estaVacio(U))
+            destino = muerto;
+        else
+            destino = m.agregar(U);
+        
+        if (!origen.siguientes.compareAndSet(s, null, destino))
+            destino = origen.siguientes.get(s);
+        
+        return destino;
+    }
+    
+    /**
+     * Valida el resto de una entrada simulando el AFN, a partir de un
+     * conjunto de estados, sin crear estados del AFD.
+     * @param conjunto El conjunto de estados del AFN alcanzado.
+     * @param entrada La cadena de entrada.
+     * @param desde La posición del primer símbolo sin procesar.
+     * @return <code>true</code> si la entrada es aceptada,
+     * <code>false</code> en caso contrario.
+     */
+    private boolean simular(long[] conjunto, CharSequence entrada, int desde) {
+        for (int i=desde; i < entrada.length(); i++) {
+            int s = Arrays.binarySearch(simbolos, entrada.charAt(i));
+            if (s < 0)
+                return false;
+            
+            conjunto = cerraduras.cerradura(Subconjuntos.mover(conjunto, destinos[s]));
+            if (Subconjuntos.estaVacio(conjunto))
+                return false;
+        }
+        
+        return intersecta(conjunto, finales);
+    }
+    
+    /**
+     * Determina si dos arreglos de bits tienen algún elemento en común.
+     * @param a Un arreglo de bits.
+     * @param b Otro arreglo de bits.
+     * @return <code>true</code> si tienen algún elemento en común.
+     */
+    private static boolean intersecta(long[] a, long[] b) {
+        for (int w=0; w < Math.min(a.length, b.length); w++)
+            if ((a[w] & b[w]) != 0)
+                return true;
+        
+        return false;
+    }
+    
+    /**
+     * Clase que representa una memoria de estados del AFD. Vaciar
+     * la memoria consiste en reemplazarla por otra nueva.
+     */
+    private class Memoria {
+        
+        /**
+         * Estados del AFD creados, según su conjunto de estados del AFN.
+         */
+        final ConcurrentHashMap<Clave, EstadoPerezoso> estados;
+        
+        /**
+         * Cantidad de estados en la memoria.
+         */
+        final AtomicInteger cantidad;
+        
+        /**
+         * Estado inicial del AFD.
+         */
+        final EstadoPerezoso inicial;
+        
+        /**
+         * Crea una memoria que contiene solamente al estado inicial.
+         */
+        Memoria() {
+            estados = new ConcurrentHashMap<Clave, EstadoPerezoso>();
+            cantidad = new AtomicInteger();
+            inicial = agregar(conjuntoInicial);
+        }
+        
+        /**
+         * Obtiene el estado del AFD correspondiente a un conjunto de
+         * estados del AFN, agregándolo a la memoria si no está. Si dos
+         * hilos lo agregan a la vez, ambos obtienen el mismo estado.
+         * @param conjunto El conjunto de estados del AFN.
+         * @return El estado del AFD.
+         */
+        EstadoPerezoso agregar(long[] conjunto) {
+            Clave clave = new Clave(conjunto);
+            EstadoPerezoso estado = estados.get(clave);
+            
+            if (estado == null) {
+                EstadoPerezoso nuevo = new EstadoPerezoso(conjunto);
+                estado = estados.putIfAbsent(clave, nuevo);
+                
+                if (estado == null) {
+                    cantidad.incrementAndGet();
+                    estado = nuevo;
+                }
+            }
+            
+            return estado;
+        }
+    }
+    
+    /**
+     * Clase que representa un estado del AFD en la memoria.
+     */
+    private class EstadoPerezoso {
+        
+        /**
+         * Conjunto de estados del AFN, como arreglo de bits.
+         */
+        final long[] conjunto;
+        
+        /**
+         * Indica si el conjunto contiene algún estado final.
+         */
+        final boolean esFinal;
+        
+        /**
+         * Estados destino según la posición de cada
+         * símbolo, o null si todavía no se calcularon.
+         */
+        final AtomicReferenceArray<EstadoPerezoso> siguientes;
+        
+        /**
+         * Crea un estado a partir de un conjunto de estados del AFN.
+         * @param conjunto El conjunto de estados del AFN.
+         */
+        EstadoPerezoso(long[] conjunto) {
+            this.conjunto = conjunto;
+            esFinal = intersecta(conjunto, finales);
+            siguientes = new AtomicReferenceArray<EstadoPerezoso>(simbolos.length);
+        }
+    }
+    
+    /**
+     * Clase que representa un conjunto de estados del AFN como clave
+     * de la memoria, comparando los arreglos de bits por su contenido.
+     */
+    private static class Clave {
+        
+        /**
+         * El conjunto de estados, como arreglo de bits.
+         */
+        final long[] bits;
+        
+        /**
+         * Código de dispersión del conjunto.
+         */
+        final int hash;
+        
+        /**
+         * Crea la clave de un conjunto de estados.
+         * @param bits El conjunto de estados, como arreglo de bits.
+         */
+        Clave(long[] bits) {
+            this.bits = bits;
+            hash = Arrays.hashCode(bits);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof Clave) && Arrays.equals(bits, ((Clave) obj).bits);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.NodoExprReg;
+import analisis.TipoNodo;
+import estructuras.ConjuntoSimbolos;
+import java.util.BitSet;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa un AFN aumentado con contadores, para
+ * validar expresiones regulares con repeticiones acotadas grandes,
+ * como <code>[0-9]{1,64}</code>, sin desenrollarlas.<br><br>
+ * Cada repetición cuya cota supera <code>UMBRAL</code> se construye
+ * con una sola copia de su operando y un contador: la transición
+ * vacía que entra a la copia inicia el contador en 1, la que vuelve
+ * a su inicio lo incrementa mientras no supere el máximo, y la que
+ * sale de la copia solo puede seguirse si el contador alcanzó el
+ * mínimo. Las demás repeticiones se desenrollan como en
+ * <code>Thompson.repeticion</code>.<br><br>
+ * Durante la validación, cada configuración es un par (estado, valor
+ * del contador), donde el valor es la iteración en curso para los
+ * estados de una repetición con contador y 0 para los demás. Así, la
+ * cantidad de configuraciones está acotada por la cantidad de estados
+ * multiplicada por la mayor cota, en lugar de crecer con la cantidad de
+ * copias de un AFN desenrollado o con los estados de un AFD.<br><br>
+ * Una repetición que contiene a otra con contador se desenrolla, de
+ * manera a que cada estado tenga a lo sumo un contador.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AFNContadores {
+    
+    /**
+     * Cota a partir de la cual una repetición se construye con
+     * un contador en lugar de desenrollarse.
+     */
+    public static final int UMBRAL = 16;
+    
+    /**
+     * Acción de una transición vacía sin contador.
+     */
+    private static final int NINGUNA = 0;
+    
+    /**
+     * Acción de una transición que inicia un contador en 1.
+     */
+    private static final int INICIAR = 1;
+    
+    /**
+     * Acción de una transición que incrementa un contador.
+     */
+    private static final int INCREMENTAR = 2;
+    
+    /**
+     * Acción de una transición que sale de una repetición.
+     */
+    private static final int SALIR = 3;
+    
+    /**
+     * Transiciones de cada estado.
+     */
+    private Vector<Vector<Arista>> aristas;
+    
+    /**
+     * Cantidad mínima de repeticiones de cada contador.
+     */
+    private Vector<Integer> minimos;
+    
+    /**
+     * Cantidad máxima de repeticiones de cada contador,
+     * o -1 si no hay cota superior.
+     */
+    private Vector<Integer> maximos;
+    
+    /**
+     * Estado inicial.
+     */
+    private int inicial;
+    
+    /**
+     * Estado final.
+     */
+    private int fin;
+    
+    /**
+     * Construye el AFN con contadores de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     */
+    public AFNContadores(NodoExprReg arbol) {
+        aristas = new Vector<Vector<Arista>>();
+        minimos = new Vector<Integer>();
+        maximos = new Vector<Integer>();
+        
+        /* Construcción en postorden, con una pila de fragmentos */
+        Stack<Fragmento> pila = new Stack<Fragmento>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            Fragmento[] hijos = new Fragmento[nodo.cantidadHijos()];
+            for (int i = hijos.length - 1; i >= 0; i--)
+                hijos[i] = pila.pop();
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                case CLASE:
+                    pila.push(basico(nodo));
+                    break;
+                case CONCATENACION:
+                    pila.push(concatenacion(hijos));
+                    break;
+                case UNION:
+                    pila.push(union(hijos));
+                    break;
+                case REPETICION:
+                    pila.push(repeticion(hijos[0], nodo.getMinimo(), nodo.getMaximo()));
+                    break;
+                case CERRADURA_KLEENE:
+                    pila.push(repeticion(hijos[0], 0, -1));
+                    break;
+                case CERRADURA_POSITIVA:
+                    pila.push(repeticion(hijos[0], 1, -1));
+                    break;
+                default:
+                    pila.push(repeticion(hijos[0], 0, 1));
+            }
+        }
+        
+        Fragmento raiz = pila.pop();
+        inicial = raiz.inicio;
+        fin = raiz.fin;
+    }
+    
+    /**
+     * Determina si una cadena de entrada pertenece al lenguaje
+     * de la expresión regular.
+     * @param entrada La cadena de entrada.
+     * @return <code>true</code> si la entrada es aceptada,
+     * <code>false</code> en caso contrario.
+     */
+    public boolean acepta(CharSequence entrada) {
+        /* Valores de contador alcanzados en cada estado */
+        BitSet[] actuales = new BitSet[cantidadEstados()];
+        Vector<Integer> activos = new Vector<Integer>();
+        
+        agregar(actuales, activos, inicial, 0);
+        cerraduraEpsilon(actuales, activos);
+        
+        for (int pos=0; pos < entrada.length() && !activos.isEmpty(); pos++) {
+            char simbolo = entrada.charAt(pos);
+            
+            BitSet[] siguientes = new BitSet[cantidadEstados()];
+            Vector<Integer> nuevosActivos = new Vector<Integer>();
+            
+            for (int origen : activos) {
+                for (Arista a : aristas.get(origen)) {
+                    if (!a.acepta(simbolo))
+                        continue;
+                    
+                    BitSet valores = actuales[origen];
+                    for (int v = valores.nextSetBit(0); v >= 0; v = valores.nextSetBit(v + 1))
+                        agregar(siguientes, nuevosActivos, a.destino, v);
+                }
+            }
+            
+            actuales = siguientes;
+            activos = nuevosActivos;
+            cerraduraEpsilon(actuales, activos);
+        }
+        
+        return actuales[fin] != null;
+    }
+    
+    /**
+     * Obtiene la cantidad de estados de este AFN.
+     * @return La cantidad de estados.
+     */
+    public int cantidadEstados() {
+        return aristas.size();
+    }
+    
+    /**
+     * Obtiene la cantidad de contadores de este AFN.
+     * @return La cantidad de repeticiones construidas con un contador.
+     */
+    public int cantidadContadores() {
+        return minimos.size();
+    }
+    
+    /**
+     * Determina si alguna repetición de un árbol sintáctico se
+     * construiría con un contador, es decir, si su cota es mayor
+     * a <code>UMBRAL</code>.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @return <code>true</code> si el AFN con contadores evita
+     * desenrollar alguna repetición.
+     */
+    public static boolean requiereContadores(NodoExprReg arbol) {
+        for (NodoExprReg nodo : arbol.postorden()) {
+            if (nodo.getTipo() != TipoNodo.REPETICION)
+                continue;
+            
+            int cota = (nodo.getMaximo() < 0) ? nodo.getMinimo() : nodo.getMaximo();
+            if (cota > UMBRAL)
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Agrega las configuraciones alcanzables a través de transiciones
+     * vacías, aplicando las acciones de los contadores.
+     * @param valores Valores de contador alcanzados en cada estado.
+     * @param activos Estados con al menos un valor alcanzado.
+     */
+    private void cerraduraEpsilon(BitSet[] valores, Vector<Integer> activos) {
+        /* Pila de configuraciones pendientes: estado y valor */
+        Stack<int[]> pila = new Stack<int[]>();
+        
+        for (int estado : activos) {
+            BitSet b = valores[estado];
+            for (int v = b.nextSetBit(0); v >= 0; v = b.nextSetBit(v + 1))
+                pila.push(new int[] { estado, v });
+        }
+        
+        while (!pila.isEmpty()) {
+            int[] actual = pila.pop();
+            int valor = actual[1];
+            
+            for (Arista a : aristas.get(actual[0])) {
+                if (!a.esVacia())
+                    continue;
+                
+                int nuevoValor;
+                switch (a.accion) {
+                    case INICIAR:
+                        nuevoValor = 1;
+                        break;
+                    case INCREMENTAR:
+                        int maximo = maximos.get(a.contador);
+                        if (maximo >= 0 && valor >= maximo)
+                            continue;
+                        
+                        /* Sin cota superior, basta con saber si se alcanzó el mínimo */
+                        nuevoValor = (maximo >= 0) ? valor + 1
+                                   : Math.min(valor + 1, Math.max(minimos.get(a.contador), 1));
+                        break;
+                    case SALIR:
+                        if (valor < minimos.get(a.contador))
+                            continue;
+                        
+                        nuevoValor = 0;
+                        break;
+                    default:
+                        nuevoValor = valor;
+                }
+                
+                if (agregar(valores, activos, a.destino, nuevoValor))
+                    pila.push(new int[] { a.destino, nuevoValor });
+            }
+        }
+    }
+    
+    /**
+     * Agrega una configuración.
+     * @param valores Valores de contador alcanzados en cada estado.
+     * @param activos Estados con al menos un valor alcanzado.
+     * @param estado El estado de la configuración.
+     * @param valor El valor del contador de la configuración.
+     * @return <code>true</code> si la configuración es nueva.
+     */
+    private static boolean agregar(BitSet[] valores, Vector<Integer> activos, int estado, int valor) {
+        if (valores[estado] == null) {
+            valores[estado] = new BitSet();
+            activos.add(estado);
+        }
+        else if (valores[estado].get(valor)) {
+            return false;
+        }
+        
+        valores[estado].set(valor);
+        return true;
+    }
+    
+    /**
+     * Agrega un nuevo estado.
+     * @return El identificador del estado agregado.
+     */
+    private int nuevoEstado() {
+        aristas.add(new Vector<Arista>());
+        return aristas.size() - 1;
+    }
+    
+    /**
+     * Agrega una transición vacía.
+     * @param origen Estado origen.
+     * @param destino Estado destino.
+     * @param accion Acción sobre el contador.
+     * @param contador El contador afectado, o -1.
+     */
+    private void vacia(int origen, int destino, int accion, int contador) {
+        Arista a = new Arista();
+        a.destino = destino;
+        a.accion = accion;
+        a.contador = contador;
+        aristas.get(origen).add(a);
+    }
+    
+    /**
+     * Construye el fragmento de un símbolo o de una clase de caracteres.
+     * @param nodo El nodo del símbolo o de la clase.
+     * @return El fragmento construido.
+     */
+    private Fragmento basico(NodoExprReg nodo) {
+        Fragmento f = new Fragmento();
+        f.desde = f.inicio = nuevoEstado();
+        f.fin = nuevoEstado();
+        
+        if (nodo.esVacio()) {
+            vacia(f.inicio, f.fin, NINGUNA, -1);
+        }
+        else {
+            Arista a = new Arista();
+            a.destino = f.fin;
+            a.clase = nodo.getClase();
+            a.simbolo = (a.clase == null) ? nodo.getSimbolo().charAt(0) : 0;
+            aristas.get(f.inicio).add(a);
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una concatenación.
+     * @param hijos Los fragmentos de los operandos.
+     * @return El fragmento construido.
+     */
+    private Fragmento concatenacion(Fragmento[] hijos) {
+        Fragmento f = new Fragmento();
+        f.desde = hijos[0].desde;
+        f.inicio = hijos[0].inicio;
+        f.fin = hijos[hijos.length - 1].fin;
+        
+        for (int i=0; i < hijos.length - 1; i++) {
+            vacia(hijos[i].fin, hijos[i + 1].inicio, NINGUNA, -1);
+            f.conContador |= hijos[i].conContador;
+        }
+        
+        f.conContador |= hijos[hijos.length - 1].conContador;
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una unión.
+     * @param hijos Los fragmentos de los operandos.
+     * @return El fragmento construido.
+     */
+    private Fragmento union(Fragmento[] hijos) {
+        Fragmento f = new Fragmento();
+        f.desde = hijos[0].desde;
+        f.inicio = nuevoEstado();
+        f.fin = nuevoEstado();
+        
+        for (Fragmento h : hijos) {
+            vacia(f.inicio, h.inicio, NINGUNA, -1);
+            vacia(h.fin, f.fin, NINGUNA, -1);
+            f.conContador |= h.conContador;
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una repetición, con un contador si
+     * la cota es mayor a <code>UMBRAL</code> y el operando no tiene
+     * contadores, o desenrollándola en caso contrario.
+     * @param cuerpo El fragmento del operando.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1.
+     * @return El fragmento construido.
+     */
+    private Fragmento repeticion(Fragmento cuerpo, int minimo, int maximo) {
+        int cota = (maximo < 0) ? minimo : maximo;
+        
+        if (cota > UMBRAL && !cuerpo.conContador)
+            return contador(cuerpo, minimo, maximo);
+        
+        /*
+         * Copias del cuerpo: la primera es el mismo cuerpo. Todas las
+         * copias se realizan antes de enlazarlas, de manera a no copiar
+         * las transiciones agregadas entre una copia y la siguiente.
+         */
+        int copias = (maximo < 0) ? minimo + 1 : maximo;
+        int hasta = cantidadEstados() - 1;
+        
+        int[] desplazamientos = new int[copias];
+        for (int i=1; i < copias; i++)
+            desplazamientos[i] = copiar(cuerpo.desde, hasta);
+        
+        Fragmento f = new Fragmento();
+        f.desde = cuerpo.desde;
+        f.conContador = cuerpo.conContador;
+        f.inicio = nuevoEstado();
+        
+        int anterior = f.inicio;
+        Vector<Integer> opcionales = new Vector<Integer>();
+        
+        for (int i=0; i < copias; i++) {
+            int desplazamiento = desplazamientos[i];
+            
+            if (i >= minimo)
+                opcionales.add(anterior);
+            
+            vacia(anterior, cuerpo.inicio + desplazamiento, NINGUNA, -1);
+            anterior = cuerpo.fin + desplazamiento;
+            
+            /* Sin cota superior, la última copia es una cerradura */
+            if (maximo < 0 && i == copias - 1)
+                vacia(anterior, cuerpo.inicio + desplazamiento, NINGUNA, -1);
+        }
+        
+        f.fin = nuevoEstado();
+        vacia(anterior, f.fin, NINGUNA, -1);
+        
+        for (int e : opcionales)
+            vacia(e, f.fin, NINGUNA, -1);
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una repetición con un contador.
+     * @param cuerpo El fragmento del operando.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1.
+     * @return El fragmento construido.
+     */
+    private Fragmento contador(Fragmento cuerpo, int minimo, int maximo) {
+        int contador = minimos.size();
+        minimos.add(minimo);
+        maximos.add(maximo);
+        
+        Fragmento f = new Fragmento();
+        f.desde = cuerpo.desde;
+        f.conContador = true;
+        f.inicio = nuevoEstado();
+        f.fin = nuevoEstado();
+        
+        vacia(f.inicio, cuerpo.inicio, INICIAR, contador);
+        vacia(cuerpo.fin, cuerpo.inicio, INCREMENTAR, contador);
+        vacia(cuerpo.fin, f.fin, SALIR, contador);
+        
+        if (minimo == 0)
+            vacia(f.inicio, f.fin, NINGUNA, -1);
+        
+        return f;
+    }
+    
+    /**
+     * Copia un rango de estados consecutivos al final del AFN. Como
+     * los fragmentos se construyen en postorden, los estados de un
+     * fragmento son consecutivos y sus transiciones no salen del rango.
+     * @param desde Primer estado del rango.
+     * @param hasta Último estado del rango.
+     * @return El desplazamiento entre los estados originales y sus copias.
+     */
+    private int copiar(int desde, int hasta) {
+        int desplazamiento = cantidadEstados() - desde;
+        
+        for (int e = desde; e <= hasta; e++) {
+            int copia = nuevoEstado();
+            
+            for (Arista a : aristas.get(e)) {
+                Arista b = new Arista();
+                b.destino = a.destino + desplazamiento;
+                b.simbolo = a.simbolo;
+                b.clase = a.clase;
+                b.accion = a.accion;
+                b.contador = a.contador;
+                aristas.get(copia).add(b);
+            }
+        }
+        
+        return desplazamiento;
+    }
+    
+    /**
+     * Fragmento de AFN construido para un nodo del árbol sintáctico.
+     * Sus estados son los comprendidos entre <code>desde</code> y el
+     * último estado agregado al momento de construirlo.
+     */
+    private static class Fragmento {
+        
+        /**
+         * Primer estado del fragmento.
+         */
+        private int desde;
+        
+        /**
+         * Estado inicial del fragmento.
+         */
+        private int inicio;
+        
+        /**
+         * Estado final del fragmento.
+         */
+        private int fin;
+        
+        /**
+         * Indica si el fragmento contiene alguna repetición
+         * construida con un contador.
+         */
+        private boolean conContador;
+    }
+    
+    /**
+     * Transición del AFN con contadores.
+     */
+    private static class Arista {
+        
+        /**
+         * Estado destino.
+         */
+        private int destino;
+        
+        /**
+         * Símbolo de la transición, o <code>0</code> si la
+         * transición es vacía o está etiquetada con una clase.
+         */
+        private char simbolo;
+        
+        /**
+         * Clase de caracteres de la transición, o <code>null</code>.
+         */
+        private ConjuntoSimbolos clase;
+        
+        /**
+         * Acción sobre el contador, para las transiciones vacías.
+         */
+        private int accion;
+        
+        /**
+         * Contador afectado por la acción, o -1.
+         */
+        private int contador;
+        
+        /**
+         * Determina si la transición es vacía.
+         * @return <code>true</code> si la transición es vacía.
+         */
+        private boolean esVacia() {
+            return simbolo == 0 && clase == null;
+        }
+        
+        /**
+         * Determina si la transición puede seguirse con un símbolo.
+         * @param c El símbolo de entrada.
+         * @return <code>true</code> si la transición acepta a <code>c</code>.
+         */
+        private boolean acepta(char c) {
+            if (clase != null)
+                return clase.contiene(c);
+            else
+                return simbolo != 0 && simbolo == c;
+        }
+    }
+}
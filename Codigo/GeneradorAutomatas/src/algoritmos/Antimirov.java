@@ -0,0 +1,238 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import algoritmos.Terminos.Termino;
+import analisis.NodoExprReg;
+import estructuras.AFN;
+import estructuras.Estado;
+import estructuras.Transicion;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la construcción de Antimirov del AFN de una
+ * expresión regular, mediante sus derivadas parciales.<br><br>
+ * A diferencia de la derivada de Brzozowski, que es una única expresión
+ * regular, la derivada parcial de una expresión respecto a un símbolo
+ * es un conjunto de expresiones cuya unión reconoce el mismo lenguaje.
+ * Cada estado del AFN es una expresión regular normalizada, y sus
+ * transiciones se obtienen de su forma lineal: el conjunto de pares
+ * (símbolo o clase, continuación) tal que la expresión equivale a la
+ * unión de cada símbolo concatenado con su continuación, más el vacío
+ * si es anulable. Los estados finales son las expresiones anulables.
+ * <br><br>
+ * El AFN obtenido no tiene transiciones vacías y tiene a lo sumo n+1
+ * estados, siendo n la cantidad de posiciones de la expresión regular,
+ * aunque normalmente tiene menos que el AFN de Glushkov, ya que las
+ * posiciones con las mismas continuaciones se unifican.
+ * @see Terminos
+ * @see Glushkov
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Antimirov {
+    
+    /**
+     * Construye el AFN de Antimirov de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico.
+     * @return El AFN sin transiciones vacías para <code>arbol</code>.
+     */
+    public static AFN construir(NodoExprReg arbol) {
+        return construir(arbol, new Limites());
+    }
+    
+    /**
+     * Construye el AFN de Antimirov de un árbol sintáctico, verificando
+     * los límites luego de agregar las transiciones de cada estado.
+     * @param arbol La raíz del árbol sintáctico.
+     * @param limites Los límites de la construcción.
+     * @return El AFN sin transiciones vacías para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFN construir(NodoExprReg arbol, Limites limites) {
+        Terminos terminos = new Terminos();
+        HashMap<Termino, LinkedHashSet<Par>> formas = new HashMap<Termino, LinkedHashSet<Par>>();
+        
+        /* Expresiones de cada estado del AFN y sus índices */
+        Vector<Termino> estados = new Vector<Termino>();
+        HashMap<Termino, Integer> indices = new HashMap<Termino, Integer>();
+        
+        Termino raiz = terminos.convertir(arbol);
+        AFN afn = new AFN();
+        
+        estados.add(raiz);
+        indices.put(raiz, 0);
+        afn.agregarEstado(new Estado(0, raiz.anulable));
+        int transiciones = 0;
+        
+        for (int i=0; i < estados.size(); i++) {
+            Estado estadoOrigen = afn.getEstado(i);
+            
+            for (Par par : formaLineal(estados.get(i), terminos, formas)) {
+                Integer indice = indices.get(par.continuacion);
+                if (indice == null) {
+                    indice = estados.size();
+                    estados.add(par.continuacion);
+                    indices.put(par.continuacion, indice);
+                    afn.agregarEstado(new Estado(indice, par.continuacion.anulable));
+                }
+                
+                Estado destino = afn.getEstado(indice);
+                if (par.etiqueta.tipo == Terminos.CLASE)
+                    estadoOrigen.getTransiciones().agregar(new Transicion(destino, par.etiqueta.clase));
+                else
+                    estadoOrigen.getTransiciones().agregar(new Transicion(destino, String.valueOf(par.etiqueta.simbolo)));
+                
+                transiciones++;
+            }
+            
+            limites.verificarAFN("Antimirov", afn.cantidadEstados(), transiciones);
+        }
+        
+        return afn;
+    }
+    
+    /**
+     * Calcula la forma lineal de una expresión.<br><br>
+     * Las formas lineales de las subexpresiones que todavía no fueron
+     * calculadas se calculan primero, en postorden con una pila
+     * explícita. Las reglas aplicadas son:
+     * <ul>
+     * <li>lf(a) = {(a, vacío)}</li>
+     * <li>lf(r|s) = lf(r) U lf(s)</li>
+     * <li>lf(rs) = lf(r)s U lf(s), si r es anulable, o lf(r)s en caso contrario</li>
+     * <li>lf(r*) = lf(r)r*</li>
+     * <li>lf(r{m,n}) = lf(r)r{m-1,n-1}</li>
+     * </ul>
+     * donde lf(r)s concatena <code>s</code> a cada continuación de lf(r).
+     * @param t La expresión.
+     * @param terminos Las expresiones normalizadas creadas.
+     * @param formas Las formas lineales ya calculadas.
+     * @return La forma lineal de <code>t</code>.
+     */
+    private static LinkedHashSet<Par> formaLineal(Termino t, Terminos terminos,
+            HashMap<Termino, LinkedHashSet<Par>> formas) {
+        
+        Stack<Termino> pila = new Stack<Termino>();
+        pila.push(t);
+        
+        while (!pila.isEmpty()) {
+            Termino actual = pila.peek();
+            
+            if (formas.containsKey(actual)) {
+                pila.pop();
+                continue;
+            }
+            
+            /* Formas lineales de los operandos que todavía no se calcularon */
+            boolean pendientes = false;
+            int necesarios = actual.hijos.length;
+            if (actual.tipo == Terminos.CONCATENACION && !actual.hijos[0].anulable)
+                necesarios = 1;
+            
+            for (int i=0; i < necesarios; i++) {
+                if (!formas.containsKey(actual.hijos[i])) {
+                    pila.push(actual.hijos[i]);
+                    pendientes = true;
+                }
+            }
+            
+            if (pendientes)
+                continue;
+            
+            pila.pop();
+            LinkedHashSet<Par> forma = new LinkedHashSet<Par>();
+            
+            switch (actual.tipo) {
+                case Terminos.SIMBOLO:
+                case Terminos.CLASE:
+                    forma.add(new Par(actual, terminos.getVacio()));
+                    break;
+                case Terminos.UNION:
+                    for (Termino h : actual.hijos)
+                        forma.addAll(formas.get(h));
+                    break;
+                case Terminos.CONCATENACION:
+                    concatenar(forma, formas.get(actual.hijos[0]), actual.hijos[1], terminos);
+                    if (actual.hijos[0].anulable)
+                        forma.addAll(formas.get(actual.hijos[1]));
+                    break;
+                case Terminos.CERRADURA:
+                    concatenar(forma, formas.get(actual.hijos[0]), actual, terminos);
+                    break;
+                case Terminos.REPETICION:
+                    int minimo = Math.max(actual.minimo - 1, 0);
+                    int maximo = (actual.maximo < 0) ? -1 : actual.maximo - 1;
+                    concatenar(forma, formas.get(actual.hijos[0]),
+                               terminos.repeticion(actual.hijos[0], minimo, maximo), terminos);
+                    break;
+            }
+            
+            formas.put(actual, forma);
+        }
+        
+        return formas.get(t);
+    }
+    
+    /**
+     * Agrega a una forma lineal los pares de otra, con
+     * una expresión concatenada a cada continuación.
+     * @param destino La forma lineal a la que se agregan los pares.
+     * @param origen La forma lineal cuyos pares se agregan.
+     * @param s La expresión a concatenar.
+     * @param terminos Las expresiones normalizadas creadas.
+     */
+    private static void concatenar(LinkedHashSet<Par> destino, LinkedHashSet<Par> origen,
+            Termino s, Terminos terminos) {
+        
+        for (Par par : origen)
+            destino.add(new Par(par.etiqueta, terminos.concatenacion(par.continuacion, s)));
+    }
+    
+    /**
+     * Par de una forma lineal: un símbolo o clase de caracteres y la
+     * expresión que debe reconocerse a continuación del mismo.
+     */
+    private static class Par {
+        
+        /**
+         * Expresión de tipo <code>SIMBOLO</code> o <code>CLASE</code>.
+         */
+        private Termino etiqueta;
+        
+        /**
+         * Continuación de la expresión.
+         */
+        private Termino continuacion;
+        
+        /**
+         * Construye un par de una forma lineal.
+         * @param etiqueta El símbolo o clase de caracteres.
+         * @param continuacion La continuación.
+         */
+        private Par(Termino etiqueta, Termino continuacion) {
+            this.etiqueta = etiqueta;
+            this.continuacion = continuacion;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Par))
+                return false;
+            
+            Par other = (Par) obj;
+            return etiqueta == other.etiqueta && continuacion == other.continuacion;
+        }
+        
+        @Override
+        public int hashCode() {
+            return 31 * etiqueta.id + continuacion.id;
+        }
+    }
+}
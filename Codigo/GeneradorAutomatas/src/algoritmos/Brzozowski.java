@@ -0,0 +1,175 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import estructuras.*;
+import java.util.Hashtable;
+
+/**
+ * Esta clase implementa la minimización de Brzozowski, que obtiene
+ * el AFD mínimo de un AFN invirtiendo el autómata, convirtiéndolo
+ * a AFD con <code>Subconjuntos</code>, invirtiéndolo de nuevo y
+ * volviendo a convertirlo a AFD.<br><br>
+ * El AFD obtenido es mínimo y no tiene estados que no alcancen un
+ * estado final. A diferencia de <code>Minimizacion</code>, no se
+ * construye el AFD del AFN original, que puede tener muchos más
+ * estados que el mínimo; en cambio, se construye el AFD del AFN
+ * invertido, que puede ser mucho más pequeño o mucho más grande.
+ * <code>getAFDminimo</code> elige entre ambos caminos: intenta
+ * construir el AFD del AFN original con una cantidad de estados
+ * proporcional a la del AFN y, si no alcanza, aplica este algoritmo.
+ * @see Minimizacion
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Brzozowski {
+    
+    /**
+     * Cantidad de estados del AFD por cada estado del AFN con la
+     * que <code>getAFDminimo</code> intenta construir el AFD del
+     * AFN original, antes de aplicar este algoritmo.
+     */
+    public static final int ESTADOS_POR_ESTADO_AFN = 4;
+    
+    /**
+     * Log para el algoritmo de Brzozowski.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Obtiene el AFD mínimo de un autómata mediante la
+     * minimización de Brzozowski.
+     * @param afn El autómata, con su alfabeto.
+     * @return El <code>AFD</code> mínimo equivalente a <code>afn</code>.
+     */
+    public static AFD getAFD(Automata afn) {
+        return getAFD(afn, new Limites());
+    }
+    
+    /**
+     * Obtiene el AFD mínimo de un autómata mediante la minimización
+     * de Brzozowski, verificando los límites en ambas conversiones.
+     * @param afn El autómata, con su alfabeto.
+     * @param limites Los límites de las conversiones.
+     * @return El <code>AFD</code> mínimo equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(Automata afn, Limites limites) {
+        // Logging
+        log.vaciar();
+        log.agregar("Minimización de Brzozowski".toUpperCase()).nuevaLinea();
+        log.agregar("--------------------------").nuevaLinea().nuevaLinea();
+        
+        AFN invertido = invertir(afn);
+        AFD afdInvertido = Subconjuntos.getAFDBits(invertido, iniciales(afn, invertido), limites);
+        
+        // Logging
+        log.agregar("AFN invertido: " + invertido.cantidadEstados() + " estados, ")
+           .agregar("AFD del invertido: " + afdInvertido.cantidadEstados() + " estados").nuevaLinea();
+        
+        AFN original = invertir(afdInvertido);
+        AFD afd = Subconjuntos.getAFDBits(original, iniciales(afdInvertido, original), limites);
+        
+        // Logging
+        log.agregar("AFN original: " + original.cantidadEstados() + " estados, ")
+           .agregar("AFD mínimo: " + afd.cantidadEstados() + " estados").nuevaLinea();
+        
+        return afd;
+    }
+    
+    /**
+     * Obtiene el AFD mínimo de un AFN, eligiendo entre convertirlo
+     * con <code>Subconjuntos</code> y minimizarlo con
+     * <code>Minimizacion</code>, o aplicar la minimización de
+     * Brzozowski.<br><br>
+     * Primero se intenta la conversión con a lo sumo
+     * <code>ESTADOS_POR_ESTADO_AFN</code> estados del AFD por cada
+     * estado del AFN. Si el AFD necesita más estados, se aplica la
+     * minimización de Brzozowski, sin terminar de construirlo.
+     * @param afn El AFN, con su alfabeto.
+     * @param limites Los límites de las conversiones y de la minimización.
+     * @return El <code>AFD</code> mínimo equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDminimo(Automata afn, Limites limites) {
+        int presupuesto = ESTADOS_POR_ESTADO_AFN * afn.cantidadEstados();
+        
+        try {
+            AFD afd = Subconjuntos.getAFDBits(afn, limites.acotar(presupuesto));
+            return Minimizacion.getAFDminimo(afd, limites).getAfdPostIdentidades();
+        }
+        catch (ExcepcionLimite ex) {
+            /* Solamente si se excedió el presupuesto, y no los límites originales */
+            if (ex.getMotivo() != ExcepcionLimite.Motivo.ESTADOS
+                    || (limites.getMaxEstados() > 0 && limites.getMaxEstados() <= presupuesto))
+                throw ex;
+        }
+        
+        return getAFD(afn, limites);
+    }
+    
+    /**
+     * Obtiene el autómata inverso de otro, que reconoce las cadenas
+     * del lenguaje original escritas al revés. Tiene los mismos estados
+     * que el original, en el mismo orden, con las transiciones
+     * invertidas, y el único estado final es el correspondiente al
+     * estado inicial del original. Los estados iniciales son los
+     * correspondientes a los estados finales del original, que se
+     * obtienen con <code>iniciales</code>.
+     * @param automata El autómata a invertir.
+     * @return El <code>AFN</code> inverso de <code>automata</code>.
+     */
+    public static AFN invertir(Automata automata) {
+        AFN inverso = new AFN(automata.getAlfabeto(), automata.getExprReg());
+        
+        /* Estados del original, en el mismo orden */
+        for (int i=0; i < automata.cantidadEstados(); i++)
+            inverso.agregarEstado(new Estado(i, i == 0));
+        
+        /* Posición de cada estado en el original */
+        Hashtable<Estado, Integer> posiciones = new Hashtable<Estado, Integer>();
+        for (int i=0; i < automata.cantidadEstados(); i++)
+            posiciones.put(automata.getEstado(i), i);
+        
+        /* Transiciones invertidas */
+        for (int i=0; i < automata.cantidadEstados(); i++) {
+            Estado destino = inverso.getEstado(i);
+            
+            for (Transicion t : automata.getEstado(i).getTransiciones()) {
+                Estado origen = inverso.getEstado(posiciones.get(t.getEstado()));
+                origen.getTransiciones().agregar(t.copiar(destino));
+            }
+        }
+        
+        return inverso;
+    }
+    
+    /**
+     * Obtiene los estados iniciales del autómata inverso de otro,
+     * que son los correspondientes a los estados finales del original.
+     * @param automata El autómata original.
+     * @param inverso El autómata inverso, obtenido con <code>invertir</code>.
+     * @return Los estados iniciales de <code>inverso</code>.
+     */
+    public static Conjunto<Estado> iniciales(Automata automata, AFN inverso) {
+        Conjunto<Estado> iniciales = new Conjunto<Estado>();
+        
+        for (int i=0; i < automata.cantidadEstados(); i++)
+            if (automata.getEstado(i).getEsFinal())
+                iniciales.agregar(inverso.getEstado(i));
+        
+        return iniciales;
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al algoritmo de Brzozowski.
+     */
+    public static Log getLog() {
+        return log;
+    }
+}
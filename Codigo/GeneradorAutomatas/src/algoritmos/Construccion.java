@@ -0,0 +1,43 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+/**
+ * Enumeración que representa los posibles algoritmos para
+ * construir el AFN de una expresión regular a partir de su
+ * árbol sintáctico.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public enum Construccion {
+    /**
+     * Construcción de Thompson, aplicando las operaciones de la
+     * clase <code>Thompson</code> sobre AFNs independientes.
+     */
+    THOMPSON,
+    
+    /**
+     * Construcción de Thompson sobre un único arreglo de estados,
+     * enlazando fragmentos sin copiarlos.
+     * @see ConstructorThompson
+     */
+    THOMPSON_ARENA,
+    
+    /**
+     * Construcción de Glushkov, que produce un AFN sin transiciones
+     * vacías con un estado por cada posición de la expresión regular.
+     * @see Glushkov
+     */
+    GLUSHKOV,
+    
+    /**
+     * Construcción de Antimirov, que produce un AFN sin transiciones
+     * vacías a partir de las derivadas parciales de la expresión
+     * regular, con a lo sumo tantos estados como el de Glushkov.
+     * @see Antimirov
+     */
+    ANTIMIROV
+}
@@ -0,0 +1,359 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import estructuras.*;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la construcción directa de un AFD a partir
+ * del árbol sintáctico de una expresión regular, sin construir un AFN
+ * intermedio.<br><br>
+ * Se aplica el algoritmo 3.36 del libro de Compiladores de Aho (2a. ed):
+ * la expresión regular se aumenta con un marcador de fin <code>#</code>,
+ * cuya posición es la siguiente a la última, y cada estado del AFD es
+ * un conjunto de posiciones, a partir de las funciones calculadas por
+ * <code>Posiciones</code>. Los estados finales son los que contienen
+ * la posición del marcador de fin.<br><br>
+ * El AFD obtenido reconoce el mismo lenguaje que el que se obtiene
+ * aplicando <code>Subconjuntos</code> al AFN de Thompson, pero sus
+ * <code>estadosD</code> contienen posiciones de la expresión regular en
+ * lugar de estados de un AFN. Como cada conjunto de posiciones se busca
+ * por dispersión, no es necesario recorrer la lista de estados del AFD
+ * para determinar si un conjunto ya fue agregado. Los conjuntos se
+ * guardan como listas ordenadas, que ocupan memoria proporcional a
+ * su tamaño y no a la mayor posición que contienen.<br><br>
+ * Registrar los pasos en el <code>Log</code>, y los conjuntos de
+ * posiciones de cada estado en <code>estadosD</code>, es opcional,
+ * y el <code>Log</code> se limita a <code>MAX_PASOS_LOG</code> pasos.
+ * @see Posiciones
+ * @see Subconjuntos
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ConstruccionDirecta {
+    
+    /**
+     * Log para el algoritmo de construcción directa.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Cantidad máxima de líneas <code>siguientepos</code> que
+     * <code>getAFD</code> agrega al <code>Log</code> cuando se pide
+     * registrarlas, tanto de las posiciones como de los estados del
+     * AFD. Las líneas siguientes se omiten, de manera que el
+     * <code>Log</code> de una expresión grande no ocupe más tiempo y
+     * memoria que la construcción.
+     */
+    public static final int MAX_PASOS_LOG = Subconjuntos.MAX_PASOS_LOG;
+    
+    /**
+     * Construye el AFD de una expresión regular a partir de su árbol
+     * sintáctico, aplicando el algoritmo 3.36 del libro de Compiladores
+     * de Aho (2a. ed), registrando los pasos en el <code>Log</code>.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @param alfabeto El alfabeto de la expresión regular.
+     * @param exprReg La expresión regular.
+     * @return El <code>AFD</code> para <code>arbol</code>.
+     */
+    public static AFD getAFD(NodoExprReg arbol, Alfabeto alfabeto, String exprReg) {
+        return getAFD(arbol, alfabeto, exprReg, new Limites(), true);
+    }
+    
+    /**
+     * Construye el AFD de una expresión regular a partir de su árbol
+     * sintáctico con el mismo algoritmo que <code>getAFD</code>,
+     * verificando los límites luego de agregar cada estado del AFD,
+     * sin registrar los pasos en el <code>Log</code>.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @param alfabeto El alfabeto de la expresión regular.
+     * @param exprReg La expresión regular.
+     * @param limites Los límites de la construcción.
+     * @return El <code>AFD</code> para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(NodoExprReg arbol, Alfabeto alfabeto, String exprReg, Limites limites) {
+        return getAFD(arbol, alfabeto, exprReg, limites, false);
+    }
+    
+    /**
+     * Construye el AFD de una expresión regular a partir de su árbol
+     * sintáctico con el mismo algoritmo que <code>getAFD</code>,
+     * verificando los límites luego de agregar cada estado del AFD.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @param alfabeto El alfabeto de la expresión regular.
+     * @param exprReg La expresión regular.
+     * @param limites Los límites de la construcción.
+     * @param registrar Indica si se registran en el <code>Log</code>
+     * las primeras <code>MAX_PASOS_LOG</code> líneas, y en
+     * <code>estadosD</code> los conjuntos de posiciones del AFD.
+     * @return El <code>AFD</code> para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(NodoExprReg arbol, Alfabeto alfabeto, String exprReg, Limites limites, boolean registrar) {
+        Posiciones pos = new Posiciones(arbol);
+        
+        /* Posición del marcador de fin */
+        int fin = pos.cantidad() + 1;
+        
+        // Logging
+        log.vaciar();
+        log.agregar("Cálculo de posiciones siguientes".toUpperCase()).nuevaLinea();
+        log.agregar("--------------------------------").nuevaLinea().nuevaLinea();
+        
+        /* Estados que representan a cada posición, solo para registrarlas */
+        Estado[] posiciones = null;
+        if (registrar) {
+            posiciones = new Estado[fin + 1];
+            for (int p=1; p <= fin; p++)
+                posiciones[p] = new Estado(p);
+        }
+        
+        /* Posiciones siguientes, incluyendo al marcador de fin, que es la mayor */
+        int[][] siguientes = new int[fin + 1][];
+        for (int p=1; p < fin; p++) {
+            siguientes[p] = pos.getSiguientes(p);
+            
+            if (pos.getUltimos().get(p)) {
+                int[] extendidos = new int[siguientes[p].length + 1];
+                System.arraycopy(siguientes[p], 0, extendidos, 0, siguientes[p].length);
+                extendidos[siguientes[p].length] = fin;
+                siguientes[p] = extendidos;
+            }
+            
+            // Logging
+            if (registrar && p <= MAX_PASOS_LOG)
+                log.agregar("siguientepos(" + p + ") = " + conjunto(siguientes[p], posiciones)).nuevaLinea();
+        }
+        
+        // Logging
+        if (registrar && fin - 1 > MAX_PASOS_LOG)
+            log.agregar("(" + (fin - 1 - MAX_PASOS_LOG) + " posiciones no registradas)").nuevaLinea();
+        
+        /* Posiciones de cada símbolo del alfabeto */
+        Vector<String> simbolos = new Vector<String>();
+        Vector<BitSet> posicionesSimbolo = new Vector<BitSet>();
+        
+        for (String simbolo : alfabeto) {
+            BitSet b = new BitSet();
+            for (int p=1; p < fin; p++)
+                if (pos.acepta(p, simbolo))
+                    b.set(p);
+            
+            simbolos.add(simbolo);
+            posicionesSimbolo.add(b);
+        }
+        
+        /* AFD resultante */
+        AFD afd = new AFD(alfabeto, exprReg);
+        int transiciones = 0;
+        
+        /* Conjuntos de posiciones de cada estado del AFD, como listas ordenadas */
+        Vector<int[]> estadosD = new Vector<int[]>();
+        HashMap<ListaPosiciones, Integer> indices = new HashMap<ListaPosiciones, Integer>();
+        long memoria = 0;
+        
+        /* El estado inicial corresponde a primerapos de (r)# */
+        BitSet primeros = pos.getPrimeros();
+        int[] inicial = new int[primeros.cardinality() + (pos.getAnulable() ? 1 : 0)];
+        int k = 0;
+        for (int p = primeros.nextSetBit(0); p >= 0; p = primeros.nextSetBit(p + 1))
+            inicial[k++] = p;
+        if (pos.getAnulable())
+            inicial[k] = fin;
+        
+        // Logging
+        if (registrar)
+            log.nuevaLinea().agregar("primerapos(raíz) = " + conjunto(inicial, posiciones)).nuevaLinea().nuevaLinea();
+        
+        estadosD.add(inicial);
+        indices.put(new ListaPosiciones(inicial), 0);
+        afd.agregarEstado(new Estado(0, contieneFin(inicial, fin)));
+        
+        /* Marcas de las posiciones ya agregadas a U, y las posiciones de U */
+        int[] marca = new int[fin + 1];
+        Arrays.fill(marca, -1);
+        int[] buffer = new int[fin];
+        int paso = 0;
+        
+        /*
+         * Los estados del AFD se agregan en el orden en que se
+         * encuentran, por lo que los estados sin marcar son los
+         * que siguen al estado que se está procesando.
+         */
+        for (int i=0; i < estadosD.size(); i++) {
+            int[] T = estadosD.get(i);
+            Estado estadoOrigen = afd.getEstado(i);
+            
+            for (int s=0; s < simbolos.size(); s++) {
+                /* U es la unión de siguientepos(p) para cada p de T del símbolo */
+                BitSet candidatas = posicionesSimbolo.get(s);
+                int tope = 0;
+                
+                for (int p : T) {
+                    if (!candidatas.get(p))
+                        continue;
+                    
+                    for (int q : siguientes[p]) {
+                        if (marca[q] != paso) {
+                            marca[q] = paso;
+                            buffer[tope++] = q;
+                        }
+                    }
+                }
+                
+                paso++;
+                int[] U = new int[tope];
+                System.arraycopy(buffer, 0, U, 0, tope);
+                Arrays.sort(U);
+                
+                // Logging
+                if (registrarPaso(registrar, i, s, simbolos.size())) {
+                    log.agregar("siguientepos(" + conjunto(T, posiciones) + ", " + simbolos.get(s) + ") = ")
+                       .agregar(conjunto(U, posiciones).toString())
+                       .nuevaLinea();
+                }
+                
+                if (U.length == 0)
+                    continue;
+                
+                ListaPosiciones clave = new ListaPosiciones(U);
+                Integer indice = indices.get(clave);
+                if (indice == null) {
+                    indice = estadosD.size();
+                    estadosD.add(U);
+                    indices.put(clave, indice);
+                    afd.agregarEstado(new Estado(indice, contieneFin(U, fin)));
+                    
+                    memoria += 4L * U.length + 80;
+                    limites.verificarAFD("ConstruccionDirecta", afd.cantidadEstados(), transiciones, memoria);
+                }
+                
+                Transicion trans = new Transicion(afd.getEstado(indice), simbolos.get(s));
+                estadoOrigen.getTransiciones().agregar(trans);
+                transiciones++;
+            }
+            
+            // Logging
+            if (registrarPaso(registrar, i, 0, simbolos.size()))
+                log.nuevaLinea();
+        }
+        
+        // Logging
+        long omitidos = (long) afd.cantidadEstados() * simbolos.size() - MAX_PASOS_LOG;
+        if (registrar && omitidos > 0) {
+            log.agregar("(" + omitidos + " pasos no registrados, ")
+               .agregar(afd.cantidadEstados() + " estados del AFD)").nuevaLinea();
+        }
+        
+        /* Conjuntos de posiciones de cada estado del AFD */
+        if (registrar) {
+            Conjunto<Conjunto<Estado>> conjuntos = new Conjunto<Conjunto<Estado>>();
+            for (int[] lista : estadosD)
+                conjuntos.agregar(conjunto(lista, posiciones));
+            
+            afd.setEstadosD(conjuntos);
+        }
+        
+        return afd;
+    }
+    
+    /**
+     * Indica si se registra en el <code>Log</code> un paso de la
+     * construcción, numerados según el estado del AFD y la posición
+     * del símbolo.
+     * @param registrar Indica si se pidió registrar los pasos.
+     * @param estado El número del estado del AFD.
+     * @param simbolo La posición del símbolo.
+     * @param simbolos La cantidad de símbolos del alfabeto.
+     * @return <code>true</code> si el paso se registra.
+     */
+    private static boolean registrarPaso(boolean registrar, int estado, int simbolo, int simbolos) {
+        return registrar && (long) estado * simbolos + simbolo < MAX_PASOS_LOG;
+    }
+    
+    /**
+     * Determina si un conjunto de posiciones contiene al marcador de
+     * fin, que por ser la mayor posición es el último de la lista.
+     * @param lista Las posiciones, en orden.
+     * @param fin La posición del marcador de fin.
+     * @return <code>true</code> si el conjunto contiene a <code>fin</code>.
+     */
+    private static boolean contieneFin(int[] lista, int fin) {
+        return lista.length > 0 && lista[lista.length - 1] == fin;
+    }
+    
+    /**
+     * Convierte una lista de posiciones en un <code>Conjunto</code>
+     * de los <code>Estado</code>s que las representan.
+     * @param lista Las posiciones.
+     * @param posiciones Los estados que representan a cada posición.
+     * @return El <code>Conjunto</code> de estados.
+     */
+    private static Conjunto<Estado> conjunto(int[] lista, Estado[] posiciones) {
+        Conjunto<Estado> resultado = new Conjunto<Estado>();
+        
+        for (int p : lista)
+            resultado.agregar(posiciones[p]);
+        
+        return resultado;
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al algoritmo de construcción directa.
+     */
+    public static Log getLog() {
+        return log;
+    }
+    
+    /**
+     * Conjunto de posiciones de un estado del AFD, como lista ordenada,
+     * utilizado como clave en la tabla de dispersión de los estados.
+     * El código de dispersión se calcula una única vez.
+     */
+    private static class ListaPosiciones {
+        
+        /**
+         * Las posiciones, en orden.
+         */
+        private int[] lista;
+        
+        /**
+         * Código de dispersión de la lista.
+         */
+        private int codigo;
+        
+        /**
+         * Constructor de la clase.
+         * @param lista Las posiciones, en orden.
+         */
+        private ListaPosiciones(int[] lista) {
+            this.lista = lista;
+            this.codigo = Arrays.hashCode(lista);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            
+            return Arrays.equals(lista, ((ListaPosiciones) obj).lista);
+        }
+        
+        @Override
+        public int hashCode() {
+            return codigo;
+        }
+    }
+}
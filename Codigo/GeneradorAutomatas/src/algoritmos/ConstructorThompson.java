@@ -0,0 +1,593 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import estructuras.AFN;
+import estructuras.ConjuntoSimbolos;
+import estructuras.Estado;
+import estructuras.Transicion;
+import java.util.Stack;
+
+/**
+ * Esta clase construye el AFN de Thompson de un árbol sintáctico
+ * sin copiar los AFN de los operandos en cada operación.<br><br>
+ * Los métodos de <code>Thompson</code> crean un AFN nuevo por cada
+ * operador y copian en él todos los estados de sus operandos, por
+ * lo que una cadena de k concatenaciones cuesta O(k²). Aquí, en
+ * cambio, todos los estados se agregan a un único arreglo, donde se
+ * identifican con un entero, y cada fragmento del AFN mantiene la
+ * lista de sus transiciones pendientes, es decir, las que todavía no
+ * tienen estado destino. Enlazar dos fragmentos consiste en completar
+ * esas transiciones con el estado inicial del siguiente, igual que en
+ * la construcción original de Thompson, de manera a que cada transición
+ * se crea y se completa una única vez.<br><br>
+ * Las uniones y concatenaciones de más de dos operandos se construyen
+ * directamente: una unión agrega un solo estado, con una transición
+ * vacía hacia cada operando, y una concatenación no agrega estados.
+ * Solo las repeticiones acotadas copian su operando, una vez por cada
+ * repetición. Así, el costo de la construcción es lineal en el tamaño
+ * de la expresión regular.<br><br>
+ * El AFN obtenido reconoce el mismo lenguaje que el de
+ * <code>Thompson.construir</code>, con menos estados y transiciones
+ * vacías, y conserva sus convenciones: el estado inicial es el 0 y el
+ * único estado final es el último, sin transiciones salientes.
+ * @see Thompson
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ConstructorThompson {
+    
+    /**
+     * Capacidad inicial de los arreglos de estados y transiciones.
+     */
+    private static final int CAPACIDAD_INICIAL = 16;
+    
+    /**
+     * Cantidad de estados agregados.
+     */
+    private int cantidadEstados;
+    
+    /**
+     * Cantidad de transiciones agregadas.
+     */
+    private int cantidadAristas;
+    
+    /**
+     * Estado origen de cada transición.
+     */
+    private int[] origen;
+    
+    /**
+     * Estado destino de cada transición, o -1 si está pendiente.
+     */
+    private int[] destino;
+    
+    /**
+     * Siguiente transición en la lista de transiciones pendientes
+     * de un fragmento, o -1 si es la última.
+     */
+    private int[] siguiente;
+    
+    /**
+     * Símbolo de cada transición, o <code>null</code> si está
+     * etiquetada con una clase de caracteres.
+     */
+    private String[] simbolos;
+    
+    /**
+     * Clase de caracteres de cada transición, o <code>null</code>
+     * si está etiquetada con un símbolo.
+     */
+    private ConjuntoSimbolos[] clases;
+    
+    /**
+     * Límites de memoria y tiempo de la construcción.
+     */
+    private Limites limites;
+    
+    /**
+     * Construye el AFN de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico.
+     * @return El AFN para <code>arbol</code>.
+     */
+    public static AFN construir(NodoExprReg arbol) {
+        return construir(arbol, new Limites());
+    }
+    
+    /**
+     * Construye el AFN de un árbol sintáctico, verificando los límites
+     * de memoria y tiempo luego de procesar cada nodo y cada copia de
+     * las repeticiones acotadas.
+     * @param arbol La raíz del árbol sintáctico.
+     * @param limites Los límites de la construcción.
+     * @return El AFN para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFN construir(NodoExprReg arbol, Limites limites) {
+        return new ConstructorThompson(limites).construirAFN(arbol);
+    }
+    
+    /**
+     * Constructor de la clase.
+     * @param limites Los límites de la construcción.
+     */
+    private ConstructorThompson(Limites limites) {
+        this.limites = limites;
+        origen = new int[CAPACIDAD_INICIAL];
+        destino = new int[CAPACIDAD_INICIAL];
+        siguiente = new int[CAPACIDAD_INICIAL];
+        simbolos = new String[CAPACIDAD_INICIAL];
+        clases = new ConjuntoSimbolos[CAPACIDAD_INICIAL];
+    }
+    
+    /**
+     * Construye los fragmentos del árbol en postorden y
+     * convierte el resultado en un <code>AFN</code>.
+     * @param arbol La raíz del árbol sintáctico.
+     * @return El AFN para <code>arbol</code>.
+     */
+    private AFN construirAFN(NodoExprReg arbol) {
+        /* Pila con los fragmentos de los nodos ya procesados */
+        Stack<Fragmento> pila = new Stack<Fragmento>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            Fragmento[] hijos = new Fragmento[nodo.cantidadHijos()];
+            for (int i = hijos.length - 1; i >= 0; i--)
+                hijos[i] = pila.pop();
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                case CLASE:
+                    pila.push(basico(nodo));
+                    break;
+                case UNION:
+                    pila.push(union(hijos));
+                    break;
+                case CONCATENACION:
+                    pila.push(concatenacion(hijos));
+                    break;
+                case CERRADURA_KLEENE:
+                    pila.push(cerraduraKleene(hijos[0]));
+                    break;
+                case CERRADURA_POSITIVA:
+                    pila.push(cerraduraPositiva(hijos[0]));
+                    break;
+                case REPETICION:
+                    pila.push(repeticion(hijos[0], nodo.getMinimo(), nodo.getMaximo()));
+                    break;
+                default:
+                    pila.push(opcion(hijos[0]));
+            }
+            
+            limites.verificarAFN("ConstructorThompson", cantidadEstados, cantidadAristas);
+        }
+        
+        /* Las transiciones pendientes del AFN llevan al estado final */
+        Fragmento raiz = pila.pop();
+        int fin = nuevoEstado();
+        enlazar(raiz, fin);
+        
+        return convertir(raiz.inicio, fin);
+    }
+    
+    /**
+     * Construye el fragmento de un símbolo o de una clase de
+     * caracteres: un estado con una transición pendiente.
+     * @param nodo El nodo del símbolo o de la clase.
+     * @return El fragmento construido.
+     */
+    private Fragmento basico(NodoExprReg nodo) {
+        int estado = nuevoEstado();
+        int arista = nuevaArista(estado, nodo.getSimbolo(), nodo.getClase());
+        return nuevoFragmento(estado, arista, estado);
+    }
+    
+    /**
+     * Construye el fragmento de una unión de cualquier cantidad de
+     * operandos, con un nuevo estado inicial que tiene una transición
+     * vacía hacia el inicio de cada operando. Las transiciones
+     * pendientes son las de todos los operandos.
+     * @param hijos Los fragmentos de los operandos.
+     * @return El fragmento construido.
+     */
+    private Fragmento union(Fragmento[] hijos) {
+        int estado = nuevoEstado();
+        
+        Fragmento f = new Fragmento();
+        f.desde = hijos[0].desde;
+        f.desdeArista = hijos[0].desdeArista;
+        f.inicio = estado;
+        f.primera = f.ultima = -1;
+        
+        for (Fragmento h : hijos) {
+            int arista = nuevaArista(estado, Alfabeto.VACIO, null);
+            destino[arista] = h.inicio;
+            agregarPendientes(f, h);
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una concatenación de cualquier
+     * cantidad de operandos, completando las transiciones pendientes
+     * de cada operando con el inicio del siguiente.
+     * @param hijos Los fragmentos de los operandos.
+     * @return El fragmento construido.
+     */
+    private Fragmento concatenacion(Fragmento[] hijos) {
+        for (int i=0; i < hijos.length - 1; i++)
+            enlazar(hijos[i], hijos[i + 1].inicio);
+        
+        Fragmento ultimo = hijos[hijos.length - 1];
+        
+        Fragmento f = new Fragmento();
+        f.desde = hijos[0].desde;
+        f.desdeArista = hijos[0].desdeArista;
+        f.inicio = hijos[0].inicio;
+        f.primera = ultimo.primera;
+        f.ultima = ultimo.ultima;
+        return f;
+    }
+    
+    /**
+     * Aplica la cerradura de Kleene (*) a un fragmento.
+     * @param h El fragmento del operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento cerraduraKleene(Fragmento h) {
+        int estado = nuevoEstado();
+        int entrada = nuevaArista(estado, Alfabeto.VACIO, null);
+        destino[entrada] = h.inicio;
+        enlazar(h, estado);
+        
+        int salida = nuevaArista(estado, Alfabeto.VACIO, null);
+        return nuevoFragmento(estado, salida, h);
+    }
+    
+    /**
+     * Aplica la cerradura positiva (+) a un fragmento. A diferencia
+     * de <code>Thompson.cerraduraPositiva</code>, el operando no se
+     * duplica: basta con volver a su inicio luego de recorrerlo.
+     * @param h El fragmento del operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento cerraduraPositiva(Fragmento h) {
+        int estado = nuevoEstado();
+        enlazar(h, estado);
+        int entrada = nuevaArista(estado, Alfabeto.VACIO, null);
+        destino[entrada] = h.inicio;
+        
+        int salida = nuevaArista(estado, Alfabeto.VACIO, null);
+        return nuevoFragmento(h.inicio, salida, h);
+    }
+    
+    /**
+     * Aplica el operador de opción (?) a un fragmento.
+     * @param h El fragmento del operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento opcion(Fragmento h) {
+        int estado = nuevoEstado();
+        int entrada = nuevaArista(estado, Alfabeto.VACIO, null);
+        destino[entrada] = h.inicio;
+        
+        int salida = nuevaArista(estado, Alfabeto.VACIO, null);
+        Fragmento f = nuevoFragmento(estado, salida, h);
+        agregarPendientes(f, h);
+        return f;
+    }
+    
+    /**
+     * Aplica el operador de repetición acotada ({m}, {m,} o {m,n}) a
+     * un fragmento. El operando se copia una vez por cada repetición
+     * y las copias se enlazan como <code>x x (x (x)?)?</code>, de
+     * manera a no volver a copiar lo ya construido.
+     * @param h El fragmento del operando.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1 si
+     * no hay cota superior.
+     * @return El fragmento construido.
+     */
+    private Fragmento repeticion(Fragmento h, int minimo, int maximo) {
+        if (maximo == 0) {
+            /* El operando queda inalcanzable y no pasa al AFN */
+            int estado = nuevoEstado();
+            int salida = nuevaArista(estado, Alfabeto.VACIO, null);
+            return nuevoFragmento(estado, salida, h);
+        }
+        
+        /*
+         * Copias del operando: la primera es el mismo operando. Todas
+         * las copias se realizan antes de enlazarlas, de manera a no
+         * copiar las transiciones agregadas entre una copia y la siguiente.
+         */
+        int copias = (maximo < 0) ? Math.max(minimo, 1) : maximo;
+        Fragmento[] partes = new Fragmento[copias];
+        
+        int hastaEstado = cantidadEstados;
+        int hastaArista = cantidadAristas;
+        
+        partes[0] = h;
+        for (int i=1; i < copias; i++) {
+            partes[i] = copiar(h, hastaEstado, hastaArista);
+            limites.verificarAFN("ConstructorThompson", cantidadEstados, cantidadAristas);
+        }
+        
+        /* Enlazamos las copias desde la última hacia la primera */
+        Fragmento f = partes[copias - 1];
+        
+        if (maximo < 0)
+            f = (minimo == 0) ? cerraduraKleene(f) : cerraduraPositiva(f);
+        else if (copias - 1 >= minimo)
+            f = opcion(f);
+        
+        for (int i = copias - 2; i >= 0; i--) {
+            f = concatenacion(new Fragmento[] { partes[i], f });
+            
+            if (maximo >= 0 && i >= minimo)
+                f = opcion(f);
+        }
+        
+        f.desde = h.desde;
+        f.desdeArista = h.desdeArista;
+        return f;
+    }
+    
+    /**
+     * Copia los estados y transiciones de un fragmento al final de
+     * los arreglos. Como los fragmentos se construyen en postorden,
+     * los estados y transiciones de un fragmento son los agregados
+     * desde <code>desde</code> y <code>desdeArista</code> hasta el
+     * momento de construirlo, y sus transiciones no salen de ese rango.
+     * @param h El fragmento a copiar.
+     * @param hastaEstado El estado siguiente al último del fragmento.
+     * @param hastaArista La transición siguiente a la última del fragmento.
+     * @return El fragmento copiado.
+     */
+    private Fragmento copiar(Fragmento h, int hastaEstado, int hastaArista) {
+        int desplazamiento = cantidadEstados - h.desde;
+        int desplazamientoAristas = cantidadAristas - h.desdeArista;
+        
+        for (int e = h.desde; e < hastaEstado; e++)
+            nuevoEstado();
+        
+        for (int a = h.desdeArista; a < hastaArista; a++) {
+            int copia = nuevaArista(origen[a] + desplazamiento, simbolos[a], clases[a]);
+            
+            if (destino[a] >= 0)
+                destino[copia] = destino[a] + desplazamiento;
+            
+            if (siguiente[a] >= 0)
+                siguiente[copia] = siguiente[a] + desplazamientoAristas;
+        }
+        
+        Fragmento f = new Fragmento();
+        f.desde = h.desde + desplazamiento;
+        f.desdeArista = h.desdeArista + desplazamientoAristas;
+        f.inicio = h.inicio + desplazamiento;
+        f.primera = h.primera + desplazamientoAristas;
+        f.ultima = h.ultima + desplazamientoAristas;
+        return f;
+    }
+    
+    /**
+     * Completa las transiciones pendientes de un fragmento con un estado.
+     * @param f El fragmento.
+     * @param estado El estado destino de las transiciones pendientes.
+     */
+    private void enlazar(Fragmento f, int estado) {
+        for (int a = f.primera; a >= 0; a = siguiente[a])
+            destino[a] = estado;
+    }
+    
+    /**
+     * Agrega las transiciones pendientes de un fragmento al final
+     * de la lista de transiciones pendientes de otro.
+     * @param f El fragmento al cual agregar las transiciones.
+     * @param h El fragmento cuyas transiciones pendientes se agregan.
+     */
+    private void agregarPendientes(Fragmento f, Fragmento h) {
+        if (f.primera < 0)
+            f.primera = h.primera;
+        else
+            siguiente[f.ultima] = h.primera;
+        
+        f.ultima = h.ultima;
+    }
+    
+    /**
+     * Crea un fragmento con una única transición pendiente.
+     * @param inicio El estado inicial del fragmento.
+     * @param salida La transición pendiente.
+     * @param desde El primer estado del fragmento.
+     * @return El fragmento creado.
+     */
+    private Fragmento nuevoFragmento(int inicio, int salida, int desde) {
+        Fragmento f = new Fragmento();
+        f.desde = desde;
+        f.desdeArista = salida;
+        f.inicio = inicio;
+        f.primera = f.ultima = salida;
+        return f;
+    }
+    
+    /**
+     * Crea un fragmento con una única transición pendiente, que
+     * abarca a los estados y transiciones de su operando.
+     * @param inicio El estado inicial del fragmento.
+     * @param salida La transición pendiente.
+     * @param h El fragmento del operando.
+     * @return El fragmento creado.
+     */
+    private Fragmento nuevoFragmento(int inicio, int salida, Fragmento h) {
+        Fragmento f = nuevoFragmento(inicio, salida, h.desde);
+        f.desdeArista = h.desdeArista;
+        return f;
+    }
+    
+    /**
+     * Agrega un estado.
+     * @return El identificador del nuevo estado.
+     */
+    private int nuevoEstado() {
+        return cantidadEstados++;
+    }
+    
+    /**
+     * Agrega una transición pendiente.
+     * @param desde El estado origen de la transición.
+     * @param simbolo El símbolo de la transición.
+     * @param clase La clase de caracteres de la transición, o
+     * <code>null</code> si está etiquetada con <code>simbolo</code>.
+     * @return El identificador de la nueva transición.
+     */
+    private int nuevaArista(int desde, String simbolo, ConjuntoSimbolos clase) {
+        if (cantidadAristas == origen.length) {
+            int capacidad = 2 * origen.length;
+            origen = ampliar(origen, capacidad);
+            destino = ampliar(destino, capacidad);
+            siguiente = ampliar(siguiente, capacidad);
+            
+            String[] tmpSimbolos = new String[capacidad];
+            System.arraycopy(simbolos, 0, tmpSimbolos, 0, cantidadAristas);
+            simbolos = tmpSimbolos;
+            
+            ConjuntoSimbolos[] tmpClases = new ConjuntoSimbolos[capacidad];
+            System.arraycopy(clases, 0, tmpClases, 0, cantidadAristas);
+            clases = tmpClases;
+        }
+        
+        int arista = cantidadAristas++;
+        origen[arista] = desde;
+        destino[arista] = -1;
+        siguiente[arista] = -1;
+        simbolos[arista] = (clase == null) ? simbolo : null;
+        clases[arista] = clase;
+        return arista;
+    }
+    
+    /**
+     * Amplía la capacidad de un arreglo.
+     * @param arreglo El arreglo a ampliar.
+     * @param capacidad La nueva capacidad.
+     * @return Un arreglo con los mismos elementos y la nueva capacidad.
+     */
+    private static int[] ampliar(int[] arreglo, int capacidad) {
+        int[] tmp = new int[capacidad];
+        System.arraycopy(arreglo, 0, tmp, 0, arreglo.length);
+        return tmp;
+    }
+    
+    /**
+     * Convierte los estados alcanzables desde el estado inicial en
+     * un <code>AFN</code>. Los estados se numeran en el orden de un
+     * recorrido en anchura, salvo el estado final, que es el último.
+     * @param inicio El estado inicial.
+     * @param fin El estado final.
+     * @return El AFN construido.
+     */
+    private AFN convertir(int inicio, int fin) {
+        /* Transiciones agrupadas por estado origen, en orden de creación */
+        int[] primeraSaliente = new int[cantidadEstados + 1];
+        for (int a=0; a < cantidadAristas; a++)
+            primeraSaliente[origen[a] + 1]++;
+        
+        for (int e=0; e < cantidadEstados; e++)
+            primeraSaliente[e + 1] += primeraSaliente[e];
+        
+        int[] salientes = new int[cantidadAristas];
+        int[] posicion = new int[cantidadEstados];
+        System.arraycopy(primeraSaliente, 0, posicion, 0, cantidadEstados);
+        
+        for (int a=0; a < cantidadAristas; a++)
+            salientes[posicion[origen[a]]++] = a;
+        
+        /* Recorrido en anchura para numerar los estados alcanzables */
+        int[] numero = new int[cantidadEstados];
+        for (int e=0; e < cantidadEstados; e++)
+            numero[e] = -1;
+        
+        int[] orden = new int[cantidadEstados];
+        int cantidad = 0;
+        
+        orden[cantidad] = inicio;
+        numero[inicio] = cantidad++;
+        
+        for (int i=0; i < cantidad; i++) {
+            int e = orden[i];
+            
+            for (int j = primeraSaliente[e]; j < primeraSaliente[e + 1]; j++) {
+                int d = destino[salientes[j]];
+                
+                if (numero[d] < 0 && d != fin) {
+                    orden[cantidad] = d;
+                    numero[d] = cantidad++;
+                }
+            }
+        }
+        
+        orden[cantidad] = fin;
+        numero[fin] = cantidad++;
+        
+        /* Creamos los estados y sus transiciones */
+        AFN afn = new AFN();
+        for (int i=0; i < cantidad; i++)
+            afn.agregarEstado(new Estado(i, orden[i] == fin));
+        
+        for (int i=0; i < cantidad; i++) {
+            int e = orden[i];
+            Estado estado = afn.getEstado(i);
+            
+            for (int j = primeraSaliente[e]; j < primeraSaliente[e + 1]; j++) {
+                int a = salientes[j];
+                Estado d = afn.getEstado(numero[destino[a]]);
+                
+                if (clases[a] == null)
+                    estado.getTransiciones().agregar(new Transicion(d, simbolos[a]));
+                else
+                    estado.getTransiciones().agregar(new Transicion(d, clases[a]));
+            }
+        }
+        
+        return afn;
+    }
+    
+    /**
+     * Fragmento de AFN construido para un nodo del árbol sintáctico.
+     * Sus estados y transiciones son los agregados a partir de
+     * <code>desde</code> y <code>desdeArista</code>, respectivamente.
+     */
+    private static class Fragmento {
+        
+        /**
+         * Primer estado del fragmento.
+         */
+        private int desde;
+        
+        /**
+         * Primera transición del fragmento.
+         */
+        private int desdeArista;
+        
+        /**
+         * Estado inicial del fragmento.
+         */
+        private int inicio;
+        
+        /**
+         * Primera transición pendiente.
+         */
+        private int primera;
+        
+        /**
+         * Última transición pendiente.
+         */
+        private int ultima;
+    }
+}
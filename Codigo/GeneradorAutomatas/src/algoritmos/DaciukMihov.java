@@ -0,0 +1,849 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import estructuras.*;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Esta clase construye el AFD mínimo que reconoce un conjunto finito
+ * de palabras, con el algoritmo incremental de Daciuk y Mihov, sin
+ * construir el AFN de la unión de las palabras ni su AFD.<br><br>
+ * Las palabras se agregan de a una. Los estados cuyo lenguaje ya no
+ * puede cambiar se guardan en un registro y, si ya hay un estado
+ * equivalente registrado, se reemplazan por este, de manera que el
+ * autómata es mínimo luego de cada palabra y la memoria utilizada es
+ * proporcional al AFD resultante.<br><br>
+ * Si las palabras se agregan en orden lexicográfico, solamente los
+ * estados de la última palabra quedan fuera del registro, y cada
+ * palabra se agrega recorriendo los estados en los que difiere de la
+ * anterior. Si llega una palabra fuera de orden, se registran los
+ * estados pendientes y se continúa con la versión del algoritmo para
+ * palabras desordenadas, que antes de agregar una palabra clona los
+ * estados compartidos de su prefijo, y luego registra o reemplaza
+ * todos los estados de la palabra.<br><br>
+ * Los estados y transiciones se guardan en arreglos de enteros
+ * mientras se construye el autómata, y el <code>AFD</code> se
+ * crea al final, con <code>getAFD</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class DaciukMihov {
+    
+    /**
+     * Log para el algoritmo de Daciuk y Mihov.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Cantidad de palabras entre dos verificaciones de los límites.
+     */
+    private static final int PALABRAS_POR_VERIFICACION = 1024;
+    
+    /**
+     * Fila de un estado sin transiciones.
+     */
+    private static final int[] SIN_TRANSICIONES = new int[0];
+    
+    /**
+     * Alfabeto de las palabras, o <code>null</code>
+     * si se obtiene de las mismas.
+     */
+    private Alfabeto alfabeto;
+    
+    /**
+     * Indica, para cada caracter, si pertenece al alfabeto o,
+     * si no se estableció un alfabeto, si apareció en una palabra.
+     */
+    private boolean[] simbolos;
+    
+    /**
+     * Los límites de la construcción.
+     */
+    private Limites limites;
+    
+    /**
+     * Transiciones de cada estado, como pares de caracter y estado
+     * destino, ordenadas según el caracter. El estado 0 es el inicial.
+     */
+    private int[][] filas;
+    
+    /**
+     * Indica si cada estado es final.
+     */
+    private boolean[] finales;
+    
+    /**
+     * Cantidad de transiciones que llegan a cada estado.
+     */
+    private int[] entradas;
+    
+    /**
+     * Código de dispersión de cada estado registrado.
+     */
+    private int[] hashes;
+    
+    /**
+     * Cantidad de estados creados, incluyendo los eliminados.
+     */
+    private int cantidad;
+    
+    /**
+     * Estados eliminados, que se reutilizan al crear nuevos estados.
+     */
+    private int[] libres;
+    
+    /**
+     * Cantidad de estados eliminados.
+     */
+    private int cantidadLibres;
+    
+    /**
+     * Cantidad de transiciones de los estados no eliminados.
+     */
+    private int transiciones;
+    
+    /**
+     * Registro de estados, como tabla de dispersión de direccionamiento
+     * abierto con sondeo lineal, que contiene el número de cada estado
+     * registrado más uno, o 0 si la posición está libre.
+     */
+    private int[] tabla;
+    
+    /**
+     * Cantidad de estados registrados.
+     */
+    private int registrados;
+    
+    /**
+     * Indica si todas las palabras se agregaron en orden.
+     */
+    private boolean ordenado;
+    
+    /**
+     * Última palabra agregada en orden, cuyos estados no están
+     * registrados, o <code>null</code>.
+     */
+    private String anterior;
+    
+    /**
+     * Estados recorridos por la última palabra agregada.
+     */
+    private int[] camino;
+    
+    /**
+     * Cantidad de palabras distintas agregadas.
+     */
+    private int palabras;
+    
+    /**
+     * Cantidad de llamadas a <code>agregar</code>.
+     */
+    private int agregadas;
+    
+    /**
+     * Construye el autómata de un conjunto vacío de palabras.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     */
+    public DaciukMihov(Alfabeto alfabeto) {
+        this(alfabeto, new Limites());
+    }
+    
+    /**
+     * Construye el autómata de un conjunto vacío de palabras,
+     * verificando los límites a medida que se agregan palabras.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     * @param limites Los límites de la construcción.
+     */
+    public DaciukMihov(Alfabeto alfabeto, Limites limites) {
+        this.alfabeto = alfabeto;
+        this.limites = limites;
+        
+        simbolos = new boolean[Character.MAX_VALUE + 1];
+        if (alfabeto != null)
+            for (String s : alfabeto)
+                simbolos[s.charAt(0)] = true;
+        
+        filas = new int[16][];
+        finales = new boolean[16];
+        entradas = new int[16];
+        hashes = new int[16];
+        libres = new int[16];
+        tabla = new int[32];
+        camino = new int[16];
+        ordenado = true;
+        
+        /* Estado inicial */
+        nuevoEstado();
+    }
+    
+    /**
+     * Obtiene el AFD mínimo que reconoce un conjunto de palabras.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     * @param palabras Las palabras, ordenadas o no, con repeticiones o no.
+     * @return El <code>AFD</code> mínimo que reconoce <code>palabras</code>.
+     * @throws IllegalArgumentException Si una palabra tiene un símbolo
+     * que no pertenece al alfabeto.
+     */
+    public static AFD getAFD(Alfabeto alfabeto, Iterable<String> palabras) {
+        return getAFD(alfabeto, palabras, new Limites());
+    }
+    
+    /**
+     * Obtiene el AFD mínimo que reconoce un conjunto de palabras,
+     * verificando los límites a medida que se agregan palabras.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     * @param palabras Las palabras, ordenadas o no, con repeticiones o no.
+     * @param limites Los límites de la construcción.
+     * @return El <code>AFD</code> mínimo que reconoce <code>palabras</code>.
+     * @throws IllegalArgumentException Si una palabra tiene un símbolo
+     * que no pertenece al alfabeto.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(Alfabeto alfabeto, Iterable<String> palabras, Limites limites) {
+        DaciukMihov constructor = new DaciukMihov(alfabeto, limites);
+        
+        for (String palabra : palabras)
+            constructor.agregar(palabra);
+        
+        return constructor.getAFD();
+    }
+    
+    /**
+     * Obtiene el AFD mínimo que reconoce las palabras de un archivo
+     * de texto en UTF-8, una por línea, leyéndolo una única vez. Las
+     * líneas vacías se ignoran.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     * @param archivo El archivo, con las palabras ordenadas o no.
+     * @return El <code>AFD</code> mínimo que reconoce las palabras.
+     * @throws IOException Si no se puede leer el archivo.
+     * @throws IllegalArgumentException Si una palabra tiene un símbolo
+     * que no pertenece al alfabeto.
+     */
+    public static AFD getAFD(Alfabeto alfabeto, File archivo) throws IOException {
+        return getAFD(alfabeto, archivo, new Limites());
+    }
+    
+    /**
+     * Obtiene el AFD mínimo que reconoce las palabras de un archivo
+     * de texto en UTF-8, una por línea, leyéndolo una única vez y
+     * verificando los límites a medida que se agregan palabras. Las
+     * líneas vacías se ignoran.
+     * @param alfabeto El alfabeto de las palabras, o <code>null</code>
+     * para obtenerlo a partir de las mismas.
+     * @param archivo El archivo, con las palabras ordenadas o no.
+     * @param limites Los límites de la construcción.
+     * @return El <code>AFD</code> mínimo que reconoce las palabras.
+     * @throws IOException Si no se puede leer el archivo.
+     * @throws IllegalArgumentException Si una palabra tiene un símbolo
+     * que no pertenece al alfabeto.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(Alfabeto alfabeto, File archivo, Limites limites) throws IOException {
+        DaciukMihov constructor = new DaciukMihov(alfabeto, limites);
+        BufferedReader lector = new BufferedReader(new InputStreamReader(new FileInputStream(archivo), "UTF-8"));
+        
+        try {
+            String linea;
+            while ((linea = lector.readLine()) != null)
+                if (linea.length() > 0)
+                    constructor.agregar(linea);
+        }
+        finally {
+            lector.close();
+        }
+        
+        return constructor.getAFD();
+    }
+    
+    /**
+     * Agrega una palabra al autómata. Si la palabra ya fue
+     * agregada, el autómata no cambia.
+     * @param palabra La palabra a agregar.
+     * @throws IllegalArgumentException Si la palabra tiene un
+     * símbolo que no pertenece al alfabeto.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public void agregar(String palabra) {
+        verificarSimbolos(palabra);
+        
+        if (++agregadas % PALABRAS_POR_VERIFICACION == 0)
+            limites.verificarAFD("Daciuk-Mihov", cantidad - cantidadLibres, transiciones, 4L * tabla.length);
+        
+        if (palabra.length() + 1 > camino.length)
+            camino = agrandar(camino, palabra.length() + 1);
+        
+        if (ordenado && (anterior == null || palabra.compareTo(anterior) >= 0)) {
+            agregarOrdenada(palabra);
+            return;
+        }
+        
+        /* Primera palabra fuera de orden, registramos los estados pendientes */
+        if (ordenado)
+            cerrarOrden();
+        
+        agregarDesordenada(palabra);
+    }
+    
+    /**
+     * Obtiene el AFD mínimo que reconoce las palabras agregadas
+     * hasta el momento. Luego de obtenerlo pueden seguir agregándose
+     * palabras, con la versión del algoritmo para palabras desordenadas.
+     * @return El <code>AFD</code> mínimo, cuyos estados se numeran
+     * en el orden en que se alcanzan desde el estado inicial.
+     */
+    public AFD getAFD() {
+        // Logging
+        log.vaciar();
+        log.agregar("Construcción de Daciuk y Mihov".toUpperCase()).nuevaLinea();
+        log.agregar("------------------------------").nuevaLinea().nuevaLinea();
+        log.agregar("Palabras: " + palabras + (ordenado ? ", en orden" : ", desordenadas")).nuevaLinea();
+        
+        if (ordenado)
+            cerrarOrden();
+        
+        if (alfabeto == null)
+            alfabeto = new Alfabeto(simbolosVistos());
+        
+        AFD afd = new AFD(alfabeto, "{" + palabras + " palabras}");
+        
+        /*
+         * Paso 1:
+         * =======
+         * Numeramos los estados en el orden en que
+         * se alcanzan desde el estado inicial.
+         */
+        int[] numero = new int[cantidad];
+        for (int q=0; q < cantidad; q++)
+            numero[q] = -1;
+        
+        int[] orden = new int[cantidad - cantidadLibres];
+        int n = 1;
+        numero[0] = 0;
+        
+        for (int i=0; i < n; i++) {
+            int[] fila = filas[orden[i]];
+            
+            for (int t=1; t < fila.length; t += 2) {
+                if (numero[fila[t]] < 0) {
+                    numero[fila[t]] = n;
+                    orden[n++] = fila[t];
+                }
+            }
+        }
+        
+        /*
+         * Paso 2:
+         * =======
+         * Creamos los estados del AFD y sus transiciones.
+         */
+        for (int i=0; i < n; i++)
+            afd.agregarEstado(new Estado(i, finales[orden[i]]));
+        
+        for (int i=0; i < n; i++) {
+            int[] fila = filas[orden[i]];
+            Estado origen = afd.getEstado(i);
+            
+            for (int t=0; t < fila.length; t += 2) {
+                Estado destino = afd.getEstado(numero[fila[t + 1]]);
+                origen.getTransiciones().agregar(new Transicion(destino, String.valueOf((char) fila[t])));
+            }
+        }
+        
+        // Logging
+        log.agregar("AFD mínimo: " + n + " estados, " + transiciones + " transiciones").nuevaLinea();
+        
+        return afd;
+    }
+    
+    /**
+     * Agrega una palabra mayor o igual a la anterior. Los estados de
+     * la palabra anterior que siguen al prefijo común con la nueva ya
+     * no cambian, por lo que se registran o reemplazan, y luego se
+     * agregan los estados del resto de la nueva palabra.
+     * @param palabra La palabra a agregar.
+     */
+    private void agregarOrdenada(String palabra) {
+        if (palabra.equals(anterior))
+            return;
+        
+        int prefijo = 0;
+        if (anterior != null)
+            while (prefijo < anterior.length() && palabra.charAt(prefijo) == anterior.charAt(prefijo))
+                prefijo++;
+        
+        /* Paso 1: registramos los estados de la palabra anterior */
+        if (anterior != null)
+            registrarCamino(anterior, prefijo);
+        
+        /* Paso 2: agregamos los estados del resto de la palabra */
+        agregarSufijo(palabra, prefijo);
+        
+        anterior = palabra;
+        palabras++;
+    }
+    
+    /**
+     * Agrega una palabra en cualquier orden, cuando todos los estados,
+     * salvo el inicial, están registrados.
+     * @param palabra La palabra a agregar.
+     */
+    private void agregarDesordenada(String palabra) {
+        int largo = palabra.length();
+        
+        /*
+         * Paso 1:
+         * =======
+         * Recorremos el prefijo de la palabra que ya está en el
+         * autómata. Si la palabra completa está, y su estado es
+         * final, la palabra ya fue agregada.
+         */
+        int prefijo = 0;
+        camino[0] = 0;
+        
+        while (prefijo < largo) {
+            int destino = destino(camino[prefijo], palabra.charAt(prefijo));
+            if (destino < 0)
+                break;
+            
+            camino[++prefijo] = destino;
+        }
+        
+        if (prefijo == largo && finales[camino[prefijo]])
+            return;
+        
+        /*
+         * Paso 2:
+         * =======
+         * Buscamos el primer estado del prefijo al que llega más de
+         * una transición. Los estados anteriores cambian, por lo que
+         * se quitan del registro, y los demás se clonan, para no
+         * cambiar el lenguaje de los otros caminos que pasan por ellos.
+         */
+        int confluente = prefijo + 1;
+        for (int j=1; j <= prefijo; j++) {
+            if (entradas[camino[j]] > 1) {
+                confluente = j;
+                break;
+            }
+        }
+        
+        for (int j=1; j < confluente; j++)
+            quitar(camino[j]);
+        
+        for (int j=confluente; j <= prefijo; j++) {
+            int clon = clonar(camino[j]);
+            redirigir(camino[j - 1], palabra.charAt(j - 1), clon);
+            camino[j] = clon;
+        }
+        
+        /* Paso 3: agregamos los estados del resto de la palabra */
+        agregarSufijo(palabra, prefijo);
+        palabras++;
+        
+        /* Paso 4: registramos o reemplazamos todos los estados de la palabra */
+        registrarCamino(palabra, 0);
+    }
+    
+    /**
+     * Agrega los estados del resto de una palabra a partir del estado
+     * del camino correspondiente a su prefijo, y marca el último como
+     * final. Actualiza el camino con los nuevos estados.
+     * @param palabra La palabra.
+     * @param prefijo El largo del prefijo que ya está en el camino.
+     */
+    private void agregarSufijo(String palabra, int prefijo) {
+        int actual = camino[prefijo];
+        
+        for (int i=prefijo; i < palabra.length(); i++) {
+            int nuevo = nuevoEstado();
+            agregarTransicion(actual, palabra.charAt(i), nuevo);
+            camino[i + 1] = nuevo;
+            actual = nuevo;
+        }
+        
+        finales[actual] = true;
+    }
+    
+    /**
+     * Registra los estados del camino de una palabra, desde el último
+     * hasta el siguiente al prefijo dado. Si hay un estado equivalente
+     * registrado, la transición que llega al estado del camino se
+     * redirige al registrado, y el del camino se elimina.
+     * @param palabra La palabra del camino.
+     * @param prefijo El largo del prefijo cuyos estados no se registran.
+     */
+    private void registrarCamino(String palabra, int prefijo) {
+        for (int j=palabra.length(); j > prefijo; j--) {
+            int estado = camino[j];
+            int equivalente = buscar(estado);
+            
+            if (equivalente >= 0) {
+                redirigir(camino[j - 1], palabra.charAt(j - 1), equivalente);
+                eliminar(estado);
+            }
+            else {
+                registrar(estado);
+            }
+        }
+    }
+    
+    /**
+     * Registra los estados pendientes de la última palabra agregada
+     * en orden, y continúa con la versión del algoritmo para
+     * palabras desordenadas.
+     */
+    private void cerrarOrden() {
+        if (anterior != null)
+            registrarCamino(anterior, 0);
+        
+        anterior = null;
+        ordenado = false;
+    }
+    
+    /**
+     * Verifica que los símbolos de una palabra pertenezcan al alfabeto
+     * o, si no se estableció un alfabeto, los agrega al mismo.
+     * @param palabra La palabra.
+     * @throws IllegalArgumentException Si la palabra tiene un
+     * símbolo que no pertenece al alfabeto.
+     */
+    private void verificarSimbolos(String palabra) {
+        for (int i=0; i < palabra.length(); i++) {
+            char c = palabra.charAt(i);
+            
+            if (alfabeto == null && Alfabeto.VACIO.charAt(0) != c)
+                simbolos[c] = true;
+            else if (!simbolos[c])
+                throw new IllegalArgumentException("El símbolo '" + c + "' de la palabra \"" + palabra +
+                                                   "\" no pertenece al alfabeto");
+        }
+    }
+    
+    /**
+     * Obtiene los caracteres que aparecieron en las palabras.
+     * @return Los caracteres, en orden.
+     */
+    private String simbolosVistos() {
+        StringBuilder vistos = new StringBuilder();
+        
+        for (int c=0; c < simbolos.length; c++)
+            if (simbolos[c])
+                vistos.append((char) c);
+        
+        return vistos.toString();
+    }
+    
+    /**
+     * Obtiene el destino de la transición de un estado con un caracter,
+     * mediante una búsqueda binaria en su fila.
+     * @param estado El estado.
+     * @param c El caracter.
+     * @return El estado destino, o -1 si no hay transición.
+     */
+    private int destino(int estado, char c) {
+        int[] fila = filas[estado];
+        int desde = 0;
+        int hasta = fila.length / 2 - 1;
+        
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            
+            if (fila[2 * medio] < c)
+                desde = medio + 1;
+            else if (fila[2 * medio] > c)
+                hasta = medio - 1;
+            else
+                return fila[2 * medio + 1];
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Agrega una transición a un estado, en el lugar que le
+     * corresponde según su caracter. El estado no tiene otra
+     * transición con el mismo caracter.
+     * @param estado El estado origen.
+     * @param c El caracter de la transición.
+     * @param destino El estado destino.
+     */
+    private void agregarTransicion(int estado, char c, int destino) {
+        int[] fila = filas[estado];
+        int[] nueva = new int[fila.length + 2];
+        
+        int i = fila.length;
+        while (i > 0 && fila[i - 2] > c)
+            i -= 2;
+        
+        System.arraycopy(fila, 0, nueva, 0, i);
+        nueva[i] = c;
+        nueva[i + 1] = destino;
+        System.arraycopy(fila, i, nueva, i + 2, fila.length - i);
+        
+        filas[estado] = nueva;
+        entradas[destino]++;
+        transiciones++;
+    }
+    
+    /**
+     * Cambia el destino de la transición de un estado con un caracter.
+     * @param estado El estado origen, que no debe estar registrado.
+     * @param c El caracter de la transición, que debe existir.
+     * @param destino El nuevo estado destino.
+     */
+    private void redirigir(int estado, char c, int destino) {
+        int[] fila = filas[estado];
+        
+        for (int t=0; t < fila.length; t += 2) {
+            if (fila[t] == c) {
+                entradas[fila[t + 1]]--;
+                fila[t + 1] = destino;
+                entradas[destino]++;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Crea un nuevo estado, no final y sin transiciones,
+     * reutilizando un estado eliminado si lo hay.
+     * @return El nuevo estado.
+     */
+    private int nuevoEstado() {
+        int estado;
+        
+        if (cantidadLibres > 0) {
+            estado = libres[--cantidadLibres];
+        }
+        else {
+            if (cantidad == filas.length) {
+                int[][] nuevasFilas = new int[2 * cantidad][];
+                System.arraycopy(filas, 0, nuevasFilas, 0, cantidad);
+                filas = nuevasFilas;
+                finales = agrandar(finales, 2 * cantidad);
+                entradas = agrandar(entradas, 2 * cantidad);
+                hashes = agrandar(hashes, 2 * cantidad);
+            }
+            
+            estado = cantidad++;
+        }
+        
+        filas[estado] = SIN_TRANSICIONES;
+        finales[estado] = false;
+        entradas[estado] = 0;
+        return estado;
+    }
+    
+    /**
+     * Crea un nuevo estado con las mismas transiciones
+     * que otro y final si el otro lo es.
+     * @param estado El estado a clonar.
+     * @return El nuevo estado.
+     */
+    private int clonar(int estado) {
+        int clon = nuevoEstado();
+        int[] fila = filas[estado].clone();
+        
+        filas[clon] = fila;
+        finales[clon] = finales[estado];
+        
+        for (int t=1; t < fila.length; t += 2)
+            entradas[fila[t]]++;
+        
+        transiciones += fila.length / 2;
+        return clon;
+    }
+    
+    /**
+     * Elimina un estado, que no está registrado ni tiene
+     * transiciones que lleguen a él.
+     * @param estado El estado a eliminar.
+     */
+    private void eliminar(int estado) {
+        int[] fila = filas[estado];
+        
+        for (int t=1; t < fila.length; t += 2)
+            entradas[fila[t]]--;
+        
+        transiciones -= fila.length / 2;
+        filas[estado] = null;
+        
+        if (cantidadLibres == libres.length)
+            libres = agrandar(libres, 2 * cantidadLibres);
+        
+        libres[cantidadLibres++] = estado;
+    }
+    
+    /**
+     * Busca en el registro un estado equivalente a otro, es decir,
+     * final si el otro lo es y con las mismas transiciones.
+     * @param estado El estado, que no debe estar registrado.
+     * @return El estado registrado equivalente, o -1 si no hay.
+     */
+    private int buscar(int estado) {
+        int hash = hash(estado);
+        int mascara = tabla.length - 1;
+        
+        for (int i = hash & mascara; tabla[i] != 0; i = (i + 1) & mascara) {
+            int registrado = tabla[i] - 1;
+            if (hashes[registrado] == hash && equivalentes(registrado, estado))
+                return registrado;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Agrega un estado al registro, que no tiene
+     * un estado equivalente registrado.
+     * @param estado El estado.
+     */
+    private void registrar(int estado) {
+        /* La tabla se mantiene ocupada a lo sumo hasta la mitad */
+        if (2 * (registrados + 1) > tabla.length)
+            redimensionar();
+        
+        hashes[estado] = hash(estado);
+        int mascara = tabla.length - 1;
+        
+        int i = hashes[estado] & mascara;
+        while (tabla[i] != 0)
+            i = (i + 1) & mascara;
+        
+        tabla[i] = estado + 1;
+        registrados++;
+    }
+    
+    /**
+     * Quita un estado del registro, antes de cambiarlo, moviendo hacia
+     * atrás los estados siguientes de la misma secuencia de sondeo.
+     * @param estado El estado registrado.
+     */
+    private void quitar(int estado) {
+        int mascara = tabla.length - 1;
+        
+        int i = hashes[estado] & mascara;
+        while (tabla[i] != estado + 1)
+            i = (i + 1) & mascara;
+        
+        tabla[i] = 0;
+        registrados--;
+        
+        for (int j = (i + 1) & mascara; tabla[j] != 0; j = (j + 1) & mascara) {
+            int ideal = hashes[tabla[j] - 1] & mascara;
+            
+            /* El estado puede ocupar el lugar libre si su lugar ideal no está entre este y su lugar actual */
+            boolean entre = (i <= j) ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (!entre) {
+                tabla[i] = tabla[j];
+                tabla[j] = 0;
+                i = j;
+            }
+        }
+    }
+    
+    /**
+     * Duplica el tamaño del registro, reubicando los estados
+     * según sus códigos ya calculados.
+     */
+    private void redimensionar() {
+        int[] anterior = tabla;
+        tabla = new int[2 * anterior.length];
+        int mascara = tabla.length - 1;
+        
+        for (int k=0; k < anterior.length; k++) {
+            if (anterior[k] == 0)
+                continue;
+            
+            int i = hashes[anterior[k] - 1] & mascara;
+            while (tabla[i] != 0)
+                i = (i + 1) & mascara;
+            
+            tabla[i] = anterior[k];
+        }
+    }
+    
+    /**
+     * Calcula el código de dispersión de un estado, según
+     * si es final y según sus transiciones.
+     * @param estado El estado.
+     * @return El código de dispersión.
+     */
+    private int hash(int estado) {
+        int hash = finales[estado] ? 1 : 0;
+        
+        for (int valor : filas[estado])
+            hash = 31 * hash + valor;
+        
+        /* Mezclamos los bits altos en los bajos, que son los que indexan la tabla */
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+    
+    /**
+     * Determina si dos estados son equivalentes, es decir, si ambos
+     * son finales o no finales y tienen las mismas transiciones.
+     * @param a Un estado.
+     * @param b Otro estado.
+     * @return <code>true</code> si son equivalentes.
+     */
+    private boolean equivalentes(int a, int b) {
+        if (finales[a] != finales[b] || filas[a].length != filas[b].length)
+            return false;
+        
+        for (int t=0; t < filas[a].length; t++)
+            if (filas[a][t] != filas[b][t])
+                return false;
+        
+        return true;
+    }
+    
+    /**
+     * Obtiene una copia más grande de un arreglo de enteros.
+     * @param arreglo El arreglo.
+     * @param largo El largo de la copia.
+     * @return La copia.
+     */
+    private static int[] agrandar(int[] arreglo, int largo) {
+        int[] copia = new int[Math.max(largo, 2 * arreglo.length)];
+        System.arraycopy(arreglo, 0, copia, 0, arreglo.length);
+        return copia;
+    }
+    
+    /**
+     * Obtiene una copia más grande de un arreglo de valores lógicos.
+     * @param arreglo El arreglo.
+     * @param largo El largo de la copia.
+     * @return La copia.
+     */
+    private static boolean[] agrandar(boolean[] arreglo, int largo) {
+        boolean[] copia = new boolean[largo];
+        System.arraycopy(arreglo, 0, copia, 0, arreglo.length);
+        return copia;
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al algoritmo de Daciuk y Mihov.
+     */
+    public static Log getLog() {
+        return log;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import algoritmos.Terminos.Termino;
+import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.Estado;
+import estructuras.Log;
+import estructuras.Transicion;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la construcción de un AFD mediante las
+ * derivadas de Brzozowski de una expresión regular.<br><br>
+ * La derivada de una expresión regular <code>r</code> respecto a un
+ * símbolo <code>a</code> es una expresión regular que reconoce las
+ * cadenas <code>w</code> tales que <code>aw</code> es reconocida por
+ * <code>r</code>. Cada estado del AFD es una expresión regular, el
+ * estado inicial es la expresión regular original, la transición de un
+ * estado con un símbolo lleva a su derivada, y los estados finales son
+ * las expresiones regulares anulables.<br><br>
+ * Para que la cantidad de estados sea finita, las expresiones se
+ * construyen normalizadas mediante <code>Terminos</code>, por lo que
+ * dos derivadas iguales son el mismo objeto y se comparan por
+ * referencia. Las derivadas ya calculadas se guardan en cada
+ * expresión.<br><br>
+ * El AFD puede construirse completo con <code>getAFD</code>, o bien
+ * recorrerse a medida que se valida una entrada con <code>acepta</code>,
+ * calculando solamente los estados alcanzados por la misma.
+ * @see Terminos
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Derivadas {
+    
+    /**
+     * Log de la construcción del AFD.
+     */
+    private Log log;
+    
+    /**
+     * Símbolos del alfabeto, ordenados.
+     */
+    private char[] simbolos;
+    
+    /**
+     * Alfabeto de la expresión regular.
+     */
+    private Alfabeto alfabeto;
+    
+    /**
+     * Expresiones normalizadas creadas.
+     */
+    private Terminos terminos;
+    
+    /**
+     * Expresión que no reconoce ninguna cadena.
+     */
+    private Termino nulo;
+    
+    /**
+     * Expresión que reconoce solamente la cadena vacía.
+     */
+    private Termino vacio;
+    
+    /**
+     * Expresión regular original.
+     */
+    private Termino raiz;
+    
+    /**
+     * Construye la expresión normalizada de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @param alfabeto El alfabeto de la expresión regular.
+     */
+    public Derivadas(NodoExprReg arbol, Alfabeto alfabeto) {
+        this.alfabeto = alfabeto;
+        log = new Log();
+        
+        simbolos = new char[alfabeto.getCantidad()];
+        int i = 0;
+        for (String s : alfabeto)
+            simbolos[i++] = s.charAt(0);
+        Arrays.sort(simbolos);
+        
+        terminos = new Terminos();
+        nulo = terminos.getNulo();
+        vacio = terminos.getVacio();
+        raiz = terminos.convertir(arbol);
+    }
+    
+    /**
+     * Construye el AFD completo, a partir de las derivadas de la
+     * expresión regular respecto a cada símbolo del alfabeto. Las
+     * derivadas iguales al conjunto vacío no generan transiciones.
+     * Los pasos no se registran en el <code>Log</code>.
+     * @return El AFD de la expresión regular.
+     */
+    public AFD getAFD() {
+        return getAFD(false);
+    }
+    
+    /**
+     * Construye el AFD completo igual que <code>getAFD</code>.
+     * @param registrar Indica si se registran en el <code>Log</code> la
+     * expresión de cada estado y sus derivadas, para los primeros
+     * <code>Subconjuntos.MAX_PASOS_LOG</code> pasos.
+     * @return El AFD de la expresión regular.
+     */
+    public AFD getAFD(boolean registrar) {
+        AFD afd = new AFD(alfabeto, raiz.toString());
+        
+        // Logging
+        log.vaciar();
+        if (registrar) {
+            log.agregar("Cálculo de derivadas".toUpperCase()).nuevaLinea();
+            log.agregar("--------------------").nuevaLinea().nuevaLinea();
+        }
+        
+        /* Expresiones de cada estado del AFD y sus índices */
+        Vector<Termino> estados = new Vector<Termino>();
+        HashMap<Termino, Integer> indices = new HashMap<Termino, Integer>();
+        
+        estados.add(raiz);
+        indices.put(raiz, 0);
+        afd.agregarEstado(new Estado(0, raiz.anulable));
+        
+        /* Los estados sin marcar son los que siguen al que se procesa */
+        for (int i=0; i < estados.size(); i++) {
+            Termino t = estados.get(i);
+            Estado estadoOrigen = afd.getEstado(i);
+            
+            // Logging
+            if (registrarPaso(registrar, i, 0))
+                log.agregar(estadoOrigen + " = " + t).nuevaLinea();
+            
+            for (int s=0; s < simbolos.length; s++) {
+                Termino d = derivada(t, s);
+                if (d == nulo)
+                    continue;
+                
+                Integer indice = indices.get(d);
+                if (indice == null) {
+                    indice = estados.size();
+                    estados.add(d);
+                    indices.put(d, indice);
+                    afd.agregarEstado(new Estado(indice, d.anulable));
+                }
+                
+                // Logging
+                if (registrarPaso(registrar, i, s))
+                    log.agregar("  d" + simbolos[s] + " = " + afd.getEstado(indice)).nuevaLinea();
+                
+                Transicion trans = new Transicion(afd.getEstado(indice), String.valueOf(simbolos[s]));
+                estadoOrigen.getTransiciones().agregar(trans);
+            }
+        }
+        
+        // Logging
+        long omitidos = (long) estados.size() * simbolos.length - Subconjuntos.MAX_PASOS_LOG;
+        if (registrar && omitidos > 0)
+            log.agregar("(" + omitidos + " pasos no registrados, " + estados.size() + " estados del AFD)").nuevaLinea();
+        
+        return afd;
+    }
+    
+    /**
+     * Determina si una cadena de entrada pertenece al lenguaje de la
+     * expresión regular, derivando la expresión respecto a cada símbolo
+     * de la entrada. Solo se calculan las derivadas que no fueron
+     * calculadas en validaciones anteriores, sin construir el AFD.
+     * @param entrada La cadena de entrada.
+     * @return <code>true</code> si la entrada es aceptada,
+     * <code>false</code> en caso contrario.
+     */
+    public boolean acepta(CharSequence entrada) {
+        Termino t = raiz;
+        
+        for (int i=0; i < entrada.length(); i++) {
+            int s = Arrays.binarySearch(simbolos, entrada.charAt(i));
+            if (s < 0)
+                return false;
+            
+            t = derivada(t, s);
+            if (t == nulo)
+                return false;
+        }
+        
+        return t.anulable;
+    }
+    
+    /**
+     * Obtiene la cantidad de expresiones distintas creadas, que
+     * incluye a los estados del AFD explorados hasta el momento.
+     * @return La cantidad de expresiones creadas.
+     */
+    public int cantidadTerminos() {
+        return terminos.cantidad();
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de la construcción del AFD.
+     * @return El <code>Log</code> de la construcción del AFD.
+     */
+    public Log getLog() {
+        return log;
+    }
+    
+    /**
+     * Indica si se registra en el <code>Log</code> un paso de la
+     * construcción, numerados según el estado del AFD y la posición
+     * del símbolo, hasta <code>Subconjuntos.MAX_PASOS_LOG</code> pasos.
+     * @param registrar Indica si se pidió registrar los pasos.
+     * @param estado El número del estado del AFD.
+     * @param s El índice del símbolo en el alfabeto.
+     * @return <code>true</code> si el paso se registra.
+     */
+    private boolean registrarPaso(boolean registrar, int estado, int s) {
+        return registrar && (long) estado * simbolos.length + s < Subconjuntos.MAX_PASOS_LOG;
+    }
+    
+    /**
+     * Calcula la derivada de una expresión respecto a un símbolo.<br><br>
+     * Las derivadas de las subexpresiones que todavía no fueron
+     * calculadas se calculan primero, en postorden con una pila
+     * explícita, de manera a no depender de la profundidad de la
+     * expresión. Las reglas aplicadas son:
+     * <ul>
+     * <li>d(r|s) = d(r)|d(s)</li>
+     * <li>d(rs) = d(r)s | d(s), si r es anulable, o d(r)s en caso contrario</li>
+     * <li>d(r*) = d(r)r*</li>
+     * <li>d(r{m,n}) = d(r)r{m-1,n-1}</li>
+     * </ul>
+     * @param t La expresión.
+     * @param s El índice del símbolo en el alfabeto.
+     * @return La derivada de <code>t</code> respecto al símbolo.
+     */
+    private Termino derivada(Termino t, int s) {
+        if (t.derivadas != null && t.derivadas[s] != null)
+            return t.derivadas[s];
+        
+        Stack<Termino> pila = new Stack<Termino>();
+        pila.push(t);
+        
+        while (!pila.isEmpty()) {
+            Termino actual = pila.peek();
+            
+            if (actual.derivadas == null)
+                actual.derivadas = new Termino[simbolos.length];
+            
+            if (actual.derivadas[s] != null) {
+                pila.pop();
+                continue;
+            }
+            
+            /* Derivadas de los operandos que todavía no se calcularon */
+            boolean pendientes = false;
+            int necesarios = actual.hijos.length;
+            if (actual.tipo == Terminos.CONCATENACION && !actual.hijos[0].anulable)
+                necesarios = 1;
+            
+            for (int i=0; i < necesarios; i++) {
+                Termino h = actual.hijos[i];
+                if (h.derivadas == null || h.derivadas[s] == null) {
+                    pila.push(h);
+                    pendientes = true;
+                }
+            }
+            
+            if (pendientes)
+                continue;
+            
+            pila.pop();
+            actual.derivadas[s] = derivadaDirecta(actual, s);
+        }
+        
+        return t.derivadas[s];
+    }
+    
+    /**
+     * Calcula la derivada de una expresión respecto a un símbolo,
+     * suponiendo que las derivadas necesarias de sus operandos ya
+     * fueron calculadas.
+     * @param t La expresión.
+     * @param s El índice del símbolo en el alfabeto.
+     * @return La derivada de <code>t</code> respecto al símbolo.
+     */
+    private Termino derivadaDirecta(Termino t, int s) {
+        char c = simbolos[s];
+        
+        switch (t.tipo) {
+            case Terminos.SIMBOLO:
+                return (t.simbolo == c) ? vacio : nulo;
+            case Terminos.CLASE:
+                return t.clase.contiene(c) ? vacio : nulo;
+            case Terminos.UNION:
+                Termino[] derivadas = new Termino[t.hijos.length];
+                for (int i=0; i < t.hijos.length; i++)
+                    derivadas[i] = t.hijos[i].derivadas[s];
+                return terminos.union(derivadas);
+            case Terminos.CONCATENACION:
+                Termino r = terminos.concatenacion(t.hijos[0].derivadas[s], t.hijos[1]);
+                if (t.hijos[0].anulable)
+                    return terminos.union(new Termino[] { r, t.hijos[1].derivadas[s] });
+                return r;
+            case Terminos.CERRADURA:
+                return terminos.concatenacion(t.hijos[0].derivadas[s], t);
+            case Terminos.REPETICION:
+                int minimo = Math.max(t.minimo - 1, 0);
+                int maximo = (t.maximo < 0) ? -1 : t.maximo - 1;
+                return terminos.concatenacion(t.hijos[0].derivadas[s], terminos.repeticion(t.hijos[0], minimo, maximo));
+            default:
+                return nulo;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import estructuras.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la eliminación de las transiciones vacías
+ * de un AFN, obteniendo un AFN equivalente sin transiciones vacías.
+ * <br><br>
+ * Las cerraduras de Kleene anidadas producen ciclos de transiciones
+ * vacías, que <code>Subconjuntos.cerraduraEpsilon</code> vuelve a
+ * recorrer cada vez que se calcula la cerradura de un conjunto. En
+ * cambio, aquí se utiliza la <code>TablaCerraduras</code> del AFN, que
+ * calcula la cerradura de cada componente fuertemente conexa del grafo
+ * de transiciones vacías una única vez.<br><br>
+ * Luego, cada estado del nuevo AFN tiene las transiciones no vacías
+ * de todos los estados de su cerradura, y es final si alguno de ellos
+ * lo es. Solo se conservan los estados alcanzables desde el inicial,
+ * que son el inicial y los destinos de transiciones no vacías.
+ * @see Subconjuntos
+ * @see TablaCerraduras
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class EliminacionVacios {
+    
+    /**
+     * Log para el algoritmo de eliminación de transiciones vacías.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Obtiene un AFN sin transiciones vacías equivalente a otro,
+     * sin registrar las componentes ni las cerraduras en el
+     * <code>Log</code>.
+     * @param afn El <code>AFN</code> original.
+     * @return El <code>AFN</code> sin transiciones vacías.
+     */
+    public static AFN getAFN(AFN afn) {
+        return getAFN(afn, false);
+    }
+    
+    /**
+     * Obtiene un AFN sin transiciones vacías equivalente a otro.
+     * @param afn El <code>AFN</code> original.
+     * @param registrar Indica si se registran en el <code>Log</code>
+     * las componentes con más de un estado y la cerradura de cada
+     * estado alcanzado, hasta <code>Subconjuntos.MAX_PASOS_LOG</code>
+     * líneas de cada tipo.
+     * @return El <code>AFN</code> sin transiciones vacías.
+     */
+    public static AFN getAFN(AFN afn, boolean registrar) {
+        int n = afn.cantidadEstados();
+        
+        // Logging
+        log.vaciar();
+        log.agregar("Eliminación de transiciones vacías".toUpperCase()).nuevaLinea();
+        log.agregar("----------------------------------").nuevaLinea().nuevaLinea();
+        
+        /* Cerraduras vacías, con los estados indexados según sus identificadores */
+        TablaCerraduras cerraduras = afn.getTablaCerraduras();
+        int cantidad = cerraduras.cantidadComponentes();
+        
+        // Logging
+        log.agregar("Componentes: " + cantidad + " (de " + n + " estados)").nuevaLinea();
+        if (registrar)
+            logComponentes(cerraduras);
+        log.nuevaLinea();
+        
+        /* AFN resultante, con los estados numerados según se alcanzan */
+        AFN resultado = new AFN(afn.getAlfabeto(), afn.getExprReg());
+        int[] nuevos = new int[n];
+        Arrays.fill(nuevos, -1);
+        Vector<Integer> originales = new Vector<Integer>();
+        
+        int inicial = cerraduras.getIndice(afn.getEstadoInicial());
+        nuevos[inicial] = 0;
+        originales.add(inicial);
+        resultado.agregarEstado(new Estado(0));
+        
+        for (int k=0; k < originales.size(); k++) {
+            int q = originales.get(k);
+            int[] cerradura = cerraduras.getCerradura(q);
+            Estado estado = resultado.getEstado(k);
+            
+            // Logging
+            if (registrar && k < Subconjuntos.MAX_PASOS_LOG)
+                log.agregar("cerradura(" + cerraduras.getEstado(q) + ") = " + cerraduras.conjunto(cerradura)).nuevaLinea();
+            
+            /* Destinos de cada etiqueta, en el orden de su primera aparición */
+            Map<Object, Destinos> destinos = new LinkedHashMap<Object, Destinos>();
+            
+            for (int p : cerradura) {
+                Estado e = cerraduras.getEstado(p);
+                if (e.getEsFinal())
+                    estado.setEsFinal(true);
+                
+                for (Transicion t : e.getTransiciones()) {
+                    if (esVacia(t))
+                        continue;
+                    
+                    Object etiqueta = (t.getClase() != null) ? t.getClase() : t.getSimbolo();
+                    Destinos d = destinos.get(etiqueta);
+                    if (d == null) {
+                        d = new Destinos(t);
+                        destinos.put(etiqueta, d);
+                    }
+                    
+                    d.agregar(cerraduras.getIndice(t.getEstado()));
+                }
+            }
+            
+            for (Destinos d : destinos.values()) {
+                /* Los destinos se recorren en orden y sin repetir transiciones */
+                Arrays.sort(d.estados, 0, d.cantidad);
+                
+                for (int j=0; j < d.cantidad; j++) {
+                    int r = d.estados[j];
+                    if (j > 0 && r == d.estados[j - 1])
+                        continue;
+                    
+                    if (nuevos[r] < 0) {
+                        nuevos[r] = originales.size();
+                        originales.add(r);
+                        resultado.agregarEstado(new Estado(nuevos[r]));
+                    }
+                    
+                    Transicion trans = d.transicion.copiar(resultado.getEstado(nuevos[r]));
+                    estado.getTransiciones().agregar(trans);
+                }
+            }
+        }
+        
+        // Logging
+        if (registrar && originales.size() > Subconjuntos.MAX_PASOS_LOG)
+            log.agregar("(" + (originales.size() - Subconjuntos.MAX_PASOS_LOG) + " cerraduras no registradas)").nuevaLinea();
+        log.nuevaLinea().agregar("Estados: " + n + " -> " + resultado.cantidadEstados()).nuevaLinea();
+        log.agregar("Transiciones: " + afn.cantidadTransiciones() + " -> " + resultado.cantidadTransiciones()).nuevaLinea();
+        
+        return resultado;
+    }
+    
+    /**
+     * Registra en el <code>Log</code> los estados de cada componente
+     * con más de un estado, hasta <code>Subconjuntos.MAX_PASOS_LOG</code>
+     * componentes. Los estados se agrupan por componente ordenándolos
+     * por conteo, sin un conjunto por componente.
+     * @param cerraduras La tabla de cerraduras del AFN.
+     */
+    private static void logComponentes(TablaCerraduras cerraduras) {
+        int n = cerraduras.cantidadEstados();
+        int cantidad = cerraduras.cantidadComponentes();
+        
+        /* inicio[c] es la posición de los estados de c en miembros */
+        int[] inicio = new int[cantidad + 1];
+        for (int i=0; i < n; i++)
+            inicio[cerraduras.getComponente(i) + 1]++;
+        for (int c=0; c < cantidad; c++)
+            inicio[c + 1] += inicio[c];
+        
+        int[] miembros = new int[n];
+        int[] tope = inicio.clone();
+        for (int i=0; i < n; i++)
+            miembros[tope[cerraduras.getComponente(i)]++] = i;
+        
+        int registradas = 0;
+        int omitidas = 0;
+        for (int c=0; c < cantidad; c++) {
+            if (inicio[c + 1] - inicio[c] < 2)
+                continue;
+            
+            if (registradas == Subconjuntos.MAX_PASOS_LOG) {
+                omitidas++;
+                continue;
+            }
+            
+            int[] indices = new int[inicio[c + 1] - inicio[c]];
+            System.arraycopy(miembros, inicio[c], indices, 0, indices.length);
+            log.agregar("  " + cerraduras.conjunto(indices)).nuevaLinea();
+            registradas++;
+        }
+        
+        if (omitidas > 0)
+            log.agregar("  (" + omitidas + " componentes no registradas)").nuevaLinea();
+    }
+    
+    /**
+     * Determina si una <code>Transicion</code> es vacía.
+     * @param t La <code>Transicion</code>.
+     * @return <code>true</code> si está etiquetada con el símbolo vacío.
+     */
+    private static boolean esVacia(Transicion t) {
+        return t.getClase() == null && t.getSimbolo().equals(Alfabeto.VACIO);
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente al
+     * algoritmo de eliminación de transiciones vacías.
+     */
+    public static Log getLog() {
+        return log;
+    }
+    
+    /**
+     * Destinos de las transiciones no vacías de una cerradura con
+     * una misma etiqueta, como lista de índices que puede repetirlos.
+     */
+    private static class Destinos {
+        
+        /**
+         * Primera transición con la etiqueta, que se copia para
+         * cada destino.
+         */
+        private Transicion transicion;
+        
+        /**
+         * Índices de los estados destino.
+         */
+        private int[] estados;
+        
+        /**
+         * Cantidad de índices en <code>estados</code>.
+         */
+        private int cantidad;
+        
+        /**
+         * Constructor de la clase.
+         * @param transicion La primera transición con la etiqueta.
+         */
+        private Destinos(Transicion transicion) {
+            this.transicion = transicion;
+            this.estados = new int[4];
+        }
+        
+        /**
+         * Agrega un destino a la lista.
+         * @param indice El índice del estado destino.
+         */
+        private void agregar(int indice) {
+            if (cantidad == estados.length) {
+                int[] mayor = new int[2 * cantidad];
+                System.arraycopy(estados, 0, mayor, 0, cantidad);
+                estados = mayor;
+            }
+            
+            estados[cantidad++] = indice;
+        }
+    }
+}
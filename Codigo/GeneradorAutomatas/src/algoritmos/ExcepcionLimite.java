@@ -0,0 +1,147 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+/**
+ * Excepción lanzada cuando la construcción de un autómata excede
+ * alguno de los <code>Limites</code> establecidos, o es cancelada.
+ * Contiene las estadísticas de la etapa interrumpida al momento
+ * de excederse el límite.
+ * @see Limites
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ExcepcionLimite extends RuntimeException {
+    
+    /**
+     * Versión de la clase, para la serialización.
+     */
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Motivos por los cuales se interrumpe una construcción.
+     */
+    public enum Motivo {
+        /**
+         * Se excedió la cantidad máxima de estados.
+         */
+        ESTADOS,
+        
+        /**
+         * Se excedió la memoria máxima aproximada.
+         */
+        MEMORIA,
+        
+        /**
+         * Se excedió el tiempo máximo.
+         */
+        TIEMPO,
+        
+        /**
+         * La construcción fue cancelada.
+         */
+        CANCELACION
+    }
+    
+    /**
+     * Motivo de la interrupción.
+     */
+    private Motivo motivo;
+    
+    /**
+     * Etapa interrumpida.
+     */
+    private String etapa;
+    
+    /**
+     * Cantidad de estados construidos en la etapa.
+     */
+    private int estados;
+    
+    /**
+     * Cantidad de transiciones construidas en la etapa.
+     */
+    private int transiciones;
+    
+    /**
+     * Memoria aproximada utilizada en la etapa, en bytes.
+     */
+    private long memoria;
+    
+    /**
+     * Tiempo transcurrido desde el inicio, en milisegundos.
+     */
+    private long milisegundos;
+    
+    /**
+     * Crea la excepción con las estadísticas de la etapa interrumpida.
+     * @param motivo El motivo de la interrupción.
+     * @param etapa La etapa interrumpida.
+     * @param estados La cantidad de estados construidos.
+     * @param transiciones La cantidad de transiciones construidas.
+     * @param memoria La memoria aproximada utilizada, en bytes.
+     * @param milisegundos El tiempo transcurrido, en milisegundos.
+     */
+    public ExcepcionLimite(Motivo motivo, String etapa, int estados, int transiciones, long memoria, long milisegundos) {
+        super(etapa + ": límite de " + motivo.toString().toLowerCase() + " excedido (" + estados + " estados, "
+              + transiciones + " transiciones, " + (memoria >> 10) + " KB aprox., " + milisegundos + " ms)");
+        this.motivo = motivo;
+        this.etapa = etapa;
+        this.estados = estados;
+        this.transiciones = transiciones;
+        this.memoria = memoria;
+        this.milisegundos = milisegundos;
+    }
+    
+    /**
+     * Obtiene el motivo de la interrupción.
+     * @return El motivo de la interrupción.
+     */
+    public Motivo getMotivo() {
+        return motivo;
+    }
+    
+    /**
+     * Obtiene la etapa interrumpida, por ejemplo
+     * <code>"Subconjuntos"</code>.
+     * @return La etapa interrumpida.
+     */
+    public String getEtapa() {
+        return etapa;
+    }
+    
+    /**
+     * Obtiene la cantidad de estados construidos en la etapa.
+     * @return La cantidad de estados.
+     */
+    public int getEstados() {
+        return estados;
+    }
+    
+    /**
+     * Obtiene la cantidad de transiciones construidas en la etapa.
+     * @return La cantidad de transiciones.
+     */
+    public int getTransiciones() {
+        return transiciones;
+    }
+    
+    /**
+     * Obtiene la memoria aproximada utilizada en la etapa.
+     * @return La memoria aproximada, en bytes.
+     */
+    public long getMemoria() {
+        return memoria;
+    }
+    
+    /**
+     * Obtiene el tiempo transcurrido desde el inicio.
+     * @return El tiempo transcurrido, en milisegundos.
+     */
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+}
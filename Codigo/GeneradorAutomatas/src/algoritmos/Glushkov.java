@@ -0,0 +1,101 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.NodoExprReg;
+import estructuras.AFN;
+import estructuras.Estado;
+import estructuras.Transicion;
+import java.util.BitSet;
+
+/**
+ * Esta clase implementa la construcción de Glushkov (autómata de
+ * posiciones) del AFN de una expresión regular.<br><br>
+ * El AFN tiene un estado inicial, el 0, y un estado por cada posición
+ * de la expresión regular, numerados de 1 a n según su orden de
+ * aparición. Las transiciones van del estado inicial a cada posición
+ * de primeros y de cada posición a cada una de sus siguientes,
+ * etiquetadas con el símbolo de la posición destino. Los estados
+ * finales son los de las posiciones de últimos, y también el inicial
+ * si la expresión regular es anulable.<br><br>
+ * A diferencia del AFN de Thompson, el AFN obtenido no tiene
+ * transiciones vacías, por lo que la cerradura vacía de un conjunto
+ * de estados es el mismo conjunto, y tiene exactamente n+1 estados,
+ * aunque puede tener hasta O(n²) transiciones.
+ * @see Posiciones
+ * @see Thompson
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Glushkov {
+    
+    /**
+     * Construye el AFN de Glushkov de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico.
+     * @return El AFN sin transiciones vacías para <code>arbol</code>.
+     */
+    public static AFN construir(NodoExprReg arbol) {
+        return construir(arbol, new Limites());
+    }
+    
+    /**
+     * Construye el AFN de Glushkov de un árbol sintáctico, verificando
+     * los límites luego de agregar las transiciones de cada estado.
+     * @param arbol La raíz del árbol sintáctico.
+     * @param limites Los límites de la construcción.
+     * @return El AFN sin transiciones vacías para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFN construir(NodoExprReg arbol, Limites limites) {
+        Posiciones pos = new Posiciones(arbol);
+        
+        /* Estado inicial y un estado por posición */
+        AFN afn = new AFN();
+        for (int p=0; p <= pos.cantidad(); p++)
+            afn.agregarEstado(new Estado(p, pos.getUltimos().get(p)));
+        
+        afn.getEstadoInicial().setEsFinal(pos.getAnulable());
+        
+        /* Transiciones desde el estado inicial y entre posiciones */
+        int transiciones = 0;
+        BitSet primeros = pos.getPrimeros();
+        for (int q = primeros.nextSetBit(0); q >= 0; q = primeros.nextSetBit(q + 1)) {
+            agregarTransicion(afn, pos, 0, q);
+            transiciones++;
+        }
+        
+        for (int p=1; p <= pos.cantidad(); p++) {
+            limites.verificarAFN("Glushkov", afn.cantidadEstados(), transiciones);
+            
+            for (int q : pos.getSiguientes(p)) {
+                agregarTransicion(afn, pos, p, q);
+                transiciones++;
+            }
+        }
+        
+        limites.verificarAFN("Glushkov", afn.cantidadEstados(), transiciones);
+        return afn;
+    }
+    
+    /**
+     * Agrega al AFN la transición desde un estado hacia una
+     * posición, etiquetada con el símbolo o la clase de
+     * caracteres de la posición destino.
+     * @param afn El AFN.
+     * @param pos Las funciones de posiciones de la expresión regular.
+     * @param origen El estado origen.
+     * @param q La posición destino.
+     */
+    private static void agregarTransicion(AFN afn, Posiciones pos, int origen, int q) {
+        Estado estado = afn.getEstado(origen);
+        Estado destino = afn.getEstado(q);
+        
+        if (pos.getClase(q) == null)
+            estado.getTransiciones().agregar(new Transicion(destino, pos.getSimbolo(q)));
+        else
+            estado.getTransiciones().agregar(new Transicion(destino, pos.getClase(q)));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+/**
+ * Clase que representa los límites de recursos para la construcción
+ * de autómatas: cantidad máxima de estados del AFD, memoria máxima
+ * aproximada y tiempo máximo, junto con una señal de cancelación.
+ * <br><br>
+ * Las construcciones de Thompson, el algoritmo de subconjuntos y la
+ * minimización verifican los límites periódicamente, y lanzan una
+ * <code>ExcepcionLimite</code> con las estadísticas de la etapa en
+ * curso cuando alguno se excede. La cancelación es cooperativa: otro
+ * hilo llama a <code>cancelar</code>, y la construcción se interrumpe
+ * en la siguiente verificación.<br><br>
+ * La memoria se estima a partir de la cantidad de estados y de
+ * transiciones construidos, más la memoria adicional que informa
+ * cada etapa, por ejemplo la de los conjuntos de estados del AFN.
+ * Un límite igual a 0 indica que no hay límite.
+ * @see ExcepcionLimite
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Limites {
+    
+    /**
+     * Memoria aproximada de un estado, en bytes.
+     */
+    public static final int BYTES_ESTADO = 96;
+    
+    /**
+     * Memoria aproximada de una transición, en bytes.
+     */
+    public static final int BYTES_TRANSICION = 40;
+    
+    /**
+     * Cantidad máxima de estados del AFD.
+     */
+    private int maxEstados;
+    
+    /**
+     * Memoria máxima aproximada, en bytes.
+     */
+    private long maxMemoria;
+    
+    /**
+     * Tiempo máximo, en milisegundos.
+     */
+    private long maxMilisegundos;
+    
+    /**
+     * Indica si, al excederse un límite, se puede validar
+     * con un reconocedor que no construye el AFD completo.
+     */
+    private boolean permitirDegradar;
+    
+    /**
+     * Momento en que se inició la construcción, en milisegundos.
+     */
+    private long inicio;
+    
+    /**
+     * Indica si la construcción fue cancelada.
+     */
+    private volatile boolean cancelado;
+    
+    /**
+     * Límites de los cuales se derivaron estos, o <code>null</code>.
+     */
+    private Limites padre;
+    
+    /**
+     * Crea límites sin restricciones. El tiempo se mide a partir
+     * de la creación del objeto, o de la llamada a <code>iniciar</code>.
+     */
+    public Limites() {
+        this(0, 0, 0);
+    }
+    
+    /**
+     * Crea límites con restricciones determinadas.
+     * @param maxEstados Cantidad máxima de estados del AFD, o 0.
+     * @param maxMemoria Memoria máxima aproximada en bytes, o 0.
+     * @param maxMilisegundos Tiempo máximo en milisegundos, o 0.
+     */
+    public Limites(int maxEstados, long maxMemoria, long maxMilisegundos) {
+        this.maxEstados = maxEstados;
+        this.maxMemoria = maxMemoria;
+        this.maxMilisegundos = maxMilisegundos;
+        iniciar();
+    }
+    
+    /**
+     * Reinicia la medición del tiempo.
+     */
+    public void iniciar() {
+        inicio = System.currentTimeMillis();
+    }
+    
+    /**
+     * Cancela la construcción en curso. Puede llamarse desde
+     * cualquier hilo.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+    
+    /**
+     * Indica si la construcción fue cancelada.
+     * @return <code>true</code> si se llamó a <code>cancelar</code>.
+     */
+    public boolean getCancelado() {
+        return cancelado || (padre != null && padre.getCancelado());
+    }
+    
+    /**
+     * Obtiene límites derivados de estos, con una cantidad máxima de
+     * estados del AFD menor o igual, y los mismos límites de memoria
+     * y tiempo, medido desde el mismo inicio. Cancelar estos límites
+     * también cancela la construcción con los límites derivados.
+     * @param maxEstados Cantidad máxima de estados del AFD.
+     * @return Los límites derivados.
+     */
+    public Limites acotar(int maxEstados) {
+        if (this.maxEstados > 0 && this.maxEstados < maxEstados)
+            maxEstados = this.maxEstados;
+        
+        Limites derivados = new Limites(maxEstados, maxMemoria, maxMilisegundos);
+        derivados.inicio = inicio;
+        derivados.permitirDegradar = permitirDegradar;
+        derivados.padre = this;
+        return derivados;
+    }
+    
+    /**
+     * Obtiene la cantidad máxima de estados del AFD.
+     * @return La cantidad máxima de estados, o 0 si no hay límite.
+     */
+    public int getMaxEstados() {
+        return maxEstados;
+    }
+    
+    /**
+     * Obtiene la memoria máxima aproximada.
+     * @return La memoria máxima en bytes, o 0 si no hay límite.
+     */
+    public long getMaxMemoria() {
+        return maxMemoria;
+    }
+    
+    /**
+     * Obtiene el tiempo máximo.
+     * @return El tiempo máximo en milisegundos, o 0 si no hay límite.
+     */
+    public long getMaxMilisegundos() {
+        return maxMilisegundos;
+    }
+    
+    /**
+     * Indica si, al excederse un límite, se puede validar con un
+     * reconocedor que no construye el AFD completo.
+     * @return <code>true</code> si se permite degradar.
+     */
+    public boolean getPermitirDegradar() {
+        return permitirDegradar;
+    }
+    
+    /**
+     * Establece si, al excederse un límite, se puede validar con un
+     * reconocedor que no construye el AFD completo.
+     * @param permitirDegradar <code>true</code> para permitir degradar.
+     * @see Reconocedor
+     */
+    public void setPermitirDegradar(boolean permitirDegradar) {
+        this.permitirDegradar = permitirDegradar;
+    }
+    
+    /**
+     * Verifica los límites durante la construcción de un AFN. La
+     * cantidad máxima de estados no se aplica, ya que se refiere al AFD.
+     * @param etapa La etapa en curso.
+     * @param estados La cantidad de estados construidos.
+     * @param transiciones La cantidad de transiciones construidas.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public void verificarAFN(String etapa, int estados, int transiciones) {
+        verificar(etapa, estados, transiciones, 0, false);
+    }
+    
+    /**
+     * Verifica los límites durante la construcción de un AFD.
+     * @param etapa La etapa en curso.
+     * @param estados La cantidad de estados construidos.
+     * @param transiciones La cantidad de transiciones construidas.
+     * @param adicional Memoria adicional utilizada por la etapa, en bytes.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public void verificarAFD(String etapa, int estados, int transiciones, long adicional) {
+        verificar(etapa, estados, transiciones, adicional, true);
+    }
+    
+    /**
+     * Verifica los límites, en el orden: cancelación, estados,
+     * memoria y tiempo.
+     * @param etapa La etapa en curso.
+     * @param estados La cantidad de estados construidos.
+     * @param transiciones La cantidad de transiciones construidas.
+     * @param adicional Memoria adicional utilizada por la etapa, en bytes.
+     * @param esAFD Indica si se aplica la cantidad máxima de estados.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    private void verificar(String etapa, int estados, int transiciones, long adicional, boolean esAFD) {
+        long memoria = (long) estados * BYTES_ESTADO + (long) transiciones * BYTES_TRANSICION + adicional;
+        long milisegundos = System.currentTimeMillis() - inicio;
+        ExcepcionLimite.Motivo motivo = null;
+        
+        if (getCancelado())
+            motivo = ExcepcionLimite.Motivo.CANCELACION;
+        else if (esAFD && maxEstados > 0 && estados > maxEstados)
+            motivo = ExcepcionLimite.Motivo.ESTADOS;
+        else if (maxMemoria > 0 && memoria > maxMemoria)
+            motivo = ExcepcionLimite.Motivo.MEMORIA;
+        else if (maxMilisegundos > 0 && milisegundos > maxMilisegundos)
+            motivo = ExcepcionLimite.Motivo.TIEMPO;
+        
+        if (motivo != null)
+            throw new ExcepcionLimite(motivo, etapa, estados, transiciones, memoria, milisegundos);
+    }
+}
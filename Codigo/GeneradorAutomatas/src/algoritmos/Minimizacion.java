@@ -6,13 +6,20 @@
 package algoritmos;
 
 import estructuras.*;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Stack;
 import java.util.Vector;
 import java.util.List;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import analisis.Alfabeto;
-import java.util.HashMap;
 
 /**
  * Esta clase implementa el algoritmo de minimización de 
@@ -26,6 +33,14 @@ public class Minimizacion {
      * Log para el algoritmo de minimización.
      */
     private static Log log = new Log();
+    
+    /**
+     * Cantidad de estados a partir de la cual <code>getAFDminimo</code>
+     * utiliza el algoritmo de Hopcroft. Para AFDs más pequeños se
+     * refina la partición por pasadas, y el <code>Log</code> muestra
+     * la partición obtenida en cada pasada.
+     */
+    public static final int UMBRAL_HOPCROFT = 64;
 
     /**
      * Obtiene un <code>AFD</code> mínimo a partir de un 
@@ -35,6 +50,48 @@ public class Minimizacion {
      * pero con la menor cantidad de estados posibles.
      */
     public static AFDMin getAFDminimo(AFD afdOriginal) {
+        return getAFDminimo(afdOriginal, new Limites());
+    }
+    
+    /**
+     * Obtiene un <code>AFD</code> mínimo a partir de un 
+     * <code>AFD</code> determinado, verificando los límites
+     * luego de cada pasada de la minimización.
+     * @param afdOriginal El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @return Un <code>AFD</code> equivalente a <code>afd</code> 
+     * pero con la menor cantidad de estados posibles.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFDMin getAFDminimo(AFD afdOriginal, Limites limites) {
+        Refinamiento refinamiento = Refinamiento.PASADAS;
+        if (afdOriginal.cantidadEstados() > UMBRAL_HOPCROFT)
+            refinamiento = Refinamiento.HOPCROFT;
+        
+        return getAFDminimo(afdOriginal, limites, refinamiento, 1);
+    }
+    
+    /**
+     * Obtiene un <code>AFD</code> mínimo a partir de un 
+     * <code>AFD</code> determinado, eligiendo el algoritmo con el
+     * que se refina la partición de sus estados. Todos los algoritmos
+     * obtienen los mismos grupos, y por tanto el mismo AFD mínimo,
+     * cualquiera sea la cantidad de hilos.<br><br>
+     * Con <code>Refinamiento.INCREMENTAL</code>, si se excede algún
+     * límite o se cancela la minimización, en lugar de lanzar la
+     * excepción se obtiene el AFD con los estados unidos hasta ese
+     * momento, que es equivalente al original pero puede no ser
+     * mínimo, lo que indica <code>AFDMin.getEsMinimo</code>.
+     * @param afdOriginal El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @param refinamiento El algoritmo de refinamiento de la partición.
+     * @param hilos La cantidad de hilos, para <code>Refinamiento.PARALELO</code>.
+     * @return Un <code>AFD</code> equivalente a <code>afd</code> 
+     * pero con la menor cantidad de estados posibles.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló,
+     * salvo con <code>Refinamiento.INCREMENTAL</code>.
+     */
+    public static AFDMin getAFDminimo(AFD afdOriginal, Limites limites, Refinamiento refinamiento, int hilos) {
         // Logging
         log.vaciar();
         log.agregar("Procedimiento de minimización".toUpperCase()).nuevaLinea();
@@ -45,15 +102,38 @@ public class Minimizacion {
         copiarAutomata(afdOriginal, afdPostInalcanzables);
         eliminarInalcanzables(afdPostInalcanzables);
         
+        /* Grupos de estados equivalentes, pasos 1 y 2 */
+        Conjunto<Conjunto<Estado>> particion;
+        boolean esMinimo = true;
+        
+        switch (refinamiento) {
+            case HOPCROFT:
+                particion = particionHopcroft(afdPostInalcanzables, limites);
+                break;
+            case PARALELO:
+                particion = particionParalela(afdPostInalcanzables, limites, hilos);
+                break;
+            case INCREMENTAL:
+                int[] grupo = new int[afdPostInalcanzables.cantidadEstados()];
+                esMinimo = particionIncremental(afdPostInalcanzables, limites, grupo);
+                particion = agrupar(afdPostInalcanzables, grupo, grupo.length);
+                break;
+            default:
+                particion = particionPasadas(afdPostInalcanzables, limites);
+        }
+        
+        // Logging
+        log.nuevaLinea();
+        
         /* Proceso de minimización */
-        AFD afdPostMinimizacion = minimizar(afdPostInalcanzables);
+        AFD afdPostMinimizacion = minimizar(afdPostInalcanzables, particion);
         
         /* Eliminamos estados identidades no finales */
         AFD afdPostIdentidades = new AFD();
         copiarAutomata(afdPostMinimizacion, afdPostIdentidades);
         eliminarIdentidades(afdPostIdentidades);
         
-        return new AFDMin(afdOriginal, afdPostInalcanzables, afdPostMinimizacion, afdPostIdentidades);
+        return new AFDMin(afdOriginal, afdPostInalcanzables, afdPostMinimizacion, afdPostIdentidades, esMinimo);
     }
     
     /**
@@ -67,8 +147,9 @@ public class Minimizacion {
         /* Conjunto de estados alcanzados desde el estado inicial */
         Conjunto<Estado> alcanzados = recuperarAlcanzados(afd);
         
-        /* Eliminamos los estados no alcanzados */
-        afd.getEstados().retener(alcanzados);
+        /* Eliminamos los estados no alcanzados, si los hay */
+        if (alcanzados.cantidad() < afd.cantidadEstados())
+            afd.getEstados().retener(alcanzados);
         
         // Logging
         log.agregar("Después de eliminar inalcanzables: " + afd.getEstados()).nuevaLinea();
@@ -96,8 +177,12 @@ public class Minimizacion {
         /* Conjunto de estados alcanzados */
         Conjunto<Estado> alcanzados = new Conjunto<Estado>();
         
+        /* Estados alcanzados, para buscarlos por dispersión */
+        HashSet<Estado> marcados = new HashSet<Estado>();
+        
         /* Agregamos el estado actual */
         alcanzados.agregar(actual);
+        marcados.add(actual);
         
         /* Pila para almacenar los estados pendientes */
         Stack<Estado> pila = new Stack<Estado>();
@@ -111,7 +196,7 @@ public class Minimizacion {
             for (Transicion t : actual.getTransiciones()) {
                 Estado e = t.getEstado();
                 
-                if (!alcanzados.contiene(e)) {
+                if (marcados.add(e)) {
                     alcanzados.agregar(e);
                     pila.push(e);
                 }
@@ -124,11 +209,113 @@ public class Minimizacion {
     /**
      * Implementación del algoritmo de minimización de
      * estados. Algoritmo 3.39, libro de Compiladores
-     * de Aho.
+     * de Aho, a partir de la partición obtenida en los
+     * pasos 1 y 2.
      * @param afd El <code>AFD</code> a minimizar.
+     * @param particion Los grupos de estados equivalentes.
      * @return Un <code>AFD</code> equivalente pero con menos estados.
      */
-    private static AFD minimizar(AFD afd) {
+    private static AFD minimizar(AFD afd, Conjunto<Conjunto<Estado>> particion) {
+        /* 
+         * Paso 3:
+         * =======
+         * Debemos crear el nuevo AFD, con
+         * los nuevos estados producidos.
+         */
+        AFD afdPostMinimizacion = new AFD(afd.getAlfabeto(), afd.getExprReg());
+        
+        /* 
+         * Paso 3.1:
+         * =========
+         * Agregamos los estados al nuevo AFD. Para
+         * los estados agrupados, colocamos una
+         * etiqueta distintiva, para que pueda notarse
+         * resultado de cuáles estados es.
+         */
+        for (int i=0; i < particion.cantidad(); i++) {
+            Conjunto<Estado> grupo = particion.obtener(i);
+            boolean esFinal = false;
+            
+            /* 
+             * El grupo actual tiene un estado final,
+             * el estado correspondiente en el nuevo
+             * AFD también debe ser final.
+             */
+            if (tieneEstadoFinal(grupo))
+                esFinal = true;
+            
+            /*
+             * Si el estado es resultado de la unión de
+             * dos o más estados, su etiqueta será del 
+             * tipo e1.e2.e3, donde e1, e2 y e3 son los
+             * estados agrupados (aparecen separados por
+             * un punto).
+             */
+            String etiqueta = obtenerEtiqueta(grupo);
+            
+            /*
+             * Agregamos efectivamente el estado
+             * al nuevo AFD.
+             */
+            Estado estado = new Estado(i, esFinal);
+            estado.setEtiqueta(etiqueta);
+            afdPostMinimizacion.agregarEstado(estado);
+        }
+        
+        /*
+         * Paso 3.2:
+         * =========
+         * Generamos un mapeo de grupos (estados del nuevo AFD)
+         * a estados del AFD original, de manera a que resulte
+         * sencillo obtener los estados adecuados en el momento
+         * de agregar las transiciones al nuevo AFD.
+         */
+        Hashtable<Estado, Estado> mapeo = new Hashtable<Estado, Estado>();
+        for (int i=0; i < particion.cantidad(); i++) {
+            /* Grupo a procesar */
+            Conjunto<Estado> grupo = particion.obtener(i);
+            
+            /* Estado del nuevo AFD */
+            Estado valor = afdPostMinimizacion.getEstado(i);
+            
+            /* Guardar mapeo */
+            for (Estado clave : grupo)
+                mapeo.put(clave, valor);
+        }
+        
+        /* 
+         * Paso 3.3:
+         * =========
+         * Agregamos las transiciones al nuevo AFD utilizando
+         * el mapeo de estados entre dicho AFD y el AFD original,
+         * realizado en el paso 3.2.
+         */
+        for (int i=0; i < particion.cantidad(); i++) {
+            /* Estado representante del grupo actual */
+            Estado representante = particion.obtener(i).obtenerPrimero();
+            
+            /* Estado del nuevo AFD */
+            Estado origen = afdPostMinimizacion.getEstado(i);
+            
+            /* Agregamos las transciones */
+            for (Transicion trans : representante.getTransiciones()) {
+                Estado destino = mapeo.get(trans.getEstado());
+                origen.getTransiciones().agregar(trans.copiar(destino));
+            }
+        }
+        
+        return afdPostMinimizacion;
+    }
+    
+    /**
+     * Obtiene los grupos de estados equivalentes de un AFD, refinando
+     * la partición inicial por pasadas, hasta que una pasada no
+     * produce cambios. Pasos 1 y 2 del algoritmo 3.39.
+     * @param afd El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @return La partición de los estados del AFD, ordenada.
+     */
+    private static Conjunto<Conjunto<Estado>> particionPasadas(AFD afd, Limites limites) {
         /* Tablas Hash auxiliares */
         Hashtable<Estado, Conjunto<Integer>> tabla1;
         Hashtable<Conjunto<Integer>, Conjunto<Estado>> tabla2;
@@ -155,6 +342,9 @@ public class Minimizacion {
          */ 
         Conjunto<Conjunto<Estado>> nuevaParticion;
         
+        /* Transiciones del AFD, para verificar los límites en cada pasada */
+        int transiciones = afd.cantidadTransiciones();
+        
         while (true) {
             /* Conjunto de nuevas particiones en cada pasada */
             nuevaParticion = new Conjunto<Conjunto<Estado>>();
@@ -224,6 +414,8 @@ public class Minimizacion {
             // Logging
             log.agregar("Partición: " + nuevaParticion).nuevaLinea();
             
+            limites.verificarAFD("Minimización", afd.cantidadEstados(), transiciones, 0);
+            
             /* 
              * Paso 2.4:
              * =========
@@ -237,98 +429,588 @@ public class Minimizacion {
                 particion = nuevaParticion;
         }
         
+        return particion;
+    }
+    
+    /**
+     * Obtiene los grupos de estados equivalentes de un AFD con el
+     * algoritmo de refinamiento de particiones de Hopcroft, en tiempo
+     * O(k·n·log n), siendo k la cantidad de símbolos del alfabeto y n
+     * la cantidad de estados.<br><br>
+     * Los estados se numeran según su posición en el AFD, y se agrega
+     * un estado ficticio n, destino de las transiciones que faltan, que
+     * forma un grupo aparte desde la partición inicial, igual que el
+     * grupo -1 de <code>getGruposAlcanzados</code>. Cada grupo es un
+     * intervalo de un arreglo de estados, por lo que marcar un estado
+     * consiste en moverlo al comienzo de su intervalo, y separar los
+     * estados marcados, en crear un grupo con esa parte del intervalo.
+     * Cada grupo de la lista de divisores se utiliza con todos los
+     * símbolos, y al dividirse un grupo se agrega a la lista la menor
+     * de sus partes, o la nueva parte si el grupo ya estaba en la lista.
+     * @param afd El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @return La partición de los estados del AFD, con los mismos
+     * grupos y en el mismo orden que la de <code>particionPasadas</code>.
+     */
+    private static Conjunto<Conjunto<Estado>> particionHopcroft(AFD afd, Limites limites) {
+        int n = afd.cantidadEstados();
+        int k = afd.getAlfabeto().getCantidad();
+        int transiciones = afd.cantidadTransiciones();
+        int[][] destino = tablaDestinos(afd);
+        
+        /*
+         * Paso 1:
+         * =======
+         * Transiciones inversas de cada símbolo. Los orígenes de las
+         * transiciones con el símbolo s hacia el estado q son los
+         * elementos de inversas[s] desde inicio[s][q] hasta
+         * inicio[s][q+1], sin incluir este último.
+         */
+        int[][] inicio = new int[k][n + 2];
+        int[][] inversas = new int[k][n + 1];
+        
+        for (int s=0; s < k; s++) {
+            for (int q=0; q <= n; q++)
+                inicio[s][destino[s][q] + 1]++;
+            
+            for (int q=0; q <= n; q++)
+                inicio[s][q + 1] += inicio[s][q];
+            
+            int[] siguiente = inicio[s].clone();
+            for (int q=0; q <= n; q++)
+                inversas[s][siguiente[destino[s][q]]++] = q;
+        }
+        
+        /*
+         * Paso 2:
+         * =======
+         * Partición inicial: los estados no finales, los estados
+         * finales y el estado ficticio, cada grupo en un intervalo
+         * del arreglo de estados. Todos se agregan a la lista.
+         */
+        int[] elementos = new int[n + 1];
+        int[] lugar = new int[n + 1];
+        int[] grupo = new int[n + 1];
+        int[] primero = new int[n + 1];
+        int[] fin = new int[n + 1];
+        int[] marcados = new int[n + 1];
+        boolean[] enLista = new boolean[n + 1];
+        int[] lista = new int[n + 1];
+        int tope = 0;
+        int grupos = 0;
+        
+        for (int clase=0, m=0; clase < 3; clase++) {
+            int desde = m;
+            
+            for (int q=0; q <= n; q++) {
+                int c = (q == n) ? 2 : (afd.getEstado(q).getEsFinal() ? 1 : 0);
+                
+                if (c == clase) {
+                    elementos[m] = q;
+                    lugar[q] = m++;
+                    grupo[q] = grupos;
+                }
+            }
+            
+            if (m > desde) {
+                primero[grupos] = desde;
+                fin[grupos] = m;
+                enLista[grupos] = true;
+                lista[tope++] = grupos++;
+            }
+        }
+        
         // Logging
-        log.nuevaLinea();
+        logParticionInicial(afd);
         
-        /* 
+        /*
          * Paso 3:
          * =======
-         * Debemos crear el nuevo AFD, con
-         * los nuevos estados producidos.
+         * Dividir los grupos según los orígenes de las
+         * transiciones hacia cada divisor de la lista.
          */
-        AFD afdPostMinimizacion = new AFD(afd.getAlfabeto(), afd.getExprReg());
+        int[] divisor = new int[n + 1];
+        int[] tocados = new int[n + 1];
         
-        /* 
-         * Paso 3.1:
-         * =========
-         * Agregamos los estados al nuevo AFD. Para
-         * los estados agrupados, colocamos una
-         * etiqueta distintiva, para que pueda notarse
-         * resultado de cuáles estados es.
-         */
-        for (int i=0; i < particion.cantidad(); i++) {
-            Conjunto<Estado> grupo = particion.obtener(i);
-            boolean esFinal = false;
+        while (tope > 0) {
+            int a = lista[--tope];
+            enLista[a] = false;
             
-            /* 
-             * El grupo actual tiene un estado final,
-             * el estado correspondiente en el nuevo
-             * AFD también debe ser final.
-             */
-            if (tieneEstadoFinal(grupo))
-                esFinal = true;
+            /* Copiamos el divisor, ya que él mismo puede dividirse */
+            int cantidad = fin[a] - primero[a];
+            System.arraycopy(elementos, primero[a], divisor, 0, cantidad);
             
-            /*
-             * Si el estado es resultado de la unión de
-             * dos o más estados, su etiqueta será del 
-             * tipo e1.e2.e3, donde e1, e2 y e3 son los
-             * estados agrupados (aparecen separados por
-             * un punto).
-             */
-            String etiqueta = obtenerEtiqueta(grupo);
+            for (int s=0; s < k; s++) {
+                int cantidadTocados = 0;
+                
+                /* Marcamos los orígenes, moviéndolos al comienzo de su grupo */
+                for (int i=0; i < cantidad; i++) {
+                    int q = divisor[i];
+                    
+                    for (int j=inicio[s][q]; j < inicio[s][q + 1]; j++) {
+                        int p = inversas[s][j];
+                        int b = grupo[p];
+                        int nuevoLugar = primero[b] + marcados[b];
+                        int otro = elementos[nuevoLugar];
+                        
+                        elementos[lugar[p]] = otro;
+                        lugar[otro] = lugar[p];
+                        elementos[nuevoLugar] = p;
+                        lugar[p] = nuevoLugar;
+                        
+                        if (marcados[b]++ == 0)
+                            tocados[cantidadTocados++] = b;
+                    }
+                }
+                
+                /* Separamos los estados marcados de cada grupo tocado */
+                for (int i=0; i < cantidadTocados; i++) {
+                    int b = tocados[i];
+                    int m = marcados[b];
+                    marcados[b] = 0;
+                    
+                    if (m == fin[b] - primero[b])
+                        continue;
+                    
+                    int nuevo = grupos++;
+                    primero[nuevo] = primero[b];
+                    fin[nuevo] = primero[b] + m;
+                    primero[b] = fin[nuevo];
+                    
+                    for (int j=primero[nuevo]; j < fin[nuevo]; j++)
+                        grupo[elementos[j]] = nuevo;
+                    
+                    int agregado = nuevo;
+                    if (!enLista[b] && fin[b] - primero[b] < m)
+                        agregado = b;
+                    
+                    enLista[agregado] = true;
+                    lista[tope++] = agregado;
+                }
+            }
             
-            /*
-             * Agregamos efectivamente el estado
-             * al nuevo AFD.
-             */
-            Estado estado = new Estado(i, esFinal);
-            estado.setEtiqueta(etiqueta);
-            afdPostMinimizacion.agregarEstado(estado);
+            limites.verificarAFD("Minimización", n, transiciones, 0);
         }
         
+        return agrupar(afd, grupo, grupos);
+    }
+    
+    /**
+     * Obtiene los grupos de estados equivalentes de un AFD refinando
+     * la partición por pasadas, igual que <code>particionPasadas</code>,
+     * pero sobre arreglos de enteros y calculando en paralelo las firmas
+     * de los estados.<br><br>
+     * La firma de un estado en cada pasada es su grupo junto con los
+     * grupos de sus destinos según cada símbolo, donde las transiciones
+     * que faltan van a un estado ficticio que forma un grupo aparte.
+     * Cada hilo calcula las firmas de una parte de los estados y el
+     * primer estado de su parte con cada firma; luego, cada grupo nuevo
+     * se numera con el menor estado de todas las partes con esa firma, y
+     * cada hilo asigna los grupos nuevos de su parte. Como los números
+     * de los grupos no dependen de cómo se repartieron los estados, el
+     * resultado es el mismo cualquiera sea la cantidad de hilos. El
+     * refinamiento termina cuando una pasada no aumenta la cantidad de
+     * grupos.
+     * @param afd El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @param hilos La cantidad de hilos a utilizar.
+     * @return La partición de los estados del AFD, con los mismos
+     * grupos y en el mismo orden que la de <code>particionPasadas</code>.
+     */
+    private static Conjunto<Conjunto<Estado>> particionParalela(AFD afd, Limites limites, int hilos) {
+        final int n = afd.cantidadEstados();
+        final int k = afd.getAlfabeto().getCantidad();
+        final int[][] destino = tablaDestinos(afd);
+        int transiciones = afd.cantidadTransiciones();
+        
         /*
-         * Paso 3.2:
-         * =========
-         * Generamos un mapeo de grupos (estados del nuevo AFD)
-         * a estados del AFD original, de manera a que resulte
-         * sencillo obtener los estados adecuados en el momento
-         * de agregar las transiciones al nuevo AFD.
+         * Paso 1:
+         * =======
+         * Partición inicial: los estados no finales, los estados
+         * finales y el estado ficticio. Cada grupo se numera con
+         * su menor estado.
          */
-        Hashtable<Estado, Estado> mapeo = new Hashtable<Estado, Estado>();
-        for (int i=0; i < particion.cantidad(); i++) {
-            /* Grupo a procesar */
-            Conjunto<Estado> grupo = particion.obtener(i);
+        final int[][] grupo = { new int[n + 1], new int[n + 1] };
+        int[] primeros = { -1, -1, n };
+        
+        for (int q=0; q <= n; q++) {
+            int c = (q == n) ? 2 : (afd.getEstado(q).getEsFinal() ? 1 : 0);
             
-            /* Estado del nuevo AFD */
-            Estado valor = afdPostMinimizacion.getEstado(i);
+            if (primeros[c] < 0)
+                primeros[c] = q;
             
-            /* Guardar mapeo */
-            for (Estado clave : grupo)
-                mapeo.put(clave, valor);
+            grupo[0][q] = primeros[c];
         }
         
-        /* 
-         * Paso 3.3:
-         * =========
-         * Agregamos las transiciones al nuevo AFD utilizando
-         * el mapeo de estados entre dicho AFD y el AFD original,
-         * realizado en el paso 3.2.
+        int grupos = 1;
+        for (int c=0; c < 2; c++)
+            if (primeros[c] >= 0)
+                grupos++;
+        
+        // Logging
+        logParticionInicial(afd);
+        
+        /*
+         * Paso 2:
+         * =======
+         * Pasadas de refinamiento, con cada parte de
+         * los estados procesada por una tarea.
          */
-        for (int i=0; i < particion.cantidad(); i++) {
-            /* Estado representante del grupo actual */
-            Estado representante = particion.obtener(i).obtenerPrimero();
-            
-            /* Estado del nuevo AFD */
-            Estado origen = afdPostMinimizacion.getEstado(i);
+        hilos = Math.max(hilos, 1);
+        final int bloque = Math.max(1, (n + hilos) / hilos);
+        final Firma[] firmas = new Firma[n + 1];
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        
+        try {
+            for (int pasada=0; ; pasada++) {
+                final int[] actual = grupo[pasada % 2];
+                final int[] nuevo = grupo[(pasada + 1) % 2];
+                
+                /* Firmas de cada parte y el primer estado con cada una */
+                Vector<Callable<HashMap<Firma, Integer>>> calculos = new Vector<Callable<HashMap<Firma, Integer>>>();
+                for (int desde=0; desde <= n; desde += bloque) {
+                    final int a = desde;
+                    final int b = Math.min(desde + bloque, n + 1);
+                    
+                    calculos.add(new Callable<HashMap<Firma, Integer>>() {
+                        public HashMap<Firma, Integer> call() {
+                            HashMap<Firma, Integer> primerEstado = new HashMap<Firma, Integer>();
+                            
+                            for (int q=a; q < b; q++) {
+                                int[] valores = new int[k + 1];
+                                valores[0] = actual[q];
+                                for (int s=0; s < k; s++)
+                                    valores[s + 1] = actual[destino[s][q]];
+                                
+                                firmas[q] = new Firma(valores);
+                                if (!primerEstado.containsKey(firmas[q]))
+                                    primerEstado.put(firmas[q], q);
+                            }
+                            
+                            return primerEstado;
+                        }
+                    });
+                }
+                
+                /*
+                 * Las partes se unen en orden, por lo que el primer
+                 * estado encontrado con cada firma es el menor.
+                 */
+                final HashMap<Firma, Integer> numeros = new HashMap<Firma, Integer>();
+                for (Future<HashMap<Firma, Integer>> f : ejecutor.invokeAll(calculos))
+                    for (Map.Entry<Firma, Integer> e : f.get().entrySet())
+                        if (!numeros.containsKey(e.getKey()))
+                            numeros.put(e.getKey(), e.getValue());
+                
+                /* Grupos nuevos de cada parte */
+                Vector<Callable<Object>> asignaciones = new Vector<Callable<Object>>();
+                for (int desde=0; desde <= n; desde += bloque) {
+                    final int a = desde;
+                    final int b = Math.min(desde + bloque, n + 1);
+                    
+                    asignaciones.add(new Callable<Object>() {
+                        public Object call() {
+                            for (int q=a; q < b; q++)
+                                nuevo[q] = numeros.get(firmas[q]);
+                            
+                            return null;
+                        }
+                    });
+                }
+                
+                for (Future<Object> f : ejecutor.invokeAll(asignaciones))
+                    f.get();
+                
+                limites.verificarAFD("Minimización", n, transiciones, 0);
+                
+                if (numeros.size() == grupos)
+                    return agrupar(afd, nuevo, n + 1);
+                
+                grupos = numeros.size();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Minimización interrumpida", ex);
+        }
+        catch (ExecutionException ex) {
+            throw new RuntimeException("Error en la minimización", ex.getCause());
+        }
+        finally {
+            ejecutor.shutdown();
+        }
+    }
+    
+    /**
+     * Obtiene los grupos de estados equivalentes de un AFD uniendo
+     * pares de estados, al estilo de Watson y Daciuk, de manera que
+     * la minimización puede interrumpirse en cualquier momento.<br><br>
+     * Cada estado se compara con los representantes de los grupos
+     * anteriores a él, recorriendo los pares de destinos según cada
+     * símbolo. Si ningún par alcanzado difiere en ser final o en tener
+     * transiciones, los pares alcanzados son equivalentes y se unen
+     * sus grupos, representados por su menor estado. Si algún par
+     * difiere, también difieren todos los pares del camino por el que
+     * se lo alcanzó desde el par comparado, que se guardan para
+     * descartarlos en las comparaciones siguientes. Como solamente se
+     * unen estados equivalentes, los grupos obtenidos hasta cualquier
+     * momento forman un AFD equivalente al original, que se reduce a
+     * medida que se unen grupos, y al terminar es el mínimo, con los
+     * mismos grupos que <code>particionPasadas</code>.<br><br>
+     * Si se excede algún límite o se cancela la minimización, la
+     * comparación en curso se descarta y se conservan los grupos
+     * unidos hasta ese momento.<br><br>
+     * Cada estado se compara con los representantes de todos los grupos
+     * anteriores, por lo que se realizan hasta O(n²) comparaciones, y
+     * cada una puede recorrer hasta O(n²) pares antes de encontrar uno
+     * que difiera, ya que solamente se guardan los pares del camino que
+     * llevó a la diferencia. El peor caso es entonces O(k·n⁴) en tiempo,
+     * para k símbolos, y O(n²) en memoria para los pares guardados,
+     * mucho mayor que el de <code>particionHopcroft</code>, por lo que
+     * conviene solamente si se prefiere un AFD parcialmente reducido a
+     * exceder un límite.
+     * @param afd El <code>AFD</code> a minimizar.
+     * @param limites Los límites de la minimización.
+     * @param grupo Arreglo en el que se guarda el representante del
+     * grupo de cada estado, según su posición.
+     * @return <code>true</code> si la minimización terminó, o
+     * <code>false</code> si fue interrumpida.
+     */
+    private static boolean particionIncremental(AFD afd, Limites limites, int[] grupo) {
+        int n = afd.cantidadEstados();
+        int k = afd.getAlfabeto().getCantidad();
+        int transiciones = afd.cantidadTransiciones();
+        int[][] destino = tablaDestinos(afd);
+        
+        /* El estado ficticio n no es final */
+        boolean[] esFinal = new boolean[n + 1];
+        for (int q=0; q < n; q++)
+            esFinal[q] = afd.getEstado(q).getEsFinal();
+        
+        /* Cada estado empieza en su propio grupo */
+        int[] padre = new int[n + 1];
+        for (int q=0; q <= n; q++)
+            padre[q] = q;
+        
+        /* Pares de representantes que se sabe que no son equivalentes */
+        HashSet<Long> distintos = new HashSet<Long>();
+        
+        /*
+         * Pares alcanzados de la comparación en curso, con el par desde
+         * el cual se alcanzó cada uno, y pares pendientes de recorrer
+         */
+        HashMap<Long, Long> alcanzados = new HashMap<Long, Long>();
+        Stack<Long> pendientes = new Stack<Long>();
+        
+        int grupos = n;
+        boolean completa = true;
+        
+        // Logging
+        logParticionInicial(afd);
+        
+        try {
+            for (int q=1; q < n; q++) {
+                /* El estado ya fue unido a un grupo anterior */
+                if (buscar(padre, q) != q)
+                    continue;
+                
+                for (int p=0; p < q; p++) {
+                    if (padre[p] != p || esFinal[p] != esFinal[q])
+                        continue;
+                    
+                    /*
+                     * Paso 1:
+                     * =======
+                     * Recorremos los pares alcanzados desde (p, q),
+                     * con los representantes de sus grupos, hasta
+                     * encontrar uno que no sea equivalente.
+                     */
+                    alcanzados.clear();
+                    pendientes.clear();
+                    alcanzados.put(clave(p, q, n), null);
+                    pendientes.push(clave(p, q, n));
+                    
+                    boolean equivalentes = true;
+                    int recorridos = 0;
+                    
+                    while (!pendientes.isEmpty()) {
+                        long par = pendientes.pop();
+                        int a = (int) (par / (n + 1));
+                        int b = (int) (par % (n + 1));
+                        
+                        if (esFinal[a] != esFinal[b] || b == n || distintos.contains(par)) {
+                            /* Los pares del camino desde (p, q) tampoco son equivalentes */
+                            for (Long c = par; c != null; c = alcanzados.get(c))
+                                distintos.add(c);
+                            
+                            equivalentes = false;
+                            break;
+                        }
+                        
+                        for (int s=0; s < k; s++) {
+                            int x = buscar(padre, destino[s][a]);
+                            int y = buscar(padre, destino[s][b]);
+                            long siguiente = clave(x, y, n);
+                            
+                            if (x != y && !alcanzados.containsKey(siguiente)) {
+                                alcanzados.put(siguiente, par);
+                                pendientes.push(siguiente);
+                            }
+                        }
+                        
+                        if (++recorridos % 1024 == 0)
+                            limites.verificarAFD("Minimización", grupos, transiciones, 16L * (2 * alcanzados.size() + distintos.size()));
+                    }
+                    
+                    if (!equivalentes)
+                        continue;
+                    
+                    /*
+                     * Paso 2:
+                     * =======
+                     * Todos los pares alcanzados son equivalentes,
+                     * unimos sus grupos.
+                     */
+                    for (long par : alcanzados.keySet()) {
+                        int a = buscar(padre, (int) (par / (n + 1)));
+                        int b = buscar(padre, (int) (par % (n + 1)));
+                        
+                        if (a != b) {
+                            padre[Math.max(a, b)] = Math.min(a, b);
+                            grupos--;
+                        }
+                    }
+                    
+                    break;
+                }
+                
+                limites.verificarAFD("Minimización", grupos, transiciones, 16L * distintos.size());
+            }
+        }
+        catch (ExcepcionLimite ex) {
+            completa = false;
             
-            /* Agregamos las transciones */
-            for (Transicion trans : representante.getTransiciones()) {
-                Estado destino = mapeo.get(trans.getEstado());
-                origen.getTransiciones().agregar(new Transicion(destino, trans.getSimbolo()));
+            // Logging
+            log.agregar("Minimización interrumpida: " + ex.getMessage()).nuevaLinea();
+            log.agregar("Grupos unidos hasta el momento: " + grupos + " de " + n + " estados").nuevaLinea();
+        }
+        
+        for (int q=0; q < n; q++)
+            grupo[q] = buscar(padre, q);
+        
+        return completa;
+    }
+    
+    /**
+     * Obtiene el representante del grupo de un estado en
+     * <code>particionIncremental</code>, acortando el camino
+     * de los estados recorridos.
+     * @param padre El estado padre de cada estado, o el mismo
+     * estado si es el representante.
+     * @param q El estado.
+     * @return El representante del grupo de <code>q</code>.
+     */
+    private static int buscar(int[] padre, int q) {
+        int raiz = q;
+        while (padre[raiz] != raiz)
+            raiz = padre[raiz];
+        
+        while (padre[q] != raiz) {
+            int siguiente = padre[q];
+            padre[q] = raiz;
+            q = siguiente;
+        }
+        
+        return raiz;
+    }
+    
+    /**
+     * Obtiene la clave de un par de estados en
+     * <code>particionIncremental</code>, con el
+     * menor estado primero.
+     * @param a Un estado del par.
+     * @param b El otro estado del par.
+     * @param n La cantidad de estados del AFD.
+     * @return La clave del par.
+     */
+    private static long clave(int a, int b, int n) {
+        return (long) Math.min(a, b) * (n + 1) + Math.max(a, b);
+    }
+    
+    /**
+     * Obtiene el estado destino de cada estado de un AFD según cada
+     * símbolo del alfabeto, numerando los estados según su posición.
+     * Las transiciones que faltan van a un estado ficticio, con el
+     * número siguiente al último estado, que va a sí mismo.
+     * @param afd El AFD.
+     * @return Los destinos, indexados por símbolo y estado.
+     */
+    private static int[][] tablaDestinos(AFD afd) {
+        Alfabeto alfabeto = afd.getAlfabeto();
+        int n = afd.cantidadEstados();
+        int k = alfabeto.getCantidad();
+        
+        /* Posición de cada estado en el AFD */
+        Hashtable<Estado, Integer> posiciones = new Hashtable<Estado, Integer>();
+        for (int q=0; q < n; q++)
+            posiciones.put(afd.getEstado(q), q);
+        
+        int[][] destino = new int[k][n + 1];
+        for (int s=0; s < k; s++) {
+            for (int q=0; q < n; q++) {
+                Estado[] destinos = afd.getEstado(q).getDestinos(alfabeto, s);
+                destino[s][q] = (destinos.length > 0) ? posiciones.get(destinos[destinos.length - 1]) : n;
             }
+            
+            destino[s][n] = n;
         }
         
-        return afdPostMinimizacion;
+        return destino;
+    }
+    
+    /**
+     * Agrega al <code>Log</code> la partición inicial, igual
+     * que <code>particionPasadas</code>.
+     * @param afd El AFD a minimizar.
+     */
+    private static void logParticionInicial(AFD afd) {
+        Conjunto<Conjunto<Estado>> inicial = new Conjunto<Conjunto<Estado>>();
+        inicial.agregar(afd.getEstadosNoFinales());
+        inicial.agregar(afd.getEstadosFinales());
+        log.agregar("Partición: " + inicial).nuevaLinea();
+    }
+    
+    /**
+     * Arma los grupos con los estados del AFD, en el orden del mismo,
+     * sin el estado ficticio, y los ordena igual que en
+     * <code>particionPasadas</code>.
+     * @param afd El AFD a minimizar.
+     * @param grupo El número de grupo de cada estado, según su posición.
+     * @param grupos Una cota para los números de grupo.
+     * @return La partición de los estados del AFD, ordenada.
+     */
+    private static Conjunto<Conjunto<Estado>> agrupar(AFD afd, int[] grupo, int grupos) {
+        Vector<Conjunto<Estado>> porGrupo = new Vector<Conjunto<Estado>>();
+        porGrupo.setSize(grupos);
+        
+        for (int q=0; q < afd.cantidadEstados(); q++) {
+            if (porGrupo.get(grupo[q]) == null)
+                porGrupo.set(grupo[q], new Conjunto<Estado>());
+            
+            porGrupo.get(grupo[q]).agregar(afd.getEstado(q));
+        }
+        
+        Conjunto<Conjunto<Estado>> particion = new Conjunto<Conjunto<Estado>>();
+        for (Conjunto<Estado> c : porGrupo)
+            if (c != null)
+                particion.agregar(c);
+        
+        particion.ordenar();
+        
+        // Logging
+        log.agregar("Partición: " + particion).nuevaLinea();
+        
+        return particion;
     }
     
     /**
@@ -348,10 +1030,11 @@ public class Minimizacion {
          * Paso 1:
          * =======
          * Para cada símbolo del alfabeto obtenemos los 
-         * estados alcanzados. Si para un símbolo dado
-         * el estado no posee transición, colocamos null.
+         * estados alcanzados, según su posición en el
+         * alfabeto. Si para un símbolo dado el estado no
+         * posee transición, no habrá ningún destino.
          */
-        HashMap<String, Estado> transiciones = origen.getTransicionesSegunAlfabeto(alfabeto);
+        int cantidad = alfabeto.getCantidad();
 
         /*
          * Paso 2:
@@ -360,9 +1043,10 @@ public class Minimizacion {
          * alcanzado por el estado origen y buscamos en qué
          * grupo de la partición está.
          */
-        for (String s : alfabeto) {
+        for (int s=0; s < cantidad; s++) {
             /* Estado destino de la transición */
-            Estado destino = transiciones.get(s);
+            Estado[] destinos = origen.getDestinos(alfabeto, s);
+            Estado destino = (destinos.length > 0) ? destinos[destinos.length - 1] : null;
             
             if (destino == null) {
                 /*
@@ -483,7 +1167,7 @@ public class Minimizacion {
      * @return La etiqueta para el estado del AFD nuevo.
      */
     private static String obtenerEtiqueta(Conjunto<Estado> grupo) {
-        String etiqueta = "";
+        StringBuilder etiqueta = new StringBuilder();
         String pedazo;
         
         for (Estado e : grupo) {
@@ -496,12 +1180,12 @@ public class Minimizacion {
                 pedazo = e.toString();
             
             /* Agregamos */
-            etiqueta += pedazo + " ";
+            if (etiqueta.length() > 0)
+                etiqueta.append(" ");
+            
+            etiqueta.append(pedazo);
         }
         
-        if (etiqueta.endsWith(" "))
-            etiqueta = etiqueta.substring(0, etiqueta.length() - 1);
-        
         return "(" + etiqueta + ")";
     }
     
@@ -513,4 +1197,40 @@ public class Minimizacion {
     public static Log getLog() {
         return log;
     }
+    
+    /**
+     * Firma de un estado en una pasada de <code>particionParalela</code>:
+     * su grupo y los grupos de sus destinos según cada símbolo.
+     */
+    private static class Firma {
+        
+        /**
+         * Grupo del estado y de sus destinos.
+         */
+        private final int[] valores;
+        
+        /**
+         * Valor de dispersión, calculado una única vez.
+         */
+        private final int hash;
+        
+        /**
+         * Crea la firma de un estado.
+         * @param valores Grupo del estado y de sus destinos.
+         */
+        private Firma(int[] valores) {
+            this.valores = valores;
+            this.hash = Arrays.hashCode(valores);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Firma && Arrays.equals(valores, ((Firma) obj).valores);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
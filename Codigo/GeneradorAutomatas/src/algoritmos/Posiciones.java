@@ -0,0 +1,521 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.NodoExprReg;
+import estructuras.ConjuntoSimbolos;
+import java.util.BitSet;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase calcula las funciones de posiciones de una expresión
+ * regular, a partir de su árbol sintáctico, según la sección 3.9.4
+ * del libro de Compiladores de Aho (2a. ed).<br><br>
+ * Cada aparición de un símbolo o de una clase de caracteres en la
+ * expresión regular es una posición, numeradas de 1 a n según su orden
+ * de aparición. Se calculan, para la expresión regular, si es anulable
+ * y los conjuntos de posiciones con las que puede comenzar (primeros)
+ * y terminar (últimos) una cadena, y para cada posición, las posiciones
+ * que pueden seguirla (siguientes). Las repeticiones acotadas se
+ * calculan copiando las posiciones de su operando.<br><br>
+ * Los conjuntos de posiciones se guardan como arreglos ordenados,
+ * de manera que ocupan memoria proporcional a su tamaño y no a la mayor
+ * posición que contienen, ya que un conjunto de bits con una posición
+ * alta ocupa tantas palabras como posiciones la preceden. Como los
+ * operandos de un nodo ocupan rangos consecutivos de posiciones, los
+ * primeros y últimos de una unión o concatenación se obtienen juntando
+ * los de sus operandos, sin volver a ordenarlos. Los arreglos pueden
+ * compartirse entre varios conjuntos, por lo que nunca se modifican.
+ * Solamente los primeros y últimos de la expresión regular completa
+ * se convierten, al terminar, en conjuntos de bits.<br><br>
+ * Estas funciones son utilizadas por la construcción de Glushkov y
+ * por la construcción directa de un AFD.
+ * @see Glushkov
+ * @see ConstruccionDirecta
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+class Posiciones {
+    
+    /**
+     * Símbolo de cada posición, o <code>null</code> si la
+     * posición es una clase de caracteres.
+     */
+    private Vector<String> simbolos;
+    
+    /**
+     * Clase de caracteres de cada posición, o <code>null</code>
+     * si la posición es un símbolo.
+     */
+    private Vector<ConjuntoSimbolos> clases;
+    
+    /**
+     * Conjunto vacío de posiciones.
+     */
+    private static final int[] VACIO = new int[0];
+    
+    /**
+     * Conjunto de posiciones siguientes de cada posición,
+     * como arreglo ordenado.
+     */
+    private Vector<int[]> siguientes;
+    
+    /**
+     * Funciones de la expresión regular completa.
+     */
+    private Fragmento raiz;
+    
+    /**
+     * Primeras posiciones de la expresión regular completa.
+     */
+    private BitSet primeros;
+    
+    /**
+     * Últimas posiciones de la expresión regular completa.
+     */
+    private BitSet ultimos;
+    
+    /**
+     * Calcula las funciones de posiciones de un árbol sintáctico,
+     * en postorden. La posición 0 no corresponde a ningún símbolo.
+     * @param arbol La raíz del árbol sintáctico.
+     */
+    Posiciones(NodoExprReg arbol) {
+        simbolos = new Vector<String>();
+        clases = new Vector<ConjuntoSimbolos>();
+        siguientes = new Vector<int[]>();
+        
+        simbolos.add(null);
+        clases.add(null);
+        siguientes.add(VACIO);
+        
+        /* Pila con los fragmentos de los nodos ya procesados */
+        Stack<Fragmento> pila = new Stack<Fragmento>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            Fragmento[] hijos = new Fragmento[nodo.cantidadHijos()];
+            for (int i = hijos.length - 1; i >= 0; i--)
+                hijos[i] = pila.pop();
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                case CLASE:
+                    pila.push(basico(nodo));
+                    break;
+                case UNION:
+                    pila.push(union(hijos));
+                    break;
+                case CONCATENACION:
+                    Fragmento f = hijos[0];
+                    for (int i=1; i < hijos.length; i++)
+                        f = concatenacion(f, hijos[i]);
+                    pila.push(f);
+                    break;
+                case CERRADURA_KLEENE:
+                    pila.push(opcion(cerradura(hijos[0])));
+                    break;
+                case CERRADURA_POSITIVA:
+                    pila.push(cerradura(hijos[0]));
+                    break;
+                case REPETICION:
+                    pila.push(repeticion(hijos[0], nodo.getMinimo(), nodo.getMaximo()));
+                    break;
+                default:
+                    pila.push(opcion(hijos[0]));
+            }
+        }
+        
+        raiz = pila.pop();
+        primeros = bits(raiz.primeros);
+        ultimos = bits(raiz.ultimos);
+    }
+    
+    /**
+     * Obtiene la cantidad de posiciones de la expresión regular.
+     * @return La cantidad de posiciones.
+     */
+    int cantidad() {
+        return siguientes.size() - 1;
+    }
+    
+    /**
+     * Indica si la expresión regular acepta la cadena vacía.
+     * @return <code>true</code> si la expresión regular es anulable.
+     */
+    boolean getAnulable() {
+        return raiz.anulable;
+    }
+    
+    /**
+     * Obtiene las posiciones con las que puede comenzar una cadena.
+     * @return El conjunto de primeras posiciones.
+     */
+    BitSet getPrimeros() {
+        return primeros;
+    }
+    
+    /**
+     * Obtiene las posiciones con las que puede terminar una cadena.
+     * @return El conjunto de últimas posiciones.
+     */
+    BitSet getUltimos() {
+        return ultimos;
+    }
+    
+    /**
+     * Obtiene las posiciones que pueden seguir a una posición.
+     * El arreglo puede ser compartido, por lo que no debe modificarse.
+     * @param p La posición.
+     * @return Las posiciones siguientes de <code>p</code>, en orden.
+     */
+    int[] getSiguientes(int p) {
+        return siguientes.get(p);
+    }
+    
+    /**
+     * Obtiene el símbolo de una posición.
+     * @param p La posición.
+     * @return El símbolo de <code>p</code>, o <code>null</code>
+     * si la posición es una clase de caracteres.
+     */
+    String getSimbolo(int p) {
+        return simbolos.get(p);
+    }
+    
+    /**
+     * Obtiene la clase de caracteres de una posición.
+     * @param p La posición.
+     * @return La clase de <code>p</code>, o <code>null</code>
+     * si la posición es un símbolo.
+     */
+    ConjuntoSimbolos getClase(int p) {
+        return clases.get(p);
+    }
+    
+    /**
+     * Determina si una posición corresponde a un símbolo dado.
+     * @param p La posición.
+     * @param simbolo El símbolo.
+     * @return <code>true</code> si <code>simbolo</code> es el símbolo
+     * de <code>p</code> o pertenece a su clase de caracteres.
+     */
+    boolean acepta(int p, String simbolo) {
+        if (clases.get(p) == null)
+            return simbolos.get(p).equals(simbolo);
+        else
+            return clases.get(p).contiene(simbolo);
+    }
+    
+    /**
+     * Construye el fragmento de un símbolo o de una clase de
+     * caracteres, que corresponde a una nueva posición. El
+     * símbolo vacío no tiene posiciones y es anulable.
+     * @param nodo El nodo del símbolo o de la clase.
+     * @return El fragmento construido.
+     */
+    private Fragmento basico(NodoExprReg nodo) {
+        Fragmento f = nuevoFragmento();
+        
+        if (nodo.esVacio()) {
+            f.anulable = true;
+        }
+        else {
+            int p = siguientes.size();
+            simbolos.add(nodo.getClase() == null ? nodo.getSimbolo() : null);
+            clases.add(nodo.getClase());
+            siguientes.add(VACIO);
+            
+            f.primeros = new int[] { p };
+            f.ultimos = f.primeros;
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de una unión. Los primeros y últimos
+     * de cada operando son mayores que los de los anteriores, por
+     * lo que basta con copiarlos uno a continuación del otro.
+     * @param hijos Los fragmentos de los operandos.
+     * @return El fragmento construido.
+     */
+    private Fragmento union(Fragmento[] hijos) {
+        Fragmento f = nuevoFragmento();
+        f.desde = hijos[0].desde;
+        
+        int cantidadPrimeros = 0;
+        int cantidadUltimos = 0;
+        for (Fragmento h : hijos) {
+            f.anulable |= h.anulable;
+            cantidadPrimeros += h.primeros.length;
+            cantidadUltimos += h.ultimos.length;
+        }
+        
+        f.primeros = new int[cantidadPrimeros];
+        f.ultimos = new int[cantidadUltimos];
+        cantidadPrimeros = 0;
+        cantidadUltimos = 0;
+        
+        for (Fragmento h : hijos) {
+            System.arraycopy(h.primeros, 0, f.primeros, cantidadPrimeros, h.primeros.length);
+            System.arraycopy(h.ultimos, 0, f.ultimos, cantidadUltimos, h.ultimos.length);
+            cantidadPrimeros += h.primeros.length;
+            cantidadUltimos += h.ultimos.length;
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Construye el fragmento de la concatenación de dos fragmentos:
+     * cada última posición del primero es seguida por cada primera
+     * posición del segundo.
+     * @param a El primer operando.
+     * @param b El segundo operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento concatenacion(Fragmento a, Fragmento b) {
+        for (int p : a.ultimos)
+            siguientes.set(p, unir(siguientes.get(p), b.primeros));
+        
+        Fragmento f = nuevoFragmento();
+        f.desde = a.desde;
+        f.anulable = a.anulable && b.anulable;
+        f.primeros = a.anulable ? juntar(a.primeros, b.primeros) : a.primeros;
+        f.ultimos = b.anulable ? juntar(a.ultimos, b.ultimos) : b.ultimos;
+        
+        return f;
+    }
+    
+    /**
+     * Aplica la cerradura positiva (+) a un fragmento: cada última
+     * posición es seguida por cada primera posición. La cerradura
+     * de Kleene se obtiene como la opción de la cerradura positiva.
+     * @param h El fragmento del operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento cerradura(Fragmento h) {
+        for (int p : h.ultimos)
+            siguientes.set(p, unir(siguientes.get(p), h.primeros));
+        
+        return h;
+    }
+    
+    /**
+     * Aplica el operador de opción (?) a un fragmento.
+     * @param h El fragmento del operando.
+     * @return El fragmento construido.
+     */
+    private Fragmento opcion(Fragmento h) {
+        h.anulable = true;
+        return h;
+    }
+    
+    /**
+     * Aplica el operador de repetición acotada ({m}, {m,} o {m,n}) a
+     * un fragmento. Las posiciones del operando se copian una vez por
+     * cada repetición y las copias se combinan como <code>x x (x (x)?)?</code>.
+     * @param h El fragmento del operando.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1 si
+     * no hay cota superior.
+     * @return El fragmento construido.
+     */
+    private Fragmento repeticion(Fragmento h, int minimo, int maximo) {
+        if (maximo == 0) {
+            /* Descartamos las posiciones del operando, que son las últimas */
+            simbolos.setSize(h.desde);
+            clases.setSize(h.desde);
+            siguientes.setSize(h.desde);
+            
+            Fragmento f = nuevoFragmento();
+            f.anulable = true;
+            return f;
+        }
+        
+        /* Copias del operando: la primera es el mismo operando */
+        int copias = (maximo < 0) ? Math.max(minimo, 1) : maximo;
+        int hasta = siguientes.size();
+        Fragmento[] partes = new Fragmento[copias];
+        
+        partes[0] = h;
+        for (int i=1; i < copias; i++)
+            partes[i] = copiar(h, hasta);
+        
+        /* Combinamos las copias desde la última hacia la primera */
+        Fragmento f = partes[copias - 1];
+        
+        if (maximo < 0)
+            f = (minimo == 0) ? opcion(cerradura(f)) : cerradura(f);
+        else if (copias - 1 >= minimo)
+            f = opcion(f);
+        
+        for (int i = copias - 2; i >= 0; i--) {
+            f = concatenacion(partes[i], f);
+            
+            if (maximo >= 0 && i >= minimo)
+                f = opcion(f);
+        }
+        
+        return f;
+    }
+    
+    /**
+     * Copia las posiciones de un fragmento, junto con sus posiciones
+     * siguientes. Como los fragmentos se construyen en postorden, las
+     * posiciones de un fragmento son consecutivas y, mientras no se
+     * combine con otro fragmento, sus siguientes no salen de ese rango.
+     * @param h El fragmento a copiar.
+     * @param hasta La posición siguiente a la última del fragmento.
+     * @return El fragmento copiado.
+     */
+    private Fragmento copiar(Fragmento h, int hasta) {
+        int desplazamiento = siguientes.size() - h.desde;
+        
+        for (int p = h.desde; p < hasta; p++) {
+            simbolos.add(simbolos.get(p));
+            clases.add(clases.get(p));
+            siguientes.add(desplazar(siguientes.get(p), desplazamiento));
+        }
+        
+        Fragmento f = nuevoFragmento();
+        f.desde = h.desde + desplazamiento;
+        f.anulable = h.anulable;
+        f.primeros = desplazar(h.primeros, desplazamiento);
+        f.ultimos = desplazar(h.ultimos, desplazamiento);
+        return f;
+    }
+    
+    /**
+     * Desplaza un conjunto de posiciones.
+     * @param posiciones El conjunto de posiciones.
+     * @param desplazamiento La cantidad a sumar a cada posición.
+     * @return Un nuevo conjunto con las posiciones desplazadas.
+     */
+    private static int[] desplazar(int[] posiciones, int desplazamiento) {
+        if (posiciones.length == 0)
+            return VACIO;
+        
+        int[] resultado = new int[posiciones.length];
+        for (int i=0; i < posiciones.length; i++)
+            resultado[i] = posiciones[i] + desplazamiento;
+        
+        return resultado;
+    }
+    
+    /**
+     * Junta dos conjuntos de posiciones, cuando las del
+     * segundo son todas mayores que las del primero.
+     * @param a El primer conjunto.
+     * @param b El segundo conjunto.
+     * @return La unión de <code>a</code> y <code>b</code>, que puede
+     * ser uno de los operandos si el otro es vacío.
+     */
+    private static int[] juntar(int[] a, int[] b) {
+        if (a.length == 0)
+            return b;
+        if (b.length == 0)
+            return a;
+        
+        int[] resultado = new int[a.length + b.length];
+        System.arraycopy(a, 0, resultado, 0, a.length);
+        System.arraycopy(b, 0, resultado, a.length, b.length);
+        return resultado;
+    }
+    
+    /**
+     * Une dos conjuntos de posiciones ordenados cualesquiera,
+     * intercalándolos sin repetir posiciones.
+     * @param a El primer conjunto.
+     * @param b El segundo conjunto.
+     * @return La unión de <code>a</code> y <code>b</code>, que puede
+     * ser uno de los operandos si el otro es vacío.
+     */
+    private static int[] unir(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0 || a[a.length - 1] < b[0])
+            return juntar(a, b);
+        
+        int[] resultado = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j])
+                resultado[k++] = a[i++];
+            else if (a[i] > b[j])
+                resultado[k++] = b[j++];
+            else {
+                resultado[k++] = a[i++];
+                j++;
+            }
+        }
+        
+        while (i < a.length)
+            resultado[k++] = a[i++];
+        while (j < b.length)
+            resultado[k++] = b[j++];
+        
+        if (k == resultado.length)
+            return resultado;
+        
+        int[] recortado = new int[k];
+        System.arraycopy(resultado, 0, recortado, 0, k);
+        return recortado;
+    }
+    
+    /**
+     * Convierte un conjunto de posiciones en un conjunto de bits.
+     * @param posiciones El conjunto de posiciones.
+     * @return El conjunto de bits.
+     */
+    private static BitSet bits(int[] posiciones) {
+        BitSet resultado = new BitSet();
+        for (int p : posiciones)
+            resultado.set(p);
+        
+        return resultado;
+    }
+    
+    /**
+     * Crea un fragmento vacío, cuyas posiciones comienzan
+     * a partir de la siguiente posición a agregar.
+     * @return El fragmento creado.
+     */
+    private Fragmento nuevoFragmento() {
+        Fragmento f = new Fragmento();
+        f.desde = siguientes.size();
+        f.primeros = VACIO;
+        f.ultimos = VACIO;
+        return f;
+    }
+    
+    /**
+     * Conjuntos de posiciones de una subexpresión. Sus posiciones
+     * son las agregadas a partir de <code>desde</code>.
+     */
+    private static class Fragmento {
+        
+        /**
+         * Primera posición del fragmento.
+         */
+        private int desde;
+        
+        /**
+         * Indica si la subexpresión acepta la cadena vacía.
+         */
+        private boolean anulable;
+        
+        /**
+         * Posiciones con las que puede comenzar una cadena, en orden.
+         */
+        private int[] primeros;
+        
+        /**
+         * Posiciones con las que puede terminar una cadena, en orden.
+         */
+        private int[] ultimos;
+    }
+}
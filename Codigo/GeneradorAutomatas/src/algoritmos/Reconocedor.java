@@ -0,0 +1,172 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+
+/**
+ * Esta clase valida cadenas de entrada contra un AFN, construyendo
+ * el AFD mínimo equivalente dentro de unos <code>Limites</code>
+ * determinados, con <code>Minimizacion</code> o con la minimización
+ * de <code>Brzozowski</code>, según el tamaño del AFD del AFN.<br><br>
+ * Si la construcción excede algún límite y los límites permiten
+ * degradar, las cadenas se validan con un <code>AFDPerezoso</code>,
+ * que crea solamente los estados del AFD que necesita, con una
+ * memoria acotada, y simula el AFN cuando la memoria no alcanza.
+ * En caso contrario, o si la construcción fue cancelada, se lanza
+ * la <code>ExcepcionLimite</code>.<br><br>
+ * A partir del árbol sintáctico de una expresión regular, el modo de
+ * <code>Reconocimiento</code> permite validar con un
+ * <code>AFNContadores</code>, sin desenrollar las repeticiones con
+ * cotas grandes, como <code>[0-9]{1,64}</code>, que con el AFD mínimo
+ * multiplicarían los estados del AFN por la cota.
+ * @see Limites
+ * @see Reconocimiento
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class Reconocedor {
+    
+    /**
+     * Cantidad de estados del <code>AFDPerezoso</code>
+     * cuando los límites no establecen una.
+     */
+    public static final int CAPACIDAD = 1000;
+    
+    /**
+     * AFD mínimo, o <code>null</code> si se degradó o
+     * se valida con un <code>AFNContadores</code>.
+     */
+    private AFD afd;
+    
+    /**
+     * AFD perezoso, o <code>null</code> si no se degradó.
+     */
+    private AFDPerezoso perezoso;
+    
+    /**
+     * AFN con contadores, o <code>null</code> si se construyó el AFD.
+     */
+    private AFNContadores contadores;
+    
+    /**
+     * Límite excedido al construir el AFD, o <code>null</code>.
+     */
+    private ExcepcionLimite limiteExcedido;
+    
+    /**
+     * Construye el AFD mínimo de un AFN dentro de unos límites
+     * determinados, o degrada a un <code>AFDPerezoso</code>
+     * si los límites lo permiten.
+     * @param afn El AFN, con su alfabeto.
+     * @param limites Los límites de la construcción.
+     * @throws ExcepcionLimite Si se excede algún límite y no se
+     * permite degradar, o si la construcción fue cancelada.
+     */
+    public Reconocedor(AFN afn, Limites limites) {
+        construirAFD(afn, limites);
+    }
+    
+    /**
+     * Construye el reconocedor de una expresión regular a partir de
+     * su árbol sintáctico, en el modo de reconocimiento indicado.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @param alfabeto El alfabeto de la expresión regular.
+     * @param limites Los límites de la construcción del AFD.
+     * @param modo El modo de reconocimiento.
+     * @throws ExcepcionLimite Si se construye el AFD, se excede algún
+     * límite y no se permite degradar, o si la construcción fue cancelada.
+     */
+    public Reconocedor(NodoExprReg arbol, Alfabeto alfabeto, Limites limites, Reconocimiento modo) {
+        if (modo == Reconocimiento.AUTOMATICO)
+            modo = AFNContadores.requiereContadores(arbol) ? Reconocimiento.CONTADORES : Reconocimiento.AFD_MINIMO;
+        
+        if (modo == Reconocimiento.CONTADORES) {
+            contadores = new AFNContadores(arbol);
+        }
+        else {
+            AFN afn = ConstructorThompson.construir(arbol, limites);
+            afn.setAlfabeto(alfabeto);
+            construirAFD(afn, limites);
+        }
+    }
+    
+    /**
+     * Construye el AFD mínimo de un AFN, o degrada a un
+     * <code>AFDPerezoso</code> si los límites lo permiten.
+     * @param afn El AFN, con su alfabeto.
+     * @param limites Los límites de la construcción.
+     */
+    private void construirAFD(AFN afn, Limites limites) {
+        try {
+            afd = Brzozowski.getAFDminimo(afn, limites);
+        }
+        catch (ExcepcionLimite ex) {
+            if (!limites.getPermitirDegradar() || ex.getMotivo() == ExcepcionLimite.Motivo.CANCELACION)
+                throw ex;
+            
+            limiteExcedido = ex;
+            
+            int capacidad = limites.getMaxEstados() > 0 ? limites.getMaxEstados() : CAPACIDAD;
+            perezoso = new AFDPerezoso(afn, capacidad);
+        }
+    }
+    
+    /**
+     * Determina si una cadena de entrada pertenece al lenguaje del AFN.
+     * @param entrada La cadena de entrada.
+     * @return <code>true</code> si la entrada es aceptada,
+     * <code>false</code> en caso contrario.
+     */
+    public boolean acepta(String entrada) {
+        if (afd != null)
+            return Validacion.validarAFD(afd, entrada).esValido();
+        else if (contadores != null)
+            return contadores.acepta(entrada);
+        else
+            return perezoso.acepta(entrada);
+    }
+    
+    /**
+     * Indica si se degradó a un <code>AFDPerezoso</code>.
+     * @return <code>true</code> si no se pudo construir el AFD mínimo
+     * dentro de los límites.
+     */
+    public boolean esDegradado() {
+        return perezoso != null;
+    }
+    
+    /**
+     * Obtiene el modo de reconocimiento utilizado, que nunca es
+     * <code>AUTOMATICO</code>.
+     * @return <code>CONTADORES</code> si se valida con un
+     * <code>AFNContadores</code>, o <code>AFD_MINIMO</code> en caso contrario.
+     */
+    public Reconocimiento getModo() {
+        return (contadores != null) ? Reconocimiento.CONTADORES : Reconocimiento.AFD_MINIMO;
+    }
+    
+    /**
+     * Obtiene el AFD mínimo construido.
+     * @return El AFD mínimo, o <code>null</code> si se degradó
+     * o se valida con un <code>AFNContadores</code>.
+     */
+    public AFD getAFD() {
+        return afd;
+    }
+    
+    /**
+     * Obtiene el límite excedido al construir el AFD, con las
+     * estadísticas de la etapa interrumpida.
+     * @return El límite excedido, o <code>null</code> si no se degradó.
+     */
+    public ExcepcionLimite getLimiteExcedido() {
+        return limiteExcedido;
+    }
+}
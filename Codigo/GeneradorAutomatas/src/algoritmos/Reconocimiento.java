@@ -0,0 +1,37 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+/**
+ * Enumeración que representa los posibles modos con los que un
+ * <code>Reconocedor</code> valida cadenas de entrada contra el
+ * árbol sintáctico de una expresión regular.
+ * @see Reconocedor
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public enum Reconocimiento {
+    /**
+     * Construcción del AFD mínimo a partir del AFN de Thompson, que
+     * desenrolla las repeticiones acotadas, degradando a un
+     * <code>AFDPerezoso</code> si los límites lo permiten.
+     */
+    AFD_MINIMO,
+    
+    /**
+     * Simulación de un <code>AFNContadores</code>, que construye las
+     * repeticiones con cota mayor a <code>AFNContadores.UMBRAL</code>
+     * con un contador en lugar de desenrollarlas.
+     */
+    CONTADORES,
+    
+    /**
+     * <code>CONTADORES</code> si alguna repetición de la expresión
+     * regular tiene una cota mayor a <code>AFNContadores.UMBRAL</code>,
+     * y <code>AFD_MINIMO</code> en caso contrario.
+     */
+    AUTOMATICO
+}
@@ -0,0 +1,335 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import estructuras.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la reducción de la cantidad de estados de un
+ * AFN, uniendo los estados equivalentes según una bisimulación, de
+ * manera a reducir el AFN antes de aplicar <code>Subconjuntos</code>.
+ * <br><br>
+ * Dos estados son equivalentes según la bisimulación hacia adelante si
+ * ambos son finales o ambos no lo son, y para cada etiqueta alcanzan
+ * los mismos bloques de estados equivalentes. Según la bisimulación
+ * hacia atrás, lo son si ambos son iniciales o ambos no lo son, y para
+ * cada etiqueta son alcanzados desde los mismos bloques. En ambos
+ * casos, el AFN cociente reconoce el mismo lenguaje que el original.
+ * Las transiciones vacías se tratan como una etiqueta más.<br><br>
+ * Cada bisimulación se calcula refinando una partición inicial: los
+ * estados de un bloque se separan según su firma, que es el conjunto
+ * de pares (etiqueta, bloque) de sus transiciones. Solo se vuelve a
+ * calcular la firma de los estados que dependen de algún estado que
+ * cambió de bloque, hasta que ninguno cambie. Como
+ * reducir según una bisimulación puede habilitar reducciones según
+ * la otra, ambas se alternan hasta que el AFN no se reduzca más.
+ * @see Subconjuntos
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ReduccionAFN {
+    
+    /**
+     * Log para el algoritmo de reducción de estados.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Obtiene un AFN equivalente a otro, con los estados
+     * equivalentes según las bisimulaciones hacia adelante
+     * y hacia atrás unidos en un único estado.
+     * @param afn El <code>AFN</code> original.
+     * @return El <code>AFN</code> reducido.
+     */
+    public static AFN getAFN(AFN afn) {
+        // Logging
+        log.vaciar();
+        log.agregar("Reducción de estados del AFN".toUpperCase()).nuevaLinea();
+        log.agregar("----------------------------").nuevaLinea().nuevaLinea();
+        
+        AFN actual = afn;
+        boolean adelante = true;
+        int fallidos = 0;
+        
+        /* Se alternan las bisimulaciones hasta que ninguna reduzca el AFN */
+        while (fallidos < 2) {
+            AFN reducido = reducir(actual, adelante);
+            
+            // Logging
+            log.agregar("Bisimulación hacia " + (adelante ? "adelante" : "atrás") + ": ")
+               .agregar(actual.cantidadEstados() + " -> " + reducido.cantidadEstados() + " estados")
+               .nuevaLinea();
+            
+            if (reducido.cantidadEstados() < actual.cantidadEstados())
+                fallidos = 0;
+            else
+                fallidos++;
+            
+            actual = reducido;
+            adelante = !adelante;
+        }
+        
+        // Logging
+        double razon = (double) actual.cantidadEstados() / afn.cantidadEstados();
+        log.nuevaLinea().agregar("Estados: " + afn.cantidadEstados() + " -> " + actual.cantidadEstados())
+           .agregar(String.format(" (razón de reducción: %.2f)", razon)).nuevaLinea();
+        log.agregar("Transiciones: " + afn.cantidadTransiciones() + " -> " + actual.cantidadTransiciones()).nuevaLinea();
+        
+        return actual;
+    }
+    
+    /**
+     * Une los estados equivalentes de un AFN según una bisimulación.
+     * @param afn El <code>AFN</code>.
+     * @param adelante <code>true</code> para la bisimulación hacia
+     * adelante, <code>false</code> para la bisimulación hacia atrás.
+     * @return El <code>AFN</code> cociente.
+     */
+    private static AFN reducir(AFN afn, boolean adelante) {
+        int n = afn.cantidadEstados();
+        
+        /* Índice de cada estado */
+        IdentityHashMap<Estado, Integer> indices = new IdentityHashMap<Estado, Integer>();
+        for (int i=0; i < n; i++)
+            indices.put(afn.getEstado(i), i);
+        
+        /* Índice de cada etiqueta, sea un símbolo o un conjunto de símbolos */
+        HashMap<Object, Integer> etiquetas = new HashMap<Object, Integer>();
+        
+        /* Transiciones como arreglos de origen, etiqueta y destino */
+        Vector<int[]> transiciones = new Vector<int[]>();
+        for (int i=0; i < n; i++) {
+            for (Transicion t : afn.getEstado(i).getTransiciones()) {
+                Object etiqueta = (t.getClase() != null) ? t.getClase() : t.getSimbolo();
+                Integer e = etiquetas.get(etiqueta);
+                if (e == null) {
+                    e = etiquetas.size();
+                    etiquetas.put(etiqueta, e);
+                }
+                
+                transiciones.add(new int[] { i, e, indices.get(t.getEstado()) });
+            }
+        }
+        
+        /*
+         * Arcos recorridos por la bisimulación desde cada estado, y
+         * estados cuya firma depende del bloque de cada estado.
+         */
+        Vector<Vector<int[]>> arcos = new Vector<Vector<int[]>>();
+        Vector<Vector<Integer>> dependientes = new Vector<Vector<Integer>>();
+        for (int i=0; i < n; i++) {
+            arcos.add(new Vector<int[]>());
+            dependientes.add(new Vector<Integer>());
+        }
+        
+        for (int[] t : transiciones) {
+            int origen = adelante ? t[0] : t[2];
+            int destino = adelante ? t[2] : t[0];
+            arcos.get(origen).add(new int[] { t[1], destino });
+            dependientes.get(destino).add(origen);
+        }
+        
+        /* Partición inicial, según sean finales o iniciales */
+        int[] bloque = new int[n];
+        int inicial = indices.get(afn.getEstadoInicial());
+        for (int i=0; i < n; i++) {
+            if (adelante)
+                bloque[i] = afn.getEstado(i).getEsFinal() ? 1 : 0;
+            else
+                bloque[i] = (i == inicial) ? 1 : 0;
+        }
+        
+        /*
+         * Firma común a los estados de cada bloque, y cantidad de estados
+         * de cada bloque. Los estados cuya firma pudo cambiar, porque
+         * cambió el bloque de alguno de los estados de los que depende,
+         * se marcan como pendientes.
+         */
+        String[] firmas = new String[n + 2];
+        int[] tamanho = new int[n + 2];
+        for (int i=0; i < n; i++)
+            tamanho[bloque[i]]++;
+        
+        int cantidad = 2;
+        boolean[] pendiente = new boolean[n];
+        Vector<Integer> pendientes = new Vector<Integer>();
+        for (int i=0; i < n; i++) {
+            pendiente[i] = true;
+            pendientes.add(i);
+        }
+        
+        int[] cuenta = new int[n + 2];
+        while (!pendientes.isEmpty()) {
+            /* Firmas de los pendientes, con los bloques al inicio de la ronda */
+            String[] nuevas = new String[pendientes.size()];
+            int[] anteriores = new int[nuevas.length];
+            for (int k=0; k < nuevas.length; k++) {
+                int q = pendientes.get(k);
+                nuevas[k] = firma(arcos.get(q), bloque);
+                anteriores[k] = bloque[q];
+                cuenta[bloque[q]]++;
+            }
+            
+            /*
+             * Si todos los estados de un bloque están pendientes, la firma
+             * del bloque pasa a ser la del primero de ellos. Los estados
+             * con una firma distinta a la de su bloque pasan a un bloque
+             * nuevo, por lo que el bloque original nunca queda vacío.
+             */
+            HashMap<String, Integer> divisiones = new HashMap<String, Integer>();
+            Vector<Integer> movidos = new Vector<Integer>();
+            
+            for (int k=0; k < nuevas.length; k++) {
+                int q = pendientes.get(k);
+                int x = bloque[q];
+                pendiente[q] = false;
+                
+                if (cuenta[x] >= 0) {
+                    if (cuenta[x] == tamanho[x])
+                        firmas[x] = nuevas[k];
+                    cuenta[x] = -1;
+                }
+                
+                if (nuevas[k].equals(firmas[x]))
+                    continue;
+                
+                String clave = x + "|" + nuevas[k];
+                Integer b = divisiones.get(clave);
+                if (b == null) {
+                    b = cantidad++;
+                    firmas[b] = nuevas[k];
+                    divisiones.put(clave, b);
+                }
+                
+                bloque[q] = b;
+                tamanho[x]--;
+                tamanho[b]++;
+                movidos.add(q);
+            }
+            
+            for (int x : anteriores)
+                cuenta[x] = 0;
+            
+            pendientes = new Vector<Integer>();
+            for (int q : movidos) {
+                for (int p : dependientes.get(q)) {
+                    if (!pendiente[p]) {
+                        pendiente[p] = true;
+                        pendientes.add(p);
+                    }
+                }
+            }
+        }
+        
+        /* Numeración consecutiva de los bloques no vacíos */
+        int[] numero = new int[cantidad];
+        Arrays.fill(numero, -1);
+        cantidad = 0;
+        for (int i=0; i < n; i++) {
+            if (numero[bloque[i]] < 0)
+                numero[bloque[i]] = cantidad++;
+            bloque[i] = numero[bloque[i]];
+        }
+        
+        return cociente(afn, bloque, cantidad, indices);
+    }
+    
+    /**
+     * Calcula la firma de un estado: el conjunto ordenado
+     * de pares (etiqueta, bloque) de sus arcos.
+     * @param arcos Los arcos del estado, como pares (etiqueta, estado).
+     * @param bloque El bloque de cada estado.
+     * @return La firma del estado.
+     */
+    private static String firma(Vector<int[]> arcos, int[] bloque) {
+        long[] pares = new long[arcos.size()];
+        for (int j=0; j < pares.length; j++)
+            pares[j] = ((long) arcos.get(j)[0] << 32) | bloque[arcos.get(j)[1]];
+        
+        Arrays.sort(pares);
+        
+        StringBuffer str = new StringBuffer();
+        for (int j=0; j < pares.length; j++)
+            if (j == 0 || pares[j] != pares[j - 1])
+                str.append(',').append(pares[j]);
+        
+        return str.toString();
+    }
+    
+    /**
+     * Construye el AFN cociente, con un estado por bloque. Los
+     * estados se numeran según se alcanzan desde el inicial, y
+     * un bloque es final si alguno de sus estados lo es.
+     * @param afn El <code>AFN</code> original.
+     * @param bloque El bloque de cada estado.
+     * @param cantidad La cantidad de bloques.
+     * @param indices El índice de cada estado.
+     * @return El <code>AFN</code> cociente.
+     */
+    private static AFN cociente(AFN afn, int[] bloque, int cantidad, IdentityHashMap<Estado, Integer> indices) {
+        int n = afn.cantidadEstados();
+        
+        /* Estados de cada bloque */
+        Vector<Vector<Estado>> miembros = new Vector<Vector<Estado>>();
+        for (int b=0; b < cantidad; b++)
+            miembros.add(new Vector<Estado>());
+        for (int i=0; i < n; i++)
+            miembros.get(bloque[i]).add(afn.getEstado(i));
+        
+        AFN resultado = new AFN(afn.getAlfabeto(), afn.getExprReg());
+        int[] nuevos = new int[cantidad];
+        Arrays.fill(nuevos, -1);
+        Vector<Integer> bloques = new Vector<Integer>();
+        
+        int inicial = bloque[indices.get(afn.getEstadoInicial())];
+        nuevos[inicial] = 0;
+        bloques.add(inicial);
+        resultado.agregarEstado(new Estado(0));
+        
+        for (int k=0; k < bloques.size(); k++) {
+            Estado estado = resultado.getEstado(k);
+            
+            /* Transiciones ya agregadas, según etiqueta y bloque destino */
+            HashSet<String> agregadas = new HashSet<String>();
+            
+            for (Estado e : miembros.get(bloques.get(k))) {
+                if (e.getEsFinal())
+                    estado.setEsFinal(true);
+                
+                for (Transicion t : e.getTransiciones()) {
+                    int destino = bloque[indices.get(t.getEstado())];
+                    String clave = t.getSimbolo() + "/" + t.getClase() + "/" + destino;
+                    if (!agregadas.add(clave))
+                        continue;
+                    
+                    if (nuevos[destino] < 0) {
+                        nuevos[destino] = bloques.size();
+                        bloques.add(destino);
+                        resultado.agregarEstado(new Estado(nuevos[destino]));
+                    }
+                    
+                    estado.getTransiciones().agregar(t.copiar(resultado.getEstado(nuevos[destino])));
+                }
+            }
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al algoritmo de reducción de estados.
+     */
+    public static Log getLog() {
+        return log;
+    }
+}
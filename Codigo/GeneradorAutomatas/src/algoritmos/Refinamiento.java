@@ -0,0 +1,48 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+/**
+ * Enumeración que representa los posibles algoritmos para
+ * refinar la partición de los estados de un AFD durante su
+ * minimización. Todos obtienen los mismos grupos de estados,
+ * y por tanto el mismo AFD mínimo, salvo que se interrumpa
+ * el refinamiento incremental.
+ * @see Minimizacion
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public enum Refinamiento {
+    /**
+     * Refinamiento por pasadas, algoritmo 3.39 del libro de
+     * Compiladores de Aho. El <code>Log</code> muestra la
+     * partición obtenida en cada pasada.
+     */
+    PASADAS,
+    
+    /**
+     * Algoritmo de Hopcroft, que divide los grupos según una
+     * lista de divisores, en tiempo O(k·n·log n).
+     */
+    HOPCROFT,
+    
+    /**
+     * Refinamiento por pasadas sobre arreglos de enteros, calculando
+     * en paralelo la firma de cada estado en cada pasada.
+     */
+    PARALELO,
+    
+    /**
+     * Unión incremental de pares de estados equivalentes, que puede
+     * interrumpirse en cualquier momento obteniendo un AFD equivalente,
+     * aunque no necesariamente mínimo. Cada estado se compara con los
+     * representantes de todos los grupos anteriores, y cada comparación
+     * puede recorrer O(n²) pares de estados, por lo que el peor caso es
+     * O(k·n⁴), mucho mayor que el de <code>HOPCROFT</code> si el AFD
+     * tiene muchos grupos.
+     */
+    INCREMENTAL
+}
@@ -7,9 +7,16 @@ package algoritmos;
 
 import estructuras.*;
 import analisis.Alfabeto;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Stack;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Esta clase implementa los algoritmos para realizar
@@ -24,6 +31,15 @@ public class Subconjuntos {
      * Log para el algoritmo de subconjuntos.
      */
     private static Log log = new Log();
+    
+    /**
+     * Cantidad máxima de pasos <code>cerraduraEpsilon(mover(T, simbolo))</code>
+     * que <code>getAFDBits</code> y <code>getAFDParalelo</code> agregan
+     * al <code>Log</code> cuando se pide registrarlos. Los pasos siguientes
+     * se omiten, de manera que el <code>Log</code> de un AFD grande no
+     * ocupe más tiempo y memoria que la conversión.
+     */
+    public static final int MAX_PASOS_LOG = 10000;
 
     /**
      * Realiza la conversión de un AFN a un AFD, aplicando el
@@ -32,6 +48,19 @@ public class Subconjuntos {
      * @return El <code>AFD</code> equivalente a <code>afn</code>.
      */
     public static AFD getAFD(Automata afn) {
+        return getAFD(afn, new Limites());
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFD</code>, verificando los límites luego de
+     * procesar cada estado del AFD.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param limites Los límites de la conversión.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFD(Automata afn, Limites limites) {
         Estado estadoOrigen, estadoDestino;
         
         // Logging
@@ -45,6 +74,9 @@ public class Subconjuntos {
         /* Conjunto de estados finales del AFD */
         Conjunto<Conjunto<Estado>> estadosD = new Conjunto<Conjunto<Estado>>();
         
+        /* Número de cada conjunto de estadosD, para buscarlos por dispersión */
+        RegistroConjuntos registro = new RegistroConjuntos();
+        
         /*
          * En esta cola se iran almacenando temporalmente los conjuntos de 
          * estados y la operación de marcarlos consistirá en quitarlos la misma
@@ -57,8 +89,15 @@ public class Subconjuntos {
         /* Contador de estados procesados del AFD */
         int estadosProcesados = 0;
         
+        /* Contador de transiciones del AFD, para verificar los límites */
+        int transiciones = 0;
+        
+        /* Cerraduras vacías de los estados del AFN, calculadas una única vez */
+        TablaCerraduras cerraduras = afn.getTablaCerraduras();
+        
         /* Calculamos la Cerradura Epsilon del estado inicial */
-        Conjunto<Estado> resultado = cerraduraEpsilon(afn.getEstadoInicial());
+        int inicial = cerraduras.getIndice(afn.getEstadoInicial());
+        Conjunto<Estado> resultado = cerraduras.conjunto(cerraduras.getCerradura(inicial));
         
         // Logging
         log.agregar("cerradura(" + afn.getEstadoInicial() + ") = " + resultado).nuevaLinea().nuevaLinea();
@@ -68,6 +107,7 @@ public class Subconjuntos {
           * inicial del AFN a estadosD sin marcar
           */
         estadosD.agregar(resultado);
+        registro.agregar(RegistroConjuntos.clave(resultado));
         colaTemp.add(resultado);
         
         /*
@@ -84,22 +124,40 @@ public class Subconjuntos {
             /* Estado del AFD a procesar */
             estadoOrigen = afd.getEstado(estadosProcesados++);
             
+            /* Estados de T, para seguir sus destinos según cada símbolo */
+            long[] bitsT = cerraduras.bits(T);
+            
             /* Buscar transiciones por cada simbolo */
-            for (String simbolo : afn.getAlfabeto()) {
+            for (int pos=0; pos < afn.getAlfabeto().getCantidad(); pos++) {
+                String simbolo = afn.getAlfabeto().getSimbolo(pos);
+                
                 /* Aplicar cerraduraEpsilon(mueve(T, simbolo)) */
-                Conjunto<Estado> M = mover(T, simbolo);
-                Conjunto<Estado> U = cerraduraEpsilon(M);
+                long[] bitsM = cerraduras.mover(bitsT, afn.getAlfabeto(), pos);
+                Conjunto<Estado> M = cerraduras.conjunto(bitsM);
+                Conjunto<Estado> U = cerraduras.conjunto(cerraduras.cerradura(bitsM));
                 
                 // Logging
                 log.agregar("cerradura(mover(" + T + ", " + simbolo + ")) = ")
                    .agregar("cerradura(" + M + ") = " + U)
                    .nuevaLinea();
                 
-                if (estadosD.contiene(U)) {
-                    int posicion  = estadosD.obtenerPosicion(U);
+                if (U.estaVacio()) {
+                    /*
+                     * Encontramos un conjunto vacío, por tanto,
+                     * no debemos agregar ninguna transición y
+                     * debemos saltar directamente a evaluar el
+                     * siguiente simbolo del alfabeto.
+                     */
+                    continue;
+                }
+                
+                int cantidad = registro.cantidad();
+                int posicion = registro.agregar(RegistroConjuntos.clave(U));
+                
+                if (posicion < cantidad) {
                     estadoDestino = afd.getEstado(posicion);
                 }
-                else if (!U.estaVacio()) {
+                else {
                     estadoDestino = new Estado(afd.cantidadEstados());
                     afd.agregarEstado(estadoDestino);
                     
@@ -107,23 +165,17 @@ public class Subconjuntos {
                     estadosD.agregar(U);
                     colaTemp.add(U);
                 }
-                else {
-                    /*
-                     * Encontramos un conjunto vacío, por tanto,
-                     * no debemos agregar ninguna transición y
-                     * debemos saltar directamente a evaluar el
-                     * siguiente simbolo del alfabeto.
-                     */
-                    continue;
-                }
                 
                 // Agregamos la transición al AFD
                 Transicion trans = new Transicion(estadoDestino, simbolo);
                 estadoOrigen.getTransiciones().agregar(trans);
+                transiciones++;
             }
             
             // Logging
             log.nuevaLinea();
+            
+            limites.verificarAFD("Subconjuntos", afd.cantidadEstados(), transiciones, registro.memoria());
         }
         
         /* Establecemos los estados finales del AFD */
@@ -142,6 +194,533 @@ public class Subconjuntos {
         return afd;
     }
     
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFD</code>, pero representando los conjuntos de
+     * estados del AFN como listas ordenadas de índices, según el orden
+     * de los identificadores de los estados.<br><br>
+     * Las operaciones de mover y cerradura vacía marcan los estados
+     * alcanzados en un arreglo de bits de trabajo, que se reutiliza en
+     * cada paso, por lo que no recorren los conjuntos para buscar un
+     * estado ni crean arreglos proporcionales a la cantidad de estados
+     * del AFN. La cerradura vacía de un conjunto es la unión de las
+     * cerraduras de sus estados, obtenidas de la
+     * <code>TablaCerraduras</code> del AFN, y los conjuntos se convierten
+     * en objetos <code>Conjunto</code> solamente para el
+     * <code>Log</code> y para los <code>estadosD</code> del AFD. Los
+     * conjuntos ya encontrados se buscan en un
+     * <code>RegistroConjuntos</code>, que los guarda en la forma que
+     * ocupe menos memoria. El AFD
+     * obtenido es igual al de <code>getAFD</code>, con los estados en
+     * el mismo orden, y se registran en el <code>Log</code> los
+     * primeros <code>MAX_PASOS_LOG</code> pasos.
+     * @param afn El <code>AFN</code> a convertir.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     */
+    public static AFD getAFDBits(Automata afn) {
+        return getAFDBits(afn, new Limites(), true);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFDBits</code>, verificando los límites luego de
+     * procesar cada estado del AFD, sin registrar los pasos en el
+     * <code>Log</code>.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param limites Los límites de la conversión.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDBits(Automata afn, Limites limites) {
+        return getAFDBits(afn, limites, false);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFDBits</code>, verificando los límites luego de
+     * procesar cada estado del AFD.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param limites Los límites de la conversión.
+     * @param registrar Indica si se registran en el <code>Log</code>
+     * los primeros <code>MAX_PASOS_LOG</code> pasos.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDBits(Automata afn, Limites limites, boolean registrar) {
+        Conjunto<Estado> iniciales = new Conjunto<Estado>();
+        iniciales.agregar(afn.getEstadoInicial());
+        
+        return getAFDBits(afn, iniciales, limites, registrar);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN con varios estados iniciales a
+     * un AFD, igual que <code>getAFDBits</code> con los mismos
+     * parámetros, sin registrar los pasos en el <code>Log</code>.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param iniciales Los estados iniciales del AFN.
+     * @param limites Los límites de la conversión.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>
+     * con los estados iniciales dados.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDBits(Automata afn, Conjunto<Estado> iniciales, Limites limites) {
+        return getAFDBits(afn, iniciales, limites, false);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN con varios estados iniciales a
+     * un AFD, con el mismo algoritmo que <code>getAFDBits</code>. El
+     * estado inicial del AFD es la cerradura vacía de los estados
+     * iniciales, sin agregar un estado inicial nuevo al AFN, que
+     * formaría parte solamente de ese conjunto.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param iniciales Los estados iniciales del AFN.
+     * @param limites Los límites de la conversión.
+     * @param registrar Indica si se registran en el <code>Log</code>
+     * los primeros <code>MAX_PASOS_LOG</code> pasos.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>
+     * con los estados iniciales dados.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDBits(Automata afn, Conjunto<Estado> iniciales, Limites limites, boolean registrar) {
+        // Logging
+        log.vaciar();
+        log.agregar("Cálculo de conjuntos de estados".toUpperCase()).nuevaLinea();
+        log.agregar("-------------------------------").nuevaLinea().nuevaLinea();
+        
+        /* Cerraduras vacías de los estados del AFN, ordenados según sus identificadores */
+        TablaCerraduras cerraduras = afn.getTablaCerraduras();
+        
+        /* Símbolos del alfabeto */
+        Vector<String> simbolos = new Vector<String>();
+        for (String simbolo : afn.getAlfabeto())
+            simbolos.add(simbolo);
+        
+        /* Destinos de las transiciones de cada símbolo, por estado */
+        int[][][] destinos = destinos(afn, cerraduras);
+        
+        /* AFD resultante */
+        AFD afd = new AFD(afn.getAlfabeto(), afn.getExprReg());
+        
+        /* Conjuntos de estados del AFN de cada estado del AFD */
+        RegistroConjuntos estadosD = new RegistroConjuntos();
+        
+        /* Arreglos de trabajo de mover y cerradura, reutilizados en cada paso */
+        Espacio espacio = new Espacio(cerraduras.cantidadEstados());
+        int[] M = espacio.movidos;
+        int[] U = espacio.alcanzados;
+        
+        /* Calculamos la Cerradura Epsilon de los estados iniciales */
+        int m = 0;
+        for (Estado e : iniciales)
+            M[m++] = cerraduras.getIndice(e);
+        
+        int u = cerraduras.cerradura(M, m, espacio.marcas, U);
+        
+        // Logging
+        String textoIniciales = (iniciales.cantidad() == 1) ? iniciales.obtenerPrimero().toString() : iniciales.toString();
+        log.agregar("cerradura(" + textoIniciales + ") = " + cerraduras.conjunto(U, u)).nuevaLinea().nuevaLinea();
+        
+        estadosD.agregar(U, u);
+        afd.agregarEstado(new Estado(0));
+        
+        /* Contador de transiciones del AFD, para verificar los límites */
+        int transiciones = 0;
+        
+        /*
+         * Los estados del AFD se agregan en el orden en que se
+         * encuentran, por lo que los estados sin marcar son los
+         * que siguen al estado que se está procesando.
+         */
+        for (int i=0; i < estadosD.cantidad(); i++) {
+            int[] T = estadosD.obtener(i);
+            Estado estadoOrigen = afd.getEstado(i);
+            String textoT = registrarPaso(registrar, i, 0, simbolos.size()) ? cerraduras.conjunto(T).toString() : null;
+            
+            for (int s=0; s < simbolos.size(); s++) {
+                /* Aplicar cerraduraEpsilon(mueve(T, simbolo)) */
+                m = mover(T, destinos[s], espacio.marcas, M);
+                u = cerraduras.cerradura(M, m, espacio.marcas, U);
+                
+                // Logging
+                if (registrarPaso(registrar, i, s, simbolos.size()))
+                    log.agregar(lineaLog(cerraduras, textoT, simbolos.get(s), M, m, U, u)).nuevaLinea();
+                
+                if (u == 0)
+                    continue;
+                
+                int cantidad = estadosD.cantidad();
+                int indice = estadosD.agregar(U, u);
+                if (indice == cantidad)
+                    afd.agregarEstado(new Estado(indice));
+                
+                // Agregamos la transición al AFD
+                Transicion trans = new Transicion(afd.getEstado(indice), simbolos.get(s));
+                estadoOrigen.getTransiciones().agregar(trans);
+                transiciones++;
+            }
+            
+            // Logging
+            if (registrarPaso(registrar, i, 0, simbolos.size()))
+                log.nuevaLinea();
+            
+            limites.verificarAFD("Subconjuntos", afd.cantidadEstados(), transiciones, estadosD.memoria());
+        }
+        
+        // Logging
+        logOmitidos(registrar, estadosD.cantidad(), simbolos.size());
+        
+        establecerFinales(afd, estadosD, cerraduras);
+        return afd;
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFDBits</code>, pero calculando en paralelo los
+     * conjuntos alcanzados desde los estados del AFD.<br><br>
+     * Los estados del AFD se procesan por niveles: los estados sin marcar
+     * forman la frontera, y cada hilo calcula
+     * <code>cerraduraEpsilon(mover(T, simbolo))</code> para una parte de
+     * la frontera y para todos los símbolos, junto con su línea del
+     * <code>Log</code>. Luego, los conjuntos obtenidos se buscan en el
+     * <code>RegistroConjuntos</code> en el mismo orden en que los
+     * buscaría <code>getAFDBits</code>, es decir, según el número de
+     * cada estado de la frontera y la posición de cada símbolo, por lo
+     * que los estados nuevos reciben los mismos números y el AFD y el
+     * <code>Log</code> obtenidos son iguales a los de
+     * <code>getAFDBits</code>, sin renumerar los estados al final.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param hilos La cantidad de hilos a utilizar.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     */
+    public static AFD getAFDParalelo(Automata afn, int hilos) {
+        return getAFDParalelo(afn, hilos, new Limites(), true);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFDParalelo</code>, verificando los límites luego
+     * de registrar los conjuntos de cada estado de la frontera, sin
+     * registrar los pasos en el <code>Log</code>.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param hilos La cantidad de hilos a utilizar.
+     * @param limites Los límites de la conversión.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDParalelo(Automata afn, int hilos, Limites limites) {
+        return getAFDParalelo(afn, hilos, limites, false);
+    }
+    
+    /**
+     * Realiza la conversión de un AFN a un AFD con el mismo algoritmo
+     * que <code>getAFDParalelo</code>, verificando los límites luego
+     * de registrar los conjuntos de cada estado de la frontera.
+     * @param afn El <code>AFN</code> a convertir.
+     * @param hilos La cantidad de hilos a utilizar.
+     * @param limites Los límites de la conversión.
+     * @param registrar Indica si se registran en el <code>Log</code>
+     * los primeros <code>MAX_PASOS_LOG</code> pasos.
+     * @return El <code>AFD</code> equivalente a <code>afn</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFD getAFDParalelo(Automata afn, int hilos, Limites limites, final boolean registrar) {
+        // Logging
+        log.vaciar();
+        log.agregar("Cálculo de conjuntos de estados".toUpperCase()).nuevaLinea();
+        log.agregar("-------------------------------").nuevaLinea().nuevaLinea();
+        
+        /*
+         * Los destinos de cada estado se calculan antes de iniciar los
+         * hilos, de manera que estos solamente lean arreglos ya creados.
+         */
+        final TablaCerraduras cerraduras = afn.getTablaCerraduras();
+        final int[][][] destinos = destinos(afn, cerraduras);
+        
+        /* Símbolos del alfabeto */
+        final Vector<String> simbolos = new Vector<String>();
+        for (String simbolo : afn.getAlfabeto())
+            simbolos.add(simbolo);
+        
+        /* AFD resultante */
+        AFD afd = new AFD(afn.getAlfabeto(), afn.getExprReg());
+        
+        /* Conjuntos de estados del AFN de cada estado del AFD */
+        final RegistroConjuntos estadosD = new RegistroConjuntos();
+        
+        /* Arreglos de trabajo de mover y cerradura de cada hilo */
+        final int n = cerraduras.cantidadEstados();
+        final ThreadLocal<Espacio> espacios = new ThreadLocal<Espacio>() {
+            protected Espacio initialValue() {
+                return new Espacio(n);
+            }
+        };
+        
+        /* Calculamos la Cerradura Epsilon del estado inicial */
+        Espacio espacio = espacios.get();
+        int[] inicial = { cerraduras.getIndice(afn.getEstadoInicial()) };
+        int u = cerraduras.cerradura(inicial, 1, espacio.marcas, espacio.alcanzados);
+        
+        // Logging
+        log.agregar("cerradura(" + afn.getEstadoInicial() + ") = " + cerraduras.conjunto(espacio.alcanzados, u)).nuevaLinea().nuevaLinea();
+        
+        estadosD.agregar(espacio.alcanzados, u);
+        afd.agregarEstado(new Estado(0));
+        
+        /* Contador de transiciones del AFD, para verificar los límites */
+        int transiciones = 0;
+        
+        hilos = Math.max(hilos, 1);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        
+        try {
+            /* Cada frontera son los estados agregados al procesar la anterior */
+            for (int inicio=0; inicio < estadosD.cantidad(); ) {
+                final int primero = inicio;
+                final int fin = estadosD.cantidad();
+                
+                /* Conjuntos alcanzados y líneas del Log, por estado de la frontera y símbolo */
+                final int[][][] alcanzados = new int[fin - primero][simbolos.size()][];
+                final String[][] lineas = new String[fin - primero][simbolos.size()];
+                
+                /* Cada tarea procesa un bloque consecutivo de la frontera */
+                int bloque = Math.max(1, (fin - primero + 4 * hilos - 1) / (4 * hilos));
+                Vector<Callable<Object>> tareas = new Vector<Callable<Object>>();
+                
+                for (int desde = primero; desde < fin; desde += bloque) {
+                    final int a = desde;
+                    final int b = Math.min(desde + bloque, fin);
+                    
+                    tareas.add(new Callable<Object>() {
+                        public Object call() {
+                            Espacio espacio = espacios.get();
+                            int[] M = espacio.movidos;
+                            int[] U = espacio.alcanzados;
+                            
+                            for (int i=a; i < b; i++) {
+                                int[] T = estadosD.obtener(i);
+                                String textoT = registrarPaso(registrar, i, 0, simbolos.size()) ? cerraduras.conjunto(T).toString() : null;
+                                
+                                for (int s=0; s < simbolos.size(); s++) {
+                                    int m = mover(T, destinos[s], espacio.marcas, M);
+                                    int u = cerraduras.cerradura(M, m, espacio.marcas, U);
+                                    
+                                    /* Se guarda una copia, ya que los arreglos de trabajo se reutilizan */
+                                    alcanzados[i - primero][s] = new int[u];
+                                    System.arraycopy(U, 0, alcanzados[i - primero][s], 0, u);
+                                    
+                                    if (registrarPaso(registrar, i, s, simbolos.size()))
+                                        lineas[i - primero][s] = lineaLog(cerraduras, textoT, simbolos.get(s), M, m, U, u);
+                                }
+                            }
+                            
+                            return null;
+                        }
+                    });
+                }
+                
+                for (Future<Object> f : ejecutor.invokeAll(tareas))
+                    f.get();
+                
+                /* Registramos los conjuntos en orden, como getAFDBits */
+                for (int i = primero; i < fin; i++) {
+                    Estado estadoOrigen = afd.getEstado(i);
+                    
+                    for (int s=0; s < simbolos.size(); s++) {
+                        int[] U = alcanzados[i - primero][s];
+                        
+                        // Logging
+                        if (lineas[i - primero][s] != null)
+                            log.agregar(lineas[i - primero][s]).nuevaLinea();
+                        
+                        if (U.length == 0)
+                            continue;
+                        
+                        int cantidad = estadosD.cantidad();
+                        int indice = estadosD.agregar(U);
+                        if (indice == cantidad)
+                            afd.agregarEstado(new Estado(indice));
+                        
+                        // Agregamos la transición al AFD
+                        Transicion trans = new Transicion(afd.getEstado(indice), simbolos.get(s));
+                        estadoOrigen.getTransiciones().agregar(trans);
+                        transiciones++;
+                    }
+                    
+                    // Logging
+                    if (registrarPaso(registrar, i, 0, simbolos.size()))
+                        log.nuevaLinea();
+                    
+                    limites.verificarAFD("Subconjuntos", afd.cantidadEstados(), transiciones, estadosD.memoria());
+                }
+                
+                inicio = fin;
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Conversión a AFD interrumpida", ex);
+        }
+        catch (ExecutionException ex) {
+            throw new RuntimeException("Error en la conversión a AFD", ex.getCause());
+        }
+        finally {
+            ejecutor.shutdown();
+        }
+        
+        // Logging
+        logOmitidos(registrar, estadosD.cantidad(), simbolos.size());
+        
+        establecerFinales(afd, estadosD, cerraduras);
+        return afd;
+    }
+    
+    /**
+     * Obtiene los índices de los destinos de las <code>Transicion</code>s
+     * de todos los estados de un AFN, para cada símbolo del alfabeto.
+     * @param afn El AFN.
+     * @param cerraduras La tabla de cerraduras, que indexa los <code>Estado</code>s del AFN.
+     * @return Los índices de los destinos, según la posición del
+     * símbolo y el índice del estado origen.
+     */
+    static int[][][] destinos(Automata afn, TablaCerraduras cerraduras) {
+        int n = cerraduras.cantidadEstados();
+        int cantidad = afn.getAlfabeto().getCantidad();
+        int[][][] destinos = new int[cantidad][n][];
+        
+        for (int i=0; i < n; i++)
+            for (int s=0; s < cantidad; s++)
+                destinos[s][i] = destinos(cerraduras.getEstado(i), afn.getAlfabeto(), s, cerraduras);
+        
+        return destinos;
+    }
+    
+    /**
+     * Implementa la operación Mueve sobre un conjunto de estados
+     * representado como arreglo de bits.
+     * @param T El conjunto de estados, que no se modifica.
+     * @param destinos Los índices de los destinos de cada estado con el símbolo.
+     * @return Un nuevo arreglo de bits con los estados alcanzados.
+     */
+    static long[] mover(long[] T, int[][] destinos) {
+        long[] M = new long[T.length];
+        for (int q = TablaCerraduras.siguiente(T, 0); q >= 0; q = TablaCerraduras.siguiente(T, q + 1))
+            for (int r : destinos[q])
+                agregarBit(M, r);
+        
+        return M;
+    }
+    
+    /**
+     * Implementa la operación Mueve sobre un conjunto de estados
+     * representado como lista de índices, marcando los estados
+     * alcanzados en un arreglo de bits de trabajo para no repetirlos.
+     * @param T Los índices de los estados del conjunto, que no se modifican.
+     * @param destinos Los índices de los destinos de cada estado con el símbolo.
+     * @param marcas Arreglo de bits de trabajo, con un bit por estado,
+     * que debe estar vacío y queda vacío al terminar.
+     * @param M Arreglo donde se guardan los índices de los estados
+     * alcanzados, ordenados, con lugar para todos los estados.
+     * @return La cantidad de estados alcanzados.
+     */
+    static int mover(int[] T, int[][] destinos, long[] marcas, int[] M) {
+        int cantidad = 0;
+        for (int q : T) {
+            for (int r : destinos[q]) {
+                if ((marcas[r >>> 6] & (1L << r)) == 0) {
+                    marcas[r >>> 6] |= 1L << r;
+                    M[cantidad++] = r;
+                }
+            }
+        }
+        
+        for (int k=0; k < cantidad; k++)
+            marcas[M[k] >>> 6] = 0;
+        
+        Arrays.sort(M, 0, cantidad);
+        return cantidad;
+    }
+    
+    /**
+     * Indica si se registra en el <code>Log</code> un paso de la
+     * conversión. Los pasos se numeran en el orden en que se registran,
+     * según el estado del AFD y la posición del símbolo, por lo que se
+     * registran los mismos con cualquier cantidad de hilos.
+     * @param registrar Indica si se pidió registrar los pasos.
+     * @param estado El número del estado del AFD.
+     * @param simbolo La posición del símbolo.
+     * @param simbolos La cantidad de símbolos del alfabeto.
+     * @return <code>true</code> si el paso se registra.
+     */
+    private static boolean registrarPaso(boolean registrar, int estado, int simbolo, int simbolos) {
+        return registrar && (long) estado * simbolos + simbolo < MAX_PASOS_LOG;
+    }
+    
+    /**
+     * Agrega al <code>Log</code> la cantidad de pasos no registrados, si los hay.
+     * @param registrar Indica si se pidió registrar los pasos.
+     * @param estados La cantidad de estados del AFD.
+     * @param simbolos La cantidad de símbolos del alfabeto.
+     */
+    private static void logOmitidos(boolean registrar, int estados, int simbolos) {
+        long pasos = (long) estados * simbolos;
+        long omitidos = registrar ? pasos - Math.min(pasos, MAX_PASOS_LOG) : pasos;
+        
+        if (omitidos > 0)
+            log.agregar("(" + omitidos + " pasos no registrados, " + estados + " estados del AFD)").nuevaLinea();
+    }
+    
+    /**
+     * Construye la línea del <code>Log</code> correspondiente a
+     * <code>cerraduraEpsilon(mover(T, simbolo))</code>.
+     * @param cerraduras La tabla de cerraduras del AFN.
+     * @param textoT El conjunto T, como texto.
+     * @param simbolo El símbolo.
+     * @param M Los índices del conjunto <code>mover(T, simbolo)</code>.
+     * @param m La cantidad de elementos de <code>M</code>.
+     * @param U Los índices de la cerradura vacía de <code>M</code>.
+     * @param u La cantidad de elementos de <code>U</code>.
+     * @return La línea del <code>Log</code>, sin el salto de línea.
+     */
+    private static String lineaLog(TablaCerraduras cerraduras, String textoT, String simbolo, int[] M, int m, int[] U, int u) {
+        return "cerradura(mover(" + textoT + ", " + simbolo + ")) = "
+             + "cerradura(" + cerraduras.conjunto(M, m) + ") = " + cerraduras.conjunto(U, u);
+    }
+    
+    /**
+     * Establece los estados finales de un AFD y sus conjuntos de
+     * estados del AFN. Un estado del AFD es final si su conjunto
+     * contiene algún estado final del AFN.
+     * @param afd El AFD.
+     * @param estadosD Los conjuntos de estados del AFN de cada estado del AFD.
+     * @param cerraduras La tabla de cerraduras, que indexa los <code>Estado</code>s del AFN.
+     */
+    private static void establecerFinales(AFD afd, RegistroConjuntos estadosD, TablaCerraduras cerraduras) {
+        int n = cerraduras.cantidadEstados();
+        long[] finales = new long[(n + 63) >>> 6];
+        for (int i=0; i < n; i++)
+            if (cerraduras.getEstado(i).getEsFinal())
+                agregarBit(finales, i);
+        
+        Conjunto<Conjunto<Estado>> conjuntos = new Conjunto<Conjunto<Estado>>();
+        
+        for (int i=0; i < estadosD.cantidad(); i++) {
+            int[] T = estadosD.obtener(i);
+            
+            for (int q : T) {
+                if ((finales[q >>> 6] & (1L << q)) != 0) {
+                    afd.getEstado(i).setEsFinal(true);
+                    break;
+                }
+            }
+            
+            conjuntos.agregar(cerraduras.conjunto(T));
+        }
+        
+        afd.setEstadosD(conjuntos);
+    }
+    
     /**
      * Implementa la operación Cerradura Epsilon sobre un <code>Estado</code>.
      * @param estado <code>Estado</code> sobre el cual aplicar la operación.
@@ -188,7 +767,9 @@ public class Subconjuntos {
      * Este algoritmo corresponde al una generalización del algoritmo de la
      * Figura 3.33 del libro Compiladores de Aho (2da. edicion), de manera a
      * que el mismo pueda utilizarse para las dos operaciones de Cerradura
-     * Epsilon y también para la operación Mueve.
+     * Epsilon y también para la operación Mueve.<br>
+     * Las <code>Transicion</code>s etiquetadas con un conjunto de símbolos
+     * se siguen con cualquiera de los símbolos del conjunto.
      * @param actual El <code>Estado</code> a partir del cual se realiza el recorrido.
      * @param alcanzados <code>Conjunto</code> donde se guardan los <code>Estado</code>s alcanzados.
      * @param simboloBuscado Simbolo que debe seguirse en las <code>Transicion</code>s.
@@ -213,9 +794,8 @@ public class Subconjuntos {
             actual = pila.pop();
             for (Transicion t : actual.getTransiciones()) {
                 Estado e = t.getEstado();
-                String s = t.getSimbolo();
                 
-                if (s.equals(simboloBuscado) && !alcanzados.contiene(e)) {
+                if (t.acepta(simboloBuscado) && !alcanzados.contiene(e)) {
                     alcanzados.agregar(e);
                     
                     /*
@@ -245,6 +825,81 @@ public class Subconjuntos {
             recorrido(e, alcanzados, simboloBuscado);
     }
     
+    /**
+     * Obtiene los índices de los destinos de las <code>Transicion</code>s
+     * de un <code>Estado</code> que pueden seguirse con un símbolo.
+     * @param estado El <code>Estado</code> origen.
+     * @param alfabeto El <code>Alfabeto</code> del AFN.
+     * @param pos La posición del símbolo en <code>alfabeto</code>.
+     * @param cerraduras La tabla de cerraduras, que indexa los <code>Estado</code>s del AFN.
+     * @return Los índices de los estados destino.
+     */
+    private static int[] destinos(Estado estado, Alfabeto alfabeto, int pos, TablaCerraduras cerraduras) {
+        Estado[] destinos = estado.getDestinos(alfabeto, pos);
+        
+        int[] resultado = new int[destinos.length];
+        for (int i=0; i < resultado.length; i++)
+            resultado[i] = cerraduras.getIndice(destinos[i]);
+        
+        return resultado;
+    }
+    
+    /**
+     * Agrega un elemento a un arreglo de bits.
+     * @param bits El arreglo de bits.
+     * @param i El elemento.
+     */
+    private static void agregarBit(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+    
+    /**
+     * Determina si un arreglo de bits no tiene elementos.
+     * @param bits El arreglo de bits.
+     * @return <code>true</code> si no tiene elementos.
+     */
+    static boolean estaVacio(long[] bits) {
+        for (long palabra : bits)
+            if (palabra != 0)
+                return false;
+        
+        return true;
+    }
+    
+    /**
+     * Clase que agrupa los arreglos de trabajo de las operaciones de
+     * mover y cerradura vacía sobre listas de índices, que se crean
+     * una única vez por conversión, o por hilo, y se reutilizan en
+     * cada paso.
+     */
+    private static class Espacio {
+        
+        /**
+         * Arreglo de bits de trabajo, vacío entre operaciones.
+         */
+        final long[] marcas;
+        
+        /**
+         * Índices de los estados alcanzados con mover.
+         */
+        final int[] movidos;
+        
+        /**
+         * Índices de los estados alcanzados con la cerradura vacía.
+         */
+        final int[] alcanzados;
+        
+        /**
+         * Crea los arreglos de trabajo para un AFN.
+         * @param n La cantidad de estados del AFN.
+         */
+        Espacio(int n) {
+            marcas = new long[(n + 63) >>> 6];
+            movidos = new int[n];
+            alcanzados = new int[n];
+        }
+    }
+    
     /**
      * Obtiene el <code>Log</code> de esta clase.
      * @return El <code>Log</code> correspondiente
@@ -0,0 +1,439 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import estructuras.ConjuntoSimbolos;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase construye expresiones regulares normalizadas, que
+ * representan a los estados de los autómatas obtenidos por
+ * derivadas.<br><br>
+ * Las expresiones se construyen normalizadas: las uniones se aplanan,
+ * se ordenan y no tienen operandos repetidos, las concatenaciones se
+ * asocian por la derecha, y se simplifican el vacío y el conjunto
+ * vacío. Además, cada expresión distinta se crea una única vez, por
+ * lo que dos expresiones iguales son el mismo objeto y se comparan
+ * por referencia.
+ * @see Derivadas
+ * @see Antimirov
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+class Terminos {
+    
+    /**
+     * Expresión que no reconoce ninguna cadena (conjunto vacío).
+     */
+    static final int NULO = 0;
+    
+    /**
+     * Expresión que reconoce solamente la cadena vacía.
+     */
+    static final int VACIO = 1;
+    
+    /**
+     * Un símbolo del alfabeto.
+     */
+    static final int SIMBOLO = 2;
+    
+    /**
+     * Una clase de caracteres.
+     */
+    static final int CLASE = 3;
+    
+    /**
+     * Unión de dos o más expresiones.
+     */
+    static final int UNION = 4;
+    
+    /**
+     * Concatenación de dos expresiones.
+     */
+    static final int CONCATENACION = 5;
+    
+    /**
+     * Cerradura de Kleene de una expresión.
+     */
+    static final int CERRADURA = 6;
+    
+    /**
+     * Repetición acotada de una expresión.
+     */
+    static final int REPETICION = 7;
+    
+    /**
+     * Tabla de expresiones creadas, según su clave.
+     */
+    private HashMap<String, Termino> tabla;
+    
+    /**
+     * Expresión que no reconoce ninguna cadena.
+     */
+    private Termino nulo;
+    
+    /**
+     * Expresión que reconoce solamente la cadena vacía.
+     */
+    private Termino vacio;
+    
+    /**
+     * Constructor por defecto.
+     */
+    Terminos() {
+        tabla = new HashMap<String, Termino>();
+        nulo = crear(NULO, (char) 0, null, new Termino[0], 0, 0);
+        vacio = crear(VACIO, (char) 0, null, new Termino[0], 0, 0);
+    }
+    
+    /**
+     * Construye la expresión normalizada de un árbol sintáctico.
+     * @param arbol La raíz del árbol sintáctico de la expresión regular.
+     * @return La expresión normalizada.
+     */
+    Termino convertir(NodoExprReg arbol) {
+        /* Construcción en postorden, con una pila de expresiones */
+        Stack<Termino> pila = new Stack<Termino>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            Termino[] hijos = new Termino[nodo.cantidadHijos()];
+            for (int j = hijos.length - 1; j >= 0; j--)
+                hijos[j] = pila.pop();
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                    if (nodo.esVacio())
+                        pila.push(vacio);
+                    else
+                        pila.push(crear(SIMBOLO, nodo.getSimbolo().charAt(0), null, new Termino[0], 0, 0));
+                    break;
+                case CLASE:
+                    pila.push(crear(CLASE, (char) 0, nodo.getClase(), new Termino[0], 0, 0));
+                    break;
+                case UNION:
+                    pila.push(union(hijos));
+                    break;
+                case CONCATENACION:
+                    Termino t = hijos[hijos.length - 1];
+                    for (int j = hijos.length - 2; j >= 0; j--)
+                        t = concatenacion(hijos[j], t);
+                    pila.push(t);
+                    break;
+                case CERRADURA_KLEENE:
+                    pila.push(cerradura(hijos[0]));
+                    break;
+                case CERRADURA_POSITIVA:
+                    /* Si el operando es anulable, equivale a la cerradura de Kleene */
+                    if (hijos[0].anulable)
+                        pila.push(cerradura(hijos[0]));
+                    else
+                        pila.push(concatenacion(hijos[0], cerradura(hijos[0])));
+                    break;
+                case REPETICION:
+                    pila.push(repeticion(hijos[0], nodo.getMinimo(), nodo.getMaximo()));
+                    break;
+                default:
+                    pila.push(union(new Termino[] { hijos[0], vacio }));
+            }
+        }
+        
+        return pila.pop();
+    }
+    
+    /**
+     * Obtiene la expresión que no reconoce ninguna cadena.
+     * @return El conjunto vacío.
+     */
+    Termino getNulo() {
+        return nulo;
+    }
+    
+    /**
+     * Obtiene la expresión que reconoce solamente la cadena vacía.
+     * @return El vacío.
+     */
+    Termino getVacio() {
+        return vacio;
+    }
+    
+    /**
+     * Obtiene la cantidad de expresiones distintas creadas.
+     * @return La cantidad de expresiones creadas.
+     */
+    int cantidad() {
+        return tabla.size();
+    }
+    
+    /**
+     * Crea una unión normalizada: los operandos que son uniones se
+     * aplanan, se descartan los conjuntos vacíos y los operandos
+     * repetidos, y el resto se ordena según su orden de creación.
+     * @param operandos Los operandos de la unión.
+     * @return La expresión creada.
+     */
+    Termino union(Termino[] operandos) {
+        Vector<Termino> lista = new Vector<Termino>();
+        
+        for (Termino t : operandos) {
+            if (t.tipo == UNION)
+                lista.addAll(Arrays.asList(t.hijos));
+            else if (t != nulo)
+                lista.add(t);
+        }
+        
+        Collections.sort(lista, ORDEN);
+        
+        /* Descartamos los operandos repetidos, que quedaron contiguos */
+        Vector<Termino> distintos = new Vector<Termino>();
+        for (Termino t : lista)
+            if (distintos.isEmpty() || distintos.lastElement() != t)
+                distintos.add(t);
+        
+        if (distintos.isEmpty())
+            return nulo;
+        
+        if (distintos.size() == 1)
+            return distintos.get(0);
+        
+        return crear(UNION, (char) 0, null, distintos.toArray(new Termino[distintos.size()]), 0, 0);
+    }
+    
+    /**
+     * Crea una concatenación normalizada, asociada por la derecha.
+     * @param r El primer operando.
+     * @param s El segundo operando.
+     * @return La expresión creada.
+     */
+    Termino concatenacion(Termino r, Termino s) {
+        if (r == nulo || s == nulo)
+            return nulo;
+        
+        if (r == vacio)
+            return s;
+        
+        if (s == vacio)
+            return r;
+        
+        /* Los factores de r, que ya está asociada por la derecha */
+        Vector<Termino> factores = new Vector<Termino>();
+        while (r.tipo == CONCATENACION) {
+            factores.add(r.hijos[0]);
+            r = r.hijos[1];
+        }
+        factores.add(r);
+        
+        Termino resultado = s;
+        for (int i = factores.size() - 1; i >= 0; i--)
+            resultado = crear(CONCATENACION, (char) 0, null, new Termino[] { factores.get(i), resultado }, 0, 0);
+        
+        return resultado;
+    }
+    
+    /**
+     * Crea una cerradura de Kleene normalizada.
+     * @param r El operando.
+     * @return La expresión creada.
+     */
+    Termino cerradura(Termino r) {
+        if (r == nulo || r == vacio)
+            return vacio;
+        
+        if (r.tipo == CERRADURA)
+            return r;
+        
+        return crear(CERRADURA, (char) 0, null, new Termino[] { r }, 0, 0);
+    }
+    
+    /**
+     * Crea una repetición acotada normalizada.
+     * @param r El operando.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1
+     * si no hay cota superior.
+     * @return La expresión creada.
+     */
+    Termino repeticion(Termino r, int minimo, int maximo) {
+        if (maximo == 0 || r == vacio)
+            return vacio;
+        
+        if (r == nulo)
+            return (minimo == 0) ? vacio : nulo;
+        
+        /* Si el operando es anulable, la cota mínima no tiene efecto */
+        if (r.anulable)
+            minimo = 0;
+        
+        if (minimo == 0 && maximo < 0)
+            return cerradura(r);
+        
+        if (minimo == 1 && maximo == 1)
+            return r;
+        
+        return crear(REPETICION, (char) 0, null, new Termino[] { r }, minimo, maximo);
+    }
+    
+    /**
+     * Obtiene la expresión única con los datos dados, creándola
+     * si todavía no existe.
+     * @param tipo El tipo de la expresión.
+     * @param simbolo El símbolo, para un <code>SIMBOLO</code>.
+     * @param clase El conjunto de símbolos, para una <code>CLASE</code>.
+     * @param hijos Los operandos.
+     * @param minimo La cantidad mínima, para una <code>REPETICION</code>.
+     * @param maximo La cantidad máxima, para una <code>REPETICION</code>.
+     * @return La expresión.
+     */
+    private Termino crear(int tipo, char simbolo, ConjuntoSimbolos clase, Termino[] hijos, int minimo, int maximo) {
+        StringBuffer clave = new StringBuffer();
+        clave.append(tipo).append(':');
+        
+        if (tipo == SIMBOLO)
+            clave.append(simbolo);
+        else if (tipo == CLASE)
+            clave.append(clase);
+        
+        for (Termino h : hijos)
+            clave.append(':').append(h.id);
+        
+        if (tipo == REPETICION)
+            clave.append(':').append(minimo).append(',').append(maximo);
+        
+        Termino t = tabla.get(clave.toString());
+        if (t != null)
+            return t;
+        
+        t = new Termino();
+        t.id = tabla.size();
+        t.tipo = tipo;
+        t.simbolo = simbolo;
+        t.clase = clase;
+        t.hijos = hijos;
+        t.minimo = minimo;
+        t.maximo = maximo;
+        
+        switch (tipo) {
+            case VACIO:
+            case CERRADURA:
+                t.anulable = true;
+                break;
+            case UNION:
+                for (Termino h : hijos)
+                    t.anulable |= h.anulable;
+                break;
+            case CONCATENACION:
+                t.anulable = hijos[0].anulable && hijos[1].anulable;
+                break;
+            case REPETICION:
+                t.anulable = (minimo == 0) || hijos[0].anulable;
+                break;
+            default:
+                t.anulable = false;
+        }
+        
+        tabla.put(clave.toString(), t);
+        return t;
+    }
+    
+    /**
+     * Orden de los operandos de una unión, según su orden de creación.
+     */
+    private static final Comparator<Termino> ORDEN = new Comparator<Termino>() {
+        public int compare(Termino a, Termino b) {
+            return (a.id < b.id) ? -1 : ((a.id == b.id) ? 0 : 1);
+        }
+    };
+    
+    /**
+     * Expresión regular normalizada. Cada expresión distinta
+     * existe una única vez, por lo que se compara por referencia.
+     */
+    static class Termino {
+        
+        /**
+         * Número de creación de la expresión.
+         */
+        int id;
+        
+        /**
+         * Tipo de la expresión.
+         */
+        int tipo;
+        
+        /**
+         * Símbolo, para un <code>SIMBOLO</code>.
+         */
+        char simbolo;
+        
+        /**
+         * Conjunto de símbolos, para una <code>CLASE</code>.
+         */
+        ConjuntoSimbolos clase;
+        
+        /**
+         * Operandos de la expresión.
+         */
+        Termino[] hijos;
+        
+        /**
+         * Cotas, para una <code>REPETICION</code>.
+         */
+        int minimo, maximo;
+        
+        /**
+         * Indica si la expresión acepta la cadena vacía.
+         */
+        boolean anulable;
+        
+        /**
+         * Derivadas ya calculadas por <code>Derivadas</code>,
+         * por índice de símbolo.
+         */
+        Termino[] derivadas;
+        
+        @Override
+        public String toString() {
+            StringBuffer str = new StringBuffer();
+            
+            switch (tipo) {
+                case NULO:
+                    return "∅";
+                case VACIO:
+                    return Alfabeto.VACIO;
+                case SIMBOLO:
+                    return String.valueOf(simbolo);
+                case CLASE:
+                    return clase.toString();
+                case UNION:
+                    str.append('(');
+                    for (int i=0; i < hijos.length; i++)
+                        str.append(i > 0 ? "|" : "").append(hijos[i]);
+                    return str.append(')').toString();
+                case CONCATENACION:
+                    /* Recorremos iterativamente la cadena de concatenaciones */
+                    Termino t = this;
+                    while (t.tipo == CONCATENACION) {
+                        str.append(t.hijos[0]);
+                        t = t.hijos[1];
+                    }
+                    return str.append(t).toString();
+                case CERRADURA:
+                    return str.append('(').append(hijos[0]).append(")*").toString();
+                default:
+                    str.append('(').append(hijos[0]).append("){").append(minimo);
+                    if (maximo != minimo)
+                        str.append(',').append(maximo < 0 ? "" : String.valueOf(maximo));
+                    return str.append('}').toString();
+            }
+        }
+    }
+}
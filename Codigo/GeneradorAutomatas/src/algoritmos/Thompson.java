@@ -7,6 +7,8 @@ package algoritmos;
 
 import estructuras.*;
 import analisis.Alfabeto;
+import analisis.NodoExprReg;
+import java.util.Stack;
 
 /**
  * Esta clase implementa los algoritmos de Thompson para cada
@@ -49,6 +51,32 @@ public class Thompson {
         return afn;
     }
     
+    /**
+     * Construye un AFN a partir de una clase de caracteres. El
+     * AFN tiene una única transición, etiquetada con todos los
+     * símbolos de la clase, en lugar de una unión de un AFN
+     * básico por cada símbolo.
+     * @param clase El conjunto de símbolos de la clase.
+     * @return El AFN para <code>clase</code>.
+     */
+    public static AFN basico(ConjuntoSimbolos clase) {
+        AFN afn = new AFN();
+        
+        /* Estados inicial y final */
+        Estado ini = new Estado(0);
+        Estado fin = new Estado(1, true);
+        
+        /* Transición entre los estados inicial y final */
+        Transicion tran = new Transicion(fin, clase);
+        ini.getTransiciones().agregar(tran);
+        
+        /* Agregamos los estados al AFN */
+        afn.agregarEstado(ini);
+        afn.agregarEstado(fin);
+        
+        return afn;
+    }
+    
     /**
      * Aplica la cerradura de Kleene (*) a un AFN dado.
      * @param afn El AFN sobre el cual aplicar la cerradura de Kleene.
@@ -103,6 +131,100 @@ public class Thompson {
         return union(afn, basico(Alfabeto.VACIO));
     }
     
+    /**
+     * Aplica el operador de repetición acotada ({m}, {m,} o {m,n})
+     * a un AFN dado.<br><br>
+     * En lugar de concatenar sucesivamente copias de <code>afn</code>,
+     * lo que volvería a copiar el AFN acumulado en cada paso, cada
+     * copia se agrega una única vez al AFN resultante, y su estado
+     * inicial se fusiona con el estado final de la copia anterior,
+     * igual que en la concatenación.<br><br>
+     * Las copias opcionales de <code>{m,n}</code> comparten un único
+     * estado final, al cual se llega por una transición vacía desde
+     * el inicio de cada copia opcional. Para <code>{m,}</code>, la
+     * última copia es la cerradura de Kleene de <code>afn</code>.<br><br>
+     * Se asume que <code>afn</code> fue construido por esta clase,
+     * por lo que su estado inicial no tiene transiciones entrantes y
+     * su estado final, que es el último, no tiene transiciones salientes.
+     * @param afn El AFN a repetir.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1 si
+     * no hay cota superior.
+     * @return El AFN resultante de repetir <code>afn</code>.
+     */
+    public static AFN repeticion(AFN afn, int minimo, int maximo) {
+        if (maximo == 0)
+            return basico(Alfabeto.VACIO);
+        
+        AFN afn_salida = new AFN();
+        afn_salida.agregarEstado(new Estado(0));
+        
+        /* Estados donde comienzan las copias opcionales */
+        Conjunto<Estado> opcionales = new Conjunto<Estado>();
+        
+        /* Copias obligatorias, y opcionales para {m,n} */
+        int copias = (maximo < 0) ? minimo : maximo;
+        for (int i=0; i < copias; i++) {
+            Estado enlace = afn_salida.getEstado(afn_salida.cantidadEstados() - 1);
+            
+            if (i >= minimo)
+                opcionales.agregar(enlace);
+            
+            agregarCopia(afn, afn_salida, enlace);
+        }
+        
+        /* Para {m,}, agregamos la cerradura de Kleene de una copia más */
+        if (maximo < 0) {
+            Estado enlace = afn_salida.getEstado(afn_salida.cantidadEstados() - 1);
+            Estado inicioCopia = new Estado(afn_salida.cantidadEstados());
+            afn_salida.agregarEstado(inicioCopia);
+            
+            agregarCopia(afn, afn_salida, inicioCopia);
+            Estado finCopia = afn_salida.getEstado(afn_salida.cantidadEstados() - 1);
+            
+            Estado nuevoFin = new Estado(afn_salida.cantidadEstados());
+            afn_salida.agregarEstado(nuevoFin);
+            
+            enlace.getTransiciones().agregar(new Transicion(inicioCopia, Alfabeto.VACIO));
+            enlace.getTransiciones().agregar(new Transicion(nuevoFin, Alfabeto.VACIO));
+            finCopia.getTransiciones().agregar(new Transicion(inicioCopia, Alfabeto.VACIO));
+            finCopia.getTransiciones().agregar(new Transicion(nuevoFin, Alfabeto.VACIO));
+        }
+        
+        /* Las copias opcionales pueden saltarse hasta el estado final */
+        Estado fin = afn_salida.getEstado(afn_salida.cantidadEstados() - 1);
+        for (Estado e : opcionales)
+            e.getTransiciones().agregar(new Transicion(fin, Alfabeto.VACIO));
+        
+        fin.setEsFinal(true);
+        return afn_salida;
+    }
+    
+    /**
+     * Agrega una copia de un AFN al final de otro, fusionando el
+     * estado inicial de la copia con un estado de enlace, que debe
+     * ser el último estado del AFN destino.
+     * @param afn El AFN a copiar.
+     * @param afn_salida El AFN destino.
+     * @param enlace El estado del AFN destino que hace las veces
+     * de estado inicial de la copia.
+     */
+    private static void agregarCopia(AFN afn, AFN afn_salida, Estado enlace) {
+        int desplazamiento = enlace.getIdentificador();
+        
+        for (int i=1; i < afn.cantidadEstados(); i++)
+            afn_salida.agregarEstado(new Estado(afn_salida.cantidadEstados()));
+        
+        for (Estado e : afn.getEstados()) {
+            Estado origen = afn_salida.getEstado(e.getIdentificador() + desplazamiento);
+            
+            for (Transicion t : e.getTransiciones()) {
+                Estado destino = afn_salida.getEstado(t.getEstado().getIdentificador() + desplazamiento);
+                origen.getTransiciones().agregar(t.copiar(destino));
+            }
+        }
+    }
+    
     /**
      * Aplica el operador de unión a dos AFNs dados.
      * @param afn1 El primer operando de la unión.
@@ -216,4 +338,162 @@ public class Thompson {
         
         return afn;
     }
+    
+    /**
+     * Aplica el operador de unión a varios AFNs, asociando por la
+     * derecha. El AFN resultante es igual al que se obtiene con
+     * <code>union(afn1, union(afn2, ... union(afnk-1, afnk)))</code>,
+     * pero cada operando se copia una única vez, en lugar de volver
+     * a copiar las uniones intermedias en cada paso.<br><br>
+     * Los estados quedan en el mismo orden que en las uniones
+     * anidadas: antes de cada operando, salvo el último, el estado
+     * inicial de su unión, y al final los estados finales de las
+     * uniones, desde la más interna hasta la más externa.<br><br>
+     * Se asume que los operandos fueron construidos por esta clase,
+     * por lo que su estado inicial no tiene transiciones entrantes y
+     * su estado final, que es el último, no tiene transiciones salientes.
+     * @param operandos Los operandos de la unión.
+     * @return El AFN resultante de la unión de los <code>operandos</code>.
+     */
+    public static AFN union(AFN[] operandos) {
+        int k = operandos.length;
+        if (k == 1)
+            return operandos[0];
+        
+        AFN afn_salida = new AFN();
+        
+        /* Estado final de cada operando en afn_salida */
+        Estado[] fines = new Estado[k];
+        
+        /* Estado inicial de la unión anterior, que pasa a la siguiente */
+        Estado anterior = null;
+        
+        for (int i=0; i < k; i++) {
+            if (i < k - 1) {
+                Estado inicio = new Estado(afn_salida.cantidadEstados());
+                afn_salida.agregarEstado(inicio);
+                
+                if (anterior != null)
+                    anterior.getTransiciones().agregar(new Transicion(inicio, Alfabeto.VACIO));
+                anterior = inicio;
+            }
+            
+            /* Estado inicial de la copia del operando */
+            Estado enlace = new Estado(afn_salida.cantidadEstados());
+            afn_salida.agregarEstado(enlace);
+            anterior.getTransiciones().agregar(new Transicion(enlace, Alfabeto.VACIO));
+            
+            agregarCopia(operandos[i], afn_salida, enlace);
+            fines[i] = afn_salida.getEstado(afn_salida.cantidadEstados() - 1);
+        }
+        
+        /* Estados finales de las uniones, desde la más interna */
+        Estado fin = fines[k - 1];
+        for (int i = k - 2; i >= 0; i--) {
+            Estado nuevoFin = new Estado(afn_salida.cantidadEstados());
+            afn_salida.agregarEstado(nuevoFin);
+            
+            fines[i].getTransiciones().agregar(new Transicion(nuevoFin, Alfabeto.VACIO));
+            fin.getTransiciones().agregar(new Transicion(nuevoFin, Alfabeto.VACIO));
+            fin = nuevoFin;
+        }
+        
+        fin.setEsFinal(true);
+        return afn_salida;
+    }
+    
+    /**
+     * Aplica el operador de concatenación a varios AFNs. El AFN
+     * resultante es igual al de las concatenaciones sucesivas de
+     * dos operandos, pero cada operando se copia una única vez al
+     * final del AFN resultante, fusionando su estado inicial con el
+     * estado final del operando anterior.
+     * @param operandos Los operandos de la concatenación.
+     * @return El AFN resultante de la concatenación de los <code>operandos</code>.
+     */
+    public static AFN concatenacion(AFN[] operandos) {
+        AFN afn_salida = new AFN();
+        afn_salida.agregarEstado(new Estado(0));
+        
+        for (AFN afn : operandos)
+            agregarCopia(afn, afn_salida, afn_salida.getEstado(afn_salida.cantidadEstados() - 1));
+        
+        afn_salida.getEstado(afn_salida.cantidadEstados() - 1).setEsFinal(true);
+        return afn_salida;
+    }
+    
+    /**
+     * Construye el AFN de un árbol sintáctico, aplicando las
+     * construcciones de Thompson en postorden. Las uniones y
+     * concatenaciones de más de dos operandos se asocian por
+     * la derecha, igual que en el analizador sintáctico, y cada
+     * operando se copia una única vez.
+     * @param arbol La raíz del árbol sintáctico.
+     * @return El AFN para <code>arbol</code>.
+     */
+    public static AFN construir(NodoExprReg arbol) {
+        return construir(arbol, new Limites());
+    }
+    
+    /**
+     * Construye el AFN de un árbol sintáctico, verificando los
+     * límites de memoria y tiempo luego de procesar cada nodo.
+     * @param arbol La raíz del árbol sintáctico.
+     * @param limites Los límites de la construcción.
+     * @return El AFN para <code>arbol</code>.
+     * @throws ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    public static AFN construir(NodoExprReg arbol, Limites limites) {
+        /* Pila con los AFN de los nodos ya procesados */
+        Stack<AFN> pila = new Stack<AFN>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            AFN afn;
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                    afn = basico(nodo.getSimbolo());
+                    break;
+                case CLASE:
+                    afn = basico(nodo.getClase());
+                    break;
+                case UNION:
+                    afn = union(operandos(pila, nodo.cantidadHijos()));
+                    break;
+                case CONCATENACION:
+                    afn = concatenacion(operandos(pila, nodo.cantidadHijos()));
+                    break;
+                case CERRADURA_KLEENE:
+                    afn = cerraduraKleene(pila.pop());
+                    break;
+                case CERRADURA_POSITIVA:
+                    afn = cerraduraPositiva(pila.pop());
+                    break;
+                case REPETICION:
+                    afn = repeticion(pila.pop(), nodo.getMinimo(), nodo.getMaximo());
+                    break;
+                default:
+                    afn = opcion(pila.pop());
+            }
+            
+            pila.push(afn);
+            limites.verificarAFN("Thompson", afn.cantidadEstados(), afn.cantidadTransiciones());
+        }
+        
+        return pila.pop();
+    }
+    
+    /**
+     * Quita de la pila los AFN de los hijos de un nodo.
+     * @param pila La pila con los AFN de los nodos ya procesados.
+     * @param cantidad La cantidad de hijos del nodo.
+     * @return Los AFN de los hijos, en el orden de los hijos.
+     */
+    private static AFN[] operandos(Stack<AFN> pila, int cantidad) {
+        AFN[] operandos = new AFN[cantidad];
+        for (int i = cantidad - 1; i >= 0; i--)
+            operandos[i] = pila.pop();
+        
+        return operandos;
+    }
 }
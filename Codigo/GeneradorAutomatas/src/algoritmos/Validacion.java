@@ -5,6 +5,7 @@
  */
 package algoritmos;
 
+import analisis.Alfabeto;
 import estructuras.*;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -42,8 +43,13 @@ public class Validacion {
         /* Secuencia de conjuntos de estados recorridos */
         Conjunto<Par<Conjunto<Estado>, String>> camino = new Conjunto<Par<Conjunto<Estado>, String>>();
         
+        /* Cerraduras vacías de los estados del AFN, calculadas una única vez */
+        TablaCerraduras cerraduras = afn.getTablaCerraduras();
+        
         /* Comenzamos por la cerradura del estado inicial del AFN */
-        Conjunto<Estado> estadosActuales = Subconjuntos.cerraduraEpsilon(afn.getEstadoInicial());
+        int inicial = cerraduras.getIndice(afn.getEstadoInicial());
+        long[] actuales = cerraduras.cerradura(inicial);
+        Conjunto<Estado> estadosActuales = cerraduras.conjunto(actuales);
         camino.agregar(new Par<Conjunto<Estado>, String>(estadosActuales, ""));
         
         /* Cada simbolo de entrada */
@@ -52,7 +58,13 @@ public class Validacion {
         /* Recorremos mientras hayan simbolos en la entrada */
         while ((simbolo = buffer.poll()) != null) {
             /* Nos movemos al siguiente estado */
-            estadosActuales = Subconjuntos.cerraduraEpsilon(Subconjuntos.mover(estadosActuales, simbolo));
+            int pos = posicion(afn.getAlfabeto(), simbolo);
+            if (pos >= 0)
+                actuales = cerraduras.cerradura(cerraduras.mover(actuales, afn.getAlfabeto(), pos));
+            else
+                actuales = cerraduras.cerradura(Subconjuntos.mover(estadosActuales, simbolo));
+            
+            estadosActuales = cerraduras.conjunto(actuales);
             
             if (estadosActuales.estaVacio()) {
                 /* Si no se alcanza ningún estado, terminamos */
@@ -133,7 +145,7 @@ public class Validacion {
         /* Recorremos mientras hayan simbolos en la entrada */
         while ((simbolo = buffer.poll()) != null) {
             /* Nos movemos al siguiente estado */
-            estadoActual = mover(estadoActual, simbolo);
+            estadoActual = mover(estadoActual, afd.getAlfabeto(), simbolo);
             
             if (estadoActual == null) {
                 /* Si no se alcanza ningún estado, terminamos */
@@ -183,16 +195,39 @@ public class Validacion {
      * Dado un Estado, recupera el Estado destino de una
      * transición por un simbolo dado.
      * @param origen El Estado origen.
+     * @param alfabeto El Alfabeto del AFD.
      * @param simbolo Símbolo por el cual buscar una transición.
      * @return El Estado alcanzado por una transición por el 
      * simbolo dado o null en caso de no existir transición
      * para dicho simbolo.
      */
-    private static Estado mover(Estado origen, String simbolo) {
+    private static Estado mover(Estado origen, Alfabeto alfabeto, String simbolo) {
+        int pos = posicion(alfabeto, simbolo);
+        if (pos >= 0) {
+            Estado[] destinos = origen.getDestinos(alfabeto, pos);
+            return (destinos.length > 0) ? destinos[0] : null;
+        }
+        
         for (Transicion t : origen.getTransiciones())
-            if (t.getSimbolo().equals(simbolo))
+            if (t.acepta(simbolo))
                 return t.getEstado();
         
         return null;
     }
+    
+    /**
+     * Obtiene la posición de un símbolo de la entrada en el alfabeto
+     * del autómata, para seguir las transiciones según la posición.
+     * @param alfabeto El Alfabeto del autómata, que puede ser null.
+     * @param simbolo El símbolo de la entrada.
+     * @return La posición del símbolo, o -1 si el autómata no tiene
+     * alfabeto o el símbolo no pertenece al mismo, en cuyo caso se
+     * recorren las transiciones.
+     */
+    private static int posicion(Alfabeto alfabeto, String simbolo) {
+        if (alfabeto == null)
+            return -1;
+        
+        return alfabeto.obtenerPosicion(simbolo);
+    }
 }
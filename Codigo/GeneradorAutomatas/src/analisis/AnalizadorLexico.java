@@ -5,19 +5,47 @@
  */
 package analisis;
 
-import java.util.Hashtable;
+import estructuras.ConjuntoSimbolos;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Vector;
 
 /**
  * Esta clase implementa el analizador léxico y el método para
  * que el Analizador Sintáctico pueda consumir tokens.<br><br>
  * Es importante mencionar que los lexemas de la entrada siempre
  * estarán formados por un solo caracter, por lo que no se 
- * requiere utilizar autómatas finitos para construirlos.
+ * requiere utilizar autómatas finitos para construirlos.<br><br>
+ * La entrada se recorre por medio de un cursor, sin modificarla,
+ * y cada caracter se clasifica a través de una tabla construida
+ * una sola vez en el constructor. Los tokens retornados son
+ * siempre instancias compartidas, por lo que el análisis de una
+ * expresión regular válida es lineal y no crea objetos nuevos.<br><br>
+ * La única excepción son las clases de caracteres, <code>[a-z0-9]</code>
+ * o <code>[^abc]</code>, que se reconocen como un único token de tipo
+ * <code>CLASE</code> junto con los símbolos del alfabeto que contienen.
+ * Dentro de una clase, los operadores son caracteres comunes y la barra
+ * invertida permite escribir <code>]</code>, <code>-</code>, <code>^</code>
+ * y <code>\</code>. El punto representa a todo el alfabeto.<br><br>
+ * Del mismo modo, el operador de repetición acotada, <code>{m}</code>,
+ * <code>{m,}</code> o <code>{m,n}</code>, se reconoce como un único
+ * token de tipo <code>REPETICION</code> con sus cotas.
  * @author Germán Hüttemann
  * @author Marcelo Rodas
  */
 public class AnalizadorLexico {
     
+    /**
+     * Cantidad de caracteres clasificados a través de
+     * acceso directo en <code>tablaSimbolos</code>.
+     */
+    private static final int TAMANHO_TABLA = 256;
+    
+    /**
+     * Máxima cota admitida para el operador de repetición acotada.
+     */
+    public static final int MAXIMO_REPETICION = 1000000;
+    
     /**
      * Conjunto de símbolos que pueden ser utilizados para
      * escribir la entrada (<code>exprReg</code>) para el
@@ -29,57 +57,99 @@ public class AnalizadorLexico {
      * La cadena de entrada sobre el cual debe trabajar el
      * Analizador Léxico. La misma consiste en una expresión
      * regular definida sobre el alfabeto con los siguientes 
-     * símbolos <code>|, *, +, ?, (, )</code>, más todos los 
-     * símbolos de <code>alfabeto</code>.
+     * símbolos <code>|, *, +, ?, (, ), [, ], ., {, }</code>, más todos
+     * los símbolos de <code>alfabeto</code>.
      */
-    private String exprReg;
+    private CharSequence exprReg;
     
     /**
-     * Variable utilizada como buffer de entrada. Inicialmente,
-     * consiste en la expresión regular de entrada.
+     * Posición, dentro de <code>exprReg</code>, del siguiente
+     * caracter a consumir.
      */
-    private StringBuffer buffer;
+    private int cursor;
     
     /**
-     * Tabla de símbolos válidos esperados por el analizador léxico.
+     * Tabla de símbolos válidos esperados por el analizador léxico,
+     * indexada por el código del caracter. Las posiciones nulas
+     * corresponden a caracteres desconocidos.
      */
-    private Hashtable<String, TokenExprReg> tablaSimbolos;
+    private Token[] tablaSimbolos;
+    
+    /**
+     * Símbolos del alfabeto cuyo código no entra en <code>tablaSimbolos</code>,
+     * ordenados para realizar búsquedas binarias.
+     */
+    private char[] simbolosExtendidos;
+    
+    /**
+     * Tokens correspondientes a cada uno de los <code>simbolosExtendidos</code>.
+     */
+    private Token[] tokensExtendidos;
     
     /**
      * Constructor de la clase.
-     * @param alfabeto El alfabeto de simbolos posibles sobre 
+     * @param alfabeto El alfabeto de simbolos posibles sobre
      * la cual se puede definir una expresión regular.
      * @param exprReg La expresión regular (entrada) sobre la que se trabaja.
      */
     public AnalizadorLexico(Alfabeto alfabeto, String exprReg) {
+       this(alfabeto, (CharSequence) exprReg);
+    }
+    
+    /**
+     * Construye un analizador léxico que recorre un arreglo de caracteres
+     * sin copiarlo.
+     * @param alfabeto El alfabeto de simbolos posibles sobre
+     * la cual se puede definir una expresión regular.
+     * @param exprReg La expresión regular (entrada) sobre la que se trabaja.
+     */
+    public AnalizadorLexico(Alfabeto alfabeto, char[] exprReg) {
+       this(alfabeto, CharBuffer.wrap(exprReg));
+    }
+    
+    /**
+     * Construye un analizador léxico que recorre una secuencia de
+     * caracteres cualquiera, sin copiarla.
+     * @param alfabeto El alfabeto de simbolos posibles sobre
+     * la cual se puede definir una expresión regular.
+     * @param exprReg La expresión regular (entrada) sobre la que se trabaja.
+     */
+    public AnalizadorLexico(Alfabeto alfabeto, CharSequence exprReg) {
        this.alfabeto = alfabeto;
        this.exprReg  = exprReg;
-       this.buffer   = new StringBuffer(exprReg);
+       this.cursor   = 0;
        crearTablaSimbolos();
     }
     
     /**
-     * Este método se encarga de consumir caracteres del buffer
-     * de entrada, convertirlos a tokens y retornarlos al Analizador
-     * Sintáctico.
+     * Este método se encarga de consumir caracteres de la entrada,
+     * convertirlos a tokens y retornarlos al Analizador Sintáctico.
      * @return El siguiente token recuperado de la entrada.
      * @throws Exception Si se intenta construir un token inválido.
      */
     public Token sgteToken() throws Exception {
-        String lexema = sgteLexema();
-
-        // Omitimos cualquier tipo de espacio en blanco
-        if (lexema.matches("\\s"))
-            return sgteToken();
-
-        TokenExprReg tipoToken = tablaSimbolos.get(lexema);
-
-        if (tipoToken == null)
-            return new Token(TokenExprReg.DESCONOCIDO, lexema);
-        else if (tipoToken == TokenExprReg.ALFABETO)
-            return new Token(TokenExprReg.ALFABETO, lexema);
-        else
-            return new Token(tipoToken);
+        while (cursor < exprReg.length()) {
+            char caracter = exprReg.charAt(cursor++);
+            
+            // Omitimos cualquier tipo de espacio en blanco
+            if (esEspacio(caracter))
+                continue;
+            
+            Token token = clasificar(caracter);
+            
+            if (token == null && caracter == '[')
+                return leerClase();
+            
+            if (token == null && caracter == '{')
+                return leerRepeticion();
+            
+            if (token == null)
+                return new Token(TokenExprReg.DESCONOCIDO, String.valueOf(caracter));
+            else
+                return token;
+        }
+        
+        return Token.FINAL;
     }
     
     /**
@@ -99,40 +169,301 @@ public class AnalizadorLexico {
      * <code>AnalizadorLexico</code>.
      */
     public String getExpresionRegular() {
-        return exprReg;
+        return exprReg.toString();
+    }
+    
+    /**
+     * Obtiene la posición, dentro de la expresión regular,
+     * del siguiente caracter a consumir.
+     * @return La posición actual del cursor.
+     */
+    public int getPosicion() {
+        return cursor;
+    }
+    
+    /**
+     * Busca el token correspondiente a un caracter de la entrada.
+     * @param caracter El caracter a clasificar.
+     * @return El token del caracter, o <code>null</code> si el
+     * caracter es desconocido.
+     */
+    private Token clasificar(char caracter) {
+        if (caracter < TAMANHO_TABLA)
+            return tablaSimbolos[caracter];
+        
+        int pos = Arrays.binarySearch(simbolosExtendidos, caracter);
+        return (pos < 0) ? null : tokensExtendidos[pos];
+    }
+    
+    /**
+     * Lee una clase de caracteres, cuyo corchete de apertura ya
+     * fue consumido, y construye el token correspondiente.
+     * @return El token de la clase de caracteres.
+     * @throws Exception Si la clase no está cerrada, contiene un
+     * rango inválido o un símbolo que no pertenece al alfabeto.
+     */
+    private Token leerClase() throws Exception {
+        int inicio = cursor - 1;
+        boolean negada = false;
+        boolean cerrada = false;
+        
+        /* Rangos de la clase, un símbolo aislado es un rango de longitud uno */
+        Vector<Character> desde = new Vector<Character>();
+        Vector<Character> hasta = new Vector<Character>();
+        
+        if (cursor < exprReg.length() && exprReg.charAt(cursor) == '^') {
+            negada = true;
+            cursor++;
+        }
+        
+        while (cursor < exprReg.length()) {
+            char caracter = exprReg.charAt(cursor++);
+            
+            if (caracter == ']') {
+                cerrada = true;
+                break;
+            }
+            
+            if (esEspacio(caracter))
+                continue;
+            
+            char primero = leerCaracterClase(caracter, inicio);
+            char ultimo  = primero;
+            
+            boolean esRango = cursor + 1 < exprReg.length()
+                           && exprReg.charAt(cursor) == '-'
+                           && exprReg.charAt(cursor + 1) != ']';
+            
+            if (esRango) {
+                cursor++;
+                ultimo = leerCaracterClase(exprReg.charAt(cursor++), inicio);
+                
+                if (ultimo < primero)
+                    errorLexico(inicio, "Rango inválido \"" + primero + "-" + ultimo + "\"");
+            }
+            else if (!alfabeto.contiene(String.valueOf(primero))) {
+                errorLexico(inicio, "El símbolo \"" + primero +
+                    "\" no pertenece al alfabeto definido.");
+            }
+            
+            desde.add(primero);
+            hasta.add(ultimo);
+        }
+        
+        if (!cerrada)
+            errorLexico(inicio, "Falta corchete de cierre");
+        
+        /* Los rangos se restringen a los símbolos del alfabeto */
+        Vector<String> simbolos = new Vector<String>();
+        for (String simbolo : alfabeto) {
+            char c = simbolo.charAt(0);
+            boolean pertenece = false;
+            
+            for (int i=0; i < desde.size() && !pertenece; i++)
+                pertenece = desde.get(i) <= c && c <= hasta.get(i);
+            
+            if (pertenece != negada)
+                simbolos.add(simbolo);
+        }
+        
+        String lexema = exprReg.subSequence(inicio, cursor).toString();
+        return new Token(lexema, new ConjuntoSimbolos(simbolos));
     }
     
     /**
-     * Este método consume cada uno de los caracteres del buffer 
-     * de entrada, hasta agotarlos. En dicho momento, retorna la 
-     * cadena vacía, que representará al token FINAL.
-     * @return Siguiente caracter en el buffer de entrada.
+     * Lee un operador de repetición acotada, cuya llave de apertura
+     * ya fue consumida, y construye el token correspondiente.
+     * @return El token del operador de repetición.
+     * @throws Exception Si el operador está mal formado o sus
+     * cotas son inválidas.
      */
-    private String sgteLexema() {
-        String salida = "";
+    private Token leerRepeticion() throws Exception {
+        int inicio = cursor - 1;
         
-        if (buffer.length() > 0) {
-            salida += buffer.charAt(0);
-            buffer.deleteCharAt(0);
+        int minimo = leerNumero(inicio);
+        int maximo = minimo;
+        
+        if (minimo < 0)
+            errorLexico(inicio, "Se espera la cantidad mínima de repeticiones");
+        
+        if (sgteCaracter() == ',') {
+            cursor++;
+            maximo = leerNumero(inicio);
         }
         
-        return salida;
+        if (sgteCaracter() != '}')
+            errorLexico(inicio, "Falta llave de cierre");
+        
+        cursor++;
+        
+        if (maximo >= 0 && maximo < minimo)
+            errorLexico(inicio, "Cotas inválidas, el mínimo es mayor al máximo");
+        
+        String lexema = exprReg.subSequence(inicio, cursor).toString();
+        return new Token(lexema, minimo, maximo);
+    }
+    
+    /**
+     * Lee un número decimal no negativo, omitiendo los espacios
+     * que lo rodean.
+     * @param inicio Posición de la llave de apertura del operador.
+     * @return El número leído, o -1 si no hay ningún dígito.
+     * @throws Exception Si el número es mayor a <code>MAXIMO_REPETICION</code>.
+     */
+    private int leerNumero(int inicio) throws Exception {
+        int numero = -1;
+        
+        sgteCaracter();
+        while (cursor < exprReg.length() && esDigito(exprReg.charAt(cursor))) {
+            numero = Math.max(numero, 0) * 10 + (exprReg.charAt(cursor++) - '0');
+            
+            if (numero > MAXIMO_REPETICION)
+                errorLexico(inicio, "La cota máxima de repeticiones es " + MAXIMO_REPETICION);
+        }
+        
+        sgteCaracter();
+        return numero;
+    }
+    
+    /**
+     * Omite los espacios en blanco y obtiene el siguiente
+     * caracter de la entrada, sin consumirlo.
+     * @return El siguiente caracter, o <code>0</code> al final
+     * de la entrada.
+     */
+    private char sgteCaracter() {
+        while (cursor < exprReg.length() && esEspacio(exprReg.charAt(cursor)))
+            cursor++;
+        
+        return (cursor < exprReg.length()) ? exprReg.charAt(cursor) : 0;
+    }
+    
+    /**
+     * Lee un caracter dentro de una clase de caracteres,
+     * resolviendo la barra invertida.
+     * @param caracter El caracter ya consumido.
+     * @param inicio Posición del corchete de apertura de la clase.
+     * @return El caracter representado.
+     * @throws Exception Si la clase termina luego de la barra invertida.
+     */
+    private char leerCaracterClase(char caracter, int inicio) throws Exception {
+        if (caracter != '\\')
+            return caracter;
+        
+        if (cursor >= exprReg.length())
+            errorLexico(inicio, "Falta corchete de cierre");
+        
+        return exprReg.charAt(cursor++);
+    }
+    
+    /**
+     * Lanza una excepción para un error en una clase de caracteres
+     * o en un operador de repetición acotada.
+     * @param inicio Posición del primer caracter del lexema.
+     * @param mensaje El mensaje de error.
+     * @throws Exception Siempre se lanza una excepción,
+     * producto del error ocurrido.
+     */
+    private void errorLexico(int inicio, String mensaje) throws Exception {
+        String mensajeCompleto = "";
+        
+        mensajeCompleto += "Error léxico\n";
+        mensajeCompleto += "Carácter: " + exprReg.subSequence(inicio, cursor) + "\n";
+        mensajeCompleto += "Posición: " + (inicio + 1) + "\n";
+        mensajeCompleto += "Mensaje : " + mensaje;
+        
+        throw new Exception(mensajeCompleto);
+    }
+    
+    /**
+     * Determina si un caracter es un dígito decimal.
+     * @param caracter El caracter a evaluar.
+     * @return <code>true</code> si el caracter es un dígito
+     * entre <code>0</code> y <code>9</code>.
+     */
+    private static boolean esDigito(char caracter) {
+        return caracter >= '0' && caracter <= '9';
+    }
+    
+    /**
+     * Determina si un caracter es un espacio en blanco, con
+     * el mismo criterio que la clase <code>\s</code> de las
+     * expresiones regulares de Java.
+     * @param caracter El caracter a evaluar.
+     * @return <code>true</code> si el caracter es un espacio
+     * en blanco, <code>false</code> en caso contrario.
+     */
+    private static boolean esEspacio(char caracter) {
+        switch (caracter) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+                return true;
+            default:
+                return false;
+        }
     }
     
     private void crearTablaSimbolos() {
-        tablaSimbolos = new Hashtable<String, TokenExprReg>();
-
-        tablaSimbolos.put("*", TokenExprReg.CERRADURA_KLEENE);
-        tablaSimbolos.put("+", TokenExprReg.CERRADURA_POSITIVA);
-        tablaSimbolos.put("?", TokenExprReg.OPCION);
-        tablaSimbolos.put("|", TokenExprReg.UNION);
-        tablaSimbolos.put("(", TokenExprReg.PAREN_IZQUIERDO);
-        tablaSimbolos.put(")", TokenExprReg.PAREN_DERECHO);
-        tablaSimbolos.put("", TokenExprReg.FINAL);
-
-        for (int i=0; i < alfabeto.getCantidad(); i++) {
-            String simbolo = alfabeto.getSimbolo(i);
-            tablaSimbolos.put(simbolo, TokenExprReg.ALFABETO);
+        tablaSimbolos = new Token[TAMANHO_TABLA];
+        
+        tablaSimbolos['*'] = Token.CERRADURA_KLEENE;
+        tablaSimbolos['+'] = Token.CERRADURA_POSITIVA;
+        tablaSimbolos['?'] = Token.OPCION;
+        tablaSimbolos['|'] = Token.UNION;
+        tablaSimbolos['('] = Token.PAREN_IZQUIERDO;
+        tablaSimbolos[')'] = Token.PAREN_DERECHO;
+        
+        /* El punto es la clase de todos los símbolos del alfabeto */
+        Vector<String> todos = new Vector<String>();
+        for (String simbolo : alfabeto)
+            todos.add(simbolo);
+        tablaSimbolos['.'] = new Token(".", new ConjuntoSimbolos(todos));
+        
+        /*
+         * Los símbolos del alfabeto tienen prioridad sobre los
+         * operadores, por lo que se cargan al final.
+         */
+        int cantExtendidos = 0;
+        for (String simbolo : alfabeto)
+            if (simbolo.charAt(0) >= TAMANHO_TABLA)
+                cantExtendidos++;
+        
+        simbolosExtendidos = new char[cantExtendidos];
+        tokensExtendidos = new Token[cantExtendidos];
+        
+        int pos = 0;
+        for (String simbolo : alfabeto) {
+            Token token = crearTokenAlfabeto(simbolo);
+            char caracter = simbolo.charAt(0);
+            
+            if (caracter < TAMANHO_TABLA) {
+                tablaSimbolos[caracter] = token;
+            }
+            else {
+                /* El alfabeto está ordenado, por lo que no hace falta ordenar */
+                simbolosExtendidos[pos] = caracter;
+                tokensExtendidos[pos] = token;
+                pos++;
+            }
+        }
+    }
+    
+    /**
+     * Crea el token correspondiente a un símbolo del alfabeto.
+     * @param simbolo El símbolo del alfabeto.
+     * @return El <code>Token</code> para <code>simbolo</code>.
+     */
+    private static Token crearTokenAlfabeto(String simbolo) {
+        try {
+            return new Token(TokenExprReg.ALFABETO, simbolo);
+        }
+        catch (Exception ex) {
+            /* Nunca ocurre para tokens del alfabeto */
+            throw new IllegalStateException(ex.getMessage());
         }
     }
 }
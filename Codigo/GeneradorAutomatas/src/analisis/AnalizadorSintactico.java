@@ -6,7 +6,9 @@
 package analisis;
 
 import estructuras.AFN;
+import estructuras.ConjuntoSimbolos;
 import estructuras.Log;
+import algoritmos.Limites;
 import algoritmos.Thompson;
 
 /**
@@ -41,6 +43,11 @@ public class AnalizadorSintactico {
      */
     private int contadorTokens;
     
+    /**
+     * Límites de memoria y tiempo para la construcción del AFN.
+     */
+    private Limites limites;
+    
     /**
      * Constructor de la clase.
      * @param alfabeto El alfabeto sobre el cual está definido <code>exprReg</code>.
@@ -49,6 +56,7 @@ public class AnalizadorSintactico {
     public AnalizadorSintactico(Alfabeto alfabeto, String exprReg) {
         analizadorLexico = new AnalizadorLexico(alfabeto, exprReg);
         contadorTokens = 0;
+        limites = new Limites();
         log = new Log();
     }
 
@@ -92,7 +100,7 @@ public class AnalizadorSintactico {
         if (afn2 == null)
             return afn1;
         else
-            return Thompson.union(afn1, afn2);
+            return verificar(Thompson.union(afn1, afn2));
     }
     
     /**
@@ -110,7 +118,7 @@ public class AnalizadorSintactico {
             if (afn2 == null)
                 return afn1;
             else
-                return Thompson.union(afn1, afn2);
+                return verificar(Thompson.union(afn1, afn2));
         }
         else {
             // Derivar en vacío
@@ -132,7 +140,7 @@ public class AnalizadorSintactico {
         if (afn2 == null)
             return afn1;
         else
-            return Thompson.concatenacion(afn1, afn2);
+            return verificar(Thompson.concatenacion(afn1, afn2));
     }
     
     /**
@@ -143,6 +151,7 @@ public class AnalizadorSintactico {
         switch (preanalisis.getIdentificador()) {
             case PAREN_IZQUIERDO:
             case ALFABETO:
+            case CLASE:
                 
                 log.agregar("R2 -> Grupo R2").nuevaLinea();
                 AFN afn1 = Grupo();
@@ -151,7 +160,7 @@ public class AnalizadorSintactico {
                 if (afn2 == null)
                     return afn1;
                 else
-                    return Thompson.concatenacion(afn1, afn2);
+                    return verificar(Thompson.concatenacion(afn1, afn2));
             default:
                 // Derivar en vacío
                 log.agregar("R2 -> " + Alfabeto.VACIO).nuevaLinea();
@@ -168,15 +177,18 @@ public class AnalizadorSintactico {
         log.agregar("Grupo -> Elem Oper").nuevaLinea();
         
         AFN afn = Elem();
+        Token token = preanalisis;
         TokenExprReg operador = Oper();
         
         switch (operador) {
             case CERRADURA_KLEENE:
-                return Thompson.cerraduraKleene(afn);
+                return verificar(Thompson.cerraduraKleene(afn));
             case CERRADURA_POSITIVA:
-                return Thompson.cerraduraPositiva(afn);
+                return verificar(Thompson.cerraduraPositiva(afn));
             case OPCION:
-                return Thompson.opcion(afn);
+                return verificar(Thompson.opcion(afn));
+            case REPETICION:
+                return verificar(Thompson.repeticion(afn, token.getMinimo(), token.getMaximo()));
             default:
                 return afn;
         }
@@ -193,6 +205,7 @@ public class AnalizadorSintactico {
             case CERRADURA_KLEENE:
             case CERRADURA_POSITIVA:
             case OPCION:
+            case REPETICION:
                 operador = preanalisis.getIdentificador();
                 
                 log.agregar("Oper -> " + preanalisis.getValor()).nuevaLinea();
@@ -210,8 +223,8 @@ public class AnalizadorSintactico {
     /**
      * Método que procesa un elemento unitario en la expresión
      * regular. Se intenta hacer match con el paréntesis de
-     * apertura o con algún símbolo del alfabeto. En caso 
-     * contrario, se produce un error.
+     * apertura, con algún símbolo del alfabeto o con una clase
+     * de caracteres. En caso contrario, se produce un error.
      * @throws java.lang.Exception En caso de que no se encuentre un símbolo
      * del alfabeto ni un paréntesis de apertura (inicio de una nueva expresión
      * regular).
@@ -223,15 +236,20 @@ public class AnalizadorSintactico {
             case PAREN_IZQUIERDO:
                 log.agregar("Elem -> \"(\" ExprReg \")\"").nuevaLinea();
                 
-                match(new Token(TokenExprReg.PAREN_IZQUIERDO));
+                match(Token.PAREN_IZQUIERDO);
                 afn = ExprReg();
-                match(new Token(TokenExprReg.PAREN_DERECHO));
+                match(Token.PAREN_DERECHO);
                 break;
             case ALFABETO:
                 log.agregar("Elem -> SimLen").nuevaLinea();
                 
                 afn = SimLen();
                 break;
+            case CLASE:
+                log.agregar("Elem -> Clase").nuevaLinea();
+                
+                afn = Clase();
+                break;
             default:
                 error("Se espera paréntesis de apertura o símbolo de alfabeto. " +
                     "Se encontró \"" + preanalisis.getValor() + "\"");
@@ -259,6 +277,31 @@ public class AnalizadorSintactico {
         return afn;
     }
 
+    /**
+     * Método que procesa una clase de caracteres en la expresión regular.
+     * Una clase con un único símbolo equivale a dicho símbolo.
+     * @throws java.lang.Exception Si la clase no contiene símbolos del alfabeto.
+     */
+    private AFN Clase() throws Exception {
+        ConjuntoSimbolos clase = preanalisis.getClase();
+        
+        if (clase.estaVacio()) {
+            error("La clase \"" + preanalisis.getValor() + 
+                "\" no contiene símbolos del alfabeto definido.");
+        }
+        
+        log.agregar("Clase -> " + preanalisis.getValor()).nuevaLinea();
+        
+        AFN afn;
+        if (clase.cantidad() == 1)
+            afn = Thompson.basico(clase.obtenerPrimero());
+        else
+            afn = Thompson.basico(clase);
+        
+        match(preanalisis);
+        return afn;
+    }
+    
     /**
      * Método que se encarga de corroborar que la
      * entrada es la correcta para consumir el siguiente
@@ -305,6 +348,18 @@ public class AnalizadorSintactico {
         return analizadorLexico.sgteToken();
     }
     
+    /**
+     * Verifica los límites de memoria y tiempo luego de
+     * aplicar una construcción de Thompson.
+     * @param afn El AFN construido.
+     * @return El mismo <code>afn</code>.
+     * @throws algoritmos.ExcepcionLimite Si se excede algún límite o se canceló.
+     */
+    private AFN verificar(AFN afn) {
+        limites.verificarAFN("Thompson", afn.cantidadEstados(), afn.cantidadTransiciones());
+        return afn;
+    }
+    
     /**
      * Obtiene el <code>Log</code> de esta clase.
      * @return El <code>Log</code> correspondiente
@@ -313,4 +368,14 @@ public class AnalizadorSintactico {
     public Log getLog() {
         return log;
     }
+    
+    /**
+     * Establece los límites de memoria y tiempo para la construcción
+     * del AFN, que se verifican luego de cada construcción de Thompson.
+     * Por defecto no hay límites.
+     * @param limites Los límites de la construcción.
+     */
+    public void setLimites(Limites limites) {
+        this.limites = limites;
+    }
 }
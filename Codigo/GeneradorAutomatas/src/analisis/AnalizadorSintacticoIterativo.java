@@ -0,0 +1,501 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import estructuras.AFD;
+import estructuras.AFN;
+import estructuras.ConjuntoSimbolos;
+import estructuras.Log;
+import algoritmos.Antimirov;
+import algoritmos.Construccion;
+import algoritmos.ConstruccionDirecta;
+import algoritmos.ConstructorThompson;
+import algoritmos.Glushkov;
+import algoritmos.Limites;
+import algoritmos.Thompson;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Clase que implementa un analizador sintáctico no recursivo
+ * para una expresión regular, realizando una traducción de
+ * la misma a su correspondiente AFN.<br><br>
+ * Reconoce el mismo lenguaje que <code>AnalizadorSintactico</code>,
+ * produce el mismo AFN y reporta los mismos errores en las mismas
+ * posiciones, pero en lugar de descender recursivamente por cada
+ * concatenación, unión o paréntesis, mantiene en una pila explícita
+ * los operandos pendientes de cada nivel de paréntesis. De esta forma,
+ * el tamaño de la expresión regular no está limitado por la pila del
+ * hilo de ejecución.<br><br>
+ * La traducción se realiza en dos pasos: primero se construye el
+ * árbol sintáctico de la expresión, que opcionalmente es simplificado
+ * por <code>OptimizadorExprReg</code>, y luego se construye el AFN
+ * del árbol mediante <code>Thompson.construir</code>, o bien mediante
+ * el algoritmo seleccionado con <code>setConstruccion</code>. Las
+ * cantidades de estados y transiciones del AFN obtenido se registran
+ * en el <code>Log</code>, de manera a comparar las construcciones.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ * @see AnalizadorSintactico
+ */
+public class AnalizadorSintacticoIterativo {
+    
+    /**
+     * Log del análisis sintáctico.
+     */
+    private Log log;
+    
+    /**
+     * El analizador léxico para este analizador
+     * sintáctico. Se hará uso del mismo para
+     * obtener tokens.
+     */
+    private AnalizadorLexico analizadorLexico;
+    
+    /**
+     * Variable para el token actual.
+     */
+    private Token preanalisis;
+    
+    /**
+     * Contador de tokens recibidos. Útil para
+     * indicar dónde ocurren los errores.
+     */
+    private int contadorTokens;
+    
+    /**
+     * Indica si el árbol sintáctico debe ser simplificado
+     * antes de construir el AFN.
+     */
+    private boolean optimizar;
+    
+    /**
+     * Algoritmo utilizado para construir el AFN del árbol sintáctico.
+     */
+    private Construccion construccion;
+    
+    /**
+     * Límites de memoria y tiempo para la construcción del AFN.
+     */
+    private Limites limites;
+    
+    /**
+     * Constructor de la clase.
+     * @param alfabeto El alfabeto sobre el cual está definido <code>exprReg</code>.
+     * @param exprReg La expresión regular a evaluar.
+     */
+    public AnalizadorSintacticoIterativo(Alfabeto alfabeto, String exprReg) {
+        this(alfabeto, (CharSequence) exprReg);
+    }
+    
+    /**
+     * Constructor de la clase para expresiones regulares que no
+     * están almacenadas en un <code>String</code>.
+     * @param alfabeto El alfabeto sobre el cual está definido <code>exprReg</code>.
+     * @param exprReg La expresión regular a evaluar.
+     */
+    public AnalizadorSintacticoIterativo(Alfabeto alfabeto, CharSequence exprReg) {
+        analizadorLexico = new AnalizadorLexico(alfabeto, exprReg);
+        contadorTokens = 0;
+        construccion = Construccion.THOMPSON;
+        limites = new Limites();
+        log = new Log();
+    }
+    
+    /**
+     * Inicia el análisis sintáctico (traducción).
+     * @return Un AFN que representa a la expresión regular de entrada.
+     * @throws java.lang.Exception En caso de encontrar algún error
+     * de sintáxis en la expresión regular de entrada.
+     */
+    public AFN analizar() throws Exception {
+        NodoExprReg arbol = analizarArbol();
+        AFN afn;
+        
+        switch (construccion) {
+            case THOMPSON_ARENA:
+                afn = ConstructorThompson.construir(arbol, limites);
+                break;
+            case GLUSHKOV:
+                afn = Glushkov.construir(arbol, limites);
+                break;
+            case ANTIMIROV:
+                afn = Antimirov.construir(arbol, limites);
+                break;
+            default:
+                afn = Thompson.construir(arbol, limites);
+        }
+        
+        afn.setAlfabeto(analizadorLexico.getAlfabeto());
+        afn.setExprReg(analizadorLexico.getExpresionRegular());
+        
+        // Logging
+        log.agregar("AFN (" + construccion + "): " + afn.cantidadEstados() + " estados, ")
+           .agregar(afn.cantidadTransiciones() + " transiciones").nuevaLinea();
+        
+        return afn;
+    }
+    
+    /**
+     * Inicia el análisis sintáctico, traduciendo la expresión regular
+     * directamente a un AFD mediante <code>ConstruccionDirecta</code>,
+     * sin construir un AFN intermedio, verificando los límites
+     * establecidos con <code>setLimites</code> y registrando los
+     * pasos en el <code>Log</code> de <code>ConstruccionDirecta</code>.
+     * @return Un AFD que representa a la expresión regular de entrada.
+     * @throws java.lang.Exception En caso de encontrar algún error
+     * de sintáxis en la expresión regular de entrada.
+     */
+    public AFD analizarAFD() throws Exception {
+        return analizarAFD(true);
+    }
+    
+    /**
+     * Inicia el análisis sintáctico, traduciendo la expresión regular
+     * directamente a un AFD igual que <code>analizarAFD</code>.
+     * @param registrar Indica si se registran los pasos en el
+     * <code>Log</code> de <code>ConstruccionDirecta</code>, y los
+     * conjuntos de posiciones de cada estado del AFD.
+     * @return Un AFD que representa a la expresión regular de entrada.
+     * @throws java.lang.Exception En caso de encontrar algún error
+     * de sintáxis en la expresión regular de entrada.
+     */
+    public AFD analizarAFD(boolean registrar) throws Exception {
+        NodoExprReg arbol = analizarArbol();
+        
+        return ConstruccionDirecta.getAFD(arbol, analizadorLexico.getAlfabeto(),
+                                          analizadorLexico.getExpresionRegular(), limites, registrar);
+    }
+    
+    /**
+     * Inicia el análisis sintáctico, construyendo solamente el árbol
+     * sintáctico de la expresión regular. Si la optimización está
+     * habilitada, el árbol retornado es el árbol simplificado.
+     * @return La raíz del árbol sintáctico de la expresión regular de entrada.
+     * @throws java.lang.Exception En caso de encontrar algún error
+     * de sintáxis en la expresión regular de entrada.
+     */
+    public NodoExprReg analizarArbol() throws Exception {
+        preanalisis = obtenerToken();
+        
+        if (preanalisis.getIdentificador() == TokenExprReg.FINAL)
+            error("Expresión regular vacía");
+        
+        // Logging
+        log.vaciar();
+        log.agregar("Análisis sintáctico iterativo".toUpperCase()).nuevaLinea();
+        log.agregar("-----------------------------").nuevaLinea().nuevaLinea();
+        
+        NodoExprReg arbol = ExprReg();
+        
+        if (preanalisis.getIdentificador() != TokenExprReg.FINAL)
+            error("Carácter de finalización inválido");
+        
+        // Logging
+        log.agregar("Tokens procesados: " + contadorTokens).nuevaLinea();
+        
+        if (optimizar) {
+            arbol = OptimizadorExprReg.optimizar(arbol);
+            
+            // Logging
+            log.nuevaLinea().agregar(OptimizadorExprReg.getLog().toString());
+        }
+        
+        return arbol;
+    }
+    
+    /**
+     * Procesa una expresión regular completa. Equivale a las
+     * producciones <code>ExprReg</code>, <code>R1</code>,
+     * <code>Concat</code>, <code>R2</code>, <code>Grupo</code> y
+     * <code>Elem</code> de <code>AnalizadorSintactico</code>, pero
+     * cada paréntesis de apertura apila un nuevo <code>Nivel</code>
+     * en lugar de realizar una llamada recursiva.
+     * @return El árbol sintáctico de la expresión regular.
+     * @throws java.lang.Exception En caso de encontrar algún error
+     * de sintáxis.
+     */
+    private NodoExprReg ExprReg() throws Exception {
+        /* Niveles de paréntesis abiertos, sin contar el actual */
+        Stack<Nivel> pila = new Stack<Nivel>();
+        Nivel actual = new Nivel();
+        int profundidadMaxima = 0;
+        
+        while (true) {
+            /* Elem: inicio de un nuevo Grupo */
+            NodoExprReg nodo;
+            
+            switch (preanalisis.getIdentificador()) {
+                case PAREN_IZQUIERDO:
+                    match(Token.PAREN_IZQUIERDO);
+                    
+                    pila.push(actual);
+                    actual = new Nivel();
+                    profundidadMaxima = Math.max(profundidadMaxima, pila.size());
+                    continue;
+                case ALFABETO:
+                    nodo = SimLen();
+                    break;
+                case CLASE:
+                    nodo = Clase();
+                    break;
+                default:
+                    error("Se espera paréntesis de apertura o símbolo de alfabeto. " +
+                        "Se encontró \"" + preanalisis.getValor() + "\"");
+                    return null;
+            }
+            
+            /*
+             * Oper y fin de Grupo. El ciclo se repite por cada
+             * paréntesis de cierre, ya que la expresión encerrada
+             * pasa a ser el Elem del nivel anterior.
+             */
+            while (true) {
+                actual.factores.add(Oper(nodo));
+                
+                TokenExprReg tipo = preanalisis.getIdentificador();
+                
+                /* R2 -> Grupo R2 */
+                if (tipo == TokenExprReg.PAREN_IZQUIERDO || tipo == TokenExprReg.ALFABETO
+                        || tipo == TokenExprReg.CLASE)
+                    break;
+                
+                /* R2 -> vacío */
+                actual.cerrarConcatenacion();
+                
+                /* R1 -> "|" Concat R1 */
+                if (tipo == TokenExprReg.UNION) {
+                    match(preanalisis);
+                    break;
+                }
+                
+                /* R1 -> vacío */
+                nodo = actual.cerrarUnion();
+                
+                if (pila.isEmpty()) {
+                    // Logging
+                    log.agregar("Profundidad máxima de paréntesis: " + profundidadMaxima).nuevaLinea();
+                    return nodo;
+                }
+                
+                match(Token.PAREN_DERECHO);
+                actual = pila.pop();
+            }
+        }
+    }
+    
+    /**
+     * Método que procesa un operador en la expresión regular
+     * y lo aplica a un nodo del árbol sintáctico.
+     * @param nodo El nodo del elemento sobre el que se aplica el operador.
+     * @return El nodo resultante.
+     * @throws java.lang.Exception Propaga la excepción de match().
+     */
+    private NodoExprReg Oper(NodoExprReg nodo) throws Exception {
+        switch (preanalisis.getIdentificador()) {
+            case CERRADURA_KLEENE:
+                match(preanalisis);
+                return NodoExprReg.unario(TipoNodo.CERRADURA_KLEENE, nodo);
+            case CERRADURA_POSITIVA:
+                match(preanalisis);
+                return NodoExprReg.unario(TipoNodo.CERRADURA_POSITIVA, nodo);
+            case OPCION:
+                match(preanalisis);
+                return NodoExprReg.unario(TipoNodo.OPCION, nodo);
+            case REPETICION:
+                Token operador = preanalisis;
+                match(preanalisis);
+                return NodoExprReg.repeticion(nodo, operador.getMinimo(), operador.getMaximo());
+            default:
+                return nodo;
+        }
+    }
+    
+    /**
+     * Método que procesa un símbolo del alfabeto en la expresión regular.
+     * @throws java.lang.Exception Si el caracter actual no es un símbolo del alfabeto.
+     */
+    private NodoExprReg SimLen() throws Exception {
+        String simbolo = preanalisis.getValor();
+        
+        if (!analizadorLexico.getAlfabeto().contiene(simbolo)) {
+            error("El símbolo \"" + simbolo +
+                "\" no pertenece al alfabeto definido.");
+        }
+        
+        NodoExprReg nodo = NodoExprReg.simbolo(simbolo);
+        match(preanalisis);
+        return nodo;
+    }
+    
+    /**
+     * Método que procesa una clase de caracteres en la expresión regular.
+     * Una clase con un único símbolo equivale a dicho símbolo.
+     * @throws java.lang.Exception Si la clase no contiene símbolos del alfabeto.
+     */
+    private NodoExprReg Clase() throws Exception {
+        ConjuntoSimbolos clase = preanalisis.getClase();
+        
+        if (clase.estaVacio()) {
+            error("La clase \"" + preanalisis.getValor() +
+                "\" no contiene símbolos del alfabeto definido.");
+        }
+        
+        NodoExprReg nodo;
+        if (clase.cantidad() == 1)
+            nodo = NodoExprReg.simbolo(clase.obtenerPrimero());
+        else
+            nodo = NodoExprReg.clase(clase);
+        
+        match(preanalisis);
+        return nodo;
+    }
+    
+    /**
+     * Método que se encarga de corroborar que la
+     * entrada es la correcta para consumir el siguiente
+     * token.
+     * @param entrada Token esperado, debe ser igual al token actual.
+     * @throws java.lang.Exception En caso de que el token actual no
+     * sea igual al esperado.
+     */
+    private void match(Token entrada) throws Exception {
+        if (preanalisis.equals(entrada))
+            preanalisis = obtenerToken();
+        else if (entrada.getIdentificador() == TokenExprReg.PAREN_DERECHO)
+            error("Falta paréntesis de cierre");
+        else
+            error("Carácter inválido");
+    }
+    
+    /**
+     * Método que se encarga de lanzar excepciones
+     * para los distintos casos de error posibles.
+     * @param mensaje El mensaje de error.
+     * @throws java.lang.Exception Siempre se lanza una excepción,
+     * producto del error ocurrido.
+     */
+    private void error(String mensaje) throws Exception {
+        String mensajeCompleto = "";
+        
+        mensajeCompleto += "Error de sintáxis\n";
+        mensajeCompleto += "Carácter: " + preanalisis.getValor() + "\n";
+        mensajeCompleto += "Posición: " + contadorTokens + "\n";
+        mensajeCompleto += "Mensaje : " + mensaje;
+        
+        throw new Exception(mensajeCompleto);
+    }
+    
+    /**
+     * Método que obtiene el siguiente token y registra
+     * la cantidad de tokens leídos.
+     * @return El siguiente token del Analizador Léxico.
+     * @throws java.lang.Exception
+     */
+    private Token obtenerToken() throws Exception {
+        ++contadorTokens;
+        return analizadorLexico.sgteToken();
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al proceso de análisis sintáctico.
+     */
+    public Log getLog() {
+        return log;
+    }
+    
+    /**
+     * Indica si el árbol sintáctico es simplificado antes
+     * de construir el AFN.
+     * @return <code>true</code> si la optimización está habilitada.
+     */
+    public boolean getOptimizar() {
+        return optimizar;
+    }
+    
+    /**
+     * Habilita o deshabilita la simplificación del árbol sintáctico
+     * mediante <code>OptimizadorExprReg</code>. Por defecto está
+     * deshabilitada, de manera a obtener el mismo AFN que
+     * <code>AnalizadorSintactico</code>.
+     * @param optimizar <code>true</code> para habilitar la optimización.
+     */
+    public void setOptimizar(boolean optimizar) {
+        this.optimizar = optimizar;
+    }
+    
+    /**
+     * Obtiene el algoritmo utilizado para construir el AFN.
+     * @return El algoritmo de construcción del AFN.
+     */
+    public Construccion getConstruccion() {
+        return construccion;
+    }
+    
+    /**
+     * Establece el algoritmo utilizado para construir el AFN. Por
+     * defecto es <code>Construccion.THOMPSON</code>, de manera a
+     * obtener el mismo AFN que <code>AnalizadorSintactico</code>.
+     * @param construccion El algoritmo de construcción del AFN.
+     */
+    public void setConstruccion(Construccion construccion) {
+        this.construccion = construccion;
+    }
+    
+    /**
+     * Establece los límites de memoria y tiempo para la construcción
+     * del AFN, que cada construcción verifica a medida que agrega
+     * estados y transiciones, y para la construcción directa del AFD
+     * de <code>analizarAFD</code>. Por defecto no hay límites.
+     * @param limites Los límites de la construcción.
+     */
+    public void setLimites(Limites limites) {
+        this.limites = limites;
+    }
+    
+    /**
+     * Operandos pendientes de un nivel de paréntesis: las ramas
+     * ya completas de una unión y los factores de la concatenación
+     * en curso.<br><br>
+     * Cada lista se reduce a un único nodo n-ario. Como
+     * <code>Thompson.construir</code> asocia estos nodos por la derecha,
+     * se obtiene la misma asociatividad que las producciones recursivas
+     * <code>R1</code> y <code>R2</code> y, por lo tanto, el mismo AFN.
+     */
+    private static class Nivel {
+        
+        /**
+         * Ramas completas de la unión de este nivel.
+         */
+        private Vector<NodoExprReg> ramas = new Vector<NodoExprReg>();
+        
+        /**
+         * Factores de la concatenación en curso.
+         */
+        private Vector<NodoExprReg> factores = new Vector<NodoExprReg>();
+        
+        /**
+         * Reduce la concatenación en curso a un único nodo y
+         * lo agrega como una nueva rama de la unión.
+         */
+        private void cerrarConcatenacion() {
+            ramas.add(NodoExprReg.concatenacion(factores));
+            factores = new Vector<NodoExprReg>();
+        }
+        
+        /**
+         * Reduce las ramas de la unión a un único nodo.
+         * @return El nodo de la expresión regular de este nivel.
+         */
+        private NodoExprReg cerrarUnion() {
+            NodoExprReg nodo = NodoExprReg.union(ramas);
+            ramas = new Vector<NodoExprReg>();
+            return nodo;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import estructuras.ConjuntoSimbolos;
+import java.util.List;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Clase que representa un nodo del árbol sintáctico de una
+ * expresión regular. El árbol es la representación intermedia
+ * entre el análisis sintáctico y la construcción del autómata,
+ * y permite simplificar la expresión antes de construirlo.<br><br>
+ * Los nodos no pueden ser modificados una vez creados, por lo que
+ * un mismo nodo puede formar parte de varios árboles. Las uniones
+ * y concatenaciones pueden tener cualquier cantidad de hijos.<br><br>
+ * Todos los recorridos de esta clase utilizan una pila explícita,
+ * de manera a que la profundidad del árbol no esté limitada por la
+ * pila del hilo de ejecución.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ * @see TipoNodo
+ */
+public class NodoExprReg {
+    
+    /**
+     * Tipo de este nodo.
+     */
+    private TipoNodo tipo;
+    
+    /**
+     * Símbolo de este nodo, solo para nodos de tipo
+     * <code>SIMBOLO</code>. Para nodos de tipo <code>CLASE</code>,
+     * es la representación del conjunto de símbolos.
+     */
+    private String simbolo;
+    
+    /**
+     * Conjunto de símbolos de este nodo, solo para
+     * nodos de tipo <code>CLASE</code>.
+     */
+    private ConjuntoSimbolos clase;
+    
+    /**
+     * Cantidad mínima de repeticiones, solo para
+     * nodos de tipo <code>REPETICION</code>.
+     */
+    private int minimo;
+    
+    /**
+     * Cantidad máxima de repeticiones, solo para nodos de tipo
+     * <code>REPETICION</code>. Es -1 si no hay cota superior.
+     */
+    private int maximo;
+    
+    /**
+     * Hijos de este nodo.
+     */
+    private NodoExprReg[] hijos;
+    
+    /**
+     * Indica si el lenguaje de este nodo contiene
+     * a la cadena vacía.
+     */
+    private boolean anulable;
+    
+    /**
+     * Cantidad de nodos del árbol que tiene a este nodo como raíz.
+     */
+    private int tamanho;
+    
+    /**
+     * Valor de hash de este nodo, calculado a partir de los
+     * valores de hash de sus hijos.
+     */
+    private int hash;
+    
+    /**
+     * Construye un nodo.
+     * @param tipo El tipo del nodo.
+     * @param simbolo El símbolo del nodo, o <code>null</code>.
+     * @param hijos Los hijos del nodo.
+     */
+    private NodoExprReg(TipoNodo tipo, String simbolo, NodoExprReg[] hijos) {
+        this(tipo, simbolo, hijos, 0, 0);
+    }
+    
+    /**
+     * Construye un nodo con cotas de repetición.
+     * @param tipo El tipo del nodo.
+     * @param simbolo El símbolo del nodo, o <code>null</code>.
+     * @param hijos Los hijos del nodo.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones.
+     */
+    private NodoExprReg(TipoNodo tipo, String simbolo, NodoExprReg[] hijos, int minimo, int maximo) {
+        this.tipo    = tipo;
+        this.simbolo = simbolo;
+        this.hijos   = hijos;
+        this.minimo  = minimo;
+        this.maximo  = maximo;
+        
+        tamanho = 1;
+        hash = 31 * tipo.hashCode() + (simbolo != null ? simbolo.hashCode() : 0);
+        hash = 31 * (31 * hash + minimo) + maximo;
+        for (NodoExprReg hijo : hijos) {
+            tamanho += hijo.tamanho;
+            hash = 31 * hash + hijo.hash;
+        }
+        
+        switch (tipo) {
+            case SIMBOLO:
+                anulable = simbolo.equals(Alfabeto.VACIO);
+                break;
+            case CLASE:
+                anulable = false;
+                break;
+            case UNION:
+                anulable = false;
+                for (NodoExprReg hijo : hijos)
+                    anulable |= hijo.anulable;
+                break;
+            case CONCATENACION:
+                anulable = true;
+                for (NodoExprReg hijo : hijos)
+                    anulable &= hijo.anulable;
+                break;
+            case CERRADURA_POSITIVA:
+                anulable = hijos[0].anulable;
+                break;
+            case REPETICION:
+                anulable = minimo == 0 || hijos[0].anulable;
+                break;
+            default:
+                anulable = true;
+        }
+    }
+    
+    /**
+     * Crea un nodo para un símbolo del alfabeto.
+     * @param simbolo El símbolo del nodo.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg simbolo(String simbolo) {
+        return new NodoExprReg(TipoNodo.SIMBOLO, simbolo, new NodoExprReg[0]);
+    }
+    
+    /**
+     * Crea un nodo para una clase de caracteres.
+     * @param clase El conjunto de símbolos de la clase.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg clase(ConjuntoSimbolos clase) {
+        NodoExprReg nodo = new NodoExprReg(TipoNodo.CLASE, clase.toString(), new NodoExprReg[0]);
+        nodo.clase = clase;
+        return nodo;
+    }
+    
+    /**
+     * Crea un nodo para el símbolo vacío.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg vacio() {
+        return simbolo(Alfabeto.VACIO);
+    }
+    
+    /**
+     * Crea un nodo de unión. Si hay un solo operando,
+     * se retorna el mismo operando.
+     * @param operandos Los operandos de la unión.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg union(List<NodoExprReg> operandos) {
+        return nario(TipoNodo.UNION, operandos);
+    }
+    
+    /**
+     * Crea un nodo de concatenación. Si hay un solo operando,
+     * se retorna el mismo operando.
+     * @param operandos Los operandos de la concatenación.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg concatenacion(List<NodoExprReg> operandos) {
+        return nario(TipoNodo.CONCATENACION, operandos);
+    }
+    
+    /**
+     * Crea un nodo que aplica un operador unario a otro nodo.
+     * @param tipo El operador: <code>CERRADURA_KLEENE</code>,
+     * <code>CERRADURA_POSITIVA</code> u <code>OPCION</code>.
+     * @param operando El nodo sobre el cual se aplica el operador.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg unario(TipoNodo tipo, NodoExprReg operando) {
+        return new NodoExprReg(tipo, null, new NodoExprReg[] { operando });
+    }
+    
+    /**
+     * Crea un nodo de repetición acotada.
+     * @param operando El nodo a repetir.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1
+     * si no hay cota superior.
+     * @return El nodo creado.
+     */
+    public static NodoExprReg repeticion(NodoExprReg operando, int minimo, int maximo) {
+        return new NodoExprReg(TipoNodo.REPETICION, null, new NodoExprReg[] { operando }, minimo, maximo);
+    }
+    
+    /**
+     * Crea un nodo de unión o concatenación.
+     * @param tipo El tipo del nodo.
+     * @param operandos Los operandos del nodo.
+     * @return El nodo creado.
+     */
+    private static NodoExprReg nario(TipoNodo tipo, List<NodoExprReg> operandos) {
+        if (operandos.size() == 1)
+            return operandos.get(0);
+        
+        return new NodoExprReg(tipo, null, operandos.toArray(new NodoExprReg[operandos.size()]));
+    }
+    
+    /**
+     * Obtiene el tipo de este nodo.
+     * @return El tipo de este nodo.
+     */
+    public TipoNodo getTipo() {
+        return tipo;
+    }
+    
+    /**
+     * Obtiene el símbolo de este nodo.
+     * @return El símbolo de este nodo, o <code>null</code>
+     * si no es un nodo de tipo <code>SIMBOLO</code>.
+     */
+    public String getSimbolo() {
+        return simbolo;
+    }
+    
+    /**
+     * Obtiene el conjunto de símbolos de este nodo.
+     * @return El conjunto de símbolos de este nodo, o <code>null</code>
+     * si no es un nodo de tipo <code>CLASE</code>.
+     */
+    public ConjuntoSimbolos getClase() {
+        return clase;
+    }
+    
+    /**
+     * Obtiene la cantidad mínima de repeticiones de este nodo.
+     * @return La cota inferior de un nodo de tipo <code>REPETICION</code>.
+     */
+    public int getMinimo() {
+        return minimo;
+    }
+    
+    /**
+     * Obtiene la cantidad máxima de repeticiones de este nodo.
+     * @return La cota superior de un nodo de tipo <code>REPETICION</code>,
+     * o -1 si no hay cota superior.
+     */
+    public int getMaximo() {
+        return maximo;
+    }
+    
+    /**
+     * Obtiene la cantidad de hijos de este nodo.
+     * @return La cantidad de hijos de este nodo.
+     */
+    public int cantidadHijos() {
+        return hijos.length;
+    }
+    
+    /**
+     * Obtiene un hijo de este nodo.
+     * @param pos La posición del hijo.
+     * @return El hijo en la posición <code>pos</code>.
+     */
+    public NodoExprReg getHijo(int pos) {
+        return hijos[pos];
+    }
+    
+    /**
+     * Determina si este nodo es el símbolo vacío.
+     * @return <code>true</code> si este nodo es el símbolo
+     * vacío, <code>false</code> en caso contrario.
+     */
+    public boolean esVacio() {
+        return tipo == TipoNodo.SIMBOLO && simbolo.equals(Alfabeto.VACIO);
+    }
+    
+    /**
+     * Determina si el lenguaje de este nodo contiene a la
+     * cadena vacía.
+     * @return <code>true</code> si este nodo acepta la cadena
+     * vacía, <code>false</code> en caso contrario.
+     */
+    public boolean getAnulable() {
+        return anulable;
+    }
+    
+    /**
+     * Obtiene la cantidad de nodos del árbol que tiene a este
+     * nodo como raíz.
+     * @return La cantidad de nodos del árbol.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    /**
+     * Obtiene los nodos del árbol que tiene a este nodo como raíz,
+     * en postorden, con los hijos de izquierda a derecha. Un nodo
+     * compartido aparece tantas veces como es referenciado.<br><br>
+     * Evaluar la lista en orden, retirando de una pila los resultados
+     * de los hijos de cada nodo, equivale a un recorrido recursivo.
+     * @return La lista de nodos en postorden.
+     */
+    public List<NodoExprReg> postorden() {
+        Vector<NodoExprReg> salida = new Vector<NodoExprReg>(tamanho);
+        Stack<NodoExprReg> pila = new Stack<NodoExprReg>();
+        
+        pila.push(this);
+        while (!pila.isEmpty()) {
+            NodoExprReg actual = pila.pop();
+            salida.add(actual);
+            
+            for (NodoExprReg hijo : actual.hijos)
+                pila.push(hijo);
+        }
+        
+        /* Invertimos el preorden derecho para obtener el postorden */
+        for (int i=0, j=salida.size() - 1; i < j; i++, j--) {
+            NodoExprReg tmp = salida.get(i);
+            salida.set(i, salida.get(j));
+            salida.set(j, tmp);
+        }
+        
+        return salida;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null)
+            return false;
+        
+        if (getClass() != obj.getClass())
+            return false;
+        
+        Stack<NodoExprReg> pila = new Stack<NodoExprReg>();
+        pila.push(this);
+        pila.push((NodoExprReg) obj);
+        
+        while (!pila.isEmpty()) {
+            NodoExprReg a = pila.pop();
+            NodoExprReg b = pila.pop();
+            
+            if (a == b)
+                continue;
+            
+            if (a.hash != b.hash || a.tipo != b.tipo || a.hijos.length != b.hijos.length)
+                return false;
+            
+            if (a.minimo != b.minimo || a.maximo != b.maximo)
+                return false;
+            
+            if (a.simbolo != null && !a.simbolo.equals(b.simbolo))
+                return false;
+            
+            for (int i=0; i < a.hijos.length; i++) {
+                pila.push(a.hijos[i]);
+                pila.push(b.hijos[i]);
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuffer str = new StringBuffer();
+        
+        /* Pila de nodos pendientes y de cadenas a agregar tal cual */
+        Stack<Object> pila = new Stack<Object>();
+        pila.push(this);
+        
+        while (!pila.isEmpty()) {
+            Object tope = pila.pop();
+            
+            if (tope instanceof String) {
+                str.append((String) tope);
+                continue;
+            }
+            
+            NodoExprReg actual = (NodoExprReg) tope;
+            switch (actual.tipo) {
+                case SIMBOLO:
+                case CLASE:
+                    str.append(actual.simbolo);
+                    break;
+                case UNION:
+                case CONCATENACION:
+                    for (int i = actual.hijos.length - 1; i >= 0; i--) {
+                        NodoExprReg hijo = actual.hijos[i];
+                        boolean parentesis = actual.tipo == TipoNodo.CONCATENACION
+                                          && hijo.tipo == TipoNodo.UNION;
+                        
+                        if (parentesis)
+                            pila.push(")");
+                        pila.push(hijo);
+                        if (parentesis)
+                            pila.push("(");
+                        if (i > 0 && actual.tipo == TipoNodo.UNION)
+                            pila.push("|");
+                    }
+                    break;
+                default:
+                    NodoExprReg hijo = actual.hijos[0];
+                    boolean parentesis = hijo.tipo != TipoNodo.SIMBOLO
+                                      && hijo.tipo != TipoNodo.CLASE;
+                    
+                    pila.push(operador(actual));
+                    if (parentesis)
+                        pila.push(")");
+                    pila.push(hijo);
+                    if (parentesis)
+                        pila.push("(");
+            }
+        }
+        
+        return str.toString();
+    }
+    
+    /**
+     * Obtiene la representación del operador unario de un nodo.
+     * @param nodo El nodo del operador.
+     * @return La cadena que representa al operador.
+     */
+    private static String operador(NodoExprReg nodo) {
+        switch (nodo.tipo) {
+            case CERRADURA_KLEENE:
+                return "*";
+            case CERRADURA_POSITIVA:
+                return "+";
+            case REPETICION:
+                if (nodo.minimo == nodo.maximo)
+                    return "{" + nodo.minimo + "}";
+                else if (nodo.maximo < 0)
+                    return "{" + nodo.minimo + ",}";
+                else
+                    return "{" + nodo.minimo + "," + nodo.maximo + "}";
+            default:
+                return "?";
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import estructuras.Log;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.Vector;
+
+/**
+ * Esta clase implementa la simplificación algebraica del árbol
+ * sintáctico de una expresión regular, previa a la construcción
+ * de su autómata. Un árbol más pequeño produce un AFN con menos
+ * estados y, por lo tanto, un algoritmo de subconjuntos más rápido.
+ * <br><br>
+ * Las reglas aplicadas son:
+ * <ul>
+ * <li>Cerraduras anidadas: <code>(a*)* = (a+)* = (a?)* = (a*)+ = (a*)? = a*</code>,
+ * <code>(a+)+ = a+</code>, <code>(a?)? = a?</code>, <code>(a?)+ = (a+)? = a*</code>.</li>
+ * <li>Aplanamiento de uniones y concatenaciones anidadas, lo que
+ * elimina los paréntesis redundantes.</li>
+ * <li>Eliminación de operandos repetidos en una unión: <code>x|x = x</code>.</li>
+ * <li>Eliminación del símbolo vacío en concatenaciones, y su reemplazo
+ * por el operador de opción en las uniones: <code>x|€ = x?</code>.</li>
+ * <li>Factorización de prefijos comunes: <code>ab|ac = a(b|c)</code>.</li>
+ * <li>Repeticiones equivalentes a otros operadores: <code>a{1} = a</code>,
+ * <code>a{0,1} = a?</code>, <code>a{0,} = a*</code>, <code>a{1,} = a+</code>.</li>
+ * </ul>
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class OptimizadorExprReg {
+    
+    /**
+     * Log para el proceso de optimización.
+     */
+    private static Log log = new Log();
+    
+    /**
+     * Simplifica el árbol sintáctico de una expresión regular. El
+     * árbol resultante describe el mismo lenguaje que el original.
+     * @param arbol La raíz del árbol a simplificar.
+     * @return La raíz del árbol simplificado.
+     */
+    public static NodoExprReg optimizar(NodoExprReg arbol) {
+        // Logging
+        log.vaciar();
+        log.agregar("Optimización de la expresión regular".toUpperCase()).nuevaLinea();
+        log.agregar("------------------------------------").nuevaLinea().nuevaLinea();
+        log.agregar("Antes:   " + arbol + " (" + arbol.getTamanho() + " nodos)").nuevaLinea();
+        
+        /* Pila con los nodos ya simplificados */
+        Stack<NodoExprReg> pila = new Stack<NodoExprReg>();
+        
+        for (NodoExprReg nodo : arbol.postorden()) {
+            /* Recuperamos los hijos simplificados, en orden */
+            Vector<NodoExprReg> hijos = new Vector<NodoExprReg>();
+            hijos.setSize(nodo.cantidadHijos());
+            for (int i = nodo.cantidadHijos() - 1; i >= 0; i--)
+                hijos.set(i, pila.pop());
+            
+            switch (nodo.getTipo()) {
+                case SIMBOLO:
+                case CLASE:
+                    pila.push(nodo);
+                    break;
+                case UNION:
+                    pila.push(simplificarUnion(hijos));
+                    break;
+                case CONCATENACION:
+                    pila.push(simplificarConcatenacion(hijos));
+                    break;
+                case REPETICION:
+                    pila.push(simplificarRepeticion(nodo.getMinimo(), nodo.getMaximo(), hijos.get(0)));
+                    break;
+                default:
+                    pila.push(simplificarUnario(nodo.getTipo(), hijos.get(0)));
+            }
+        }
+        
+        NodoExprReg salida = pila.pop();
+        
+        // Logging
+        log.agregar("Después: " + salida + " (" + salida.getTamanho() + " nodos)").nuevaLinea();
+        
+        return salida;
+    }
+    
+    /**
+     * Simplifica la aplicación de un operador unario sobre
+     * un nodo ya simplificado.
+     * @param tipo El operador.
+     * @param operando El operando simplificado.
+     * @return El nodo simplificado.
+     */
+    private static NodoExprReg simplificarUnario(TipoNodo tipo, NodoExprReg operando) {
+        /* Cualquier cerradura del vacío es el vacío */
+        if (operando.esVacio())
+            return operando;
+        
+        TipoNodo interior = operando.getTipo();
+        boolean anidado = interior == TipoNodo.CERRADURA_KLEENE
+                       || interior == TipoNodo.CERRADURA_POSITIVA
+                       || interior == TipoNodo.OPCION;
+        
+        switch (tipo) {
+            case CERRADURA_KLEENE:
+                /* (a*)* = (a+)* = (a?)* = a* */
+                if (anidado)
+                    return NodoExprReg.unario(TipoNodo.CERRADURA_KLEENE, operando.getHijo(0));
+                break;
+            case CERRADURA_POSITIVA:
+                /* (a*)+ = a*, (a+)+ = a+ */
+                if (interior == TipoNodo.CERRADURA_KLEENE || interior == TipoNodo.CERRADURA_POSITIVA)
+                    return operando;
+                
+                /* (a?)+ = a* */
+                if (interior == TipoNodo.OPCION)
+                    return NodoExprReg.unario(TipoNodo.CERRADURA_KLEENE, operando.getHijo(0));
+                
+                /* Si el operando acepta la cadena vacía, x+ = x* */
+                if (operando.getAnulable())
+                    return NodoExprReg.unario(TipoNodo.CERRADURA_KLEENE, operando);
+                break;
+            default:
+                /* (a+)? = a* */
+                if (interior == TipoNodo.CERRADURA_POSITIVA)
+                    return NodoExprReg.unario(TipoNodo.CERRADURA_KLEENE, operando.getHijo(0));
+                
+                /* Si el operando acepta la cadena vacía, x? = x */
+                if (operando.getAnulable())
+                    return operando;
+        }
+        
+        return NodoExprReg.unario(tipo, operando);
+    }
+    
+    /**
+     * Simplifica una repetición acotada de un nodo ya simplificado,
+     * reemplazándola por el operador equivalente cuando lo hay.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1.
+     * @param operando El operando simplificado.
+     * @return El nodo simplificado.
+     */
+    private static NodoExprReg simplificarRepeticion(int minimo, int maximo, NodoExprReg operando) {
+        /* Cualquier repetición del vacío es el vacío, y x{0} = € */
+        if (operando.esVacio() || maximo == 0)
+            return NodoExprReg.vacio();
+        
+        if (minimo == 1 && maximo == 1)
+            return operando;
+        
+        if (minimo == 0 && maximo == 1)
+            return simplificarUnario(TipoNodo.OPCION, operando);
+        
+        if (minimo == 0 && maximo < 0)
+            return simplificarUnario(TipoNodo.CERRADURA_KLEENE, operando);
+        
+        if (minimo == 1 && maximo < 0)
+            return simplificarUnario(TipoNodo.CERRADURA_POSITIVA, operando);
+        
+        return NodoExprReg.repeticion(operando, minimo, maximo);
+    }
+    
+    /**
+     * Simplifica una concatenación de nodos ya simplificados.
+     * @param operandos Los operandos simplificados.
+     * @return El nodo simplificado.
+     */
+    private static NodoExprReg simplificarConcatenacion(List<NodoExprReg> operandos) {
+        Vector<NodoExprReg> factores = new Vector<NodoExprReg>();
+        
+        for (NodoExprReg operando : operandos)
+            agregarFactores(factores, operando);
+        
+        if (factores.isEmpty())
+            return NodoExprReg.vacio();
+        
+        return NodoExprReg.concatenacion(factores);
+    }
+    
+    /**
+     * Agrega los factores de un nodo a una lista de factores,
+     * aplanando las concatenaciones y omitiendo el vacío.
+     * @param factores La lista de factores.
+     * @param nodo El nodo cuyos factores se agregan.
+     */
+    private static void agregarFactores(List<NodoExprReg> factores, NodoExprReg nodo) {
+        if (nodo.getTipo() == TipoNodo.CONCATENACION) {
+            for (int i=0; i < nodo.cantidadHijos(); i++)
+                factores.add(nodo.getHijo(i));
+        }
+        else if (!nodo.esVacio()) {
+            factores.add(nodo);
+        }
+    }
+    
+    /**
+     * Simplifica una unión de nodos ya simplificados: aplana las
+     * uniones anidadas, elimina los repetidos, factoriza los prefijos
+     * comunes y reemplaza al vacío por el operador de opción.<br><br>
+     * La factorización de un grupo de ramas produce una nueva unión
+     * con los restos de las ramas, que a su vez se simplifica. Para no
+     * depender de la pila de llamadas, las uniones pendientes se
+     * procesan con una pila explícita de <code>Factorizacion</code>es.
+     * @param operandos Los operandos simplificados.
+     * @return El nodo simplificado.
+     */
+    private static NodoExprReg simplificarUnion(List<NodoExprReg> operandos) {
+        Stack<Factorizacion> pendientes = new Stack<Factorizacion>();
+        Factorizacion raiz = new Factorizacion(operandos, null, null, 0);
+        pendientes.push(raiz);
+        
+        while (!pendientes.isEmpty()) {
+            Factorizacion actual = pendientes.pop();
+            
+            for (Factorizacion hija : factorizar(actual))
+                pendientes.push(hija);
+            
+            /* Completamos las uniones que ya no esperan ningún resto */
+            while (actual != null && actual.faltantes == 0) {
+                Factorizacion padre = actual.padre;
+                
+                if (padre != null) {
+                    Vector<NodoExprReg> factores = new Vector<NodoExprReg>(actual.prefijo);
+                    agregarFactores(factores, actual.resultado());
+                    
+                    padre.ramas.set(actual.posicion, NodoExprReg.concatenacion(factores));
+                    padre.faltantes--;
+                }
+                
+                actual = padre;
+            }
+        }
+        
+        return raiz.resultado();
+    }
+    
+    /**
+     * Factoriza los prefijos comunes de las ramas de una unión:
+     * las ramas que comienzan con el mismo factor se agrupan en una
+     * sola rama, <code>ab|ac = a(b|c)</code>. Cada grupo ocupa el
+     * lugar de la primera rama que lo forma, y se factoriza de una
+     * sola vez el prefijo común más largo de todas sus ramas:
+     * <code>abcd|abce = abc(d|e)</code>.
+     * @param union La unión a factorizar. Sus operandos se reemplazan
+     * por las ramas factorizadas.
+     * @return Las uniones de los restos de cada grupo, que deben
+     * simplificarse antes de completar <code>union</code>.
+     */
+    private static List<Factorizacion> factorizar(Factorizacion union) {
+        /* Agrupamos las ramas sin repetidos ni vacíos según su primer factor */
+        Map<NodoExprReg, Vector<NodoExprReg>> grupos = new LinkedHashMap<NodoExprReg, Vector<NodoExprReg>>();
+        
+        for (NodoExprReg rama : ramas(union)) {
+            NodoExprReg prefijo = primerFactor(rama);
+            Vector<NodoExprReg> grupo = grupos.get(prefijo);
+            
+            if (grupo == null) {
+                grupo = new Vector<NodoExprReg>();
+                grupos.put(prefijo, grupo);
+            }
+            
+            grupo.add(rama);
+        }
+        
+        union.ramas = new Vector<NodoExprReg>();
+        Vector<Factorizacion> hijas = new Vector<Factorizacion>();
+        
+        for (Vector<NodoExprReg> ramas : grupos.values()) {
+            if (ramas.size() == 1) {
+                union.ramas.add(ramas.get(0));
+                continue;
+            }
+            
+            Vector<NodoExprReg[]> grupo = new Vector<NodoExprReg[]>();
+            for (NodoExprReg rama : ramas)
+                grupo.add(factores(rama));
+            
+            NodoExprReg[] primera = grupo.get(0);
+            
+            /* Longitud del prefijo común a todas las ramas del grupo */
+            int comun = primera.length;
+            for (NodoExprReg[] factores : grupo) {
+                int i = 1;
+                while (i < comun && i < factores.length && factores[i].equals(primera[i]))
+                    i++;
+                
+                comun = i;
+            }
+            
+            /* Restos de cada rama luego del prefijo común */
+            Vector<NodoExprReg> restos = new Vector<NodoExprReg>();
+            for (NodoExprReg[] factores : grupo) {
+                if (factores.length == comun)
+                    restos.add(NodoExprReg.vacio());
+                else
+                    restos.add(NodoExprReg.concatenacion(Arrays.asList(factores).subList(comun, factores.length)));
+            }
+            
+            List<NodoExprReg> prefijo = Arrays.asList(primera).subList(0, comun);
+            hijas.add(new Factorizacion(restos, prefijo, union, union.ramas.size()));
+            union.ramas.add(null);
+            union.faltantes++;
+        }
+        
+        return hijas;
+    }
+    
+    /**
+     * Obtiene las ramas de una unión sin factorizar, aplanando las
+     * uniones anidadas y eliminando los repetidos y el vacío.
+     * @param union La unión.
+     * @return Las ramas, en el orden de su primera aparición.
+     */
+    private static Vector<NodoExprReg> ramas(Factorizacion union) {
+        LinkedHashMap<NodoExprReg, NodoExprReg> vistos = new LinkedHashMap<NodoExprReg, NodoExprReg>();
+        for (NodoExprReg operando : union.ramas) {
+            if (operando.getTipo() == TipoNodo.UNION) {
+                for (int i=0; i < operando.cantidadHijos(); i++)
+                    vistos.put(operando.getHijo(i), operando.getHijo(i));
+            }
+            else {
+                vistos.put(operando, operando);
+            }
+        }
+        
+        Vector<NodoExprReg> ramas = new Vector<NodoExprReg>();
+        for (NodoExprReg rama : vistos.keySet()) {
+            if (rama.esVacio())
+                union.tieneVacio = true;
+            else
+                ramas.add(rama);
+        }
+        
+        return ramas;
+    }
+    
+    /**
+     * Obtiene el primer factor de una rama.
+     * @param rama La rama.
+     * @return El primer factor de la concatenación, o la
+     * misma rama si no es una concatenación.
+     */
+    private static NodoExprReg primerFactor(NodoExprReg rama) {
+        if (rama.getTipo() == TipoNodo.CONCATENACION)
+            return rama.getHijo(0);
+        else
+            return rama;
+    }
+    
+    /**
+     * Obtiene los factores de una rama.
+     * @param rama La rama.
+     * @return Los hijos de la concatenación, o la misma
+     * rama si no es una concatenación.
+     */
+    private static NodoExprReg[] factores(NodoExprReg rama) {
+        if (rama.getTipo() != TipoNodo.CONCATENACION)
+            return new NodoExprReg[] { rama };
+        
+        NodoExprReg[] factores = new NodoExprReg[rama.cantidadHijos()];
+        for (int i=0; i < factores.length; i++)
+            factores[i] = rama.getHijo(i);
+        
+        return factores;
+    }
+    
+    /**
+     * Unión pendiente de simplificar, formada por los restos de un
+     * grupo de ramas con un prefijo común. Una vez simplificada, se
+     * concatena a su prefijo y ocupa el lugar del grupo en la unión
+     * que la originó.
+     */
+    private static class Factorizacion {
+        
+        /**
+         * Operandos de la unión y, luego de factorizarla, sus ramas.
+         */
+        Vector<NodoExprReg> ramas;
+        
+        /**
+         * Factores comunes a todas las ramas del grupo.
+         */
+        List<NodoExprReg> prefijo;
+        
+        /**
+         * Unión de la cual proviene el grupo, o <code>null</code>.
+         */
+        Factorizacion padre;
+        
+        /**
+         * Posición del grupo entre las ramas de <code>padre</code>.
+         */
+        int posicion;
+        
+        /**
+         * Cantidad de ramas que esperan la simplificación de sus restos.
+         */
+        int faltantes;
+        
+        /**
+         * Indica si alguno de los operandos es el vacío.
+         */
+        boolean tieneVacio;
+        
+        Factorizacion(List<NodoExprReg> operandos, List<NodoExprReg> prefijo, Factorizacion padre, int posicion) {
+            this.ramas = new Vector<NodoExprReg>(operandos);
+            this.prefijo = prefijo;
+            this.padre = padre;
+            this.posicion = posicion;
+        }
+        
+        /**
+         * Construye el nodo de la unión, una vez factorizadas sus ramas.
+         * @return El nodo simplificado.
+         */
+        NodoExprReg resultado() {
+            if (ramas.isEmpty())
+                return NodoExprReg.vacio();
+            
+            NodoExprReg salida = NodoExprReg.union(ramas);
+            
+            /* x|€ = x?, salvo que x ya acepte la cadena vacía */
+            if (tieneVacio)
+                salida = simplificarUnario(TipoNodo.OPCION, salida);
+            
+            return salida;
+        }
+    }
+    
+    /**
+     * Obtiene el <code>Log</code> de esta clase.
+     * @return El <code>Log</code> correspondiente
+     * al proceso de optimización.
+     */
+    public static Log getLog() {
+        return log;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+/**
+ * Enumeración que representa los posibles tipos de nodo del
+ * árbol sintáctico de una expresión regular.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ * @see NodoExprReg
+ */
+public enum TipoNodo {
+    /**
+     * Un símbolo del alfabeto o el símbolo vacío.
+     */
+    SIMBOLO,
+    
+    /**
+     * Una clase de caracteres: un conjunto de símbolos del alfabeto.
+     */
+    CLASE,
+    
+    /**
+     * Unión de dos o más expresiones regulares.
+     */
+    UNION,
+    
+    /**
+     * Concatenación de dos o más expresiones regulares.
+     */
+    CONCATENACION,
+    
+    /**
+     * Cerradura de Kleene de una expresión regular.
+     */
+    CERRADURA_KLEENE,
+    
+    /**
+     * Cerradura positiva de una expresión regular.
+     */
+    CERRADURA_POSITIVA,
+    
+    /**
+     * Opción de una expresión regular.
+     */
+    OPCION,
+    
+    /**
+     * Repetición acotada de una expresión regular, entre
+     * una cantidad mínima y una máxima de veces.
+     */
+    REPETICION
+}
@@ -5,6 +5,8 @@
  */
 package analisis;
 
+import estructuras.ConjuntoSimbolos;
+
 /**
  * Clase que representa un token de una expresión regular. El token
  * tiene dos atributos: identificador y valor.
@@ -14,6 +16,41 @@ package analisis;
  */
 public class Token {
     
+    /**
+     * Token compartido para el operador de cerradura de Kleene.
+     */
+    public static final Token CERRADURA_KLEENE = crearCompartido(TokenExprReg.CERRADURA_KLEENE);
+
+    /**
+     * Token compartido para el operador de cerradura positiva.
+     */
+    public static final Token CERRADURA_POSITIVA = crearCompartido(TokenExprReg.CERRADURA_POSITIVA);
+
+    /**
+     * Token compartido para el operador de opción.
+     */
+    public static final Token OPCION = crearCompartido(TokenExprReg.OPCION);
+
+    /**
+     * Token compartido para el operador de unión.
+     */
+    public static final Token UNION = crearCompartido(TokenExprReg.UNION);
+
+    /**
+     * Token compartido para el paréntesis izquierdo.
+     */
+    public static final Token PAREN_IZQUIERDO = crearCompartido(TokenExprReg.PAREN_IZQUIERDO);
+
+    /**
+     * Token compartido para el paréntesis derecho.
+     */
+    public static final Token PAREN_DERECHO = crearCompartido(TokenExprReg.PAREN_DERECHO);
+
+    /**
+     * Token compartido para el finalizador de la expresión regular.
+     */
+    public static final Token FINAL = crearCompartido(TokenExprReg.FINAL);
+
     /**
      * Identificador del token.
      */
@@ -24,6 +61,24 @@ public class Token {
      */
     private String valor;
     
+    /**
+     * Símbolos del alfabeto que representa el token,
+     * solo para las clases de caracteres.
+     */
+    private ConjuntoSimbolos clase;
+    
+    /**
+     * Cantidad mínima de repeticiones, solo para
+     * el operador de repetición acotada.
+     */
+    private int minimo;
+    
+    /**
+     * Cantidad máxima de repeticiones, solo para el operador
+     * de repetición acotada. Es -1 si no hay cota superior.
+     */
+    private int maximo;
+    
     /**
      * Constructor por defecto.
      * @param token El tipo de token que deseamos crear.
@@ -89,6 +144,51 @@ public class Token {
         }
     }
     
+    /**
+     * Constructor para clases de caracteres.
+     * @param lexema La clase de caracteres, tal como fue escrita
+     * en la expresión regular.
+     * @param clase Los símbolos del alfabeto que pertenecen a la clase.
+     */
+    public Token(String lexema, ConjuntoSimbolos clase) {
+        ident = TokenExprReg.CLASE;
+        valor = lexema;
+        this.clase = clase;
+    }
+    
+    /**
+     * Constructor para el operador de repetición acotada.
+     * @param lexema El operador, tal como fue escrito en la
+     * expresión regular.
+     * @param minimo La cantidad mínima de repeticiones.
+     * @param maximo La cantidad máxima de repeticiones, o -1
+     * si no hay cota superior.
+     */
+    public Token(String lexema, int minimo, int maximo) {
+        ident = TokenExprReg.REPETICION;
+        valor = lexema;
+        this.minimo = minimo;
+        this.maximo = maximo;
+    }
+    
+    /**
+     * Crea una de las instancias compartidas de esta clase. Como un
+     * <code>Token</code> no puede ser modificado una vez creado, el
+     * Analizador Léxico puede retornar siempre la misma instancia para
+     * los operadores en lugar de construir una nueva por cada lexema.
+     * @param token El tipo de token a crear.
+     * @return El <code>Token</code> creado.
+     */
+    private static Token crearCompartido(TokenExprReg token) {
+        try {
+            return new Token(token);
+        }
+        catch (Exception ex) {
+            /* Los tipos utilizados en esta clase siempre son válidos */
+            throw new IllegalStateException(ex.getMessage());
+        }
+    }
+
     /**
      * Devuelve el atributo <i>identificador</i> del token.
      * @return Identificador del token.
@@ -104,6 +204,32 @@ public class Token {
     public String getValor() {
         return valor;
     }
+    
+    /**
+     * Devuelve los símbolos del alfabeto que representa el token.
+     * @return El conjunto de símbolos de una clase de caracteres,
+     * o <code>null</code> si el token no es una clase.
+     */
+    public ConjuntoSimbolos getClase() {
+        return clase;
+    }
+    
+    /**
+     * Devuelve la cantidad mínima de repeticiones.
+     * @return La cota inferior del operador de repetición acotada.
+     */
+    public int getMinimo() {
+        return minimo;
+    }
+    
+    /**
+     * Devuelve la cantidad máxima de repeticiones.
+     * @return La cota superior del operador de repetición acotada,
+     * o -1 si no hay cota superior.
+     */
+    public int getMaximo() {
+        return maximo;
+    }
 
     @Override
     public String toString() {
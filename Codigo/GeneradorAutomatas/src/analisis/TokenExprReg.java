@@ -43,6 +43,11 @@ public enum TokenExprReg {
      */
     OPCION,
     
+    /**
+     * Operador de repetición acotada, "{m}", "{m,}" o "{m,n}".
+     */
+    REPETICION,
+    
     /**
      * Operador de concatenación (no tiene dibujo).
      */
@@ -53,6 +58,11 @@ public enum TokenExprReg {
      */
     ALFABETO,
     
+    /**
+     * Una clase de caracteres, "[...]", "[^...]" o ".".
+     */
+    CLASE,
+    
     /**
      * Finalizador de una expresión regular (EOF).
      */
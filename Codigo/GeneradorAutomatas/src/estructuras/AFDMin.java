@@ -45,6 +45,13 @@ public class AFDMin {
      */
     private AFD afdPostIdentidades;
     
+    /**
+     * Indica si la minimización terminó, o si fue
+     * interrumpida y el AFD resultante puede tener
+     * más estados que el mínimo.
+     */
+    private boolean esMinimo;
+    
     /**
      * Construye un <code>AFDMin</code>.
      * @param afdOriginal El <code>AFD</code> a partir del cual fue construido este <code>AFDMin</code>.
@@ -53,10 +60,23 @@ public class AFDMin {
      * @param afdPostIdentidades El <code>AFD</code> resultante de la eliminación de estados identidades.
      */
     public AFDMin(AFD afdOriginal, AFD afdPostInalcanzables, AFD afdPostMinimizacion, AFD afdPostIdentidades) {
+        this(afdOriginal, afdPostInalcanzables, afdPostMinimizacion, afdPostIdentidades, true);
+    }
+    
+    /**
+     * Construye un <code>AFDMin</code>, indicando si la minimización terminó.
+     * @param afdOriginal El <code>AFD</code> a partir del cual fue construido este <code>AFDMin</code>.
+     * @param afdPostInalcanzables El <code>AFD</code> resultante de la eliminación de estados inalcanzables.
+     * @param afdPostMinimizacion El <code>AFD</code> resultante del proceso de minimización.
+     * @param afdPostIdentidades El <code>AFD</code> resultante de la eliminación de estados identidades.
+     * @param esMinimo <code>false</code> si la minimización fue interrumpida.
+     */
+    public AFDMin(AFD afdOriginal, AFD afdPostInalcanzables, AFD afdPostMinimizacion, AFD afdPostIdentidades, boolean esMinimo) {
         this.afdOriginal          = afdOriginal;
         this.afdPostInalcanzables = afdPostInalcanzables;
         this.afdPostMinimizacion  = afdPostMinimizacion;
         this.afdPostIdentidades   = afdPostIdentidades;
+        this.esMinimo             = esMinimo;
     }
     
     /**
@@ -91,6 +111,17 @@ public class AFDMin {
         return afdPostIdentidades;
     }
     
+    /**
+     * Indica si la minimización terminó. En caso contrario, el
+     * <code>AFD</code> resultante es equivalente al original,
+     * pero puede tener más estados que el mínimo.
+     * @return <code>true</code> si la minimización terminó,
+     * <code>false</code> si fue interrumpida.
+     */
+    public boolean getEsMinimo() {
+        return esMinimo;
+    }
+    
     /**
      * Verifica si la eliminación de estados inalcanzables produjo algún
      * cambio sobre el <code>AFD</code> original.
@@ -41,6 +41,11 @@ public abstract class Automata {
      * Alfabeto para este autómata.
      */
     protected String LogProceso;
+    
+    /**
+     * Tabla de cerraduras vacías de los estados del autómata.
+     */
+    private TablaCerraduras tablaCerraduras;
    
     /**
      * Constructor por defecto.
@@ -178,6 +183,33 @@ public abstract class Automata {
         return estados.cantidad();
     }
     
+    /**
+     * Recupera la cantidad de transiciones del <code>Automata</code>,
+     * sumando las transiciones de todos sus <code>Estado</code>s.
+     * @return Cantidad de transiciones del <code>Automata</code>.
+     */
+    public int cantidadTransiciones() {
+        int cantidad = 0;
+        for (Estado tmp : estados)
+            cantidad += tmp.getTransiciones().cantidad();
+        
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene la tabla de cerraduras vacías de los <code>Estado</code>s
+     * de este <code>Automata</code>. La tabla se calcula la primera vez
+     * y se vuelve a calcular solamente si el <code>Automata</code> fue
+     * modificado desde entonces.
+     * @return La <code>TablaCerraduras</code> de este <code>Automata</code>.
+     */
+    public TablaCerraduras getTablaCerraduras() {
+        if (tablaCerraduras == null || !tablaCerraduras.esValida())
+            tablaCerraduras = new TablaCerraduras(this);
+        
+        return tablaCerraduras;
+    }
+    
     /**
      * Establece a <code>false</code> el estado de visitado de todos los 
      * <code>Estado</code>s de este <code>Automata</code>. Útil para
@@ -225,13 +257,18 @@ public abstract class Automata {
             int fil = e.getIdentificador();
             
             for (Transicion t : e.getTransiciones()) {
-                int col = getAlfabeto().obtenerPosicion(t.getSimbolo());
+                int id = t.getEstado().getIdentificador();
                 
-                if (datos[fil][col + colDesde + 1] == null)
-                    datos[fil][col + colDesde + 1] = new Conjunto<Integer>();
+                if (t.getClase() == null) {
+                    int col = getAlfabeto().obtenerPosicion(t.getSimbolo());
+                    agregarCelda(datos, fil, col + colDesde + 1, id);
+                    continue;
+                }
                 
-                int id = t.getEstado().getIdentificador();
-                ((Conjunto<Integer>) datos[fil][col + colDesde + 1]).agregar(id);
+                /* Una transición por conjunto ocupa la columna de cada símbolo */
+                for (int col=0; col < getAlfabeto().getCantidad(); col++)
+                    if (t.acepta(getAlfabeto().getSimbolo(col)))
+                        agregarCelda(datos, fil, col + colDesde + 1, id);
             }
         }
         
@@ -252,6 +289,21 @@ public abstract class Automata {
         return new TablaTransicion(cabecera, datos);
     }
     
+    /**
+     * Agrega un identificador de estado a una celda de la tabla
+     * de transición de estados.
+     * @param datos Datos de la tabla de transiciones.
+     * @param fil Fila de la celda.
+     * @param col Columna de la celda.
+     * @param id Identificador del estado destino.
+     */
+    private static void agregarCelda(Object[][] datos, int fil, int col, int id) {
+        if (datos[fil][col] == null)
+            datos[fil][col] = new Conjunto<Integer>();
+        
+        ((Conjunto<Integer>) datos[fil][col]).agregar(id);
+    }
+    
     @Override
     public String toString() {
         String str = "";
@@ -342,10 +394,9 @@ public abstract class Automata {
         
         for (Transicion trans : transiciones) {
             int idDestino = trans.getEstado().getIdentificador();
-            String simbolo = trans.getSimbolo();
 
             Estado estadoDestino = afDestino.getEstado(idDestino + incrementoTrans);
-            Transicion nuevaTrans = new Transicion(estadoDestino, simbolo);
+            Transicion nuevaTrans = trans.copiar(estadoDestino);
 
             objetivo.getTransiciones().agregar(nuevaTrans);
         }
@@ -28,6 +28,61 @@ public class Configuracion {
     @Element
     private String tempPath;
     
+    /**
+     * Indica si el AFD se construye directamente a partir
+     * de la expresión regular, sin construir el AFN.
+     */
+    @Element(required=false)
+    private boolean afdDirecto;
+    
+    /**
+     * Indica si el AFN se reduce antes de convertirlo a un AFD.
+     */
+    @Element(required=false)
+    private boolean reducirAFN;
+    
+    /**
+     * Cantidad de hilos para convertir el AFN a un AFD.
+     * Con un hilo o menos, la conversión no es paralela.
+     */
+    @Element(required=false)
+    private int hilosSubconjuntos;
+    
+    /**
+     * Cantidad de hilos para minimizar el AFD.
+     * Con un hilo o menos, la minimización no es paralela.
+     */
+    @Element(required=false)
+    private int hilosMinimizacion;
+    
+    /**
+     * Indica si el AFD se minimiza en forma incremental, de manera
+     * que al excederse un límite se obtiene el AFD reducido hasta
+     * ese momento. Es cuadrática en la cantidad de estados.
+     */
+    @Element(required=false)
+    private boolean minimizacionIncremental;
+    
+    /**
+     * Cantidad máxima de estados del AFD, o 0 si no hay límite.
+     */
+    @Element(required=false)
+    private int maxEstadosAFD;
+    
+    /**
+     * Memoria máxima aproximada en MB para construir
+     * los autómatas, o 0 si no hay límite.
+     */
+    @Element(required=false)
+    private int maxMemoriaMB;
+    
+    /**
+     * Tiempo máximo en segundos para construir
+     * los autómatas, o 0 si no hay límite.
+     */
+    @Element(required=false)
+    private int maxSegundos;
+    
     /**
      * Constructor por defecto.
      */
@@ -71,4 +126,146 @@ public class Configuracion {
     public void setTempPath(String tempPath) {
         this.tempPath = tempPath;
     }
+    
+    /**
+     * Indica si el AFD se construye directamente a partir
+     * de la expresión regular, sin construir el AFN.
+     * @return <code>true</code> si se omite la construcción del AFN.
+     */
+    public boolean getAfdDirecto() {
+        return afdDirecto;
+    }
+    
+    /**
+     * Establece si el AFD se construye directamente a partir
+     * de la expresión regular, sin construir el AFN.
+     * @param afdDirecto <code>true</code> para omitir la
+     * construcción del AFN.
+     */
+    public void setAfdDirecto(boolean afdDirecto) {
+        this.afdDirecto = afdDirecto;
+    }
+    
+    /**
+     * Indica si el AFN se reduce, uniendo sus estados
+     * equivalentes, antes de convertirlo a un AFD.
+     * @return <code>true</code> si el AFN se reduce.
+     */
+    public boolean getReducirAFN() {
+        return reducirAFN;
+    }
+    
+    /**
+     * Establece si el AFN se reduce, uniendo sus estados
+     * equivalentes, antes de convertirlo a un AFD.
+     * @param reducirAFN <code>true</code> para reducir el AFN.
+     */
+    public void setReducirAFN(boolean reducirAFN) {
+        this.reducirAFN = reducirAFN;
+    }
+    
+    /**
+     * Obtiene la cantidad de hilos para convertir el AFN a un AFD.
+     * @return La cantidad de hilos. Con un hilo o menos,
+     * la conversión no es paralela.
+     */
+    public int getHilosSubconjuntos() {
+        return hilosSubconjuntos;
+    }
+    
+    /**
+     * Establece la cantidad de hilos para convertir el AFN a un AFD.
+     * @param hilosSubconjuntos La cantidad de hilos. Con un hilo
+     * o menos, la conversión no es paralela.
+     */
+    public void setHilosSubconjuntos(int hilosSubconjuntos) {
+        this.hilosSubconjuntos = hilosSubconjuntos;
+    }
+    
+    /**
+     * Obtiene la cantidad de hilos para minimizar el AFD.
+     * @return La cantidad de hilos. Con un hilo o menos,
+     * la minimización no es paralela.
+     */
+    public int getHilosMinimizacion() {
+        return hilosMinimizacion;
+    }
+    
+    /**
+     * Establece la cantidad de hilos para minimizar el AFD.
+     * @param hilosMinimizacion La cantidad de hilos. Con un hilo
+     * o menos, la minimización no es paralela.
+     */
+    public void setHilosMinimizacion(int hilosMinimizacion) {
+        this.hilosMinimizacion = hilosMinimizacion;
+    }
+    
+    /**
+     * Indica si el AFD se minimiza en forma incremental, de manera
+     * que al excederse un límite se obtiene el AFD reducido hasta
+     * ese momento, en lugar de interrumpir el proceso.
+     * @return <code>true</code> si la minimización es incremental.
+     */
+    public boolean getMinimizacionIncremental() {
+        return minimizacionIncremental;
+    }
+    
+    /**
+     * Establece si el AFD se minimiza en forma incremental, de manera
+     * que al excederse un límite se obtiene el AFD reducido hasta
+     * ese momento, en lugar de interrumpir el proceso.
+     * @param minimizacionIncremental <code>true</code> para
+     * minimizar en forma incremental.
+     */
+    public void setMinimizacionIncremental(boolean minimizacionIncremental) {
+        this.minimizacionIncremental = minimizacionIncremental;
+    }
+    
+    /**
+     * Obtiene la cantidad máxima de estados del AFD.
+     * @return La cantidad máxima de estados, o 0 si no hay límite.
+     */
+    public int getMaxEstadosAFD() {
+        return maxEstadosAFD;
+    }
+    
+    /**
+     * Establece la cantidad máxima de estados del AFD.
+     * @param maxEstadosAFD La cantidad máxima de estados, o 0.
+     */
+    public void setMaxEstadosAFD(int maxEstadosAFD) {
+        this.maxEstadosAFD = maxEstadosAFD;
+    }
+    
+    /**
+     * Obtiene la memoria máxima aproximada para construir los autómatas.
+     * @return La memoria máxima en MB, o 0 si no hay límite.
+     */
+    public int getMaxMemoriaMB() {
+        return maxMemoriaMB;
+    }
+    
+    /**
+     * Establece la memoria máxima aproximada para construir los autómatas.
+     * @param maxMemoriaMB La memoria máxima en MB, o 0.
+     */
+    public void setMaxMemoriaMB(int maxMemoriaMB) {
+        this.maxMemoriaMB = maxMemoriaMB;
+    }
+    
+    /**
+     * Obtiene el tiempo máximo para construir los autómatas.
+     * @return El tiempo máximo en segundos, o 0 si no hay límite.
+     */
+    public int getMaxSegundos() {
+        return maxSegundos;
+    }
+    
+    /**
+     * Establece el tiempo máximo para construir los autómatas.
+     * @param maxSegundos El tiempo máximo en segundos, o 0.
+     */
+    public void setMaxSegundos(int maxSegundos) {
+        this.maxSegundos = maxSegundos;
+    }
 }
@@ -31,6 +31,11 @@ public class Conjunto<T extends Comparable<T>>
      */
     private boolean estaOrdenado;
     
+    /**
+     * Cantidad de modificaciones realizadas sobre el conjunto.
+     */
+    private int version;
+    
     /**
      * Constructor de la clase.
      */
@@ -42,6 +47,7 @@ public class Conjunto<T extends Comparable<T>>
          * está ordenado.
          */
         estaOrdenado = true;
+        version = 0;
     }
     
     /**
@@ -58,6 +64,7 @@ public class Conjunto<T extends Comparable<T>>
             estaOrdenado = false;
         
         elementos.add(elemento);
+        version++;
     }
     
     /**
@@ -66,6 +73,8 @@ public class Conjunto<T extends Comparable<T>>
      */
     public void eliminar(T elemento) {
         boolean eliminado = elementos.remove(elemento);
+        if (eliminado)
+            version++;
         
         /*
          * Si se ha eliminado un elemento, podría
@@ -162,7 +171,11 @@ public class Conjunto<T extends Comparable<T>>
      * en caso contrario.
      */
     public boolean retener(Conjunto<T> subconjunto) {
-        return elementos.retainAll(subconjunto.elementos);
+        boolean cambiado = elementos.retainAll(subconjunto.elementos);
+        if (cambiado)
+            version++;
+        
+        return cambiado;
     }
     
     /**
@@ -177,6 +190,16 @@ public class Conjunto<T extends Comparable<T>>
             elementos.add((T) e);
     }
     
+    /**
+     * Obtiene la versión del conjunto, que cambia cada vez que se
+     * agregan o eliminan elementos. Permite determinar si el conjunto
+     * fue modificado desde que se calculó algún dato a partir de él.
+     * @return La versión del conjunto.
+     */
+    public int getVersion() {
+        return version;
+    }
+    
     /**
      * Verifica si el conjunto está ordenado o no.
      * @return <code>true</code> si el conjunto está 
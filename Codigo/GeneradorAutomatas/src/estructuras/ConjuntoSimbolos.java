@@ -0,0 +1,215 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Clase que representa un conjunto de símbolos, utilizado como
+ * etiqueta de una <code>Transicion</code> para las clases de
+ * caracteres de una expresión regular (<code>[a-z]</code>,
+ * <code>[^abc]</code>, <code>.</code>).<br><br>
+ * Los símbolos se almacenan como intervalos disjuntos y ordenados
+ * de caracteres, por lo que una clase como <code>[a-z0-9]</code>
+ * ocupa solo dos intervalos y determinar si un símbolo pertenece a
+ * la misma requiere una búsqueda binaria.<br><br>
+ * Un <code>ConjuntoSimbolos</code> no puede ser modificado una
+ * vez creado.
+ * @see Transicion
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ConjuntoSimbolos {
+    
+    /**
+     * Cantidad mínima de caracteres consecutivos a partir
+     * de la cual un intervalo se representa como rango en
+     * la etiqueta del conjunto.
+     */
+    private static final int MINIMO_RANGO = 3;
+    
+    /**
+     * Primer caracter de cada intervalo.
+     */
+    private char[] desde;
+    
+    /**
+     * Último caracter de cada intervalo.
+     */
+    private char[] hasta;
+    
+    /**
+     * Cantidad de símbolos del conjunto.
+     */
+    private int cantidad;
+    
+    /**
+     * Representación del conjunto, utilizada como símbolo
+     * de las transiciones etiquetadas con el mismo.
+     */
+    private String etiqueta;
+    
+    /**
+     * Construye un <code>ConjuntoSimbolos</code> a partir de
+     * una colección de símbolos de un solo caracter.
+     * @param simbolos Los símbolos del conjunto.
+     */
+    public ConjuntoSimbolos(Collection<String> simbolos) {
+        char[] caracteres = new char[simbolos.size()];
+        
+        int pos = 0;
+        for (String s : simbolos)
+            caracteres[pos++] = s.charAt(0);
+        
+        Arrays.sort(caracteres);
+        
+        /* Agrupamos los caracteres consecutivos en intervalos */
+        char[] tmpDesde = new char[caracteres.length];
+        char[] tmpHasta = new char[caracteres.length];
+        int intervalos = 0;
+        
+        for (int i=0; i < caracteres.length; i++) {
+            char c = caracteres[i];
+            
+            if (intervalos > 0 && c <= tmpHasta[intervalos - 1] + 1) {
+                if (c > tmpHasta[intervalos - 1]) {
+                    tmpHasta[intervalos - 1] = c;
+                    cantidad++;
+                }
+            }
+            else {
+                tmpDesde[intervalos] = c;
+                tmpHasta[intervalos] = c;
+                intervalos++;
+                cantidad++;
+            }
+        }
+        
+        desde = new char[intervalos];
+        hasta = new char[intervalos];
+        System.arraycopy(tmpDesde, 0, desde, 0, intervalos);
+        System.arraycopy(tmpHasta, 0, hasta, 0, intervalos);
+        etiqueta = crearEtiqueta();
+    }
+    
+    /**
+     * Determina si un símbolo pertenece a este conjunto.
+     * @param simbolo El símbolo a buscar.
+     * @return <code>true</code> si <code>simbolo</code> pertenece
+     * al conjunto, <code>false</code> en caso contrario.
+     */
+    public boolean contiene(String simbolo) {
+        if (simbolo == null || simbolo.length() != 1)
+            return false;
+        
+        return contiene(simbolo.charAt(0));
+    }
+    
+    /**
+     * Determina si un caracter pertenece a este conjunto.
+     * @param caracter El caracter a buscar.
+     * @return <code>true</code> si <code>caracter</code> pertenece
+     * al conjunto, <code>false</code> en caso contrario.
+     */
+    public boolean contiene(char caracter) {
+        /* Búsqueda binaria del intervalo que contiene al caracter */
+        int inf = 0;
+        int sup = desde.length - 1;
+        
+        while (inf <= sup) {
+            int medio = (inf + sup) >>> 1;
+            
+            if (caracter < desde[medio])
+                sup = medio - 1;
+            else if (caracter > hasta[medio])
+                inf = medio + 1;
+            else
+                return true;
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Obtiene la cantidad de símbolos de este conjunto.
+     * @return La cantidad de símbolos del conjunto.
+     */
+    public int cantidad() {
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene la cantidad de intervalos de este conjunto.
+     * @return La cantidad de intervalos disjuntos del conjunto.
+     */
+    public int cantidadIntervalos() {
+        return desde.length;
+    }
+    
+    /**
+     * Determina si este conjunto no tiene símbolos.
+     * @return <code>true</code> si el conjunto está vacío.
+     */
+    public boolean estaVacio() {
+        return cantidad == 0;
+    }
+    
+    /**
+     * Obtiene el único símbolo de un conjunto unitario.
+     * @return El primer símbolo del conjunto.
+     */
+    public String obtenerPrimero() {
+        return String.valueOf(desde[0]);
+    }
+    
+    /**
+     * Construye la representación de este conjunto, de la
+     * forma <code>[a-z0-9_]</code>.
+     * @return La etiqueta del conjunto.
+     */
+    private String crearEtiqueta() {
+        StringBuffer str = new StringBuffer("[");
+        
+        for (int i=0; i < desde.length; i++) {
+            if (hasta[i] - desde[i] + 1 >= MINIMO_RANGO) {
+                str.append(desde[i]).append('-').append(hasta[i]);
+            }
+            else {
+                for (int c = desde[i]; c <= hasta[i]; c++)
+                    str.append((char) c);
+            }
+        }
+        
+        return str.append(']').toString();
+    }
+    
+    @Override
+    public String toString() {
+        return etiqueta;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null)
+            return false;
+        
+        if (getClass() != obj.getClass())
+            return false;
+        
+        final ConjuntoSimbolos other = (ConjuntoSimbolos) obj;
+        return Arrays.equals(this.desde, other.desde)
+            && Arrays.equals(this.hasta, other.hasta);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 37 * hash + Arrays.hashCode(this.desde);
+        hash = 37 * hash + Arrays.hashCode(this.hasta);
+        return hash;
+    }
+}
@@ -7,6 +7,7 @@ package estructuras;
 
 import analisis.Alfabeto;
 import java.util.HashMap;
+import java.util.Vector;
 
 /**
  * Esta clase representa un estado para un Autómata Finito.
@@ -42,6 +43,29 @@ public class Estado implements Comparable<Estado> {
      */
     private boolean visitado;
     
+    /**
+     * Destinos de las transiciones de este Estado, según la
+     * posición de cada símbolo en el alfabeto. La última
+     * posición corresponde al símbolo vacío.
+     */
+    private Estado[][] adyacencia;
+    
+    /**
+     * Alfabeto con el cual se calcularon los destinos.
+     */
+    private Alfabeto alfabetoAdyacencia;
+    
+    /**
+     * Versión del conjunto de transiciones con la
+     * cual se calcularon los destinos.
+     */
+    private int versionAdyacencia;
+    
+    /**
+     * Arreglo vacío, compartido por los símbolos sin transiciones.
+     */
+    private static final Estado[] NINGUNO = new Estado[0];
+    
     /**
      * Crea un <code>Estado</code> no final con un identificador determinado.
      * @param identificador El identificador del nuevo estado.
@@ -145,17 +169,85 @@ public class Estado implements Comparable<Estado> {
     public HashMap<String, Estado> getTransicionesSegunAlfabeto(Alfabeto alfabeto) {
         HashMap<String, Estado> trans = new HashMap<String, Estado>();
         
-        /* Rellenamos todo con null */
-        for (String s : alfabeto)
-            trans.put(s, null);
-        
-        /* Reemplazamos las transiciones existentes */
-        for (Transicion t : getTransiciones())
-            trans.put(t.getSimbolo(), t.getEstado());
+        /* El último destino de cada símbolo, o null si no tiene */
+        for (int i=0; i < alfabeto.getCantidad(); i++) {
+            Estado[] destinos = getDestinos(alfabeto, i);
+            trans.put(alfabeto.getSimbolo(i), (destinos.length > 0) ? destinos[destinos.length - 1] : null);
+        }
         
         return trans;
     }
     
+    /**
+     * Obtiene los <code>Estado</code>s destino de las transiciones de
+     * este <code>Estado</code> a través de un símbolo de un <code>Alfabeto</code>,
+     * en el orden de las transiciones.<br><br>
+     * Los destinos de todos los símbolos se calculan juntos, recorriendo
+     * una única vez las transiciones, y se vuelven a calcular solamente si
+     * se agregan o eliminan transiciones o si cambia el alfabeto, de manera
+     * que obtener los destinos de un símbolo no depende de la cantidad de
+     * transiciones del <code>Estado</code>.
+     * @param alfabeto El <code>Alfabeto</code> del autómata.
+     * @param posicion La posición del símbolo en <code>alfabeto</code>, según
+     * <code>Alfabeto.obtenerPosicion</code>. La posición igual a la cantidad
+     * de símbolos corresponde al símbolo vacío.
+     * @return Los <code>Estado</code>s destino, que no deben modificarse.
+     */
+    public Estado[] getDestinos(Alfabeto alfabeto, int posicion) {
+        if (adyacencia == null || versionAdyacencia != transiciones.getVersion()
+                || (alfabetoAdyacencia != alfabeto && !alfabeto.equals(alfabetoAdyacencia)))
+            calcularAdyacencia(alfabeto);
+        
+        return adyacencia[posicion];
+    }
+    
+    /**
+     * Calcula los destinos de las transiciones de este <code>Estado</code>
+     * para cada símbolo de un <code>Alfabeto</code> y para el símbolo vacío.
+     * Las transiciones etiquetadas con un conjunto de símbolos se agregan
+     * a los destinos de cada símbolo del conjunto.
+     * @param alfabeto El <code>Alfabeto</code> del autómata.
+     */
+    private void calcularAdyacencia(Alfabeto alfabeto) {
+        int cantidad = alfabeto.getCantidad();
+        Vector<Vector<Estado>> listas = new Vector<Vector<Estado>>(cantidad + 1);
+        for (int i=0; i <= cantidad; i++)
+            listas.add(null);
+        
+        for (Transicion t : getTransiciones()) {
+            if (t.getClase() == null) {
+                int pos = alfabeto.obtenerPosicion(t.getSimbolo());
+                if (pos >= 0)
+                    agregarDestino(listas, pos, t.getEstado());
+                continue;
+            }
+            
+            for (int i=0; i < cantidad; i++)
+                if (t.acepta(alfabeto.getSimbolo(i)))
+                    agregarDestino(listas, i, t.getEstado());
+        }
+        
+        adyacencia = new Estado[cantidad + 1][];
+        for (int i=0; i <= cantidad; i++)
+            adyacencia[i] = (listas.get(i) == null) ? NINGUNO : listas.get(i).toArray(NINGUNO);
+        
+        alfabetoAdyacencia = alfabeto;
+        versionAdyacencia = transiciones.getVersion();
+    }
+    
+    /**
+     * Agrega un destino a la lista de destinos de un símbolo.
+     * @param listas Las listas de destinos, según la posición de cada símbolo.
+     * @param pos La posición del símbolo.
+     * @param destino El <code>Estado</code> destino.
+     */
+    private static void agregarDestino(Vector<Vector<Estado>> listas, int pos, Estado destino) {
+        if (listas.get(pos) == null)
+            listas.set(pos, new Vector<Estado>());
+        
+        listas.get(pos).add(destino);
+    }
+    
     /**
      * Obtiene es estado de visitado de este <code>Estado</code>.
      * @return <code>true</code> si este <code>Estado</code> ya 
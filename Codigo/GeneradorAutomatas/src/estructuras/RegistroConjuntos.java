@@ -0,0 +1,349 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import java.util.Arrays;
+
+/**
+ * Clase que representa un registro de conjuntos de estados, que
+ * asigna a cada conjunto distinto un número consecutivo, a partir
+ * de 0, según el orden en que se agrega.<br><br>
+ * Los conjuntos se reciben como listas ordenadas de índices de estados
+ * y se guardan en la forma que ocupe menos memoria: la misma lista, o
+ * el arreglo de bits comprendido entre su primera y su última palabra
+ * no nula, junto con la posición de la primera. Como la forma depende
+ * solamente de los elementos del conjunto, la memoria del registro es
+ * proporcional al tamaño de los conjuntos, y no a la cantidad de
+ * conjuntos por la cantidad de estados del autómata.<br><br>
+ * Los conjuntos se ubican en una tabla de dispersión de
+ * direccionamiento abierto, con sondeo lineal. El código de dispersión
+ * de cada conjunto se calcula una única vez y se guarda junto al mismo,
+ * de manera a no recalcularlo al agrandar la tabla y a comparar los
+ * elementos de dos conjuntos solo si sus códigos son iguales. De esta
+ * forma, buscar o agregar un conjunto no depende de la cantidad de
+ * conjuntos registrados.<br><br>
+ * Se utiliza en el algoritmo de subconjuntos para obtener el estado
+ * del AFD que corresponde a un conjunto de estados del AFN.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class RegistroConjuntos {
+    
+    /**
+     * Conjuntos registrados como listas ordenadas de índices, según
+     * su número, o <code>null</code> si se guardan como arreglos de bits.
+     */
+    private int[][] listas;
+    
+    /**
+     * Conjuntos registrados como arreglos de bits, desde su primera
+     * hasta su última palabra no nula, según su número, o
+     * <code>null</code> si se guardan como listas de índices.
+     */
+    private long[][] palabras;
+    
+    /**
+     * Posición de la primera palabra no nula de cada conjunto
+     * guardado como arreglo de bits.
+     */
+    private int[] desplazamientos;
+    
+    /**
+     * Códigos de dispersión de los conjuntos, según su número.
+     */
+    private int[] hashes;
+    
+    /**
+     * Tabla de dispersión, que contiene el número de
+     * cada conjunto más uno, o 0 si la posición está libre.
+     */
+    private int[] tabla;
+    
+    /**
+     * Cantidad de conjuntos registrados.
+     */
+    private int cantidad;
+    
+    /**
+     * Memoria aproximada de los conjuntos registrados, en bytes.
+     */
+    private long memoria;
+    
+    /**
+     * Constructor por defecto.
+     */
+    public RegistroConjuntos() {
+        listas = new int[16][];
+        palabras = new long[16][];
+        desplazamientos = new int[16];
+        hashes = new int[16];
+        tabla = new int[32];
+        cantidad = 0;
+        memoria = 0;
+    }
+    
+    /**
+     * Busca un conjunto en el registro.
+     * @param elementos Los índices de los estados del conjunto, ordenados y sin repetir.
+     * @return El número del conjunto, o -1 si no está registrado.
+     */
+    public int buscar(int[] elementos) {
+        return buscar(elementos, elementos.length);
+    }
+    
+    /**
+     * Busca un conjunto en el registro.
+     * @param elementos Los índices de los estados del conjunto, ordenados y sin repetir.
+     * @param cantidad La cantidad de elementos del conjunto, al inicio de <code>elementos</code>.
+     * @return El número del conjunto, o -1 si no está registrado.
+     */
+    public int buscar(int[] elementos, int cantidad) {
+        int hash = hash(elementos, cantidad);
+        int mascara = tabla.length - 1;
+        
+        for (int i = hash & mascara; tabla[i] != 0; i = (i + 1) & mascara) {
+            int numero = tabla[i] - 1;
+            if (hashes[numero] == hash && iguales(numero, elementos, cantidad))
+                return numero;
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Agrega un conjunto al registro, si todavía no está registrado.
+     * Si el número obtenido es igual a la cantidad de conjuntos antes
+     * de agregarlo, entonces el conjunto es nuevo.
+     * @param elementos Los índices de los estados del conjunto, ordenados y sin repetir.
+     * @return El número del conjunto.
+     */
+    public int agregar(int[] elementos) {
+        return agregar(elementos, elementos.length);
+    }
+    
+    /**
+     * Agrega un conjunto al registro, si todavía no está registrado.
+     * El registro guarda una copia de los elementos, por lo que el
+     * arreglo puede reutilizarse luego de agregarlo. Si el número
+     * obtenido es igual a la cantidad de conjuntos antes de agregarlo,
+     * entonces el conjunto es nuevo.
+     * @param elementos Los índices de los estados del conjunto, ordenados y sin repetir.
+     * @param cantidad La cantidad de elementos del conjunto, al inicio de <code>elementos</code>.
+     * @return El número del conjunto.
+     */
+    public int agregar(int[] elementos, int cantidad) {
+        int hash = hash(elementos, cantidad);
+        int mascara = tabla.length - 1;
+        int i;
+        
+        for (i = hash & mascara; tabla[i] != 0; i = (i + 1) & mascara) {
+            int numero = tabla[i] - 1;
+            if (hashes[numero] == hash && iguales(numero, elementos, cantidad))
+                return numero;
+        }
+        
+        if (this.cantidad == hashes.length) {
+            int[][] nuevasListas = new int[2 * this.cantidad][];
+            long[][] nuevasPalabras = new long[2 * this.cantidad][];
+            int[] nuevosDesplazamientos = new int[2 * this.cantidad];
+            int[] nuevosHashes = new int[2 * this.cantidad];
+            System.arraycopy(listas, 0, nuevasListas, 0, this.cantidad);
+            System.arraycopy(palabras, 0, nuevasPalabras, 0, this.cantidad);
+            System.arraycopy(desplazamientos, 0, nuevosDesplazamientos, 0, this.cantidad);
+            System.arraycopy(hashes, 0, nuevosHashes, 0, this.cantidad);
+            listas = nuevasListas;
+            palabras = nuevasPalabras;
+            desplazamientos = nuevosDesplazamientos;
+            hashes = nuevosHashes;
+        }
+        
+        guardar(this.cantidad, elementos, cantidad);
+        hashes[this.cantidad] = hash;
+        tabla[i] = ++this.cantidad;
+        
+        /* La tabla se mantiene ocupada a lo sumo hasta la mitad */
+        if (2 * this.cantidad > tabla.length)
+            redimensionar();
+        
+        return this.cantidad - 1;
+    }
+    
+    /**
+     * Obtiene un conjunto registrado. Si el conjunto se guarda como
+     * lista de índices, se retorna la misma lista, que no debe
+     * modificarse; si no, la lista se construye en cada llamada.
+     * @param numero El número del conjunto.
+     * @return Los índices de los estados del conjunto, ordenados.
+     */
+    public int[] obtener(int numero) {
+        if (listas[numero] != null)
+            return listas[numero];
+        
+        long[] bits = palabras[numero];
+        int elementos = 0;
+        for (long palabra : bits)
+            elementos += Long.bitCount(palabra);
+        
+        int[] resultado = new int[elementos];
+        int k = 0;
+        for (int w=0; w < bits.length; w++) {
+            int base = (desplazamientos[numero] + w) << 6;
+            for (long palabra = bits[w]; palabra != 0; palabra &= palabra - 1)
+                resultado[k++] = base + Long.numberOfTrailingZeros(palabra);
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Obtiene la cantidad de conjuntos registrados.
+     * @return La cantidad de conjuntos registrados.
+     */
+    public int cantidad() {
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene la memoria aproximada que ocupan los conjuntos
+     * registrados, para verificar los límites de una conversión.
+     * @return La memoria aproximada, en bytes.
+     */
+    public long memoria() {
+        return memoria;
+    }
+    
+    /**
+     * Guarda los elementos de un conjunto nuevo en la forma que ocupe
+     * menos memoria: como lista de índices si tiene a lo sumo dos
+     * elementos por palabra de su arreglo de bits, o como arreglo de
+     * bits en caso contrario.
+     * @param numero El número del conjunto.
+     * @param elementos Los índices de los estados del conjunto, ordenados y sin repetir.
+     * @param cantidad La cantidad de elementos del conjunto.
+     */
+    private void guardar(int numero, int[] elementos, int cantidad) {
+        int desde = (cantidad == 0) ? 0 : elementos[0] >>> 6;
+        int longitud = (cantidad == 0) ? 0 : (elementos[cantidad - 1] >>> 6) - desde + 1;
+        
+        if (cantidad <= 2 * longitud) {
+            int[] lista = new int[cantidad];
+            System.arraycopy(elementos, 0, lista, 0, cantidad);
+            listas[numero] = lista;
+            memoria += 16 + 4L * cantidad;
+        }
+        else {
+            long[] bits = new long[longitud];
+            for (int k=0; k < cantidad; k++)
+                bits[(elementos[k] >>> 6) - desde] |= 1L << elementos[k];
+            
+            palabras[numero] = bits;
+            desplazamientos[numero] = desde;
+            memoria += 16 + 8L * longitud;
+        }
+    }
+    
+    /**
+     * Duplica el tamaño de la tabla de dispersión, reubicando
+     * los conjuntos según sus códigos ya calculados.
+     */
+    private void redimensionar() {
+        tabla = new int[2 * tabla.length];
+        int mascara = tabla.length - 1;
+        
+        for (int numero=0; numero < cantidad; numero++) {
+            int i = hashes[numero] & mascara;
+            while (tabla[i] != 0)
+                i = (i + 1) & mascara;
+            
+            tabla[i] = numero + 1;
+        }
+    }
+    
+    /**
+     * Convierte un <code>Conjunto</code> de <code>Estado</code>s en
+     * la lista ordenada de sus identificadores.
+     * @param estados El <code>Conjunto</code> de <code>Estado</code>s.
+     * @return La lista ordenada de identificadores, sin repetir.
+     */
+    public static int[] clave(Conjunto<Estado> estados) {
+        int[] identificadores = new int[estados.cantidad()];
+        int cantidad = 0;
+        for (Estado e : estados)
+            identificadores[cantidad++] = e.getIdentificador();
+        
+        Arrays.sort(identificadores);
+        
+        int distintos = 0;
+        for (int k=0; k < cantidad; k++)
+            if (distintos == 0 || identificadores[distintos - 1] != identificadores[k])
+                identificadores[distintos++] = identificadores[k];
+        
+        if (distintos == cantidad)
+            return identificadores;
+        
+        int[] resultado = new int[distintos];
+        System.arraycopy(identificadores, 0, resultado, 0, distintos);
+        return resultado;
+    }
+    
+    /**
+     * Calcula el código de dispersión de una lista ordenada de índices.
+     * @param elementos La lista de índices.
+     * @param cantidad La cantidad de elementos de la lista.
+     * @return El código de dispersión.
+     */
+    private static int hash(int[] elementos, int cantidad) {
+        int hash = 0;
+        for (int k=0; k < cantidad; k++)
+            hash = 31 * hash + elementos[k];
+        
+        /* Mezclamos los bits altos en los bajos, que son los que indexan la tabla */
+        hash ^= (hash >>> 16);
+        hash *= 0x85ebca6b;
+        hash ^= (hash >>> 13);
+        return hash;
+    }
+    
+    /**
+     * Determina si un conjunto registrado tiene los mismos elementos
+     * que una lista ordenada de índices.
+     * @param numero El número del conjunto registrado.
+     * @param elementos La lista de índices.
+     * @param cantidad La cantidad de elementos de la lista.
+     * @return <code>true</code> si tienen los mismos elementos.
+     */
+    private boolean iguales(int numero, int[] elementos, int cantidad) {
+        int[] lista = listas[numero];
+        if (lista != null) {
+            if (lista.length != cantidad)
+                return false;
+            
+            for (int k=0; k < cantidad; k++)
+                if (lista[k] != elementos[k])
+                    return false;
+            
+            return true;
+        }
+        
+        long[] bits = palabras[numero];
+        int desde = desplazamientos[numero];
+        if (cantidad == 0 || (elementos[0] >>> 6) != desde || (elementos[cantidad - 1] >>> 6) != desde + bits.length - 1)
+            return false;
+        
+        int k = 0;
+        for (int w=0; w < bits.length; w++) {
+            int limite = (desde + w + 1) << 6;
+            long palabra = 0;
+            while (k < cantidad && elementos[k] < limite)
+                palabra |= 1L << elementos[k++];
+            
+            if (palabra != bits[w])
+                return false;
+        }
+        
+        return true;
+    }
+}
@@ -0,0 +1,616 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import analisis.Alfabeto;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Vector;
+
+/**
+ * Clase que representa la tabla de cerraduras vacías de los estados
+ * de un <code>Automata</code>, calculada una única vez.<br><br>
+ * Los estados se indexan según el orden de sus identificadores, y la
+ * cerradura de cada estado se guarda como la lista ordenada de esos
+ * índices, de manera que la tabla ocupa memoria proporcional a la suma
+ * de los tamaños de las cerraduras, y no al cuadrado de la cantidad de
+ * estados. Solamente las cerraduras con más de la trigésima segunda
+ * parte de los estados, para las que la lista ocuparía más memoria,
+ * se guardan como arreglos de bits. La cerradura de un conjunto de
+ * estados, representado como
+ * arreglo de bits, es la unión de las cerraduras de sus elementos, que
+ * se realiza sin volver a recorrer transiciones vacías.<br><br>
+ * Para calcular las cerraduras se obtienen las componentes fuertemente
+ * conexas del grafo de transiciones vacías con el algoritmo de Tarjan:
+ * todos los estados de una componente tienen la misma cerradura, que
+ * es la unión de la componente con las cerraduras de las componentes
+ * alcanzadas, ya calculadas porque el algoritmo de Tarjan encuentra
+ * las componentes en orden topológico inverso.<br><br>
+ * La tabla deja de ser válida si se agregan o eliminan estados del
+ * <code>Automata</code> o transiciones de alguno de sus estados, o si
+ * cambia el identificador de algún estado. El <code>Automata</code>
+ * la vuelve a calcular en ese caso.
+ * @see Automata#getTablaCerraduras()
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class TablaCerraduras {
+    
+    /**
+     * Conjunto de estados del autómata.
+     */
+    private Conjunto<Estado> conjuntoEstados;
+    
+    /**
+     * Versión del conjunto de estados al calcular la tabla.
+     */
+    private int version;
+    
+    /**
+     * Estados del autómata, ordenados según sus identificadores.
+     */
+    private Estado[] estados;
+    
+    /**
+     * Identificadores de los estados al calcular la tabla.
+     */
+    private int[] identificadores;
+    
+    /**
+     * Versiones de los conjuntos de transiciones al calcular la tabla.
+     */
+    private int[] versiones;
+    
+    /**
+     * Índice de cada estado.
+     */
+    private IdentityHashMap<Estado, Integer> indices;
+    
+    /**
+     * Componente fuertemente conexa de cada estado.
+     */
+    private int[] componente;
+    
+    /**
+     * Cerradura vacía de cada componente, como lista ordenada de índices,
+     * o <code>null</code> si se guarda como arreglo de bits.
+     */
+    private int[][] cerraduras;
+    
+    /**
+     * Cerradura vacía de cada componente, como arreglo de bits,
+     * o <code>null</code> si se guarda como lista de índices.
+     */
+    private long[][] densas;
+    
+    /**
+     * Calcula la tabla de cerraduras vacías de un <code>Automata</code>.
+     * @param automata El <code>Automata</code>.
+     */
+    public TablaCerraduras(Automata automata) {
+        conjuntoEstados = automata.getEstados();
+        version = conjuntoEstados.getVersion();
+        
+        int n = conjuntoEstados.cantidad();
+        estados = new Estado[n];
+        for (int i=0; i < n; i++)
+            estados[i] = conjuntoEstados.obtener(i);
+        Arrays.sort(estados);
+        
+        identificadores = new int[n];
+        versiones = new int[n];
+        indices = new IdentityHashMap<Estado, Integer>();
+        for (int i=0; i < n; i++) {
+            identificadores[i] = estados[i].getIdentificador();
+            versiones[i] = estados[i].getTransiciones().getVersion();
+            indices.put(estados[i], i);
+        }
+        
+        /* Transiciones vacías, como listas de adyacencia */
+        int[][] vacias = new int[n][];
+        for (int i=0; i < n; i++) {
+            Vector<Integer> destinos = new Vector<Integer>();
+            for (Transicion t : estados[i].getTransiciones())
+                if (t.acepta(Alfabeto.VACIO))
+                    destinos.add(indices.get(t.getEstado()));
+            
+            vacias[i] = new int[destinos.size()];
+            for (int j=0; j < vacias[i].length; j++)
+                vacias[i][j] = destinos.get(j);
+        }
+        
+        /* Componentes fuertemente conexas, en orden topológico inverso */
+        componente = new int[n];
+        int cantidad = tarjan(vacias, componente);
+        
+        /* Miembros de cada componente, agrupados por componente */
+        int[] inicio = new int[cantidad + 1];
+        for (int i=0; i < n; i++)
+            inicio[componente[i] + 1]++;
+        for (int c=0; c < cantidad; c++)
+            inicio[c + 1] += inicio[c];
+        
+        int[] miembros = new int[n];
+        int[] posicion = new int[cantidad];
+        System.arraycopy(inicio, 0, posicion, 0, cantidad);
+        for (int i=0; i < n; i++)
+            miembros[posicion[componente[i]]++] = i;
+        
+        /*
+         * Las componentes alcanzadas por una componente tienen un número
+         * menor, por lo que ya tienen su cerradura calculada. Si algún
+         * miembro de una componente alcanzada ya está en la cerradura, es
+         * porque se agregó la cerradura de una componente que la alcanza,
+         * y su cerradura ya está incluida. La cerradura se acumula como
+         * lista hasta que se sabe que debe guardarse como arreglo de bits.
+         */
+        cerraduras = new int[cantidad][];
+        densas = new long[cantidad][];
+        int limite = n >>> 5;
+        int[] marca = new int[n];
+        Arrays.fill(marca, -1);
+        int[] buffer = new int[n];
+        
+        for (int c=0; c < cantidad; c++) {
+            int tope = 0;
+            long[] densa = null;
+            for (int k = inicio[c]; k < inicio[c + 1]; k++) {
+                marca[miembros[k]] = c;
+                buffer[tope++] = miembros[k];
+            }
+            
+            for (int k = inicio[c]; k < inicio[c + 1]; k++) {
+                for (int j : vacias[miembros[k]]) {
+                    if (densa != null) {
+                        agregarCerradura(densa, j);
+                        continue;
+                    }
+                    
+                    if (marca[j] == c)
+                        continue;
+                    
+                    int d = componente[j];
+                    if (densas[d] != null || tope + cerraduras[d].length > limite) {
+                        densa = arregloBits(buffer, tope, n);
+                        agregarCerradura(densa, j);
+                        continue;
+                    }
+                    
+                    for (int i : cerraduras[d]) {
+                        if (marca[i] != c) {
+                            marca[i] = c;
+                            buffer[tope++] = i;
+                        }
+                    }
+                }
+            }
+            
+            if (densa == null && tope > limite)
+                densa = arregloBits(buffer, tope, n);
+            
+            if (densa != null) {
+                densas[c] = densa;
+            }
+            else {
+                cerraduras[c] = new int[tope];
+                System.arraycopy(buffer, 0, cerraduras[c], 0, tope);
+                Arrays.sort(cerraduras[c]);
+            }
+        }
+    }
+    
+    /**
+     * Determina si la tabla sigue correspondiendo al <code>Automata</code>,
+     * es decir, si no se agregaron ni eliminaron estados o transiciones,
+     * ni cambiaron los identificadores de los estados desde que se calculó.
+     * @return <code>true</code> si la tabla es válida,
+     * <code>false</code> en caso contrario.
+     */
+    public boolean esValida() {
+        if (conjuntoEstados.getVersion() != version)
+            return false;
+        
+        for (int i=0; i < estados.length; i++)
+            if (estados[i].getIdentificador() != identificadores[i]
+                    || estados[i].getTransiciones().getVersion() != versiones[i])
+                return false;
+        
+        return true;
+    }
+    
+    /**
+     * Obtiene la cantidad de estados de la tabla.
+     * @return La cantidad de estados.
+     */
+    public int cantidadEstados() {
+        return estados.length;
+    }
+    
+    /**
+     * Obtiene el <code>Estado</code> con un determinado índice.
+     * @param indice El índice del estado, según el orden de los identificadores.
+     * @return El <code>Estado</code>.
+     */
+    public Estado getEstado(int indice) {
+        return estados[indice];
+    }
+    
+    /**
+     * Obtiene el índice de un <code>Estado</code> del autómata.
+     * @param estado El <code>Estado</code>.
+     * @return El índice del estado, según el orden de los identificadores.
+     */
+    public int getIndice(Estado estado) {
+        return indices.get(estado);
+    }
+    
+    /**
+     * Obtiene la cantidad de componentes fuertemente conexas
+     * del grafo de transiciones vacías.
+     * @return La cantidad de componentes.
+     */
+    public int cantidadComponentes() {
+        return cerraduras.length;
+    }
+    
+    /**
+     * Obtiene la componente fuertemente conexa de un estado. Si hay una
+     * transición vacía de la componente c a la componente d, entonces
+     * d es menor que c.
+     * @param indice El índice del estado.
+     * @return El número de la componente.
+     */
+    public int getComponente(int indice) {
+        return componente[indice];
+    }
+    
+    /**
+     * Obtiene la cerradura vacía de un estado, como lista ordenada de
+     * índices. La lista es compartida por todos los estados de la misma
+     * componente, por lo que no debe modificarse. Si la cerradura se
+     * guarda como arreglo de bits, la lista se construye en cada llamada.
+     * @param indice El índice del estado.
+     * @return La cerradura vacía del estado.
+     */
+    public int[] getCerradura(int indice) {
+        int c = componente[indice];
+        if (densas[c] == null)
+            return cerraduras[c];
+        
+        int[] resultado = new int[cardinalidad(densas[c])];
+        int k = 0;
+        for (int i = siguiente(densas[c], 0); i >= 0; i = siguiente(densas[c], i + 1))
+            resultado[k++] = i;
+        
+        return resultado;
+    }
+    
+    /**
+     * Obtiene la cerradura vacía de un estado como arreglo de bits.
+     * @param indice El índice del estado.
+     * @return Un nuevo arreglo de bits con los estados alcanzados.
+     */
+    public long[] cerradura(int indice) {
+        long[] resultado = new long[(estados.length + 63) >>> 6];
+        agregarCerradura(resultado, indice);
+        
+        return resultado;
+    }
+    
+    /**
+     * Implementa la operación Cerradura Epsilon sobre un conjunto de
+     * estados representado como arreglo de bits.
+     * @param bits El conjunto de estados, que no se modifica.
+     * @return Un nuevo arreglo de bits con los estados alcanzados.
+     */
+    public long[] cerradura(long[] bits) {
+        long[] resultado = new long[(estados.length + 63) >>> 6];
+        for (int i = siguiente(bits, 0); i >= 0; i = siguiente(bits, i + 1))
+            agregarCerradura(resultado, i);
+        
+        return resultado;
+    }
+    
+    /**
+     * Implementa la operación Cerradura Epsilon sobre un <code>Conjunto</code>
+     * de <code>Estado</code>s del autómata.
+     * @param conjunto El <code>Conjunto</code> de <code>Estado</code>s.
+     * @return Un arreglo de bits con los estados alcanzados.
+     */
+    public long[] cerradura(Conjunto<Estado> conjunto) {
+        long[] resultado = new long[(estados.length + 63) >>> 6];
+        for (Estado e : conjunto)
+            agregarCerradura(resultado, getIndice(e));
+        
+        return resultado;
+    }
+    
+    /**
+     * Implementa la operación Cerradura Epsilon sobre un conjunto de
+     * estados representado como lista de índices. Los estados alcanzados
+     * se marcan en un arreglo de bits de trabajo, que se vuelve a vaciar
+     * al terminar recorriendo solamente las palabras marcadas, por lo que
+     * la operación no depende de la cantidad de estados del autómata,
+     * salvo para las cerraduras que se guardan como arreglos de bits.
+     * @param indices Los índices de los estados, que no se modifican.
+     * @param cantidad La cantidad de índices, al inicio de <code>indices</code>.
+     * @param marcas Arreglo de bits de trabajo, con un bit por estado,
+     * que debe estar vacío y queda vacío al terminar.
+     * @param resultado Arreglo donde se guardan los índices de los
+     * estados alcanzados, ordenados, con lugar para todos los estados.
+     * @return La cantidad de estados alcanzados.
+     */
+    public int cerradura(int[] indices, int cantidad, long[] marcas, int[] resultado) {
+        int alcanzados = 0;
+        
+        for (int k=0; k < cantidad; k++) {
+            int q = indices[k];
+            
+            /* Si el estado ya se alcanzó, su cerradura también */
+            if ((marcas[q >>> 6] & (1L << q)) != 0)
+                continue;
+            
+            int c = componente[q];
+            if (densas[c] == null) {
+                for (int i : cerraduras[c]) {
+                    if ((marcas[i >>> 6] & (1L << i)) == 0) {
+                        marcas[i >>> 6] |= 1L << i;
+                        resultado[alcanzados++] = i;
+                    }
+                }
+            }
+            else {
+                for (int w=0; w < marcas.length; w++) {
+                    long nuevos = densas[c][w] & ~marcas[w];
+                    marcas[w] |= nuevos;
+                    for (; nuevos != 0; nuevos &= nuevos - 1)
+                        resultado[alcanzados++] = (w << 6) + Long.numberOfTrailingZeros(nuevos);
+                }
+            }
+        }
+        
+        for (int k=0; k < alcanzados; k++)
+            marcas[resultado[k] >>> 6] = 0;
+        
+        Arrays.sort(resultado, 0, alcanzados);
+        return alcanzados;
+    }
+    
+    /**
+     * Agrega a un arreglo de bits la cerradura vacía de un estado. Si el
+     * estado ya está en el arreglo como parte de otra cerradura, su
+     * cerradura también lo está, y no se vuelve a recorrer.
+     * @param bits El arreglo de bits que se modifica.
+     * @param indice El índice del estado.
+     */
+    private void agregarCerradura(long[] bits, int indice) {
+        if ((bits[indice >>> 6] & (1L << indice)) != 0)
+            return;
+        
+        int c = componente[indice];
+        if (densas[c] == null) {
+            for (int i : cerraduras[c])
+                bits[i >>> 6] |= 1L << i;
+        }
+        else {
+            for (int w=0; w < bits.length; w++)
+                bits[w] |= densas[c][w];
+        }
+    }
+    
+    /**
+     * Implementa la operación Mueve sobre un conjunto de estados
+     * representado como arreglo de bits, a partir de los destinos
+     * de cada estado según la posición del símbolo.
+     * @param bits El conjunto de estados, que no se modifica.
+     * @param alfabeto El <code>Alfabeto</code> del autómata.
+     * @param posicion La posición del símbolo en <code>alfabeto</code>.
+     * @return Un nuevo arreglo de bits con los estados alcanzados.
+     * @see Estado#getDestinos(Alfabeto, int)
+     */
+    public long[] mover(long[] bits, Alfabeto alfabeto, int posicion) {
+        long[] resultado = new long[(estados.length + 63) >>> 6];
+        for (int i = siguiente(bits, 0); i >= 0; i = siguiente(bits, i + 1)) {
+            for (Estado e : estados[i].getDestinos(alfabeto, posicion)) {
+                int j = getIndice(e);
+                resultado[j >>> 6] |= 1L << j;
+            }
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Convierte un <code>Conjunto</code> de <code>Estado</code>s
+     * del autómata en un arreglo de bits.
+     * @param conjunto El <code>Conjunto</code> de <code>Estado</code>s.
+     * @return El arreglo de bits.
+     */
+    public long[] bits(Conjunto<Estado> conjunto) {
+        long[] resultado = new long[(estados.length + 63) >>> 6];
+        for (Estado e : conjunto) {
+            int i = getIndice(e);
+            resultado[i >>> 6] |= 1L << i;
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Convierte un arreglo de bits en un <code>Conjunto</code>
+     * ordenado de los <code>Estado</code>s correspondientes.
+     * @param bits El arreglo de bits.
+     * @return El <code>Conjunto</code> de estados.
+     */
+    public Conjunto<Estado> conjunto(long[] bits) {
+        Conjunto<Estado> resultado = new Conjunto<Estado>();
+        for (int i = siguiente(bits, 0); i >= 0; i = siguiente(bits, i + 1))
+            resultado.agregar(estados[i]);
+        
+        return resultado;
+    }
+    
+    /**
+     * Convierte una lista de índices en un <code>Conjunto</code>
+     * de los <code>Estado</code>s correspondientes, en el mismo orden.
+     * @param indices La lista de índices.
+     * @return El <code>Conjunto</code> de estados.
+     */
+    public Conjunto<Estado> conjunto(int[] indices) {
+        return conjunto(indices, indices.length);
+    }
+    
+    /**
+     * Convierte los primeros elementos de una lista de índices en un
+     * <code>Conjunto</code> de los <code>Estado</code>s correspondientes,
+     * en el mismo orden.
+     * @param indices La lista de índices.
+     * @param cantidad La cantidad de elementos a convertir.
+     * @return El <code>Conjunto</code> de estados.
+     */
+    public Conjunto<Estado> conjunto(int[] indices, int cantidad) {
+        Conjunto<Estado> resultado = new Conjunto<Estado>();
+        for (int k=0; k < cantidad; k++)
+            resultado.agregar(estados[indices[k]]);
+        
+        return resultado;
+    }
+    
+    /**
+     * Convierte los primeros elementos de una lista de índices
+     * en un arreglo de bits.
+     * @param indices La lista de índices.
+     * @param cantidad La cantidad de elementos a convertir.
+     * @param n La cantidad de estados.
+     * @return El arreglo de bits.
+     */
+    private static long[] arregloBits(int[] indices, int cantidad, int n) {
+        long[] resultado = new long[(n + 63) >>> 6];
+        for (int k=0; k < cantidad; k++)
+            resultado[indices[k] >>> 6] |= 1L << indices[k];
+        
+        return resultado;
+    }
+    
+    /**
+     * Obtiene la cantidad de elementos de un arreglo de bits.
+     * @param bits El arreglo de bits.
+     * @return La cantidad de elementos.
+     */
+    private static int cardinalidad(long[] bits) {
+        int cantidad = 0;
+        for (long palabra : bits)
+            cantidad += Long.bitCount(palabra);
+        
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene el menor elemento de un arreglo de bits
+     * que es mayor o igual a uno dado.
+     * @param bits El arreglo de bits.
+     * @param desde El elemento desde el cual buscar.
+     * @return El elemento encontrado, o -1 si no hay ninguno.
+     */
+    public static int siguiente(long[] bits, int desde) {
+        int w = desde >>> 6;
+        if (w >= bits.length)
+            return -1;
+        
+        long palabra = bits[w] & (-1L << desde);
+        while (palabra == 0) {
+            if (++w == bits.length)
+                return -1;
+            palabra = bits[w];
+        }
+        
+        return (w << 6) + Long.numberOfTrailingZeros(palabra);
+    }
+    
+    /**
+     * Calcula las componentes fuertemente conexas de un grafo con el
+     * algoritmo de Tarjan, sin recursión. Las componentes se numeran
+     * en el orden en que se completan, que es un orden topológico
+     * inverso: si hay un arco de la componente c a la componente d,
+     * entonces d es menor que c.
+     * @param arcos Las listas de adyacencia del grafo.
+     * @param componente Arreglo donde se guarda la componente de cada nodo.
+     * @return La cantidad de componentes.
+     */
+    private static int tarjan(int[][] arcos, int[] componente) {
+        int n = arcos.length;
+        int[] orden = new int[n];
+        int[] bajo = new int[n];
+        boolean[] enPila = new boolean[n];
+        Arrays.fill(orden, -1);
+        
+        /* Pila de nodos visitados sin componente asignada */
+        int[] pila = new int[n];
+        int tope = 0;
+        
+        /* Pila de llamadas: nodo y siguiente arco a recorrer */
+        int[] llamadas = new int[n];
+        int[] siguiente = new int[n];
+        
+        int contador = 0;
+        int cantidad = 0;
+        
+        for (int raiz=0; raiz < n; raiz++) {
+            if (orden[raiz] >= 0)
+                continue;
+            
+            int profundidad = 0;
+            llamadas[0] = raiz;
+            siguiente[0] = 0;
+            orden[raiz] = bajo[raiz] = contador++;
+            pila[tope++] = raiz;
+            enPila[raiz] = true;
+            
+            while (profundidad >= 0) {
+                int v = llamadas[profundidad];
+                
+                if (siguiente[profundidad] < arcos[v].length) {
+                    int w = arcos[v][siguiente[profundidad]++];
+                    
+                    if (orden[w] < 0) {
+                        /* Descendemos a w */
+                        profundidad++;
+                        llamadas[profundidad] = w;
+                        siguiente[profundidad] = 0;
+                        orden[w] = bajo[w] = contador++;
+                        pila[tope++] = w;
+                        enPila[w] = true;
+                    }
+                    else if (enPila[w]) {
+                        bajo[v] = Math.min(bajo[v], orden[w]);
+                    }
+                    
+                    continue;
+                }
+                
+                /* Todos los arcos de v fueron recorridos */
+                if (bajo[v] == orden[v]) {
+                    int w;
+                    do {
+                        w = pila[--tope];
+                        enPila[w] = false;
+                        componente[w] = cantidad;
+                    } while (w != v);
+                    
+                    cantidad++;
+                }
+                
+                profundidad--;
+                if (profundidad >= 0) {
+                    int padre = llamadas[profundidad];
+                    bajo[padre] = Math.min(bajo[padre], bajo[v]);
+                }
+            }
+        }
+        
+        return cantidad;
+    }
+}
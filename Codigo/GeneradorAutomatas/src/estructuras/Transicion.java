@@ -9,9 +9,14 @@ package estructuras;
  * Implementa la transición de un autómata, representada
  * por el símbolo y el estado destino. El estado inicial
  * está dado por el estado en el que está contenida esta
- * transición.
+ * transición.<br><br>
+ * Una <code>Transicion</code> puede estar etiquetada, en lugar de
+ * un único símbolo, con un <code>ConjuntoSimbolos</code>. En ese
+ * caso, el símbolo de la transición es la representación del
+ * conjunto y la transición se sigue con cualquiera de sus símbolos.
  *
  * @see Estado
+ * @see ConjuntoSimbolos
  * @author Germán Hüttemann
  * @author Marcelo Rodas
  */
@@ -26,6 +31,12 @@ public class Transicion implements Comparable<Transicion> {
      * Simbolo del alfabeto para esta <code>Transicion</code>.
      */
     private String simbolo;
+    
+    /**
+     * Conjunto de símbolos para esta <code>Transicion</code>,
+     * o <code>null</code> si está etiquetada con un único símbolo.
+     */
+    private ConjuntoSimbolos clase;
 
     /**
      * Construye una <code>Transicion</code> especificando los dos
@@ -39,12 +50,24 @@ public class Transicion implements Comparable<Transicion> {
         this.simbolo = simbolo;
     }
 
+    /**
+     * Construye una <code>Transicion</code> etiquetada con un
+     * conjunto de símbolos.
+     *
+     * @param estado El <code>Estado</code> destino para esta <code>Transicion</code>.
+     * @param clase El conjunto de símbolos para esta <code>Transicion</code>.
+     */
+    public Transicion(Estado estado, ConjuntoSimbolos clase) {
+        this(estado, clase.toString());
+        this.clase = clase;
+    }
+    
     /**
      * Contruye una <code>Transicion</code> sin <code>Estado</code>
      * ni simbolo.
      */
     public Transicion() {
-        this(null, null);
+        this(null, (String) null);
     }
 
     /**
@@ -77,6 +100,44 @@ public class Transicion implements Comparable<Transicion> {
      */
     public void setSimbolo(String simbolo) {
         this.simbolo = simbolo;
+        this.clase   = null;
+    }
+    
+    /**
+     * Obtiene el conjunto de símbolos para esta <code>Transicion</code>.
+     * @return El conjunto de símbolos, o <code>null</code> si esta
+     * <code>Transicion</code> está etiquetada con un único símbolo.
+     */
+    public ConjuntoSimbolos getClase() {
+        return clase;
+    }
+    
+    /**
+     * Determina si esta <code>Transicion</code> puede seguirse
+     * con un símbolo dado.
+     * @param simbolo El símbolo de entrada, o el símbolo vacío.
+     * @return <code>true</code> si el símbolo de esta <code>Transicion</code>
+     * es igual a <code>simbolo</code> o, si está etiquetada con un conjunto
+     * de símbolos, si <code>simbolo</code> pertenece al mismo.
+     */
+    public boolean acepta(String simbolo) {
+        if (clase != null)
+            return clase.contiene(simbolo);
+        else
+            return this.simbolo.equals(simbolo);
+    }
+    
+    /**
+     * Crea una <code>Transicion</code> con la misma etiqueta que
+     * esta, pero hacia otro <code>Estado</code> destino.
+     * @param estado El <code>Estado</code> destino de la nueva <code>Transicion</code>.
+     * @return La nueva <code>Transicion</code>.
+     */
+    public Transicion copiar(Estado estado) {
+        if (clase != null)
+            return new Transicion(estado, clase);
+        else
+            return new Transicion(estado, simbolo);
     }
     
     @Override
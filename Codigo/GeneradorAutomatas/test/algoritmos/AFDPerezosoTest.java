@@ -0,0 +1,145 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import estructuras.AFD;
+import estructuras.AFN;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>AFDPerezoso</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AFDPerezosoTest {
+    
+    /**
+     * Test of acepta method, of class AFDPerezoso.
+     * Debe aceptar las mismas entradas que el AFD completo,
+     * aun con una memoria demasiado pequeña para el mismo.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testAcepta() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "(ab|a)*b{2,3}", "a?(ba)+b*", "[ab]{2,}a", "(a|b)*a(a|b){5}" };
+        Random aleatorio = new Random(2008);
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            AFD afd = Subconjuntos.getAFDBits(afn);
+            AFDPerezoso grande = new AFDPerezoso(afn, 1000);
+            AFDPerezoso chico = new AFDPerezoso(afn, 4);
+            
+            for (int k=0; k < 200; k++) {
+                StringBuilder entrada = new StringBuilder();
+                int largo = aleatorio.nextInt(40);
+                for (int i=0; i < largo; i++)
+                    entrada.append(aleatorio.nextBoolean() ? 'a' : 'b');
+                
+                boolean esperado = Validacion.validarAFD(afd, entrada.toString()).esValido();
+                assertEquals(esperado, grande.acepta(entrada));
+                assertEquals(esperado, chico.acepta(entrada));
+            }
+            
+            System.out.printf("%s: AFD %d estados, perezoso %d estados, chico %d estados (%d vaciados, %d simulaciones)\n",
+                er, afd.cantidadEstados(), grande.cantidadEstados(), chico.cantidadEstados(),
+                chico.cantidadVaciados(), chico.cantidadSimulaciones());
+            assertTrue(grande.cantidadEstados() <= afd.cantidadEstados() + 1);
+            assertTrue(chico.cantidadEstados() <= 4);
+        }
+    }
+    
+    /**
+     * Test of acepta method, of class AFDPerezoso.
+     * Con una expresión cuyo AFD completo es exponencial, la
+     * memoria no debe superar su capacidad, y al vaciarse seguido
+     * la validación debe continuar simulando el AFN.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testMemoriaAcotada() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*a(a|b){15}").analizar();
+        AFDPerezoso perezoso = new AFDPerezoso(afn, 64);
+        Random aleatorio = new Random(10);
+        
+        StringBuilder entrada = new StringBuilder();
+        for (int i=0; i < 5000; i++)
+            entrada.append(aleatorio.nextBoolean() ? 'a' : 'b');
+        
+        for (int k=0; k < 20; k++) {
+            String prueba = entrada.substring(k * 100, k * 100 + 2000 + k);
+            boolean esperado = prueba.charAt(prueba.length() - 16) == 'a';
+            assertEquals(esperado, perezoso.acepta(prueba));
+            assertTrue(perezoso.cantidadEstados() <= 64);
+        }
+        
+        System.out.printf("%d estados, %d vaciados, %d simulaciones\n",
+            perezoso.cantidadEstados(), perezoso.cantidadVaciados(), perezoso.cantidadSimulaciones());
+        assertTrue(perezoso.cantidadSimulaciones() > 0);
+    }
+    
+    /**
+     * Test of acepta method, of class AFDPerezoso.
+     * Varios hilos que validan entradas a la vez contra el mismo
+     * objeto deben obtener los mismos resultados que el AFD completo,
+     * tanto si la memoria alcanza como si debe vaciarse.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConcurrente() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*a(a|b){6}|(ab)*b").analizar();
+        final AFD afd = Subconjuntos.getAFDBits(afn);
+        final AFDPerezoso[] perezosos = { new AFDPerezoso(afn, 1000), new AFDPerezoso(afn, 8) };
+        
+        ExecutorService ejecutor = Executors.newFixedThreadPool(8);
+        Vector<Callable<Integer>> tareas = new Vector<Callable<Integer>>();
+        
+        for (int h=0; h < 8; h++) {
+            final long semilla = h;
+            tareas.add(new Callable<Integer>() {
+                public Integer call() {
+                    Random aleatorio = new Random(semilla);
+                    int errores = 0;
+                    
+                    for (int k=0; k < 300; k++) {
+                        StringBuilder entrada = new StringBuilder();
+                        int largo = aleatorio.nextInt(60);
+                        for (int i=0; i < largo; i++)
+                            entrada.append(aleatorio.nextBoolean() ? 'a' : 'b');
+                        
+                        boolean esperado = Validacion.validarAFD(afd, entrada.toString()).esValido();
+                        for (AFDPerezoso perezoso : perezosos)
+                            if (perezoso.acepta(entrada) != esperado)
+                                errores++;
+                    }
+                    
+                    return errores;
+                }
+            });
+        }
+        
+        int errores = 0;
+        for (Future<Integer> f : ejecutor.invokeAll(tareas))
+            errores += f.get();
+        ejecutor.shutdown();
+        
+        System.out.printf("AFD %d estados, perezoso %d estados, chico %d estados (%d vaciados)\n",
+            afd.cantidadEstados(), perezosos[0].cantidadEstados(),
+            perezosos[1].cantidadEstados(), perezosos[1].cantidadVaciados());
+        assertEquals(0, errores);
+        assertTrue(perezosos[0].cantidadEstados() <= afd.cantidadEstados() + 1);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>AFNContadores</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AFNContadoresTest {
+    
+    /**
+     * Test of acepta method, of class AFNContadores.
+     * Debe coincidir con la validación del AFD obtenido
+     * a partir del AFN desenrollado por Thompson.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testAcepta() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(ab|a){2,5}", "a{3,}b", "(a|b){0,3}", "[ab]{20,40}", "(a{20}b){2}" };
+        String[] entradas = { "", "a", "ab", "aab", "aaab", "abababab", "aaaaaaaaaaaaaaaaaaaab",
+                              "aaaaaaaaaaaaaaaaaaaabaaaaaaaaaaaaaaaaaaaab", "abababababababababababab" };
+        
+        for (String er : expresiones) {
+            NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+            AFNContadores afnc = new AFNContadores(arbol);
+            AFN afn = Thompson.construir(arbol);
+            afn.setAlfabeto(alfa);
+            AFD afd = Subconjuntos.getAFD(afn);
+            
+            System.out.printf("%s: %d estados (%d contadores), desenrollado %d estados\n", er,
+                afnc.cantidadEstados(), afnc.cantidadContadores(), afn.cantidadEstados());
+            
+            for (String entrada : entradas)
+                assertEquals(Validacion.validarAFD(afd, entrada).esValido(), afnc.acepta(entrada));
+        }
+    }
+    
+    /**
+     * Test of cantidadEstados method, of class AFNContadores.
+     * Una repetición con cota grande no debe desenrollarse.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testCotaGrande() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, "(ab){1000,100000}").analizarArbol();
+        AFNContadores afnc = new AFNContadores(arbol);
+        
+        System.out.printf("%s: %d estados\n", arbol, afnc.cantidadEstados());
+        assertTrue(afnc.cantidadEstados() < 20);
+        assertEquals(1, afnc.cantidadContadores());
+        
+        StringBuffer entrada = new StringBuffer();
+        for (int i=0; i < 999; i++)
+            entrada.append("ab");
+        
+        assertFalse(afnc.acepta(entrada.toString()));
+        assertTrue(afnc.acepta(entrada.append("ab").toString()));
+        assertFalse(afnc.acepta(entrada.append("a").toString()));
+    }
+    
+    /**
+     * Test of Reconocedor, en modo de reconocimiento automático.
+     * Una repetición con cota grande debe validarse con contadores,
+     * aun con límites que el AFD desenrollado excedería, y una
+     * expresión sin cotas grandes con el AFD mínimo.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testReconocedor() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, "(a|b)*a(a|b){20}").analizarArbol();
+        assertTrue(AFNContadores.requiereContadores(arbol));
+        
+        try {
+            new Reconocedor(arbol, alfa, new Limites(200, 0, 0), Reconocimiento.AFD_MINIMO);
+            fail("Debió excederse la cantidad máxima de estados");
+        }
+        catch (ExcepcionLimite ex) {
+            System.out.println(ex.getMessage());
+        }
+        
+        Reconocedor reconocedor = new Reconocedor(arbol, alfa, new Limites(200, 0, 0), Reconocimiento.AUTOMATICO);
+        assertEquals(Reconocimiento.CONTADORES, reconocedor.getModo());
+        assertFalse(reconocedor.esDegradado());
+        assertNull(reconocedor.getAFD());
+        assertTrue(reconocedor.acepta("bbabbbbbbbbbbbbbbbbbbbb"));
+        assertFalse(reconocedor.acepta("bbabbbbbbbbbbbbbbbbbbbbb"));
+        assertFalse(reconocedor.acepta("bbabbbbbbbbbbbbbbbbbbbc"));
+        
+        arbol = new AnalizadorSintacticoIterativo(alfa, "(a|b)*ab{2,16}").analizarArbol();
+        assertFalse(AFNContadores.requiereContadores(arbol));
+        
+        reconocedor = new Reconocedor(arbol, alfa, new Limites(), Reconocimiento.AUTOMATICO);
+        assertEquals(Reconocimiento.AFD_MINIMO, reconocedor.getModo());
+        assertNotNull(reconocedor.getAFD());
+        
+        String[] entradas = { "", "ab", "abb", "babbbbbbbbbbbbbbbbb", "abbbbbbbbbbbbbbbbb", "aabba" };
+        for (String entrada : entradas) {
+            Reconocedor conContadores = new Reconocedor(arbol, alfa, new Limites(), Reconocimiento.CONTADORES);
+            assertEquals(reconocedor.acepta(entrada), conContadores.acepta(entrada));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+import estructuras.Estado;
+import estructuras.Transicion;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Antimirov</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AntimirovTest {
+    
+    /**
+     * Test of construir method, of class Antimirov.
+     * El AFN no debe tener más estados que el de Glushkov, ni
+     * transiciones vacías, y debe aceptar el mismo lenguaje que
+     * el AFN de Thompson.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConstruir() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "a+b?|(ab)*", "((a*)*b)+", "(a?b*)?", "[ab]{2,3}a{0}", "(ab){2,}", "(ab|ab)*(a|b)*" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "abab", "ababab", "aabb", "baba", "bbb" };
+        
+        for (String er : expresiones) {
+            NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+            AFN thompson = Thompson.construir(arbol);
+            AFN glushkov = Glushkov.construir(arbol);
+            AFN antimirov = Antimirov.construir(arbol);
+            thompson.setAlfabeto(alfa);
+            antimirov.setAlfabeto(alfa);
+            
+            System.out.printf("%s: Glushkov %d estados (%d transiciones), Antimirov %d estados (%d transiciones)\n", er,
+                glushkov.cantidadEstados(), glushkov.cantidadTransiciones(),
+                antimirov.cantidadEstados(), antimirov.cantidadTransiciones());
+            assertTrue(antimirov.cantidadEstados() <= glushkov.cantidadEstados());
+            
+            for (Estado e : antimirov.getEstados())
+                for (Transicion t : e.getTransiciones())
+                    assertFalse(t.acepta(Alfabeto.VACIO));
+            
+            AFD afd = Subconjuntos.getAFD(antimirov);
+            for (String entrada : entradas) {
+                boolean esperado = Validacion.validarAFN(thompson, entrada).esValido();
+                assertEquals(esperado, Validacion.validarAFN(antimirov, entrada).esValido());
+                assertEquals(esperado, Validacion.validarAFD(afd, entrada).esValido());
+            }
+        }
+    }
+    
+    /**
+     * Test of analizar method, of class AnalizadorSintacticoIterativo.
+     * El análisis debe registrar las cantidades de estados y
+     * transiciones del AFN de la construcción seleccionada.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testCantidades() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        
+        for (Construccion c : Construccion.values()) {
+            AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, "(a|b)*abb");
+            as.setConstruccion(c);
+            AFN afn = as.analizar();
+            
+            String linea = "AFN (" + c + "): " + afn.cantidadEstados() + " estados, "
+                         + afn.cantidadTransiciones() + " transiciones";
+            System.out.println(linea);
+            assertTrue(as.getLog().toString().contains(linea));
+        }
+    }
+}
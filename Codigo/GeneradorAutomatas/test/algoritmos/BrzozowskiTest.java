@@ -0,0 +1,89 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import estructuras.AFD;
+import estructuras.AFN;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Brzozowski</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class BrzozowskiTest {
+    
+    /**
+     * Test of getAFD method, of class Brzozowski.
+     * Debe obtener un AFD con la misma cantidad de estados que
+     * <code>Minimizacion</code>, que acepte las mismas entradas.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFD() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "(ab|a)*b{2,3}", "a?(ba)+b*", "[ab]{2,}a", "(a|b)*a(a|b){5}" };
+        Random aleatorio = new Random(2008);
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            AFD minimo = Minimizacion.getAFDminimo(Subconjuntos.getAFDBits(afn)).getAfdPostIdentidades();
+            AFD afd = Brzozowski.getAFD(afn);
+            
+            System.out.printf("%s: %d estados, Brzozowski %d estados\n", er, minimo.cantidadEstados(), afd.cantidadEstados());
+            assertEquals(minimo.cantidadEstados(), afd.cantidadEstados());
+            
+            for (int k=0; k < 200; k++) {
+                StringBuilder entrada = new StringBuilder();
+                int largo = aleatorio.nextInt(20);
+                for (int i=0; i < largo; i++)
+                    entrada.append(aleatorio.nextBoolean() ? 'a' : 'b');
+                
+                assertEquals(Validacion.validarAFD(minimo, entrada.toString()).esValido(),
+                             Validacion.validarAFD(afd, entrada.toString()).esValido());
+            }
+        }
+    }
+    
+    /**
+     * Test of getAFDminimo method, of class Brzozowski.
+     * Si el AFD del AFN es exponencial pero el mínimo es pequeño,
+     * debe obtenerse el mínimo sin construir el primero, que
+     * excedería el límite de estados.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFDminimo() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("abc"), "(a|b)*a(a|b){12}|(a|b)*").analizar();
+        Limites limites = new Limites(1000, 0, 0);
+        
+        try {
+            Subconjuntos.getAFDBits(afn, limites);
+            fail("Debió excederse la cantidad máxima de estados");
+        }
+        catch (ExcepcionLimite ex) {
+            assertEquals(ExcepcionLimite.Motivo.ESTADOS, ex.getMotivo());
+        }
+        
+        AFD afd = Brzozowski.getAFDminimo(afn, limites);
+        System.out.printf("%s", Brzozowski.getLog());
+        
+        /* El lenguaje son las cadenas de a y b, sin c */
+        assertEquals(1, afd.cantidadEstados());
+        assertTrue(Validacion.validarAFD(afd, "").esValido());
+        assertTrue(Validacion.validarAFD(afd, "aaa").esValido());
+        assertTrue(Validacion.validarAFD(afd, "babbbbbbbbbbbbb").esValido());
+        assertFalse(Validacion.validarAFD(afd, "bbabc").esValido());
+        
+        /* Si el AFD del AFN es pequeño, se minimiza normalmente */
+        AFN pequeno = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*abb").analizar();
+        assertEquals(4, Brzozowski.getAFDminimo(pequeno, new Limites()).cantidadEstados());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>ConstruccionDirecta</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ConstruccionDirectaTest {
+    
+    /**
+     * Test of getAFD method, of class ConstruccionDirecta.
+     * Ejemplo 3.37 del libro de Compiladores de Aho (2a. ed).
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testEjemploLibro() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        AFD afd = new AnalizadorSintacticoIterativo(alfa, "(a|b)*abb").analizarAFD();
+        
+        System.out.println(afd.estadosDtoString());
+        assertEquals(4, afd.cantidadEstados());
+        assertEquals("[1, 2, 3]", afd.getEstadosD().obtener(0).toString());
+        assertEquals("[1, 2, 3, 6]", afd.getEstadosD().obtener(3).toString());
+        assertTrue(afd.getEstado(3).getEsFinal());
+    }
+    
+    /**
+     * Test of getAFD method, of class ConstruccionDirecta.
+     * Debe aceptar el mismo lenguaje que el AFD obtenido a partir
+     * del AFN de Thompson.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testMismoLenguaje() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "a+b?|(ab)*", "((a*)*b)+", "(a?b*)?", "[ab]{2,3}a{0}", "(ab){2,}", "(a|b)*a(a|b)(a|b)" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "abab", "ababab", "aabb", "baba", "bbb" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+            AFD subconjuntos = Subconjuntos.getAFD(afn);
+            AFD directo = new AnalizadorSintacticoIterativo(alfa, er).analizarAFD();
+            
+            System.out.printf("%s: Subconjuntos %d estados, directo %d estados\n", er,
+                subconjuntos.cantidadEstados(), directo.cantidadEstados());
+            
+            for (String entrada : entradas)
+                assertEquals(Validacion.validarAFD(subconjuntos, entrada).esValido(),
+                             Validacion.validarAFD(directo, entrada).esValido());
+        }
+    }
+    
+    /**
+     * Test of getAFD method, of class ConstruccionDirecta.
+     * El <code>Log</code> se registra solamente si se pide, y se
+     * limita a <code>MAX_PASOS_LOG</code> líneas por etapa.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testRegistrar() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        int cantidad = 3 * ConstruccionDirecta.MAX_PASOS_LOG;
+        StringBuffer er = new StringBuffer();
+        for (int i=0; i < cantidad; i++)
+            er.append((i % 3 == 0) ? 'b' : 'a');
+        
+        AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, er);
+        NodoExprReg arbol = as.analizarArbol();
+        
+        AFD afd = ConstruccionDirecta.getAFD(arbol, alfa, "", new Limites());
+        String log = ConstruccionDirecta.getLog().toString();
+        assertNull(afd.getEstadosD());
+        assertEquals(0, contar(log, "siguientepos"));
+        
+        afd = ConstruccionDirecta.getAFD(arbol, alfa, "");
+        log = ConstruccionDirecta.getLog().toString();
+        System.out.printf("%d caracteres de log\n", log.length());
+        
+        assertEquals(cantidad + 1, afd.getEstadosD().cantidad());
+        assertEquals(2 * ConstruccionDirecta.MAX_PASOS_LOG, contar(log, "siguientepos"));
+        assertTrue(log.contains("(" + (cantidad - ConstruccionDirecta.MAX_PASOS_LOG) + " posiciones no registradas)"));
+        assertTrue(log.contains("(" + (2 * (cantidad + 1) - ConstruccionDirecta.MAX_PASOS_LOG) + " pasos no registrados, "));
+    }
+    
+    /**
+     * Cuenta las apariciones de un texto en el <code>Log</code>.
+     * @param log El texto del <code>Log</code>.
+     * @param texto El texto a buscar.
+     * @return La cantidad de apariciones.
+     */
+    private int contar(String log, String texto) {
+        int cantidad = 0;
+        for (int i = log.indexOf(texto); i >= 0; i = log.indexOf(texto, i + 1))
+            cantidad++;
+        
+        return cantidad;
+    }
+}
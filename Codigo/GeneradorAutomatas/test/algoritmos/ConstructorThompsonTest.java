@@ -0,0 +1,78 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFN;
+import estructuras.Estado;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>ConstructorThompson</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ConstructorThompsonTest {
+    
+    /**
+     * Test of construir method, of class ConstructorThompson.
+     * Debe aceptar el mismo lenguaje que <code>Thompson.construir</code>,
+     * con a lo sumo la misma cantidad de estados.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConstruir() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "a+b?|(ab)*", "(a|b|ab)+", "((a*)*b)+", "(a|b){2}b?", "([ab]a){1,}" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "aaaab", "abab", "aabb", "baba", "bbb" };
+        
+        for (String er : expresiones) {
+            NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+            AFN thompson = Thompson.construir(arbol);
+            AFN arena = ConstructorThompson.construir(arbol);
+            
+            System.out.printf("%s: Thompson %d estados, arena %d estados\n", er,
+                thompson.cantidadEstados(), arena.cantidadEstados());
+            assertTrue(arena.cantidadEstados() <= thompson.cantidadEstados());
+            
+            /* Único estado final, el último, sin transiciones salientes */
+            Estado fin = arena.getEstado(arena.cantidadEstados() - 1);
+            assertEquals(1, arena.getEstadosFinales().cantidad());
+            assertTrue(fin.getEsFinal());
+            assertTrue(fin.getTransiciones().estaVacio());
+            
+            for (String entrada : entradas)
+                assertEquals(Validacion.validarAFN(thompson, entrada).esValido(),
+                             Validacion.validarAFN(arena, entrada).esValido());
+        }
+    }
+    
+    /**
+     * Test of construir method, of class ConstructorThompson.
+     * Una concatenación larga no debe copiar los AFN parciales.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConcatenacionLarga() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        StringBuffer er = new StringBuffer();
+        for (int i=0; i < 20000; i++)
+            er.append((i % 3 == 0) ? "(a|b)" : "a");
+        
+        AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, er);
+        as.setConstruccion(Construccion.THOMPSON_ARENA);
+        
+        long inicio = System.currentTimeMillis();
+        AFN afn = as.analizar();
+        
+        System.out.printf("%d estados en %d ms\n", afn.cantidadEstados(),
+            System.currentTimeMillis() - inicio);
+        assertEquals(33335, afn.cantidadEstados());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import estructuras.AFD;
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>DaciukMihov</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class DaciukMihovTest {
+    
+    /**
+     * Test of getAFD method, of class DaciukMihov.
+     * Con las palabras en orden, desordenadas o repetidas, debe
+     * obtenerse el mismo AFD mínimo que minimizando el AFD de la
+     * unión de las palabras.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFD() throws Exception {
+        Alfabeto alfa = new Alfabeto("abc");
+        Random aleatorio = new Random(2008);
+        
+        for (int k=0; k < 50; k++) {
+            List<String> palabras = new ArrayList<String>();
+            int cantidad = 1 + aleatorio.nextInt(40);
+            for (int i=0; i < cantidad; i++)
+                palabras.add(palabra(aleatorio, 1 + aleatorio.nextInt(8)));
+            
+            TreeSet<String> conjunto = new TreeSet<String>(palabras);
+            StringBuilder er = new StringBuilder();
+            for (String p : conjunto)
+                er.append(er.length() > 0 ? "|" : "").append(p);
+            
+            AFD minimo = Minimizacion.getAFDminimo(Subconjuntos.getAFDBits(new AnalizadorSintactico(alfa, er.toString()).analizar())).getAfdPostIdentidades();
+            AFD ordenado = DaciukMihov.getAFD(alfa, conjunto);
+            AFD desordenado = DaciukMihov.getAFD(alfa, palabras);
+            
+            assertEquals(minimo.cantidadEstados(), ordenado.cantidadEstados());
+            assertEquals(minimo.cantidadEstados(), desordenado.cantidadEstados());
+            
+            for (String p : conjunto) {
+                assertTrue(Validacion.validarAFD(ordenado, p).esValido());
+                assertTrue(Validacion.validarAFD(desordenado, p).esValido());
+            }
+            
+            for (int i=0; i < 100; i++) {
+                String p = palabra(aleatorio, aleatorio.nextInt(9));
+                assertEquals(conjunto.contains(p), Validacion.validarAFD(ordenado, p).esValido());
+                assertEquals(conjunto.contains(p), Validacion.validarAFD(desordenado, p).esValido());
+            }
+        }
+        
+        System.out.printf("%s", DaciukMihov.getLog());
+    }
+    
+    /**
+     * Test of getAFD method, of class DaciukMihov.
+     * Debe leer las palabras de un archivo, una por línea, y obtener
+     * el alfabeto a partir de las mismas si no se establece uno.
+     * @throws Exception En caso de fallar la escritura del archivo.
+     */
+    @Test
+    public void testArchivo() throws Exception {
+        List<String> palabras = new ArrayList<String>();
+        for (int i=0; i < 20000; i++)
+            palabras.add(Integer.toString(i * 7919, 36));
+        
+        Collections.shuffle(palabras, new Random(2008));
+        
+        File archivo = File.createTempFile("palabras", ".txt");
+        archivo.deleteOnExit();
+        
+        PrintWriter escritor = new PrintWriter(archivo, "UTF-8");
+        for (String p : palabras)
+            escritor.println(p);
+        escritor.println();
+        escritor.close();
+        
+        AFD afd = DaciukMihov.getAFD(null, archivo);
+        AFD ordenado = DaciukMihov.getAFD(null, new TreeSet<String>(palabras));
+        
+        System.out.printf("%d palabras: %d estados, alfabeto %s\n", palabras.size(), afd.cantidadEstados(), afd.getAlfabeto());
+        assertEquals(ordenado.cantidadEstados(), afd.cantidadEstados());
+        assertEquals(36, afd.getAlfabeto().getCantidad());
+        assertTrue(Validacion.validarAFD(afd, Integer.toString(19999 * 7919, 36)).esValido());
+        assertFalse(Validacion.validarAFD(afd, "").esValido());
+        assertFalse(Validacion.validarAFD(afd, "zzzzzz").esValido());
+    }
+    
+    /**
+     * Test of agregar method, of class DaciukMihov.
+     * Una palabra con un símbolo fuera del alfabeto debe rechazarse,
+     * y la palabra vacía hace final al estado inicial.
+     */
+    @Test
+    public void testAgregar() {
+        DaciukMihov constructor = new DaciukMihov(new Alfabeto("ab"));
+        constructor.agregar("ab");
+        
+        try {
+            constructor.agregar("abc");
+            fail("Debió rechazarse el símbolo c");
+        }
+        catch (IllegalArgumentException ex) {
+            System.out.println(ex.getMessage());
+        }
+        
+        constructor.agregar("");
+        AFD afd = constructor.getAFD();
+        assertTrue(afd.getEstadoInicial().getEsFinal());
+        assertEquals(3, afd.cantidadEstados());
+        
+        /* Luego de obtener el AFD pueden seguir agregándose palabras */
+        constructor.agregar("b");
+        constructor.agregar("a");
+        afd = constructor.getAFD();
+        assertEquals(3, afd.cantidadEstados());
+        assertTrue(Validacion.validarAFD(afd, "b").esValido());
+        assertTrue(Validacion.validarAFD(afd, "ab").esValido());
+        assertFalse(Validacion.validarAFD(afd, "ba").esValido());
+    }
+    
+    /**
+     * Obtiene una palabra aleatoria sobre el alfabeto {a, b, c}.
+     * @param aleatorio El generador de números aleatorios.
+     * @param largo El largo de la palabra.
+     * @return La palabra.
+     */
+    private String palabra(Random aleatorio, int largo) {
+        StringBuilder palabra = new StringBuilder();
+        for (int i=0; i < largo; i++)
+            palabra.append((char) ('a' + aleatorio.nextInt(3)));
+        
+        return palabra.toString();
+    }
+}
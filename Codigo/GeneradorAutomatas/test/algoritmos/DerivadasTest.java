@@ -0,0 +1,113 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Derivadas</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class DerivadasTest {
+    
+    /**
+     * Test of getAFD method, of class Derivadas.
+     * El AFD de derivadas y la validación sin construirlo deben
+     * coincidir con el AFD obtenido por el método de subconjuntos.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testMismoLenguaje() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "(ab|a)*b{2,3}", "a?(ba)+b*", "[ab]{2,}a", "((a|b)(a|b))*" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aabb", "babb", "abab", "bbb", "ababbb", "aaaaaaab" };
+        
+        for (String er : expresiones) {
+            NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+            AFN afn = Thompson.construir(arbol);
+            afn.setAlfabeto(alfa);
+            AFD subconjuntos = Subconjuntos.getAFD(afn);
+            AFD derivadas = new Derivadas(arbol, alfa).getAFD();
+            Derivadas perezoso = new Derivadas(arbol, alfa);
+            
+            System.out.printf("%s: %d estados (subconjuntos %d)\n", er,
+                derivadas.cantidadEstados(), subconjuntos.cantidadEstados());
+            
+            for (String entrada : entradas) {
+                boolean esperado = Validacion.validarAFD(subconjuntos, entrada).esValido();
+                assertEquals(esperado, Validacion.validarAFD(derivadas, entrada).esValido());
+                assertEquals(esperado, perezoso.acepta(entrada));
+            }
+        }
+    }
+    
+    /**
+     * Test of acepta method, of class Derivadas.
+     * La validación debe calcular solamente los estados alcanzados,
+     * y las derivadas iguales deben compartirse.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testPerezoso() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, "(a|b)*a(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)").analizarArbol();
+        Derivadas der = new Derivadas(arbol, alfa);
+        
+        assertTrue(der.acepta("bbbabbbbbbb"));
+        assertFalse(der.acepta("bbbbbbbbbbb"));
+        int explorados = der.cantidadTerminos();
+        
+        AFD afd = der.getAFD();
+        System.out.printf("%s: %d expresiones al validar, %d estados del AFD\n", arbol, explorados, afd.cantidadEstados());
+        
+        assertEquals(256, afd.cantidadEstados());
+        assertTrue(explorados < afd.cantidadEstados());
+        assertEquals(0, der.getLog().toString().length());
+    }
+    
+    /**
+     * Test of getAFD method, of class Derivadas.
+     * El <code>Log</code> se registra solamente si se pide, y se
+     * limita a <code>Subconjuntos.MAX_PASOS_LOG</code> pasos.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testRegistrar() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, "(a|b)*a(a|b){13}").analizarArbol();
+        Derivadas der = new Derivadas(arbol, alfa);
+        
+        AFD afd = der.getAFD(true);
+        String log = der.getLog().toString();
+        long pasos = 2L * afd.cantidadEstados();
+        System.out.printf("%d estados, %d caracteres de log\n", afd.cantidadEstados(), log.length());
+        
+        assertEquals(16384, afd.cantidadEstados());
+        assertEquals(Subconjuntos.MAX_PASOS_LOG, contar(log, "  d"));
+        assertTrue(log.contains("(" + (pasos - Subconjuntos.MAX_PASOS_LOG) + " pasos no registrados, "));
+    }
+    
+    /**
+     * Cuenta las apariciones de un texto en el <code>Log</code>.
+     * @param log El texto del <code>Log</code>.
+     * @param texto El texto a buscar.
+     * @return La cantidad de apariciones.
+     */
+    private int contar(String log, String texto) {
+        int cantidad = 0;
+        for (int i = log.indexOf(texto); i >= 0; i = log.indexOf(texto, i + 1))
+            cantidad++;
+        
+        return cantidad;
+    }
+}
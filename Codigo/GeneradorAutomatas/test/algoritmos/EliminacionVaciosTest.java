@@ -0,0 +1,88 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import estructuras.AFD;
+import estructuras.AFN;
+import estructuras.Estado;
+import estructuras.Transicion;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>EliminacionVacios</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class EliminacionVaciosTest {
+    
+    /**
+     * Test of getAFN method, of class EliminacionVacios.
+     * El AFN obtenido no debe tener transiciones vacías, debe tener
+     * menos estados, y debe aceptar el mismo lenguaje que el original.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFN() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "((a*)*b*)*", "(((a|b)*)*)*a", "a?b+|(ab)*", "([ab]{2})*b?" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "abab", "ababab", "aabb", "baba", "bbb" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+            AFN sinVacios = EliminacionVacios.getAFN(afn);
+            
+            System.out.printf("%s: %d estados -> %d estados\n", er,
+                afn.cantidadEstados(), sinVacios.cantidadEstados());
+            assertTrue(sinVacios.cantidadEstados() < afn.cantidadEstados());
+            
+            for (Estado e : sinVacios.getEstados())
+                for (Transicion t : e.getTransiciones())
+                    assertFalse(t.acepta(Alfabeto.VACIO));
+            
+            AFD afd = Subconjuntos.getAFD(sinVacios);
+            for (String entrada : entradas) {
+                boolean esperado = Validacion.validarAFN(afn, entrada).esValido();
+                assertEquals(esperado, Validacion.validarAFN(sinVacios, entrada).esValido());
+                assertEquals(esperado, Validacion.validarAFD(afd, entrada).esValido());
+            }
+        }
+    }
+    
+    /**
+     * Test of getAFN method, of class EliminacionVacios.
+     * Un AFN grande debe procesarse con memoria proporcional a sus
+     * transiciones, y el <code>Log</code> de las cerraduras se
+     * registra solamente si se pide.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testAFNGrande() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        StringBuffer er = new StringBuffer();
+        for (int i=0; i < 30000; i++)
+            er.append("(a|b+)");
+        
+        AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, er);
+        as.setConstruccion(Construccion.THOMPSON_ARENA);
+        AFN afn = as.analizar();
+        
+        long inicio = System.currentTimeMillis();
+        AFN sinVacios = EliminacionVacios.getAFN(afn);
+        System.out.printf("%d estados -> %d estados en %d ms\n", afn.cantidadEstados(),
+            sinVacios.cantidadEstados(), System.currentTimeMillis() - inicio);
+        
+        assertTrue(afn.cantidadEstados() > 100000);
+        assertEquals(60001, sinVacios.cantidadEstados());
+        assertFalse(EliminacionVacios.getLog().toString().contains("cerradura("));
+        
+        EliminacionVacios.getAFN(afn, true);
+        String log = EliminacionVacios.getLog().toString();
+        assertTrue(log.contains("(" + (60001 - Subconjuntos.MAX_PASOS_LOG) + " cerraduras no registradas)"));
+    }
+}
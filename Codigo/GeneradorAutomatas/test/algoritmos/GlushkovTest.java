@@ -0,0 +1,90 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
+import estructuras.AFD;
+import estructuras.AFN;
+import estructuras.Estado;
+import estructuras.Transicion;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Glushkov</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class GlushkovTest {
+    
+    /**
+     * Test of construir method, of class Glushkov.
+     * El AFN debe tener un estado por posición más el inicial,
+     * ninguna transición vacía, y aceptar el mismo lenguaje que
+     * el AFN de Thompson.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConstruir() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "a+b?|(ab)*", "((a*)*b)+", "(a?b*)?", "[ab]{2,3}a{0}", "(ab){2,}" };
+        int[] posiciones = { 5, 4, 2, 2, 3, 4 };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "abab", "ababab", "aabb", "baba", "bbb" };
+        
+        for (int i=0; i < expresiones.length; i++) {
+            NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, expresiones[i]).analizarArbol();
+            AFN thompson = Thompson.construir(arbol);
+            AFN glushkov = Glushkov.construir(arbol);
+            thompson.setAlfabeto(alfa);
+            glushkov.setAlfabeto(alfa);
+            
+            System.out.printf("%s: Thompson %d estados, Glushkov %d estados\n", expresiones[i],
+                thompson.cantidadEstados(), glushkov.cantidadEstados());
+            assertEquals(posiciones[i] + 1, glushkov.cantidadEstados());
+            
+            for (Estado e : glushkov.getEstados())
+                for (Transicion t : e.getTransiciones())
+                    assertFalse(t.acepta(Alfabeto.VACIO));
+            
+            AFD afd = Subconjuntos.getAFD(glushkov);
+            for (String entrada : entradas) {
+                boolean esperado = Validacion.validarAFN(thompson, entrada).esValido();
+                assertEquals(esperado, Validacion.validarAFN(glushkov, entrada).esValido());
+                assertEquals(esperado, Validacion.validarAFD(afd, entrada).esValido());
+            }
+        }
+    }
+    
+    /**
+     * Test of construir method, of class Glushkov.
+     * Una concatenación larga debe construirse con conjuntos de
+     * posiciones proporcionales a su tamaño: cada posición tiene
+     * una única siguiente, y el AFD directo tiene un estado por posición.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConcatenacionLarga() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        int cantidad = 200000;
+        StringBuffer er = new StringBuffer();
+        for (int i=0; i < cantidad; i++)
+            er.append((i % 3 == 0) ? 'b' : 'a');
+        
+        long inicio = System.currentTimeMillis();
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+        AFN afn = Glushkov.construir(arbol);
+        AFD afd = ConstruccionDirecta.getAFD(arbol, alfa, "", new Limites());
+        
+        System.out.printf("%d posiciones en %d ms\n", cantidad, System.currentTimeMillis() - inicio);
+        assertEquals(cantidad + 1, afn.cantidadEstados());
+        assertEquals(cantidad, afn.cantidadTransiciones());
+        assertEquals(cantidad + 1, afd.cantidadEstados());
+        assertTrue(afd.getEstado(cantidad).getEsFinal());
+        assertNull(afd.getEstadosD());
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import analisis.AnalizadorSintacticoIterativo;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Limites</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class LimitesTest {
+    
+    /**
+     * Test of verificarAFD method, of class Limites.
+     * La conversión de una expresión con AFD exponencial debe
+     * interrumpirse al superar la cantidad máxima de estados,
+     * con las estadísticas de la etapa interrumpida.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testMaxEstados() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*a(a|b){12}").analizar();
+        
+        for (int k=0; k < 3; k++) {
+            Limites limites = new Limites(500, 0, 0);
+            
+            try {
+                if (k == 0)
+                    Subconjuntos.getAFD(afn, limites);
+                else if (k == 1)
+                    Subconjuntos.getAFDBits(afn, limites);
+                else
+                    Subconjuntos.getAFDParalelo(afn, 2, limites);
+                
+                fail("Debió excederse la cantidad máxima de estados");
+            }
+            catch (ExcepcionLimite ex) {
+                System.out.println(ex.getMessage());
+                assertEquals(ExcepcionLimite.Motivo.ESTADOS, ex.getMotivo());
+                assertEquals("Subconjuntos", ex.getEtapa());
+                assertTrue(ex.getEstados() > 500);
+                assertTrue(ex.getEstados() <= 502);
+                assertTrue(ex.getTransiciones() > 0);
+                assertTrue(ex.getMemoria() > 0);
+            }
+        }
+        
+        /* Sin límites, la conversión es la misma de siempre */
+        AFD afd = Subconjuntos.getAFDBits(afn, new Limites(0, 0, 0));
+        assertEquals(Subconjuntos.getAFDBits(afn).cantidadEstados(), afd.cantidadEstados());
+    }
+    
+    /**
+     * Test of verificarAFN method, of class Limites.
+     * La construcción de Thompson debe interrumpirse al superar la
+     * memoria máxima, y la cantidad máxima de estados no se aplica
+     * a los AFN.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testMaxMemoria() throws Exception {
+        String er = "((a|b)(ab|ba)*){30}";
+        
+        AnalizadorSintacticoIterativo iterativo = new AnalizadorSintacticoIterativo(new Alfabeto("ab"), er);
+        iterativo.setLimites(new Limites(0, 20000, 0));
+        try {
+            iterativo.analizar();
+            fail("Debió excederse la memoria máxima");
+        }
+        catch (ExcepcionLimite ex) {
+            System.out.println(ex.getMessage());
+            assertEquals(ExcepcionLimite.Motivo.MEMORIA, ex.getMotivo());
+            assertEquals("Thompson", ex.getEtapa());
+            assertTrue(ex.getMemoria() > 20000);
+        }
+        
+        AnalizadorSintactico recursivo = new AnalizadorSintactico(new Alfabeto("ab"), er);
+        recursivo.setLimites(new Limites(0, 20000, 0));
+        try {
+            recursivo.analizar();
+            fail("Debió excederse la memoria máxima");
+        }
+        catch (ExcepcionLimite ex) {
+            assertEquals(ExcepcionLimite.Motivo.MEMORIA, ex.getMotivo());
+        }
+        
+        recursivo = new AnalizadorSintactico(new Alfabeto("ab"), er);
+        recursivo.setLimites(new Limites(10, 0, 0));
+        AFN afn = recursivo.analizar();
+        assertTrue(afn.cantidadEstados() > 10);
+    }
+    
+    /**
+     * Test of verificarAFD method, of class Limites.
+     * La construcción directa del AFD debe interrumpirse al superar la
+     * cantidad máxima de estados, y las demás construcciones del AFN
+     * deben verificar los límites durante la construcción.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testConstrucciones() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        
+        AnalizadorSintacticoIterativo directo = new AnalizadorSintacticoIterativo(alfa, "(a|b)*a(a|b){12}");
+        directo.setLimites(new Limites(500, 0, 0));
+        try {
+            directo.analizarAFD();
+            fail("Debió excederse la cantidad máxima de estados");
+        }
+        catch (ExcepcionLimite ex) {
+            System.out.println(ex.getMessage());
+            assertEquals(ExcepcionLimite.Motivo.ESTADOS, ex.getMotivo());
+            assertEquals("ConstruccionDirecta", ex.getEtapa());
+            assertEquals(501, ex.getEstados());
+        }
+        
+        Construccion[] construcciones = { Construccion.THOMPSON_ARENA, Construccion.GLUSHKOV, Construccion.ANTIMIROV };
+        String[] etapas = { "ConstructorThompson", "Glushkov", "Antimirov" };
+        
+        for (int i=0; i < construcciones.length; i++) {
+            AnalizadorSintacticoIterativo iterativo = new AnalizadorSintacticoIterativo(alfa, "((a|b)(ab|ba)*){30}");
+            iterativo.setConstruccion(construcciones[i]);
+            iterativo.setLimites(new Limites(0, 4000, 0));
+            
+            try {
+                iterativo.analizar();
+                fail("Debió excederse la memoria máxima");
+            }
+            catch (ExcepcionLimite ex) {
+                System.out.println(ex.getMessage());
+                assertEquals(ExcepcionLimite.Motivo.MEMORIA, ex.getMotivo());
+                assertEquals(etapas[i], ex.getEtapa());
+            }
+        }
+    }
+    
+    /**
+     * Test of cancelar method, of class Limites.
+     * Una construcción cancelada debe interrumpirse en cualquier
+     * etapa, incluso si se permite degradar.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testCancelar() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*abb").analizar();
+        AFD afd = Subconjuntos.getAFDBits(afn);
+        
+        Limites limites = new Limites();
+        limites.setPermitirDegradar(true);
+        limites.cancelar();
+        assertTrue(limites.getCancelado());
+        
+        try {
+            Minimizacion.getAFDminimo(afd, limites);
+            fail("Debió cancelarse la minimización");
+        }
+        catch (ExcepcionLimite ex) {
+            assertEquals(ExcepcionLimite.Motivo.CANCELACION, ex.getMotivo());
+            assertEquals("Minimización", ex.getEtapa());
+        }
+        
+        try {
+            new Reconocedor(afn, limites);
+            fail("Debió cancelarse la conversión");
+        }
+        catch (ExcepcionLimite ex) {
+            assertEquals(ExcepcionLimite.Motivo.CANCELACION, ex.getMotivo());
+            assertEquals("Subconjuntos", ex.getEtapa());
+        }
+    }
+    
+    /**
+     * Test of getPermitirDegradar method, of class Limites.
+     * Al excederse un límite, el <code>Reconocedor</code> debe
+     * validar con un <code>AFDPerezoso</code> si se permite degradar,
+     * y lanzar la excepción en caso contrario.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testDegradar() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*a(a|b){12}").analizar();
+        
+        try {
+            new Reconocedor(afn, new Limites(200, 0, 0));
+            fail("Debió excederse la cantidad máxima de estados");
+        }
+        catch (ExcepcionLimite ex) {
+            assertEquals(ExcepcionLimite.Motivo.ESTADOS, ex.getMotivo());
+        }
+        
+        Limites limites = new Limites(200, 0, 0);
+        limites.setPermitirDegradar(true);
+        Reconocedor degradado = new Reconocedor(afn, limites);
+        
+        System.out.println(degradado.getLimiteExcedido().getMessage());
+        assertTrue(degradado.esDegradado());
+        assertNull(degradado.getAFD());
+        assertTrue(degradado.acepta("bbabbbbbbbbbbbb"));
+        assertFalse(degradado.acepta("bbabbbbbbbbbbbbb"));
+        assertFalse(degradado.acepta("bbabbbbbbbbbbbc"));
+        
+        Reconocedor completo = new Reconocedor(new AnalizadorSintactico(new Alfabeto("ab"), "(a|b)*abb").analizar(), limites);
+        assertFalse(completo.esDegradado());
+        assertNull(completo.getLimiteExcedido());
+        assertEquals(4, completo.getAFD().cantidadEstados());
+        assertTrue(completo.acepta("babb"));
+        assertFalse(completo.acepta("abab"));
+    }
+}
@@ -12,7 +12,11 @@ import algoritmos.Minimizacion;
 import algoritmos.Subconjuntos;
 import analisis.Alfabeto;
 import analisis.AnalizadorSintactico;
+import estructuras.Estado;
+import estructuras.Transicion;
+import java.util.Random;
 import org.junit.Test;
+import static org.junit.Assert.*;
 
 /**
  * Clase de prueba para la clase <code>Minimizacion</code>.
@@ -41,4 +45,117 @@ public class MinimizacionTest {
         
         System.out.printf("\nParticiones:\n%s", Minimizacion.getLog());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test of getAFDminimo method, of class Minimizacion.
+     * El algoritmo de Hopcroft debe obtener las mismas etapas que el
+     * refinamiento por pasadas, incluso con transiciones faltantes.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testHopcroft() throws Exception {
+        String[] expresiones = { "(a|b)*abb", "(ab|a)*b{2,3}", "a?(ba)+b*", "(a|b)*a(a|b){6}", "(aa|bb)*(ab|ba)?", "a*|b*|c" };
+        Alfabeto alfa = new Alfabeto("abc");
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            AFD afd = Subconjuntos.getAFDBits(afn);
+            
+            AFDMin pasadas = Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.PASADAS, 1);
+            AFDMin hopcroft = Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.HOPCROFT, 1);
+            
+            System.out.printf("%s: %d estados, %d minimizado\n", er,
+                afd.cantidadEstados(), hopcroft.getAfdPostMinimizacion().cantidadEstados());
+            assertEquals(descripcion(pasadas.getAfdPostInalcanzables()), descripcion(hopcroft.getAfdPostInalcanzables()));
+            assertEquals(descripcion(pasadas.getAfdPostMinimizacion()), descripcion(hopcroft.getAfdPostMinimizacion()));
+            assertEquals(descripcion(pasadas.getAfdPostIdentidades()), descripcion(hopcroft.getAfdPostIdentidades()));
+        }
+    }
+    
+    /**
+     * Test of getAFDminimo method, of class Minimizacion.
+     * El refinamiento en paralelo debe obtener el mismo AFD mínimo
+     * que el algoritmo de Hopcroft, cualquiera sea la cantidad de hilos.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testParalelo() throws Exception {
+        String[] expresiones = { "(a|b)*abb", "(a|b)*a(a|b){8}", "(aa|bb)*(ab|ba)?c", "((a|b)(ab|ba)*){3}" };
+        Alfabeto alfa = new Alfabeto("abc");
+        
+        for (String er : expresiones) {
+            AFD afd = Subconjuntos.getAFDBits(new AnalizadorSintactico(alfa, er).analizar());
+            String esperado = descripcion(Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.HOPCROFT, 1).getAfdPostIdentidades());
+            
+            for (int hilos=1; hilos <= 8; hilos *= 2) {
+                AFDMin paralelo = Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.PARALELO, hilos);
+                assertEquals(esperado, descripcion(paralelo.getAfdPostIdentidades()));
+            }
+            
+            System.out.printf("%s: %d estados\n", er, afd.cantidadEstados());
+        }
+    }
+    
+    /**
+     * Test of getAFDminimo method, of class Minimizacion.
+     * La minimización incremental debe obtener las mismas etapas que
+     * el algoritmo de Hopcroft y, si se interrumpe, un AFD equivalente
+     * al original.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testIncremental() throws Exception {
+        String[] expresiones = { "(a|b)*abb", "(ab|a)*b{2,3}", "(a|b)*a(a|b){6}", "(aa|bb)*(ab|ba)?c", "a*|b*|c" };
+        Alfabeto alfa = new Alfabeto("abc");
+        Random aleatorio = new Random(2008);
+        
+        for (String er : expresiones) {
+            AFD afd = Subconjuntos.getAFDBits(new AnalizadorSintactico(alfa, er).analizar());
+            
+            AFDMin hopcroft = Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.HOPCROFT, 1);
+            AFDMin incremental = Minimizacion.getAFDminimo(afd, new Limites(), Refinamiento.INCREMENTAL, 1);
+            
+            assertTrue(incremental.getEsMinimo());
+            assertEquals(descripcion(hopcroft.getAfdPostMinimizacion()), descripcion(incremental.getAfdPostMinimizacion()));
+            assertEquals(descripcion(hopcroft.getAfdPostIdentidades()), descripcion(incremental.getAfdPostIdentidades()));
+            
+            /* Interrumpida antes de empezar, no se une ningún estado */
+            Limites cancelados = new Limites();
+            cancelados.cancelar();
+            AFDMin interrumpida = Minimizacion.getAFDminimo(afd, cancelados, Refinamiento.INCREMENTAL, 1);
+            
+            System.out.printf("%s: %d estados, %d minimizado, %d interrumpido\n", er, afd.cantidadEstados(),
+                incremental.getAfdPostMinimizacion().cantidadEstados(), interrumpida.getAfdPostMinimizacion().cantidadEstados());
+            assertFalse(interrumpida.getEsMinimo());
+            assertEquals(interrumpida.getAfdPostInalcanzables().cantidadEstados(), interrumpida.getAfdPostMinimizacion().cantidadEstados());
+            
+            for (int k=0; k < 200; k++) {
+                StringBuilder entrada = new StringBuilder();
+                int largo = aleatorio.nextInt(12);
+                for (int i=0; i < largo; i++)
+                    entrada.append(alfa.getSimbolo(aleatorio.nextInt(3)));
+                
+                assertEquals(Validacion.validarAFD(afd, entrada.toString()).esValido(),
+                             Validacion.validarAFD(interrumpida.getAfdPostIdentidades(), entrada.toString()).esValido());
+            }
+        }
+    }
+    
+    /**
+     * Describe los estados de un AFD, con sus etiquetas y transiciones.
+     * @param afd El AFD a describir.
+     * @return La descripción del AFD.
+     */
+    private String descripcion(AFD afd) {
+        StringBuilder texto = new StringBuilder();
+        
+        for (Estado e : afd.getEstados()) {
+            texto.append(e).append(e.getEtiqueta()).append(":");
+            for (Transicion t : e.getTransiciones())
+                texto.append(" ").append(t.getSimbolo()).append(t.getEstado());
+            texto.append("\n");
+        }
+        
+        return texto.toString();
+    }
+}
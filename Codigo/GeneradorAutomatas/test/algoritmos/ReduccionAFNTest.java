@@ -0,0 +1,53 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package algoritmos;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintacticoIterativo;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>ReduccionAFN</code>.
+ * @author Germán Hüttemann
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class ReduccionAFNTest {
+    
+    /**
+     * Test of getAFN method, of class ReduccionAFN.
+     * El AFN reducido debe tener menos estados y
+     * aceptar el mismo lenguaje que el original.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFN() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "ab|ab|ab", "(a|b)*a(a|b)b|(a|b)*abb", "a{3,5}|a{4}", "(ab)*|(ab)+" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aab", "aaab", "aaaa", "aaaaaa", "abab", "ababab", "aabb", "bbabb" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+            AFN reducido = ReduccionAFN.getAFN(afn);
+            
+            System.out.printf("%s: %d estados -> %d estados\n", er,
+                afn.cantidadEstados(), reducido.cantidadEstados());
+            assertTrue(reducido.cantidadEstados() < afn.cantidadEstados());
+            
+            AFD afd = Subconjuntos.getAFD(reducido);
+            for (String entrada : entradas) {
+                boolean esperado = Validacion.validarAFN(afn, entrada).esValido();
+                assertEquals(esperado, Validacion.validarAFN(reducido, entrada).esValido());
+                assertEquals(esperado, Validacion.validarAFD(afd, entrada).esValido());
+            }
+        }
+        
+        assertTrue(ReduccionAFN.getLog().toString().contains("razón de reducción"));
+    }
+}
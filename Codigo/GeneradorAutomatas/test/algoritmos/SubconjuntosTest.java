@@ -11,7 +11,10 @@ import estructuras.AFN;
 import algoritmos.Subconjuntos;
 import analisis.Alfabeto;
 import analisis.AnalizadorSintactico;
+import analisis.AnalizadorSintacticoIterativo;
+import analisis.NodoExprReg;
 import org.junit.Test;
+import static org.junit.Assert.*;
 
 /**
  * Clase de prueba para la clase <code>Subconjuntos</code>
@@ -72,4 +75,134 @@ public class SubconjuntosTest {
         
         System.out.printf("\nConjuntos estados producidos:\n%s", Subconjuntos.getLog());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Test of getAFDBits method, of class Subconjuntos.
+     * Debe producir el mismo AFD, los mismos estadosD y el mismo
+     * log que el algoritmo sobre objetos <code>Conjunto</code>.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFDBits() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "(a|b)*a(a|b)(a|b)", "((a|b)(a|b))*|a+b?", "[ab]*a[ab]{3}" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            
+            AFD afd = Subconjuntos.getAFD(afn);
+            String log = Subconjuntos.getLog().toString();
+            AFD afdBits = Subconjuntos.getAFDBits(afn);
+            
+            System.out.printf("%s: %d estados\n", er, afdBits.cantidadEstados());
+            assertEquals(afd.toString(), afdBits.toString());
+            assertEquals(afd.estadosDtoString(), afdBits.estadosDtoString());
+            assertEquals(log, Subconjuntos.getLog().toString());
+        }
+    }
+    
+    /**
+     * Test of getAFDParalelo method, of class Subconjuntos.
+     * Con cualquier cantidad de hilos, debe producir el mismo AFD,
+     * los mismos estadosD y el mismo log que <code>getAFDBits</code>.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetAFDParalelo() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "(a|b)*a(a|b){6}", "((a|b)(a|b))*|a+b?", "[ab]*a[ab]{3}" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            
+            AFD afd = Subconjuntos.getAFDBits(afn);
+            String log = Subconjuntos.getLog().toString();
+            
+            for (int hilos=1; hilos <= 4; hilos++) {
+                AFD afdParalelo = Subconjuntos.getAFDParalelo(afn, hilos);
+                
+                System.out.printf("%s (%d hilos): %d estados\n", er, hilos, afdParalelo.cantidadEstados());
+                assertEquals(afd.toString(), afdParalelo.toString());
+                assertEquals(afd.estadosDtoString(), afdParalelo.estadosDtoString());
+                assertEquals(log, Subconjuntos.getLog().toString());
+            }
+        }
+    }
+    
+    /**
+     * Test of getAFDBits method, of class Subconjuntos.
+     * Sin registrar los pasos, debe producir el mismo AFD, y al
+     * registrarlos no deben superarse los <code>MAX_PASOS_LOG</code>
+     * pasos, con cualquier cantidad de hilos.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testRegistrar() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        AFN afn = new AnalizadorSintactico(alfa, "(a|b)*a(a|b){13}").analizar();
+        
+        AFD afd = Subconjuntos.getAFDBits(afn, new Limites(), false);
+        String log = Subconjuntos.getLog().toString();
+        System.out.printf("Sin registrar: %d estados\n%s", afd.cantidadEstados(), log);
+        assertFalse(log.contains("cerradura(mover"));
+        
+        AFD afdRegistrado = Subconjuntos.getAFDBits(afn, new Limites(), true);
+        String logRegistrado = Subconjuntos.getLog().toString();
+        assertEquals(afd.toString(), afdRegistrado.toString());
+        assertEquals(Subconjuntos.MAX_PASOS_LOG, contar(logRegistrado, "cerradura(mover"));
+        assertTrue(logRegistrado.contains((2 * afd.cantidadEstados() - Subconjuntos.MAX_PASOS_LOG) + " pasos no registrados"));
+        
+        for (int hilos=1; hilos <= 3; hilos++) {
+            AFD afdParalelo = Subconjuntos.getAFDParalelo(afn, hilos, new Limites(), true);
+            assertEquals(afd.toString(), afdParalelo.toString());
+            assertEquals(logRegistrado, Subconjuntos.getLog().toString());
+        }
+    }
+    
+    /**
+     * Test of getAFDBits method, of class Subconjuntos.
+     * Los conjuntos de estados del AFN de un literal largo tienen un
+     * único estado cada uno, por lo que la memoria de los conjuntos
+     * registrados debe ser proporcional a la cantidad de estados del
+     * AFD, y no a esa cantidad por la cantidad de estados del AFN.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testLiteralLargo() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        int cantidad = 200000;
+        StringBuffer er = new StringBuffer();
+        for (int i=0; i < cantidad; i++)
+            er.append((i % 3 == 0) ? 'b' : 'a');
+        
+        NodoExprReg arbol = new AnalizadorSintacticoIterativo(alfa, er).analizarArbol();
+        AFN afn = Glushkov.construir(arbol);
+        afn.setAlfabeto(alfa);
+        
+        /* Con la memoria de los conjuntos como arreglos de bits completos, se excedería el límite */
+        Limites limites = new Limites(0, 64L * 1024 * 1024, 0);
+        
+        long inicio = System.currentTimeMillis();
+        AFD afd = Subconjuntos.getAFDBits(afn, limites);
+        System.out.printf("%d estados en %d ms\n", afd.cantidadEstados(), System.currentTimeMillis() - inicio);
+        
+        assertEquals(cantidad + 1, afd.cantidadEstados());
+        assertEquals(cantidad, afd.cantidadTransiciones());
+        assertTrue(afd.getEstado(cantidad).getEsFinal());
+        assertFalse(afd.getEstado(cantidad - 1).getEsFinal());
+    }
+    
+    /**
+     * Cuenta las apariciones de un texto en otro.
+     * @param texto El texto donde buscar.
+     * @param buscado El texto buscado.
+     * @return La cantidad de apariciones.
+     */
+    private int contar(String texto, String buscado) {
+        int cantidad = 0;
+        for (int i = texto.indexOf(buscado); i >= 0; i = texto.indexOf(buscado, i + 1))
+            cantidad++;
+        
+        return cantidad;
+    }
+}
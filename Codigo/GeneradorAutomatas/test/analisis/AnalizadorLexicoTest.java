@@ -0,0 +1,182 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import java.util.Vector;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>AnalizadorLexico</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AnalizadorLexicoTest {
+    
+    /**
+     * Test of sgteToken method, of class AnalizadorLexico.
+     * La secuencia de tokens debe ser la misma sobre un <code>String</code>
+     * y sobre un arreglo de caracteres, omitiendo los espacios en blanco.
+     * @throws Exception En caso de fallar el análisis léxico.
+     */
+    @Test
+    public void testSgteToken() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String er = "a* (b|\t\n a)+ \r\f ?[ab]{2,}.";
+        TokenExprReg[] esperados = {
+            TokenExprReg.ALFABETO, TokenExprReg.CERRADURA_KLEENE,
+            TokenExprReg.PAREN_IZQUIERDO, TokenExprReg.ALFABETO,
+            TokenExprReg.UNION, TokenExprReg.ALFABETO,
+            TokenExprReg.PAREN_DERECHO, TokenExprReg.CERRADURA_POSITIVA,
+            TokenExprReg.OPCION, TokenExprReg.CLASE,
+            TokenExprReg.REPETICION, TokenExprReg.CLASE
+        };
+        
+        Vector<Token> desdeCadena = tokens(new AnalizadorLexico(alfa, er));
+        Vector<Token> desdeArreglo = tokens(new AnalizadorLexico(alfa, er.toCharArray()));
+        System.out.printf("%s\n%s\n", desdeCadena, desdeArreglo);
+        
+        assertEquals(esperados.length, desdeCadena.size());
+        assertEquals(esperados.length, desdeArreglo.size());
+        
+        for (int i=0; i < esperados.length; i++) {
+            assertEquals(esperados[i], desdeCadena.get(i).getIdentificador());
+            assertEquals(esperados[i], desdeArreglo.get(i).getIdentificador());
+            assertEquals(desdeCadena.get(i).getValor(), desdeArreglo.get(i).getValor());
+        }
+        
+        assertEquals("b", desdeCadena.get(3).getValor());
+        assertEquals("[ab]", desdeCadena.get(9).getValor());
+        assertEquals(2, desdeCadena.get(10).getMinimo());
+        assertEquals(-1, desdeCadena.get(10).getMaximo());
+    }
+    
+    /**
+     * Test of sgteToken method, of class AnalizadorLexico.
+     * Las secuencias de espacios en blanco se omiten por completo,
+     * y al agotarse la entrada se retorna siempre el token final.
+     * @throws Exception En caso de fallar el análisis léxico.
+     */
+    @Test
+    public void testEspacios() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String er = " \t\n\u000B\f\r   ";
+        
+        AnalizadorLexico cadena = new AnalizadorLexico(alfa, er);
+        AnalizadorLexico arreglo = new AnalizadorLexico(alfa, er.toCharArray());
+        
+        for (int i=0; i < 3; i++) {
+            assertSame(Token.FINAL, cadena.sgteToken());
+            assertSame(Token.FINAL, arreglo.sgteToken());
+        }
+        
+        assertEquals(er.length(), cadena.getPosicion());
+        assertEquals(er.length(), arreglo.getPosicion());
+        
+        /* Los espacios entre dos símbolos no generan tokens */
+        AnalizadorLexico lexico = new AnalizadorLexico(alfa, "a      \t\t\n\n      b".toCharArray());
+        assertEquals("a", lexico.sgteToken().getValor());
+        assertEquals("b", lexico.sgteToken().getValor());
+        assertSame(Token.FINAL, lexico.sgteToken());
+        
+        /* Tampoco dentro de un operador de repetición acotada */
+        lexico = new AnalizadorLexico(alfa, "a{ 2 ,\t3 }");
+        lexico.sgteToken();
+        Token repeticion = lexico.sgteToken();
+        System.out.printf("%s\n", repeticion);
+        assertEquals(TokenExprReg.REPETICION, repeticion.getIdentificador());
+        assertEquals(2, repeticion.getMinimo());
+        assertEquals(3, repeticion.getMaximo());
+    }
+    
+    /**
+     * Test of sgteToken method, of class AnalizadorLexico.
+     * Los caracteres fuera del alfabeto que no son operadores se
+     * retornan como tokens desconocidos, y el cursor queda
+     * inmediatamente después de cada uno.
+     * @throws Exception En caso de fallar el análisis léxico.
+     */
+    @Test
+    public void testDesconocidos() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String er = "a#  zñb";
+        String[] valores = { "a", "#", "z", "ñ", "b" };
+        int[] posiciones = { 1, 2, 5, 6, 7 };
+        
+        AnalizadorLexico[] lexicos = {
+            new AnalizadorLexico(alfa, er),
+            new AnalizadorLexico(alfa, er.toCharArray())
+        };
+        
+        for (AnalizadorLexico lexico : lexicos) {
+            for (int i=0; i < valores.length; i++) {
+                Token token = lexico.sgteToken();
+                System.out.printf("%s (%s) en %d\n", token, token.getIdentificador(), lexico.getPosicion());
+                
+                TokenExprReg ident = (i == 0 || i == valores.length - 1) ? TokenExprReg.ALFABETO : TokenExprReg.DESCONOCIDO;
+                assertEquals(ident, token.getIdentificador());
+                assertEquals(valores[i], token.getValor());
+                assertEquals(posiciones[i], lexico.getPosicion());
+            }
+            
+            assertSame(Token.FINAL, lexico.sgteToken());
+        }
+    }
+    
+    /**
+     * Test of sgteToken method, of class AnalizadorLexico.
+     * Los errores en clases de caracteres y operadores de repetición
+     * deben informar la posición del primer caracter del lexema.
+     */
+    @Test
+    public void testErrores() {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "ab  [a-", "a{3,1}", " \t[c]", "b{", "a|[b-a]", "(a){,2}" };
+        int[] posiciones = { 5, 2, 3, 2, 3, 4 };
+        
+        for (int i=0; i < expresiones.length; i++) {
+            String cadena = error(new AnalizadorLexico(alfa, expresiones[i]));
+            String arreglo = error(new AnalizadorLexico(alfa, expresiones[i].toCharArray()));
+            System.out.printf("%s\n\n", cadena);
+            
+            assertNotNull(expresiones[i], cadena);
+            assertEquals(cadena, arreglo);
+            assertTrue(cadena, cadena.contains("Posición: " + posiciones[i] + "\n"));
+        }
+    }
+    
+    /**
+     * Consume todos los tokens de un analizador léxico.
+     * @param lexico El analizador léxico.
+     * @return Los tokens obtenidos, sin incluir el token final.
+     * @throws Exception En caso de fallar el análisis léxico.
+     */
+    private Vector<Token> tokens(AnalizadorLexico lexico) throws Exception {
+        Vector<Token> tokens = new Vector<Token>();
+        for (Token t = lexico.sgteToken(); t != Token.FINAL; t = lexico.sgteToken())
+            tokens.add(t);
+        
+        return tokens;
+    }
+    
+    /**
+     * Consume los tokens de un analizador léxico hasta obtener un error.
+     * @param lexico El analizador léxico.
+     * @return El mensaje del error, o <code>null</code> si la entrada
+     * se consumió por completo sin errores.
+     */
+    private String error(AnalizadorLexico lexico) {
+        try {
+            while (lexico.sgteToken() != Token.FINAL)
+                ;
+            
+            return null;
+        }
+        catch (Exception ex) {
+            return ex.getMessage();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>AnalizadorSintacticoIterativo</code>
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class AnalizadorSintacticoIterativoTest {
+
+    /**
+     * Test of analizar method, of class AnalizadorSintacticoIterativo.
+     * Ambos analizadores deben producir el mismo AFN.
+     * @throws Exception
+     */
+    @Test
+    public void testAnalizar() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "a*b?(ab|ba)*b?a*", "(a|b)*abb", "a|(b|(a b))+" };
+
+        for (String er : expresiones) {
+            AFN recursivo = new AnalizadorSintactico(alfa, er).analizar();
+            AFN iterativo = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+
+            System.out.printf("AFN de %s:\n%s\n", er, iterativo);
+            assertEquals(recursivo.toString(), iterativo.toString());
+        }
+    }
+
+    /**
+     * Test of analizar method, of class AnalizadorSintacticoIterativo.
+     * Con uniones y concatenaciones de muchos operandos, anidadas y
+     * combinadas con los demás operadores, ambos analizadores deben
+     * producir el mismo AFN, estado por estado.
+     * @throws Exception
+     */
+    @Test
+    public void testOperandosMultiples() throws Exception {
+        Alfabeto alfa = new Alfabeto("abc");
+        String[] expresiones = { "a|b|c|ab|ba|abc", "abcabcabc", "(a|b|c)(ab|bc|ca)*(a|b|c)+",
+                                 "((a|b)c(b|a)|(ab)?c|[ab]{2,3})*abc", "a?b?c?|(a*|b*|c*)(abc|cba)" };
+
+        for (String er : expresiones) {
+            AFN recursivo = new AnalizadorSintactico(alfa, er).analizar();
+            AFN iterativo = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+
+            System.out.printf("%s: %d estados\n", er, iterativo.cantidadEstados());
+            assertEquals(recursivo.toString(), iterativo.toString());
+        }
+
+        /* Cadenas largas de operandos */
+        StringBuffer union = new StringBuffer("a");
+        StringBuffer concatenacion = new StringBuffer("(a|b)");
+        for (int i=0; i < 200; i++) {
+            union.append(i % 2 == 0 ? "|b" : "|ac*");
+            concatenacion.append(i % 3 == 0 ? "c" : "(b|ca)");
+        }
+
+        for (StringBuffer er : new StringBuffer[] { union, concatenacion }) {
+            AFN recursivo = new AnalizadorSintactico(alfa, er.toString()).analizar();
+            AFN iterativo = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+
+            assertEquals(recursivo.toString(), iterativo.toString());
+        }
+
+        /* Cada operando de una unión de k operandos aporta 4 estados, salvo 2 */
+        int operandos = 10000;
+        StringBuffer er = new StringBuffer("a");
+        for (int i=1; i < operandos; i++)
+            er.append("|a");
+
+        AFN afn = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+        assertEquals(4 * operandos - 2, afn.cantidadEstados());
+    }
+
+    /**
+     * Test of analizar method, of class AnalizadorSintacticoIterativo.
+     * Los errores deben reportarse en las mismas posiciones.
+     */
+    @Test
+    public void testErrores() {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "", "|a", "a||b", "()", "(a", "a)", "a**", "(a|b", "a|", "c" };
+
+        for (String er : expresiones) {
+            String esperado = null;
+            String obtenido = null;
+
+            try {
+                new AnalizadorSintactico(alfa, er).analizar();
+            } catch (Exception ex) {
+                esperado = ex.getMessage();
+            }
+
+            try {
+                new AnalizadorSintacticoIterativo(alfa, er).analizar();
+            } catch (Exception ex) {
+                obtenido = ex.getMessage();
+            }
+
+            assertNotNull(esperado);
+            assertEquals(esperado, obtenido);
+        }
+    }
+
+    /**
+     * Test of analizar method, of class AnalizadorSintacticoIterativo.
+     * Un anidamiento profundo de paréntesis no debe agotar la pila.
+     * @throws Exception
+     */
+    @Test
+    public void testAnidamientoProfundo() throws Exception {
+        int profundidad = 500000;
+        StringBuffer er = new StringBuffer();
+
+        for (int i=0; i < profundidad; i++)
+            er.append('(');
+        er.append('a');
+        for (int i=0; i < profundidad; i++)
+            er.append(')');
+
+        AFN afn = new AnalizadorSintacticoIterativo(new Alfabeto("ab"), er).analizar();
+        assertEquals(2, afn.cantidadEstados());
+    }
+}
@@ -5,9 +5,13 @@
  */
 package analisis;
 
+import algoritmos.Subconjuntos;
+import algoritmos.Validacion;
+import estructuras.AFD;
 import estructuras.AFN;
 import estructuras.TablaTransicion;
 import org.junit.Test;
+import static org.junit.Assert.*;
 
 /**
  * Clase de prueba para la clase <code>AnalizadorSintactico</code>
@@ -46,4 +50,48 @@ public class AnalizadorSintacticoTest {
         
         System.out.printf("\nDerivaciones:\n%s", as.getLog());
     }
+    
+    /**
+     * Test of analizar method, of class AnalizadorSintactico.
+     * Una clase de caracteres es una única transición y acepta
+     * el mismo lenguaje que la unión de sus símbolos.
+     * @throws Exception 
+     */
+    @Test
+    public void testClases() throws Exception {
+        Alfabeto alfa = new Alfabeto("abcxyz");
+        String[][] casos = {
+            { "[a-c]+x",   "(a|b|c)+x"       },
+            { "[^ax]*",    "(b|c|y|z)*"      },
+            { ".y",        "(a|b|c|x|y|z)y"  },
+            { "[a-z]?[b]", "(a|b|c|x|y|z)?b" },
+        };
+        String[] entradas = { "", "a", "bx", "abcx", "ax", "by", "zy", "yb", "bczy", "xyz" };
+        
+        for (String[] caso : casos) {
+            AFN clase = new AnalizadorSintactico(alfa, caso[0]).analizar();
+            AFN union = new AnalizadorSintactico(alfa, caso[1]).analizar();
+            
+            System.out.printf("%s: %d estados, %s: %d estados\n", caso[0], 
+                    clase.cantidadEstados(), caso[1], union.cantidadEstados());
+            assertTrue(clase.cantidadEstados() < union.cantidadEstados());
+            
+            AFD afd1 = Subconjuntos.getAFD(clase);
+            AFD afd2 = Subconjuntos.getAFD(union);
+            
+            for (String entrada : entradas)
+                assertEquals(Validacion.validarAFD(afd2, entrada).esValido(),
+                             Validacion.validarAFD(afd1, entrada).esValido());
+        }
+        
+        String[] errores = { "[a-", "[c-a]", "[aw]", "[^a-z]" };
+        for (String er : errores) {
+            try {
+                new AnalizadorSintactico(alfa, er).analizar();
+                fail(er);
+            } catch (Exception ex) {
+                System.out.printf("%s:\n%s\n", er, ex.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package analisis;
+
+import algoritmos.Subconjuntos;
+import algoritmos.Validacion;
+import estructuras.AFD;
+import estructuras.AFN;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>OptimizadorExprReg</code>
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class OptimizadorExprRegTest {
+
+    /**
+     * Test of optimizar method, of class OptimizadorExprReg.
+     * @throws Exception
+     */
+    @Test
+    public void testOptimizar() throws Exception {
+        Alfabeto alfa = new Alfabeto("abc");
+        String[][] casos = {
+            { "((a*)*)+",     "a*"       },
+            { "((a+)+)?",     "a*"       },
+            { "(a?)?",        "a?"       },
+            { "a|a|b",        "a|b"      },
+            { "(a|(b|c))",    "a|b|c"    },
+            { "(ab)(ca)",     "abca"     },
+            { "ab|ac",        "a(b|c)"   },
+            { "a|ab|ac",      "a(b|c)?"  },
+            { "abc|abb|c",    "ab(c|b)|c"},
+            { "(a*|b)?",      "a*|b"     },
+            { "abca|abcb|abb", "ab(c(a|b)|b)" },
+            { "abc|ab|aba|a", "a(b(c|a)?)?" },
+        };
+
+        for (String[] caso : casos) {
+            AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, caso[0]);
+            as.setOptimizar(true);
+
+            NodoExprReg arbol = as.analizarArbol();
+            System.out.printf("%s => %s\n", caso[0], arbol);
+            assertEquals(caso[1], arbol.toString());
+        }
+    }
+
+    /**
+     * Test of optimizar method, of class OptimizadorExprReg.
+     * El AFN optimizado debe tener a lo sumo tantos estados como
+     * el original y aceptar el mismo lenguaje.
+     * @throws Exception
+     */
+    @Test
+    public void testMismoLenguaje() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb|(a|b)*aba", "((a*)*b+)?|a*", "(ab|ab)*|(ab)+b" };
+        String[] entradas = { "", "a", "b", "ab", "abb", "aba", "abab", "ababb", "aab", "bbb" };
+
+        for (String er : expresiones) {
+            AFN original = new AnalizadorSintacticoIterativo(alfa, er).analizar();
+
+            AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, er);
+            as.setOptimizar(true);
+            AFN optimizado = as.analizar();
+
+            System.out.printf("%s: %d estados => %d estados\n", er,
+                original.cantidadEstados(), optimizado.cantidadEstados());
+            assertTrue(optimizado.cantidadEstados() <= original.cantidadEstados());
+
+            AFD afd1 = Subconjuntos.getAFD(original);
+            AFD afd2 = Subconjuntos.getAFD(optimizado);
+
+            for (String entrada : entradas)
+                assertEquals(Validacion.validarAFD(afd1, entrada).esValido(),
+                             Validacion.validarAFD(afd2, entrada).esValido());
+        }
+    }
+
+    /**
+     * Test of optimizar method, of class OptimizadorExprReg.
+     * Un prefijo común muy largo debe factorizarse de una sola vez,
+     * sin agotar la pila de llamadas.
+     * @throws Exception
+     */
+    @Test
+    public void testPrefijoLargo() throws Exception {
+        Alfabeto alfa = new Alfabeto("abc");
+        int largo = 200000;
+
+        StringBuilder prefijo = new StringBuilder();
+        for (int i=0; i < largo; i++)
+            prefijo.append('a');
+
+        String er = prefijo + "b|" + prefijo + "c|" + prefijo;
+        AnalizadorSintacticoIterativo as = new AnalizadorSintacticoIterativo(alfa, er);
+        as.setOptimizar(true);
+
+        long inicio = System.currentTimeMillis();
+        NodoExprReg arbol = as.analizarArbol();
+        System.out.printf("%d caracteres: %d nodos en %d ms\n", er.length(),
+            arbol.getTamanho(), System.currentTimeMillis() - inicio);
+
+        assertEquals(TipoNodo.CONCATENACION, arbol.getTipo());
+        assertEquals(largo + 1, arbol.cantidadHijos());
+        assertEquals("(b|c)?", arbol.getHijo(largo).toString());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>Estado</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class EstadoTest {
+    
+    /**
+     * Test of getDestinos method, of class Estado.
+     * Los destinos de cada símbolo deben ser los de las transiciones
+     * que aceptan ese símbolo, incluyendo al símbolo vacío.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetDestinos() throws Exception {
+        Alfabeto alfa = new Alfabeto("abc");
+        AFN afn = new AnalizadorSintactico(alfa, "(a|[bc])*a[ab]?").analizar();
+        
+        for (Estado e : afn.getEstados()) {
+            for (int pos=0; pos <= alfa.getCantidad(); pos++) {
+                String simbolo = alfa.getSimbolo(pos);
+                Conjunto<Estado> esperados = new Conjunto<Estado>();
+                for (Transicion t : e.getTransiciones())
+                    if (t.acepta(simbolo))
+                        esperados.agregar(t.getEstado());
+                
+                Conjunto<Estado> obtenidos = new Conjunto<Estado>();
+                for (Estado d : e.getDestinos(alfa, pos))
+                    obtenidos.agregar(d);
+                
+                System.out.printf("%s --%s--> %s\n", e, simbolo, obtenidos);
+                assertEquals(esperados, obtenidos);
+            }
+        }
+    }
+    
+    /**
+     * Test of getDestinos method, of class Estado.
+     * Los destinos se vuelven a calcular al agregar transiciones.
+     */
+    @Test
+    public void testGetDestinosModificado() {
+        Alfabeto alfa = new Alfabeto("ab");
+        Estado origen = new Estado(0);
+        Estado destino = new Estado(1);
+        
+        assertEquals(0, origen.getDestinos(alfa, 0).length);
+        
+        origen.getTransiciones().agregar(new Transicion(destino, "a"));
+        assertEquals(1, origen.getDestinos(alfa, 0).length);
+        assertSame(destino, origen.getDestinos(alfa, 0)[0]);
+        assertEquals(0, origen.getDestinos(alfa, 1).length);
+        assertSame(destino, origen.getTransicionesSegunAlfabeto(alfa).get("a"));
+        assertNull(origen.getTransicionesSegunAlfabeto(alfa).get("b"));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>RegistroConjuntos</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class RegistroConjuntosTest {
+    
+    /**
+     * Test of agregar method, of class RegistroConjuntos.
+     * Cada conjunto distinto debe recibir un número consecutivo,
+     * y un conjunto ya registrado debe conservar su número.
+     */
+    @Test
+    public void testAgregar() {
+        RegistroConjuntos registro = new RegistroConjuntos();
+        int cantidad = 5000;
+        
+        for (int i=0; i < cantidad; i++)
+            assertEquals(i, registro.agregar(clave(i)));
+        
+        System.out.printf("%d conjuntos registrados\n", registro.cantidad());
+        assertEquals(cantidad, registro.cantidad());
+        
+        for (int i=0; i < cantidad; i++) {
+            assertEquals(i, registro.buscar(clave(i)));
+            assertEquals(i, registro.agregar(clave(i)));
+            assertTrue(Arrays.equals(clave(i), registro.obtener(i)));
+        }
+        
+        assertEquals(cantidad, registro.cantidad());
+        assertEquals(-1, registro.buscar(new int[] { 1, 65, 129 }));
+    }
+    
+    /**
+     * Test of clave method, of class RegistroConjuntos.
+     * Los conjuntos con los mismos estados deben tener la misma
+     * clave, sin importar el orden en que se agregaron al conjunto
+     * ni el largo del arreglo que contiene la lista.
+     */
+    @Test
+    public void testClave() {
+        Conjunto<Estado> a = new Conjunto<Estado>();
+        a.agregar(new Estado(70));
+        a.agregar(new Estado(3));
+        
+        RegistroConjuntos registro = new RegistroConjuntos();
+        assertEquals(0, registro.agregar(RegistroConjuntos.clave(a)));
+        assertEquals(0, registro.agregar(new int[] { 3, 70, 99 }, 2));
+        assertEquals(1, registro.agregar(RegistroConjuntos.clave(new Conjunto<Estado>())));
+        assertEquals(1, registro.buscar(new int[] { 5 }, 0));
+    }
+    
+    /**
+     * Test of memoria method, of class RegistroConjuntos.
+     * La memoria de los conjuntos registrados debe ser proporcional a
+     * su tamaño, y no a la cantidad de estados del autómata, tanto para
+     * los conjuntos dispersos como para los densos.
+     */
+    @Test
+    public void testMemoria() {
+        RegistroConjuntos registro = new RegistroConjuntos();
+        int n = 200000;
+        
+        /* Conjuntos de un estado y de dos estados alejados */
+        for (int i=0; i < n; i++)
+            registro.agregar(new int[] { i });
+        
+        for (int i=0; i < n / 2; i++)
+            registro.agregar(new int[] { i, n - 1 - i });
+        
+        /* Conjuntos densos, de 64 estados consecutivos */
+        int[] denso = new int[64];
+        for (int i=0; i < n / 64; i++) {
+            for (int k=0; k < 64; k++)
+                denso[k] = 64 * i + k;
+            
+            assertEquals(registro.cantidad(), registro.agregar(denso));
+            assertTrue(Arrays.equals(denso, registro.obtener(registro.cantidad() - 1)));
+        }
+        
+        System.out.printf("%d conjuntos en %d bytes\n", registro.cantidad(), registro.memoria());
+        assertEquals(n + n / 2 + n / 64, registro.cantidad());
+        assertTrue(registro.memoria() < 32L * registro.cantidad());
+        
+        assertEquals(n + 10, registro.buscar(new int[] { 10, n - 11 }));
+        assertEquals(-1, registro.buscar(new int[] { 10, n - 10 }));
+        assertEquals(-1, registro.buscar(new int[] { 64, 65 }));
+    }
+    
+    /**
+     * Construye un conjunto distinto para cada número, alternando
+     * conjuntos de un estado, de dos estados alejados y densos.
+     * @param i El número.
+     * @return La lista ordenada de índices del conjunto.
+     */
+    private int[] clave(int i) {
+        if (i % 3 == 0)
+            return new int[] { i };
+        if (i % 3 == 1)
+            return new int[] { i, i + 100000 };
+        
+        int[] clave = new int[64];
+        for (int k=0; k < 64; k++)
+            clave[k] = 64 * i + k;
+        
+        clave[i % 64] = 64 * i + 64;
+        Arrays.sort(clave);
+        return clave;
+    }
+}
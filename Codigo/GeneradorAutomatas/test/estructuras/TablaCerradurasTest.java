@@ -0,0 +1,120 @@
+/*
+ * Trabajo Práctico de Compiladores 2008.
+ * 10mo Semestre Ingeniería Infomática.
+ * Facultad Politécnica - UNA.
+ */
+package estructuras;
+
+import algoritmos.Subconjuntos;
+import analisis.Alfabeto;
+import analisis.AnalizadorSintactico;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Clase de prueba para la clase <code>TablaCerraduras</code>.
+ * @author Germán Hüttemann
+ * @author Marcelo Rodas
+ */
+public class TablaCerradurasTest {
+    
+    /**
+     * Test of getCerradura method, of class TablaCerraduras.
+     * La cerradura de cada estado debe ser igual a la que se
+     * obtiene recorriendo las transiciones vacías.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testGetCerradura() throws Exception {
+        Alfabeto alfa = new Alfabeto("ab");
+        String[] expresiones = { "(a|b)*abb", "((a*)*b*)*", "(a?b?)+a", "a{2,4}|(ab)*" };
+        
+        for (String er : expresiones) {
+            AFN afn = new AnalizadorSintactico(alfa, er).analizar();
+            TablaCerraduras tabla = afn.getTablaCerraduras();
+            
+            System.out.printf("%s: %d estados, %d componentes\n", er, tabla.cantidadEstados(), tabla.cantidadComponentes());
+            assertEquals(afn.cantidadEstados(), tabla.cantidadEstados());
+            
+            for (Estado e : afn.getEstados()) {
+                Conjunto<Estado> esperado = Subconjuntos.cerraduraEpsilon(e);
+                Conjunto<Estado> obtenido = tabla.conjunto(tabla.getCerradura(tabla.getIndice(e)));
+                assertEquals(0, esperado.compareTo(obtenido));
+            }
+        }
+    }
+    
+    /**
+     * Test of cerradura method, of class TablaCerraduras.
+     * En un autómata grande, las cerraduras pequeñas se guardan como
+     * listas y las grandes como arreglos de bits; la cerradura de un
+     * conjunto debe ser la unión de las cerraduras de sus estados.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testCerradura() throws Exception {
+        StringBuilder er = new StringBuilder();
+        for (int i=0; i < 30; i++)
+            er.append("(a|b)*abb");
+        for (int i=0; i < 30; i++)
+            er.append("(a*b*)");
+        
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), er.toString()).analizar();
+        TablaCerraduras tabla = afn.getTablaCerraduras();
+        System.out.printf("%d estados, %d componentes\n", tabla.cantidadEstados(), tabla.cantidadComponentes());
+        
+        Random aleatorio = new Random(2008);
+        for (int k=0; k < 200; k++) {
+            Conjunto<Estado> conjunto = new Conjunto<Estado>();
+            Conjunto<Estado> esperado = new Conjunto<Estado>();
+            
+            for (int i=0; i < 3; i++) {
+                Estado e = afn.getEstado(aleatorio.nextInt(afn.cantidadEstados()));
+                conjunto.agregar(e);
+                
+                for (Estado q : tabla.conjunto(tabla.getCerradura(tabla.getIndice(e))))
+                    if (!esperado.contiene(q))
+                        esperado.agregar(q);
+                
+                assertEquals(0, Subconjuntos.cerraduraEpsilon(e).compareTo(tabla.conjunto(tabla.cerradura(tabla.getIndice(e)))));
+            }
+            
+            esperado.ordenar();
+            assertEquals(0, esperado.compareTo(tabla.conjunto(tabla.cerradura(conjunto))));
+            assertEquals(0, esperado.compareTo(tabla.conjunto(tabla.cerradura(tabla.bits(conjunto)))));
+        }
+    }
+    
+    /**
+     * Test of esValida method, of class TablaCerraduras.
+     * La tabla se reutiliza mientras el autómata no cambie, y se
+     * vuelve a calcular al agregar transiciones o estados.
+     * @throws Exception En caso de fallar el análisis sintáctico.
+     */
+    @Test
+    public void testEsValida() throws Exception {
+        AFN afn = new AnalizadorSintactico(new Alfabeto("ab"), "ab").analizar();
+        TablaCerraduras tabla = afn.getTablaCerraduras();
+        assertSame(tabla, afn.getTablaCerraduras());
+        
+        Estado inicial = afn.getEstadoInicial();
+        Estado ultimo = afn.getEstado(afn.cantidadEstados() - 1);
+        int indice = tabla.getIndice(inicial);
+        System.out.printf("Antes: cerradura(%s) = %s\n", inicial, tabla.conjunto(tabla.getCerradura(indice)));
+        
+        /* Transición vacía del estado inicial al último */
+        inicial.getTransiciones().agregar(new Transicion(ultimo, Alfabeto.VACIO));
+        assertFalse(tabla.esValida());
+        
+        TablaCerraduras nueva = afn.getTablaCerraduras();
+        assertNotSame(tabla, nueva);
+        System.out.printf("Después: cerradura(%s) = %s\n", inicial, nueva.conjunto(nueva.getCerradura(indice)));
+        assertTrue(nueva.conjunto(nueva.getCerradura(indice)).contiene(ultimo));
+        
+        /* Nuevo estado */
+        afn.agregarEstado(new Estado(afn.cantidadEstados()));
+        assertFalse(nueva.esValida());
+        assertEquals(afn.cantidadEstados(), afn.getTablaCerraduras().cantidadEstados());
+    }
+}